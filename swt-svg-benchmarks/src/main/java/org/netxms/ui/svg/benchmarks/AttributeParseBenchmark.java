@@ -0,0 +1,90 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.netxms.ui.svg.internal.ElementAttributes;
+import org.netxms.ui.svg.internal.SVGColor;
+import org.netxms.ui.svg.internal.SVGTransform;
+import org.netxms.ui.svg.internal.StyleProps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of individual attribute values: colors, transforms, and style properties. Each invocation parses all
+ * values of a representative set; reported time is per value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttributeParseBenchmark
+{
+   private static final String[] COLORS = { "red", "#369", "#A0B0C0", "rgb(10, 20, 30)", "rgb(10%, 50%, 90%)", "currentColor",
+         "cornflowerblue", "none", "#ff000080", "lightgoldenrodyellow" };
+
+   private static final String[] TRANSFORMS = { "translate(10,20)", "rotate(45 12 12)", "scale(2)", "matrix(1 0 0 1 -3.5 7.25)",
+         "translate(-2.5, -2.5) rotate(-30) scale(1.5, 0.5)", "skewX(15)", "translate(100)", "rotate(90) translate(0,-24)",
+         "matrix(0.7071,0.7071,-0.7071,0.7071,0,0)", "scale(-1,1) translate(-24,0)" };
+
+   private static final String[][] STYLES = {
+         { "fill", "red" },
+         { "fill", "#369", "stroke", "black", "stroke-width", "2" },
+         { "style", "fill:none;stroke:currentColor;stroke-width:1.5;stroke-linecap:round;stroke-linejoin:round" },
+         { "fill", "currentColor", "fill-rule", "evenodd", "opacity", "0.5" },
+         { "style", "fill:#A0B0C0; fill-opacity:0.25; stroke:rgb(10,20,30); stroke-miterlimit:4", "display", "inline" },
+         { "stroke", "none", "fill", "cornflowerblue", "fill-opacity", ".8" },
+         { "style", "opacity:0.9;fill:none", "stroke", "#000", "stroke-dasharray", "none" },
+         { "fill", "none", "stroke", "#123456", "stroke-width", "0.75", "stroke-linecap", "square" },
+         { "class", "icon", "fill", "#fff" },
+         { "visibility", "hidden", "fill", "red" } };
+
+   private ElementAttributes[] styleAttributes;
+
+   @Setup
+   public void setup()
+   {
+      styleAttributes = new ElementAttributes[STYLES.length];
+      for (int i = 0; i < STYLES.length; i++)
+      {
+         styleAttributes[i] = new ElementAttributes();
+         for (int j = 0; j < STYLES[i].length; j += 2)
+            styleAttributes[i].add(STYLES[i][j], STYLES[i][j + 1]);
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(10)
+   public void parseColor(Blackhole bh)
+   {
+      for (String c : COLORS)
+         bh.consume(SVGColor.parse(c));
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(10)
+   public void parseTransform(Blackhole bh)
+   {
+      for (String t : TRANSFORMS)
+         bh.consume(SVGTransform.parse(t));
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(10)
+   public void parseStyle(Blackhole bh)
+   {
+      for (ElementAttributes a : styleAttributes)
+         bh.consume(StyleProps.parse(a));
+   }
+}
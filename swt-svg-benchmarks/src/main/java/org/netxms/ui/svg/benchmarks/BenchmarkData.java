@@ -0,0 +1,236 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Benchmark inputs: bundled icons and generated documents. Generators use fixed seeds so inputs are identical
+ * between runs.
+ */
+public final class BenchmarkData
+{
+   /** Names of all bundled icons */
+   public static final String[] ICONS = { "all_shapes.svg", "circle.svg", "display_none.svg", "group.svg", "path.svg", "rect.svg",
+         "styled.svg", "transform.svg", "units_mm.svg", "unsupported.svg", "viewbox.svg" };
+
+   private BenchmarkData()
+   {
+   }
+
+   /**
+    * Load bundled icon (copied from renderer's test resources).
+    *
+    * @param name file name
+    * @return file content
+    */
+   public static byte[] loadIcon(String name)
+   {
+      try (InputStream in = BenchmarkData.class.getResourceAsStream("/icons/" + name))
+      {
+         if (in == null)
+            throw new IllegalArgumentException("Icon " + name + " not found");
+         ByteArrayOutputStream out = new ByteArrayOutputStream();
+         byte[] buffer = new byte[8192];
+         int bytes;
+         while ((bytes = in.read(buffer)) > 0)
+            out.write(buffer, 0, bytes);
+         return out.toByteArray();
+      }
+      catch(IOException e)
+      {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+   /**
+    * Generate path data string with given number of segments. Mixes absolute and relative lines, curves, smooth
+    * curves, arcs and closes, with numbers in typical editor output format.
+    *
+    * @param segments number of segments
+    * @return path data string
+    */
+   public static String generatePathData(int segments)
+   {
+      Random random = new Random(segments);
+      StringBuilder sb = new StringBuilder(segments * 24);
+      sb.append("M10 10");
+      for (int i = 1; i < segments; i++)
+      {
+         switch(random.nextInt(10))
+         {
+            case 0:
+               sb.append("M").append(number(random, 100)).append(',').append(number(random, 100));
+               break;
+            case 1:
+            case 2:
+               sb.append("L").append(number(random, 100)).append(' ').append(number(random, 100));
+               break;
+            case 3:
+               sb.append("l").append(number(random, 10)).append(number(random, 10));
+               break;
+            case 4:
+               sb.append(random.nextBoolean() ? "h" : "v").append(number(random, 10));
+               break;
+            case 5:
+            case 6:
+               sb.append("c").append(number(random, 10)).append(',').append(number(random, 10)).append(' ')
+                     .append(number(random, 10)).append(',').append(number(random, 10)).append(' ')
+                     .append(number(random, 10)).append(',').append(number(random, 10));
+               break;
+            case 7:
+               sb.append("s").append(number(random, 10)).append(number(random, 10)).append(number(random, 10)).append(number(random, 10));
+               break;
+            case 8:
+               sb.append("Q").append(number(random, 100)).append(' ').append(number(random, 100)).append(' ')
+                     .append(number(random, 100)).append(' ').append(number(random, 100));
+               break;
+            case 9:
+               if (random.nextBoolean())
+                  sb.append("a5 5 0 0 1").append(number(random, 10)).append(number(random, 10));
+               else
+                  sb.append("z");
+               break;
+         }
+      }
+      return sb.toString();
+   }
+
+   /**
+    * Generate document where every shape is nested in several groups with transforms.
+    *
+    * @param shapes number of shapes
+    * @return SVG document
+    */
+   public static String generateTransformHeavyDocument(int shapes)
+   {
+      Random random = new Random(shapes);
+      StringBuilder sb = new StringBuilder(shapes * 200);
+      sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 100 100\">\n");
+      for (int i = 0; i < shapes; i++)
+      {
+         sb.append("<g transform=\"translate(").append(number(random, 50)).append(' ').append(number(random, 50)).append(")\">");
+         sb.append("<g transform=\"rotate(").append(random.nextInt(360)).append(") scale(").append(number(random, 2)).append(")\">");
+         sb.append("<g transform=\"matrix(1 0 ").append(number(random, 1)).append(" 1 0 0) skewX(").append(random.nextInt(30)).append(")\">");
+         sb.append("<rect x=\"0\" y=\"0\" width=\"5\" height=\"5\" transform=\"translate(-2.5,-2.5)\"/>");
+         sb.append("</g></g></g>\n");
+      }
+      sb.append("</svg>\n");
+      return sb.toString();
+   }
+
+   /**
+    * Generate document where every shape has rich presentation attributes and style property.
+    *
+    * @param shapes number of shapes
+    * @return SVG document
+    */
+   public static String generateStyleHeavyDocument(int shapes)
+   {
+      String[] colors = { "red", "#369", "#A0B0C0", "rgb(10, 20, 30)", "rgb(10%,50%,90%)", "currentColor", "cornflowerblue", "none" };
+      String[] caps = { "butt", "round", "square" };
+      String[] joins = { "miter", "round", "bevel" };
+      Random random = new Random(shapes);
+      StringBuilder sb = new StringBuilder(shapes * 250);
+      sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 100 100\">\n");
+      for (int i = 0; i < shapes; i++)
+      {
+         sb.append("<g fill=\"").append(colors[random.nextInt(colors.length)]).append("\" opacity=\"0.9\">");
+         sb.append("<circle cx=\"").append(number(random, 100)).append("\" cy=\"").append(number(random, 100)).append("\" r=\"3\"");
+         sb.append(" stroke=\"").append(colors[random.nextInt(colors.length)]).append('"');
+         sb.append(" stroke-width=\"").append(number(random, 3)).append('"');
+         sb.append(" style=\"fill-opacity:").append(number(random, 1)).append(";stroke-linecap:").append(caps[random.nextInt(caps.length)])
+               .append(";stroke-linejoin:").append(joins[random.nextInt(joins.length)]).append(";fill-rule:evenodd\"/>");
+         sb.append("</g>\n");
+      }
+      sb.append("</svg>\n");
+      return sb.toString();
+   }
+
+   /**
+    * Generate small icon of the kind found in toolbars: few basic shapes and one short path.
+    *
+    * @param seed random seed
+    * @return SVG document
+    */
+   public static String generateSmallIcon(int seed)
+   {
+      Random random = new Random(seed);
+      StringBuilder sb = new StringBuilder(512);
+      sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 16 16\">\n");
+      sb.append("<rect x=\"1\" y=\"1\" width=\"14\" height=\"14\" rx=\"2\" fill=\"#").append(Integer.toHexString(0x100000 + random.nextInt(0xEFFFFF))).append("\"/>\n");
+      sb.append("<circle cx=\"8\" cy=\"8\" r=\"").append(2 + random.nextInt(4)).append("\" fill=\"white\"/>\n");
+      sb.append("<path d=\"").append(generatePathData(4 + random.nextInt(8))).append("\" fill=\"none\" stroke=\"currentColor\"/>\n");
+      sb.append("</svg>\n");
+      return sb.toString();
+   }
+
+   /**
+    * Generate icon made of few long paths.
+    *
+    * @param seed random seed
+    * @param segments approximate total number of path segments
+    * @return SVG document
+    */
+   public static String generatePathHeavyIcon(int seed, int segments)
+   {
+      Random random = new Random(seed);
+      StringBuilder sb = new StringBuilder(segments * 24 + 256);
+      sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 100 100\">\n");
+      int paths = 1 + random.nextInt(4);
+      for (int i = 0; i < paths; i++)
+         sb.append("<path d=\"").append(generatePathData(segments / paths + i)).append("\" fill-rule=\"evenodd\"/>\n");
+      sb.append("</svg>\n");
+      return sb.toString();
+   }
+
+   /**
+    * Generate icon with deep group hierarchy. Groups carry different opacity so they are not merged by optimizer.
+    *
+    * @param seed random seed
+    * @param groups number of groups
+    * @return SVG document
+    */
+   public static String generateGroupHeavyIcon(int seed, int groups)
+   {
+      Random random = new Random(seed);
+      StringBuilder sb = new StringBuilder(groups * 160 + 128);
+      sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 100 100\">\n");
+      int depth = 0;
+      for (int i = 0; i < groups; i++)
+      {
+         sb.append("<g opacity=\"0.").append(5 + random.nextInt(5)).append("\" fill=\"#").append(Integer.toHexString(0x100000 + random.nextInt(0xEFFFFF))).append("\">");
+         depth++;
+         sb.append("<rect x=\"").append(random.nextInt(90)).append("\" y=\"").append(random.nextInt(90)).append("\" width=\"10\" height=\"10\"/>");
+         sb.append("<circle cx=\"").append(random.nextInt(100)).append("\" cy=\"").append(random.nextInt(100)).append("\" r=\"4\"/>");
+         if (depth == 4 || random.nextInt(3) == 0)
+         {
+            while (depth > 0)
+            {
+               sb.append("</g>");
+               depth--;
+            }
+            sb.append('\n');
+         }
+      }
+      while (depth-- > 0)
+         sb.append("</g>");
+      sb.append("\n</svg>\n");
+      return sb.toString();
+   }
+
+   /**
+    * Format random number in range [0, max) the way editors usually do (up to 3 decimal digits, leading sign when
+    * negative).
+    */
+   private static String number(Random random, float max)
+   {
+      float v = random.nextFloat() * max;
+      if (random.nextInt(4) == 0)
+         v = -v;
+      return String.format(Locale.ROOT, v < 0 ? "%.3f" : " %.3f", v);
+   }
+}
@@ -0,0 +1,73 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading of images from SVG source compared to loading of the same images from compiled binary form.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompiledLoadBenchmark
+{
+   @Param({ "icon", "pathHeavy", "styles" })
+   public String kind;
+
+   private byte[] source;
+   private ByteBuffer compiled;
+
+   @Setup
+   public void setup() throws SVGParseException, IOException
+   {
+      String document;
+      switch(kind)
+      {
+         case "icon":
+            document = BenchmarkData.generateSmallIcon(1);
+            break;
+         case "pathHeavy":
+            document = BenchmarkData.generatePathHeavyIcon(1, 2000);
+            break;
+         default:
+            document = BenchmarkData.generateStyleHeavyDocument(1000);
+            break;
+      }
+      source = document.getBytes(StandardCharsets.UTF_8);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      SVGImage.createFromBytes(source).writeCompiled(out);
+      compiled = ByteBuffer.wrap(out.toByteArray());
+   }
+
+   @Benchmark
+   public SVGImage parse() throws SVGParseException
+   {
+      return SVGImage.createFromBytes(source);
+   }
+
+   @Benchmark
+   public SVGImage readCompiled() throws SVGParseException
+   {
+      return SVGImage.readCompiled(compiled);
+   }
+}
@@ -0,0 +1,62 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
+import org.netxms.ui.svg.internal.SVGDocument;
+import org.netxms.ui.svg.internal.SVGParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of generated transform-heavy and style-heavy documents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentParseBenchmark
+{
+   @Param({ "transforms", "styles" })
+   public String kind;
+
+   @Param({ "100", "1000", "10000" })
+   public int shapes;
+
+   private byte[] content;
+   private SVGParseOptions options;
+
+   @Setup
+   public void setup()
+   {
+      String document = kind.equals("transforms") ? BenchmarkData.generateTransformHeavyDocument(shapes) : BenchmarkData.generateStyleHeavyDocument(shapes);
+      content = document.getBytes(StandardCharsets.UTF_8);
+      options = new SVGParseOptions();
+   }
+
+   @Benchmark
+   public SVGDocument parse() throws SVGParseException
+   {
+      return SVGParser.parse(content, 0, content.length, options);
+   }
+
+   @Benchmark
+   public SVGImage createImage() throws SVGParseException
+   {
+      return SVGImage.createFromBytes(content, options);
+   }
+}
@@ -0,0 +1,123 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import javax.tools.ToolProvider;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.RGB;
+import org.netxms.ui.svg.SVGCodeGenerator;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGRenderable;
+import org.netxms.ui.svg.ScaleMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading and rendering of parsed images compared to the same images converted to Java code by
+ * {@link SVGCodeGenerator}. Generated code is compiled at setup with system Java compiler, so benchmark must run on
+ * JDK.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneratedRenderBenchmark
+{
+   private static final RGB CURRENT_COLOR = new RGB(0, 0, 0);
+
+   @Param({ "icon", "pathHeavy", "groupHeavy" })
+   public String kind;
+
+   @Param({ "32" })
+   public int size;
+
+   private byte[] source;
+   private SVGImage parsed;
+   private SVGImage generated;
+   private Constructor<?> constructor;
+   private File directory;
+   private URLClassLoader loader;
+
+   @Setup
+   public void setup() throws Exception
+   {
+      String document;
+      switch(kind)
+      {
+         case "icon":
+            document = BenchmarkData.generateSmallIcon(1);
+            break;
+         case "pathHeavy":
+            document = BenchmarkData.generatePathHeavyIcon(1, 2000);
+            break;
+         default:
+            document = BenchmarkData.generateGroupHeavyIcon(1, 50);
+            break;
+      }
+      source = document.getBytes(StandardCharsets.UTF_8);
+      parsed = SVGImage.createFromBytes(source);
+
+      directory = Files.createTempDirectory("svg-generated").toFile();
+      File file = new File(directory, "bench/Icon.java");
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), SVGCodeGenerator.generate(parsed, "bench", "Icon").getBytes(StandardCharsets.UTF_8));
+      String classPath = new File(SVGImage.class.getProtectionDomain().getCodeSource().getLocation().toURI()) + File.pathSeparator +
+            new File(SWT.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      if (ToolProvider.getSystemJavaCompiler().run(null, null, null, "-classpath", classPath, "-d", directory.getPath(), file.getPath()) != 0)
+         throw new IllegalStateException("Generated code does not compile");
+
+      loader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, GeneratedRenderBenchmark.class.getClassLoader());
+      constructor = loader.loadClass("bench.Icon").getDeclaredConstructor();
+      generated = load();
+   }
+
+   @TearDown
+   public void tearDown() throws IOException
+   {
+      loader.close();
+      Files.walk(directory.toPath()).map(p -> p.toFile()).sorted((a, b) -> b.getPath().compareTo(a.getPath())).forEach(File::delete);
+   }
+
+   @Benchmark
+   public SVGImage parse() throws Exception
+   {
+      return SVGImage.createFromBytes(source);
+   }
+
+   @Benchmark
+   public SVGImage load() throws Exception
+   {
+      return SVGImage.createFromRenderable((SVGRenderable)constructor.newInstance());
+   }
+
+   @Benchmark
+   public int[] renderParsed()
+   {
+      return parsed.rasterizeToARGB(size, size, CURRENT_COLOR, ScaleMode.UNIFORM);
+   }
+
+   @Benchmark
+   public int[] renderGenerated()
+   {
+      return generated.rasterizeToARGB(size, size, CURRENT_COLOR, ScaleMode.UNIFORM);
+   }
+}
@@ -0,0 +1,97 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.netxms.ui.svg.SVGIconLibrary;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading of icon directory one file at a time compared to parallel loading with {@link SVGIconLibrary} on
+ * fork-join pool of given size. Corpus is written to temporary directory at setup: mostly small icons with every
+ * 50th icon path-heavy. Speedup is limited by number of available cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IconLibraryLoadBenchmark
+{
+   @Param({ "5000" })
+   public int icons;
+
+   @Param({ "1", "2", "4", "8" })
+   public int threads;
+
+   private File directory;
+   private List<File> files;
+   private ForkJoinPool pool;
+
+   @Setup
+   public void setup() throws IOException
+   {
+      directory = Files.createTempDirectory("svg-library").toFile();
+      files = new ArrayList<>(icons);
+      for (int i = 0; i < icons; i++)
+      {
+         File f = new File(directory, "group" + (i % 20) + "/icon" + i + ".svg");
+         f.getParentFile().mkdirs();
+         String document = (i % 50 == 0) ? BenchmarkData.generatePathHeavyIcon(i, 200) : BenchmarkData.generateSmallIcon(i);
+         Files.write(f.toPath(), document.getBytes(StandardCharsets.UTF_8));
+         files.add(f);
+      }
+      pool = new ForkJoinPool(threads);
+   }
+
+   @TearDown
+   public void tearDown() throws IOException
+   {
+      pool.shutdown();
+      Files.walk(directory.toPath()).map(p -> p.toFile()).sorted((a, b) -> b.getPath().compareTo(a.getPath())).forEach(File::delete);
+   }
+
+   @Benchmark
+   public int sequential() throws SVGParseException
+   {
+      int count = 0;
+      for (File f : files)
+      {
+         SVGImage.createFromFile(f);
+         count++;
+      }
+      return count;
+   }
+
+   @Benchmark
+   public SVGIconLibrary parallel()
+   {
+      return SVGIconLibrary.load(directory, null, pool);
+   }
+
+   @Benchmark
+   public SVGIconLibrary defaultExecutor()
+   {
+      return SVGIconLibrary.load(directory);
+   }
+}
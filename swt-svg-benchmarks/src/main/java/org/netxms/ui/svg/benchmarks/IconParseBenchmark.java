@@ -0,0 +1,69 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
+import org.netxms.ui.svg.internal.SVGDocument;
+import org.netxms.ui.svg.internal.SVGParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of small icons: StAX and fast tokenizer based parsers, and complete image loading (parse, transform
+ * baking and optimization).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IconParseBenchmark
+{
+   @Param({ "all_shapes.svg", "path.svg", "styled.svg", "transform.svg", "group.svg" })
+   public String icon;
+
+   private byte[] content;
+   private SVGParseOptions staxOptions;
+   private SVGParseOptions fastOptions;
+
+   @Setup
+   public void setup()
+   {
+      content = BenchmarkData.loadIcon(icon);
+      staxOptions = new SVGParseOptions();
+      staxOptions.setFastParser(false);
+      fastOptions = new SVGParseOptions();
+      fastOptions.setFastParser(true);
+   }
+
+   @Benchmark
+   public SVGDocument parseStax() throws SVGParseException
+   {
+      return SVGParser.parse(new ByteArrayInputStream(content), staxOptions);
+   }
+
+   @Benchmark
+   public SVGDocument parseFast() throws SVGParseException
+   {
+      return SVGParser.parse(content, 0, content.length, fastOptions);
+   }
+
+   @Benchmark
+   public SVGImage createImage() throws SVGParseException
+   {
+      return SVGImage.createFromBytes(content, fastOptions);
+   }
+}
@@ -0,0 +1,63 @@
+package org.netxms.ui.svg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.netxms.ui.svg.internal.PathData;
+import org.netxms.ui.svg.internal.PathDataParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and transformation of generated path data with large number of segments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PathDataBenchmark
+{
+   @Param({ "10000", "100000", "1000000" })
+   public int segments;
+
+   private String pathData;
+   private PathData parsed;
+   private float[] matrix;
+
+   @Setup
+   public void setup()
+   {
+      pathData = BenchmarkData.generatePathData(segments);
+      parsed = PathDataParser.parse(pathData);
+      double a = Math.toRadians(30);
+      matrix = new float[] { (float)Math.cos(a) * 2, (float)Math.sin(a) * 2, -(float)Math.sin(a) * 2, (float)Math.cos(a) * 2, 10, 20 };
+   }
+
+   @Benchmark
+   public PathData parse()
+   {
+      return PathDataParser.parse(pathData);
+   }
+
+   @Benchmark
+   public PathData transform()
+   {
+      return parsed.transform(matrix);
+   }
+
+   @Benchmark
+   public float[] bounds()
+   {
+      return parsed.getBounds();
+   }
+}
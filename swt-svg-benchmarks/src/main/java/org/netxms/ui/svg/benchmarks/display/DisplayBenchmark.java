@@ -0,0 +1,40 @@
+package org.netxms.ui.svg.benchmarks.display;
+
+import org.eclipse.swt.SWTError;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Base class for benchmarks which need SWT display. Display is opened on the benchmark thread, so subclasses should
+ * use thread scoped state.
+ */
+public abstract class DisplayBenchmark
+{
+   protected Display display;
+
+   /**
+    * Open display.
+    */
+   protected void openDisplay()
+   {
+      try
+      {
+         display = new Display();
+      }
+      catch(SWTError e)
+      {
+         throw new IllegalStateException("Cannot open display (run with -Prender-benchmarks or under xvfb-run)", e);
+      }
+   }
+
+   /**
+    * Close display opened by {@link #openDisplay()}.
+    */
+   protected void closeDisplay()
+   {
+      if (display != null)
+      {
+         display.dispose();
+         display = null;
+      }
+   }
+}
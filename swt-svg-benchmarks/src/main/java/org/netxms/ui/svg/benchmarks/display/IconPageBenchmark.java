@@ -0,0 +1,115 @@
+package org.netxms.ui.svg.benchmarks.display;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGImageCache;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGRenderContext;
+import org.netxms.ui.svg.benchmarks.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Painting of a page of 1000 icons (all bundled icons in turn) onto offscreen image, as a view with large icon grid
+ * would do on each repaint. Icons are laid out in a grid on canvas of at most 2048x2048 pixels and wrap around when
+ * the canvas is full.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IconPageBenchmark extends DisplayBenchmark
+{
+   private static final int PAGE_SIZE = 1000;
+   private static final int MAX_CANVAS_SIZE = 2048;
+
+   @Param({ "16", "24", "32", "48", "128", "512" })
+   public int size;
+
+   private SVGImage[] icons;
+   private int columns;
+   private int cells;
+   private Image canvas;
+   private GC gc;
+   private SVGRenderContext context;
+   private SVGImageCache cache;
+
+   @Setup(Level.Trial)
+   public void setup() throws SVGParseException
+   {
+      openDisplay();
+      icons = new SVGImage[BenchmarkData.ICONS.length];
+      for (int i = 0; i < icons.length; i++)
+         icons[i] = SVGImage.createFromBytes(BenchmarkData.loadIcon(BenchmarkData.ICONS[i]));
+      columns = Math.max(1, Math.min(MAX_CANVAS_SIZE / size, (int)Math.ceil(Math.sqrt(PAGE_SIZE))));
+      cells = Math.min(PAGE_SIZE, columns * columns);
+      canvas = new Image(display, columns * size, columns * size);
+      gc = new GC(canvas);
+      context = new SVGRenderContext(display);
+      cache = new SVGImageCache(display, 256L << 20);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown()
+   {
+      cache.dispose();
+      context.dispose();
+      gc.dispose();
+      canvas.dispose();
+      closeDisplay();
+   }
+
+   @Benchmark
+   public void renderPage(NativeResources counters)
+   {
+      long start = counters.start();
+      for (int i = 0; i < PAGE_SIZE; i++)
+      {
+         int cell = i % cells;
+         icons[i % icons.length].render(gc, (cell % columns) * size, (cell / columns) * size, size, size);
+      }
+      counters.record(start, PAGE_SIZE);
+   }
+
+   @Benchmark
+   public void renderPageWithContext(NativeResources counters)
+   {
+      long start = counters.start();
+      for (int i = 0; i < PAGE_SIZE; i++)
+      {
+         int cell = i % cells;
+         icons[i % icons.length].render(context, gc, (cell % columns) * size, (cell / columns) * size, size, size);
+      }
+      counters.record(start, PAGE_SIZE);
+   }
+
+   @Benchmark
+   public void drawPageFromCache(NativeResources counters)
+   {
+      long start = counters.start();
+      for (int i = 0; i < PAGE_SIZE; i++)
+      {
+         int cell = i % cells;
+         Image image = cache.acquire(icons[i % icons.length], size, size);
+         gc.drawImage(image, (cell % columns) * size, (cell / columns) * size);
+         cache.release(image);
+      }
+      counters.record(start, PAGE_SIZE);
+   }
+}
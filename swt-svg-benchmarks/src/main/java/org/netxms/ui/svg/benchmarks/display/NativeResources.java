@@ -0,0 +1,64 @@
+package org.netxms.ui.svg.benchmarks.display;
+
+import org.netxms.ui.svg.internal.NativeResourceCounter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Auxiliary counters reporting number of native SWT resources created by renderer. Both counters are reported as
+ * totals per iteration; {@code nativeResources / calls} is number of resources created per render call. Value per
+ * call for the whole trial is also printed to benchmark output.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class NativeResources
+{
+   public long nativeResources;
+   public long calls;
+
+   private long trialResources;
+   private long trialCalls;
+
+   @Setup(Level.Iteration)
+   public void reset()
+   {
+      nativeResources = 0;
+      calls = 0;
+   }
+
+   /**
+    * Get current value of global resource counter, to be passed to {@link #record(long, int)} after measured call.
+    *
+    * @return current resource count
+    */
+   public long start()
+   {
+      return NativeResourceCounter.getTotal();
+   }
+
+   /**
+    * Record resources created since given start value.
+    *
+    * @param start value returned by {@link #start()}
+    * @param count number of render calls made since start
+    */
+   public void record(long start, int count)
+   {
+      long created = NativeResourceCounter.getTotal() - start;
+      nativeResources += created;
+      calls += count;
+      trialResources += created;
+      trialCalls += count;
+   }
+
+   @TearDown(Level.Trial)
+   public void report()
+   {
+      if (trialCalls > 0)
+         System.out.printf("%nNative resources created per call: %.2f%n", (double)trialResources / trialCalls);
+   }
+}
@@ -0,0 +1,96 @@
+package org.netxms.ui.svg.benchmarks.display;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGRenderContext;
+import org.netxms.ui.svg.benchmarks.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of single icon into offscreen image, and rasterization of single icon into new image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark extends DisplayBenchmark
+{
+   @Param({ "all_shapes.svg", "path.svg", "styled.svg", "transform.svg" })
+   public String icon;
+
+   @Param({ "16", "24", "32", "48", "128", "512" })
+   public int size;
+
+   private SVGImage svg;
+   private Image target;
+   private GC gc;
+   private SVGRenderContext context;
+
+   @Setup(Level.Trial)
+   public void setup() throws SVGParseException
+   {
+      openDisplay();
+      svg = SVGImage.createFromBytes(BenchmarkData.loadIcon(icon));
+      target = new Image(display, size, size);
+      gc = new GC(target);
+      context = new SVGRenderContext(display);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown()
+   {
+      context.dispose();
+      gc.dispose();
+      target.dispose();
+      closeDisplay();
+   }
+
+   @Benchmark
+   public void render(NativeResources counters)
+   {
+      long start = counters.start();
+      svg.render(gc, 0, 0, size, size);
+      counters.record(start, 1);
+   }
+
+   @Benchmark
+   public void renderWithContext(NativeResources counters)
+   {
+      long start = counters.start();
+      svg.render(context, gc, 0, 0, size, size);
+      counters.record(start, 1);
+   }
+
+   @Benchmark
+   public void rasterize(NativeResources counters)
+   {
+      long start = counters.start();
+      svg.rasterize(display, size, size).dispose();
+      counters.record(start, 1);
+   }
+
+   @Benchmark
+   public ImageData rasterizeSoftware()
+   {
+      return svg.rasterizeToImageData(size, size);
+   }
+}
@@ -0,0 +1,142 @@
+package org.netxms.ui.svg.benchmarks.footprint;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGMemoryUsage;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.benchmarks.BenchmarkData;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.util.Multiset;
+import org.openjdk.jol.vm.VM;
+
+/**
+ * Memory footprint of parsed documents. Parses generated corpus of icons of several kinds and measures retained heap
+ * by walking object graph of resulting images with JOL, so results reflect actual object layout of the running JVM.
+ * Writes results as JSON (first argument, default target/footprint-result.json) and prints summary table.
+ * <p>
+ * For each corpus reports retained bytes per image, per node and per path segment, estimate returned by
+ * {@link SVGImage#estimateMemoryUsage(java.util.Collection)} for comparison, and per-class histogram, so effect of
+ * representation changes in node, style and path classes can be tracked over time.
+ */
+public final class FootprintBenchmark
+{
+   /**
+    * Corpus definition.
+    */
+   private static final class Corpus
+   {
+      final String name;
+      final int size;
+      final IntFunction<String> generator;
+
+      Corpus(String name, int size, IntFunction<String> generator)
+      {
+         this.name = name;
+         this.size = size;
+         this.generator = generator;
+      }
+   }
+
+   private static final Corpus[] CORPORA = {
+         new Corpus("small", 500, BenchmarkData::generateSmallIcon),
+         new Corpus("pathHeavy", 50, (seed) -> BenchmarkData.generatePathHeavyIcon(seed, 2000)),
+         new Corpus("groupHeavy", 100, (seed) -> BenchmarkData.generateGroupHeavyIcon(seed, 40)),
+         new Corpus("styleHeavy", 100, (seed) -> BenchmarkData.generateStyleHeavyDocument(20 + seed))
+   };
+
+   private FootprintBenchmark()
+   {
+   }
+
+   /**
+    * Entry point.
+    *
+    * @param args optional output file name
+    * @throws Exception on parse or I/O error
+    */
+   public static void main(String[] args) throws Exception
+   {
+      Path output = Paths.get((args.length > 0) ? args[0] : "target/footprint-result.json");
+      if (output.getParent() != null)
+         Files.createDirectories(output.getParent());
+
+      System.out.println(VM.current().details());
+      System.out.printf(Locale.ROOT, "%-12s %8s %10s %10s %12s %12s %12s %10s %10s%n", "corpus", "images", "nodes", "segments", "retained",
+            "bytes/image", "estimate", "bytes/node", "bytes/seg");
+
+      try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8)))
+      {
+         out.println("{");
+         out.printf(Locale.ROOT, "  \"jvm\": { \"name\": \"%s\", \"version\": \"%s\", \"addressSize\": %d, \"objectHeaderSize\": %d },%n",
+               System.getProperty("java.vm.name"), System.getProperty("java.version"), VM.current().addressSize(), VM.current().objectHeaderSize());
+         out.println("  \"corpora\": [");
+         for (int i = 0; i < CORPORA.length; i++)
+         {
+            measure(CORPORA[i], out);
+            out.println((i < CORPORA.length - 1) ? "," : "");
+         }
+         out.println("  ]");
+         out.println("}");
+      }
+      System.out.println("Results written to " + output.toAbsolutePath());
+   }
+
+   /**
+    * Parse and measure single corpus.
+    */
+   private static void measure(Corpus corpus, PrintWriter out) throws SVGParseException, IOException
+   {
+      List<SVGImage> images = new ArrayList<>(corpus.size);
+      for (int seed = 0; seed < corpus.size; seed++)
+         images.add(SVGImage.createFromString(corpus.generator.apply(seed)));
+
+      GraphLayout layout = GraphLayout.parseInstance(images.toArray());
+      SVGMemoryUsage estimate = SVGImage.estimateMemoryUsage(images);
+      long retained = layout.totalSize();
+      int nodes = estimate.getNodeCount();
+      int segments = estimate.getSegmentCount();
+
+      double perImage = (double)retained / images.size();
+      double perNode = (nodes > 0) ? (double)retained / nodes : 0;
+      double perSegment = (segments > 0) ? (double)retained / segments : 0;
+      System.out.printf(Locale.ROOT, "%-12s %8d %10d %10d %12d %12.1f %12d %10.1f %10.1f%n", corpus.name, images.size(), nodes, segments, retained,
+            perImage, estimate.getTotalBytes(), perNode, perSegment);
+
+      out.println("    {");
+      out.printf(Locale.ROOT, "      \"name\": \"%s\",%n", corpus.name);
+      out.printf(Locale.ROOT, "      \"images\": %d,%n", images.size());
+      out.printf(Locale.ROOT, "      \"nodes\": %d,%n", nodes);
+      out.printf(Locale.ROOT, "      \"segments\": %d,%n", segments);
+      out.printf(Locale.ROOT, "      \"retainedBytes\": %d,%n", retained);
+      out.printf(Locale.ROOT, "      \"objects\": %d,%n", layout.totalCount());
+      out.printf(Locale.ROOT, "      \"bytesPerImage\": %.1f,%n", perImage);
+      out.printf(Locale.ROOT, "      \"bytesPerNode\": %.1f,%n", perNode);
+      out.printf(Locale.ROOT, "      \"bytesPerSegment\": %.1f,%n", perSegment);
+      out.printf(Locale.ROOT, "      \"estimate\": { \"total\": %d, \"structure\": %d, \"nodes\": %d, \"styles\": %d, \"transforms\": %d, \"pathData\": %d, \"points\": %d },%n",
+            estimate.getTotalBytes(), estimate.getStructureBytes(), estimate.getNodeBytes(), estimate.getStyleBytes(), estimate.getTransformBytes(),
+            estimate.getPathDataBytes(), estimate.getPointBytes());
+      out.println("      \"classes\": [");
+      Multiset<Class<?>> counts = layout.getClassCounts();
+      Multiset<Class<?>> sizes = layout.getClassSizes();
+      List<Class<?>> classes = new ArrayList<>(layout.getClasses());
+      classes.sort(Comparator.comparingLong((Class<?> c) -> sizes.count(c)).reversed());
+      for (int i = 0; i < classes.size(); i++)
+      {
+         Class<?> c = classes.get(i);
+         out.printf(Locale.ROOT, "        { \"class\": \"%s\", \"count\": %d, \"bytes\": %d }%s%n", c.getName(), counts.count(c), sizes.count(c),
+               (i < classes.size() - 1) ? "," : "");
+      }
+      out.println("      ]");
+      out.print("    }");
+   }
+}
@@ -0,0 +1,98 @@
+package org.netxms.ui.svg.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.netxms.ui.svg.SVGParseOptions;
+
+/**
+ * Compile directory of SVG icons into icon archive (see {@link org.netxms.ui.svg.SVGIconArchive}). Icons are parsed
+ * and optimized at build time, so application only maps the archive at startup. Build fails if any icon cannot be
+ * parsed or (unless disabled) uses features not supported by the renderer. Only icons changed since previous build
+ * are parsed again.
+ * <p>
+ * Archive is written into output directory by default, so it is packaged with the classes and is available to
+ * tests. Icons are stored under their path relative to source directory, for example "objects/node.svg".
+ */
+@Mojo(name = "compile-icons", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true)
+public class CompileIconsMojo extends AbstractMojo
+{
+   /**
+    * Directory with SVG icons (scanned recursively).
+    */
+   @Parameter(property = "svg.sourceDirectory", defaultValue = "${project.basedir}/src/main/icons", required = true)
+   private File sourceDirectory;
+
+   /**
+    * Archive file to create.
+    */
+   @Parameter(property = "svg.outputFile", defaultValue = "${project.build.outputDirectory}/icons.svga", required = true)
+   private File outputFile;
+
+   /**
+    * Directory for compiled icons, used for incremental builds.
+    */
+   @Parameter(defaultValue = "${project.build.directory}/svg-compiled", required = true)
+   private File cacheDirectory;
+
+   /**
+    * Optimize document trees.
+    */
+   @Parameter(property = "svg.optimize", defaultValue = "true")
+   private boolean optimize;
+
+   /**
+    * Fail on problems which renderer otherwise logs and skips (unsupported elements, invalid viewBox, malformed path
+    * data).
+    */
+   @Parameter(property = "svg.failOnWarning", defaultValue = "true")
+   private boolean failOnWarning;
+
+   /**
+    * Skip plugin execution.
+    */
+   @Parameter(property = "svg.skip", defaultValue = "false")
+   private boolean skip;
+
+   /**
+    * @see org.apache.maven.plugin.Mojo#execute()
+    */
+   @Override
+   public void execute() throws MojoExecutionException, MojoFailureException
+   {
+      if (skip)
+      {
+         getLog().info("SVG icon compilation skipped");
+         return;
+      }
+      if (!sourceDirectory.isDirectory())
+      {
+         getLog().info("SVG icon directory " + sourceDirectory + " does not exist, skipping");
+         return;
+      }
+
+      SVGParseOptions options = new SVGParseOptions();
+      options.setOptimize(optimize);
+      options.setStrict(failOnWarning);
+      IconCompiler compiler = new IconCompiler(sourceDirectory, cacheDirectory, outputFile, options, getLog());
+      try
+      {
+         if (!compiler.run())
+         {
+            Map<String, String> errors = compiler.getErrors();
+            throw new MojoFailureException(errors.size() + " SVG icon(s) cannot be compiled, first error: " + errors.keySet().iterator().next() + ": " +
+                  errors.values().iterator().next());
+         }
+      }
+      catch(IOException e)
+      {
+         throw new MojoExecutionException("Cannot write SVG icon archive " + outputFile, e);
+      }
+   }
+}
@@ -0,0 +1,103 @@
+package org.netxms.ui.svg.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.netxms.ui.svg.SVGParseOptions;
+
+/**
+ * Generate Java classes drawing SVG icons (see {@link org.netxms.ui.svg.SVGCodeGenerator}). Generated classes
+ * implement {@link org.netxms.ui.svg.SVGRenderable} and are wrapped with
+ * {@link org.netxms.ui.svg.SVGImage#createFromRenderable(org.netxms.ui.svg.SVGRenderable)} for rendering, so icons
+ * need neither parsing nor loading at run time. Output directory is added to project's compile source roots.
+ * <p>
+ * Icons in subdirectories of source directory are placed into subpackages of given package, for example
+ * "objects/access-point.svg" becomes class "&lt;package&gt;.objects.AccessPoint".
+ */
+@Mojo(name = "generate-icons", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public class GenerateIconsMojo extends AbstractMojo
+{
+   /**
+    * Directory with SVG icons (scanned recursively).
+    */
+   @Parameter(property = "svg.sourceDirectory", defaultValue = "${project.basedir}/src/main/icons", required = true)
+   private File sourceDirectory;
+
+   /**
+    * Source root for generated classes.
+    */
+   @Parameter(property = "svg.generatedSourceDirectory", defaultValue = "${project.build.directory}/generated-sources/svg-icons", required = true)
+   private File outputDirectory;
+
+   /**
+    * Package for generated classes.
+    */
+   @Parameter(property = "svg.packageName", required = true)
+   private String packageName;
+
+   /**
+    * Optimize document trees before generating code.
+    */
+   @Parameter(property = "svg.optimize", defaultValue = "true")
+   private boolean optimize;
+
+   /**
+    * Fail on problems which renderer otherwise logs and skips (unsupported elements, invalid viewBox, malformed path
+    * data).
+    */
+   @Parameter(property = "svg.failOnWarning", defaultValue = "true")
+   private boolean failOnWarning;
+
+   /**
+    * Skip plugin execution.
+    */
+   @Parameter(property = "svg.skip", defaultValue = "false")
+   private boolean skip;
+
+   @Parameter(defaultValue = "${project}", readonly = true, required = true)
+   private MavenProject project;
+
+   /**
+    * @see org.apache.maven.plugin.Mojo#execute()
+    */
+   @Override
+   public void execute() throws MojoExecutionException, MojoFailureException
+   {
+      if (skip)
+      {
+         getLog().info("SVG icon code generation skipped");
+         return;
+      }
+      if (!sourceDirectory.isDirectory())
+      {
+         getLog().info("SVG icon directory " + sourceDirectory + " does not exist, skipping");
+         return;
+      }
+
+      SVGParseOptions options = new SVGParseOptions();
+      options.setOptimize(optimize);
+      options.setStrict(failOnWarning);
+      IconCodeGenerator generator = new IconCodeGenerator(sourceDirectory, outputDirectory, packageName, options, getLog());
+      try
+      {
+         if (!generator.run())
+         {
+            Map<String, String> errors = generator.getErrors();
+            throw new MojoFailureException(errors.size() + " SVG icon(s) cannot be converted to Java code, first error: " + errors.keySet().iterator().next() +
+                  ": " + errors.values().iterator().next());
+         }
+      }
+      catch(IOException e)
+      {
+         throw new MojoExecutionException("Cannot write generated classes into " + outputDirectory, e);
+      }
+      project.addCompileSourceRoot(outputDirectory.getPath());
+   }
+}
@@ -0,0 +1,228 @@
+package org.netxms.ui.svg.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.lang.model.SourceVersion;
+import org.apache.maven.plugin.logging.Log;
+import org.netxms.ui.svg.SVGCodeGenerator;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
+
+/**
+ * Generator of Java classes for SVG icon directory (see {@link SVGCodeGenerator}). Every icon becomes class in given
+ * base package; subdirectories become subpackages, for example "objects/access-point.svg" becomes
+ * "&lt;package&gt;.objects.AccessPoint". Only icons with source newer than generated class are processed again; all
+ * icons are processed again when options change. Generated files are listed in manifest file in output directory;
+ * only files from the manifest are removed when their icon is removed, and other existing files are never
+ * overwritten, so output directory can be shared with other sources.
+ */
+public class IconCodeGenerator
+{
+   private static final String OPTIONS_FILE = ".svg-options";
+   private static final String MANIFEST_FILE = ".svg-generated";
+
+   private final File sourceDirectory;
+   private final File outputDirectory;
+   private final String packageName;
+   private final SVGParseOptions options;
+   private final Log log;
+   private final Map<String, String> errors = new LinkedHashMap<>();
+   private int generatedCount = 0;
+
+   /**
+    * Create new generator.
+    *
+    * @param sourceDirectory directory with SVG icons (scanned recursively)
+    * @param outputDirectory source root for generated classes
+    * @param packageName base package for generated classes
+    * @param options parse options
+    * @param log log for progress and error messages
+    */
+   public IconCodeGenerator(File sourceDirectory, File outputDirectory, String packageName, SVGParseOptions options, Log log)
+   {
+      this.sourceDirectory = sourceDirectory;
+      this.outputDirectory = outputDirectory;
+      this.packageName = packageName;
+      this.options = options;
+      this.log = log;
+   }
+
+   /**
+    * Generate classes for changed icons.
+    *
+    * @return true on success, false if some icons cannot be processed (see {@link #getErrors()})
+    * @throws IOException on I/O error
+    */
+   public boolean run() throws IOException
+   {
+      Map<String, File> sources = new TreeMap<>();
+      scan(sourceDirectory, "", sources);
+
+      File optionsFile = new File(outputDirectory, OPTIONS_FILE);
+      String optionsStamp = "package=" + packageName + "\noptimize=" + options.isOptimize() + "\nstrict=" + options.isStrict() + "\nfastParser=" +
+            options.isFastParser() + "\n";
+      boolean sameOptions = optionsFile.isFile() && optionsStamp.equals(Files.readString(optionsFile.toPath()));
+
+      // Map icon names to generated files, checking for name clashes
+      Map<String, String> classes = new TreeMap<>();
+      Map<String, String> icons = new TreeMap<>();
+      for (String name : sources.keySet())
+      {
+         String className = getClassName(name);
+         if (className == null)
+            continue;
+         String previous = classes.putIfAbsent(className, name);
+         if (previous != null)
+         {
+            error(name, "class name " + className + " already used for " + previous);
+            continue;
+         }
+         icons.put(className.replace('.', '/') + ".java", name);
+      }
+
+      // Remove classes generated for icons which no longer exist
+      File manifestFile = new File(outputDirectory, MANIFEST_FILE);
+      Set<String> generated = manifestFile.isFile() ? new HashSet<>(Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)) : new HashSet<>();
+      for (String path : generated)
+      {
+         if (!icons.containsKey(path))
+            Files.deleteIfExists(new File(outputDirectory, path).toPath());
+      }
+
+      for (Map.Entry<String, String> e : icons.entrySet())
+      {
+         File source = sources.get(e.getValue());
+         File output = new File(outputDirectory, e.getKey());
+         if (output.exists() && !generated.contains(e.getKey()))
+         {
+            error(e.getValue(), "file " + output + " already exists and was not generated from icon");
+            continue;
+         }
+         if (sameOptions && output.isFile() && output.lastModified() >= source.lastModified())
+            continue;
+         generate(e.getValue(), source, e.getKey(), output);
+      }
+
+      List<String> manifest = new ArrayList<>();
+      for (String path : icons.keySet())
+      {
+         if (new File(outputDirectory, path).isFile())
+            manifest.add(path);
+      }
+      if (!manifest.isEmpty() || manifestFile.exists())
+      {
+         Files.createDirectories(outputDirectory.toPath());
+         Files.write(manifestFile.toPath(), manifest, StandardCharsets.UTF_8);
+      }
+      if (!errors.isEmpty())
+         return false;
+      if (!sameOptions)
+      {
+         Files.createDirectories(outputDirectory.toPath());
+         Files.writeString(optionsFile.toPath(), optionsStamp);
+      }
+      log.info("SVG icon classes in " + outputDirectory + ": " + icons.size() + " icons, " + generatedCount + " generated");
+      return true;
+   }
+
+   /**
+    * Get errors from last run.
+    *
+    * @return map of icon names to error messages
+    */
+   public Map<String, String> getErrors()
+   {
+      return errors;
+   }
+
+   /**
+    * Get number of classes generated during last run.
+    *
+    * @return number of generated classes
+    */
+   public int getGeneratedCount()
+   {
+      return generatedCount;
+   }
+
+   /**
+    * Get fully qualified class name for icon.
+    *
+    * @return class name or null if icon's directory cannot be used as package name
+    */
+   private String getClassName(String name)
+   {
+      int index = name.lastIndexOf('/');
+      String subpackage = (index > 0) ? name.substring(0, index).replace('/', '.') : "";
+      String qualifiedPackage = subpackage.isEmpty() ? packageName : (packageName.isEmpty() ? subpackage : packageName + "." + subpackage);
+      if (!qualifiedPackage.isEmpty() && !SourceVersion.isName(qualifiedPackage))
+      {
+         error(name, "\"" + qualifiedPackage + "\" is not valid package name");
+         return null;
+      }
+      String className = SVGCodeGenerator.toClassName(name);
+      return qualifiedPackage.isEmpty() ? className : qualifiedPackage + "." + className;
+   }
+
+   /**
+    * Parse icon and write generated class.
+    *
+    * @param name icon name
+    * @param source icon file
+    * @param path path of generated class relative to output directory
+    * @param output generated class file
+    */
+   private void generate(String name, File source, String path, File output) throws IOException
+   {
+      generatedCount++;
+      int index = path.lastIndexOf('/');
+      String qualifiedPackage = (index > 0) ? path.substring(0, index).replace('/', '.') : "";
+      String className = path.substring(index + 1, path.length() - 5);
+      String code;
+      try
+      {
+         code = SVGCodeGenerator.generate(SVGImage.createFromFile(source, options), qualifiedPackage, className);
+      }
+      catch(SVGParseException | IllegalArgumentException e)
+      {
+         error(name, e.getMessage());
+         output.delete();
+         return;
+      }
+      Files.createDirectories(output.getParentFile().toPath());
+      Files.write(output.toPath(), code.getBytes(StandardCharsets.UTF_8));
+   }
+
+   private void error(String name, String message)
+   {
+      errors.put(name, message);
+      log.error(new File(sourceDirectory, name).getPath() + ": " + message);
+   }
+
+   /**
+    * Collect SVG files from directory tree.
+    */
+   private static void scan(File dir, String prefix, Map<String, File> sources)
+   {
+      File[] files = dir.listFiles();
+      if (files == null)
+         return;
+      for (File f : files)
+      {
+         if (f.isDirectory())
+            scan(f, prefix + f.getName() + "/", sources);
+         else if (f.getName().toLowerCase().endsWith(".svg"))
+            sources.put(prefix + f.getName(), f);
+      }
+   }
+}
@@ -0,0 +1,240 @@
+package org.netxms.ui.svg.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.maven.plugin.logging.Log;
+import org.netxms.ui.svg.SVGIconArchive;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
+
+/**
+ * Compiler of SVG icon directory into icon archive. Every icon is compiled into separate file in cache directory
+ * (same relative path with ".svgc" suffix); on subsequent runs only icons with source newer than compiled file are
+ * parsed again. All icons are parsed again when parse options change. Archive is rebuilt from compiled files when
+ * any icon was added, changed or removed, or when archive does not exist. Failed run removes archive if any icon
+ * was compiled or removed, so that changes are not lost when the failing icons are fixed.
+ */
+public class IconCompiler
+{
+   private static final String COMPILED_SUFFIX = ".svgc";
+   private static final String OPTIONS_FILE = "options";
+
+   private final File sourceDirectory;
+   private final File cacheDirectory;
+   private final File outputFile;
+   private final SVGParseOptions options;
+   private final Log log;
+   private final Map<String, String> errors = new LinkedHashMap<>();
+   private int compiledCount = 0;
+
+   /**
+    * Create new compiler.
+    *
+    * @param sourceDirectory directory with SVG icons (scanned recursively)
+    * @param cacheDirectory directory for compiled icons
+    * @param outputFile archive file to create
+    * @param options parse options
+    * @param log log for progress and error messages
+    */
+   public IconCompiler(File sourceDirectory, File cacheDirectory, File outputFile, SVGParseOptions options, Log log)
+   {
+      this.sourceDirectory = sourceDirectory;
+      this.cacheDirectory = cacheDirectory;
+      this.outputFile = outputFile;
+      this.options = options;
+      this.log = log;
+   }
+
+   /**
+    * Compile changed icons and rebuild archive if needed. Archive is not written if any icon cannot be parsed.
+    *
+    * @return true on success, false if some icons cannot be parsed (see {@link #getErrors()})
+    * @throws IOException on I/O error
+    */
+   public boolean run() throws IOException
+   {
+      Map<String, File> sources = new TreeMap<>();
+      scan(sourceDirectory, "", sources);
+
+      File optionsFile = new File(cacheDirectory, OPTIONS_FILE);
+      String optionsStamp = "optimize=" + options.isOptimize() + "\nstrict=" + options.isStrict() + "\nfastParser=" + options.isFastParser() + "\n";
+      boolean sameOptions = optionsFile.isFile() && optionsStamp.equals(Files.readString(optionsFile.toPath()));
+
+      // Compiled files newer than archive are left by failed or interrupted runs and are not in the archive yet
+      boolean changed = !sameOptions || !outputFile.isFile();
+      changed |= removeStale(cacheDirectory, "", sources);
+      long archiveTimestamp = outputFile.lastModified();
+      for (Map.Entry<String, File> e : sources.entrySet())
+      {
+         File compiled = getCompiledFile(e.getKey());
+         if (sameOptions && compiled.isFile() && compiled.lastModified() >= e.getValue().lastModified())
+         {
+            if (compiled.lastModified() > archiveTimestamp)
+               changed = true;
+            continue;
+         }
+         if (compile(e.getKey(), e.getValue(), compiled) != null)
+            changed = true;
+      }
+      if (!errors.isEmpty())
+      {
+         // Archive no longer matches compiled icons, so next run must rebuild it even if nothing is compiled again
+         if (changed)
+            Files.deleteIfExists(outputFile.toPath());
+         return false;
+      }
+      if (!sameOptions)
+      {
+         Files.createDirectories(cacheDirectory.toPath());
+         Files.writeString(optionsFile.toPath(), optionsStamp);
+      }
+
+      if (!changed)
+      {
+         log.info("SVG icon archive " + outputFile + " is up to date (" + sources.size() + " icons)");
+         return true;
+      }
+
+      Map<String, SVGImage> images = new TreeMap<>();
+      for (Map.Entry<String, File> e : sources.entrySet())
+      {
+         File compiled = getCompiledFile(e.getKey());
+         SVGImage image;
+         try (InputStream in = new FileInputStream(compiled))
+         {
+            image = SVGImage.readCompiled(in);
+         }
+         catch(SVGParseException ex)
+         {
+            // Cached file written by incompatible renderer version or damaged
+            image = compile(e.getKey(), e.getValue(), compiled);
+            if (image == null)
+               return false;
+         }
+         images.put(e.getKey(), image);
+      }
+
+      File parent = outputFile.getAbsoluteFile().getParentFile();
+      Files.createDirectories(parent.toPath());
+      File tempFile = new File(parent, outputFile.getName() + ".tmp");
+      try (OutputStream out = new FileOutputStream(tempFile))
+      {
+         SVGIconArchive.write(images, out);
+      }
+      Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      log.info("SVG icon archive " + outputFile + " written (" + images.size() + " icons, " + compiledCount + " compiled)");
+      return true;
+   }
+
+   /**
+    * Get parse errors from last run.
+    *
+    * @return map of icon names to error messages
+    */
+   public Map<String, String> getErrors()
+   {
+      return errors;
+   }
+
+   /**
+    * Get number of icons parsed during last run.
+    *
+    * @return number of parsed icons
+    */
+   public int getCompiledCount()
+   {
+      return compiledCount;
+   }
+
+   /**
+    * Parse icon and write compiled form.
+    *
+    * @return parsed image or null on parse error
+    */
+   private SVGImage compile(String name, File source, File compiled) throws IOException
+   {
+      compiledCount++;
+      SVGImage image;
+      try
+      {
+         image = SVGImage.createFromFile(source, options);
+      }
+      catch(SVGParseException e)
+      {
+         errors.put(name, e.getMessage());
+         log.error(source.getPath() + ": " + e.getMessage());
+         compiled.delete();
+         return null;
+      }
+      Files.createDirectories(compiled.getParentFile().toPath());
+      try (OutputStream out = new FileOutputStream(compiled))
+      {
+         image.writeCompiled(out);
+      }
+      return image;
+   }
+
+   private File getCompiledFile(String name)
+   {
+      return new File(cacheDirectory, name + COMPILED_SUFFIX);
+   }
+
+   /**
+    * Collect SVG files from directory tree.
+    */
+   private static void scan(File dir, String prefix, Map<String, File> sources)
+   {
+      File[] files = dir.listFiles();
+      if (files == null)
+         return;
+      for (File f : files)
+      {
+         if (f.isDirectory())
+            scan(f, prefix + f.getName() + "/", sources);
+         else if (f.getName().toLowerCase().endsWith(".svg"))
+            sources.put(prefix + f.getName(), f);
+      }
+   }
+
+   /**
+    * Remove compiled files without corresponding source.
+    *
+    * @return true if any file was removed
+    */
+   private static boolean removeStale(File dir, String prefix, Map<String, File> sources)
+   {
+      File[] files = dir.listFiles();
+      if (files == null)
+         return false;
+      boolean removed = false;
+      List<File> subdirs = new ArrayList<>();
+      for (File f : files)
+      {
+         if (f.isDirectory())
+         {
+            subdirs.add(f);
+         }
+         else if (f.getName().endsWith(COMPILED_SUFFIX))
+         {
+            String name = prefix + f.getName().substring(0, f.getName().length() - COMPILED_SUFFIX.length());
+            if (!sources.containsKey(name))
+               removed |= f.delete();
+         }
+      }
+      for (File d : subdirs)
+         removed |= removeStale(d, prefix + d.getName() + "/", sources);
+      return removed;
+   }
+}
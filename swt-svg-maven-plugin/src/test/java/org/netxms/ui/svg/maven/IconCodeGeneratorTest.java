@@ -0,0 +1,108 @@
+package org.netxms.ui.svg.maven;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.netxms.ui.svg.SVGParseOptions;
+
+class IconCodeGeneratorTest
+{
+   private static void writeIcon(File file, String content) throws IOException
+   {
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), ("<svg viewBox=\"0 0 16 16\" xmlns=\"http://www.w3.org/2000/svg\">" + content + "</svg>").getBytes(StandardCharsets.UTF_8));
+   }
+
+   private static IconCodeGenerator generator(File dir)
+   {
+      SVGParseOptions options = new SVGParseOptions();
+      options.setStrict(true);
+      return new IconCodeGenerator(new File(dir, "icons"), new File(dir, "generated"), "com.example.icons", options, new SystemStreamLog());
+   }
+
+   @Test
+   void testIncrementalGeneration(@TempDir File dir) throws Exception
+   {
+      File icons = new File(dir, "icons");
+      writeIcon(new File(icons, "status-ok.svg"), "<rect width=\"8\" height=\"8\" fill=\"green\"/>");
+      writeIcon(new File(icons, "objects/access-point.svg"), "<circle cx=\"8\" cy=\"8\" r=\"4\" stroke=\"black\"/>");
+
+      IconCodeGenerator generator = generator(dir);
+      assertTrue(generator.run());
+      assertEquals(2, generator.getGeneratedCount());
+      File statusOk = new File(dir, "generated/com/example/icons/StatusOk.java");
+      File accessPoint = new File(dir, "generated/com/example/icons/objects/AccessPoint.java");
+      assertTrue(statusOk.isFile());
+      String code = Files.readString(accessPoint.toPath());
+      assertTrue(code.startsWith("package com.example.icons.objects;"));
+      assertTrue(code.contains("public final class AccessPoint implements SVGRenderable"));
+
+      // Nothing changed
+      generator = generator(dir);
+      assertTrue(generator.run());
+      assertEquals(0, generator.getGeneratedCount());
+
+      // One icon changed, one removed
+      writeIcon(new File(icons, "objects/access-point.svg"), "<circle cx=\"8\" cy=\"8\" r=\"6\"/>");
+      new File(icons, "objects/access-point.svg").setLastModified(System.currentTimeMillis() + 10000);
+      new File(icons, "status-ok.svg").delete();
+      generator = generator(dir);
+      assertTrue(generator.run());
+      assertEquals(1, generator.getGeneratedCount());
+      assertFalse(statusOk.exists());
+      assertTrue(Files.readString(accessPoint.toPath()).contains("6f"));
+   }
+
+   @Test
+   void testSharedOutputDirectory(@TempDir File dir) throws Exception
+   {
+      File icons = new File(dir, "icons");
+      writeIcon(new File(icons, "status-ok.svg"), "<rect width=\"8\" height=\"8\"/>");
+      File handWritten = new File(dir, "generated/com/example/icons/IconFactory.java");
+      handWritten.getParentFile().mkdirs();
+      Files.write(handWritten.toPath(), "package com.example.icons;".getBytes(StandardCharsets.UTF_8));
+      File other = new File(dir, "generated/com/example/Main.java");
+      Files.write(other.toPath(), "package com.example;".getBytes(StandardCharsets.UTF_8));
+
+      assertTrue(generator(dir).run());
+      File statusOk = new File(dir, "generated/com/example/icons/StatusOk.java");
+      assertTrue(statusOk.isFile());
+
+      // Only generated classes are removed
+      new File(icons, "status-ok.svg").delete();
+      assertTrue(generator(dir).run());
+      assertFalse(statusOk.exists());
+      assertTrue(handWritten.isFile());
+      assertTrue(other.isFile());
+
+      // Existing files are not overwritten
+      writeIcon(new File(icons, "icon-factory.svg"), "<rect width=\"8\" height=\"8\"/>");
+      IconCodeGenerator generator = generator(dir);
+      assertFalse(generator.run());
+      assertTrue(generator.getErrors().containsKey("icon-factory.svg"));
+      assertEquals("package com.example.icons;", Files.readString(handWritten.toPath()));
+   }
+
+   @Test
+   void testErrors(@TempDir File dir) throws Exception
+   {
+      File icons = new File(dir, "icons");
+      writeIcon(new File(icons, "status-ok.svg"), "<rect width=\"8\" height=\"8\"/>");
+      writeIcon(new File(icons, "status_ok.svg"), "<rect width=\"4\" height=\"4\"/>");
+      writeIcon(new File(icons, "1-invalid/icon.svg"), "<rect width=\"4\" height=\"4\"/>");
+      Files.write(new File(icons, "broken.svg").toPath(), "<svg><rect".getBytes(StandardCharsets.UTF_8));
+
+      IconCodeGenerator generator = generator(dir);
+      assertFalse(generator.run());
+      assertEquals(3, generator.getErrors().size());
+      assertTrue(generator.getErrors().containsKey("broken.svg"));
+      assertTrue(generator.getErrors().containsKey("status_ok.svg"));
+      assertTrue(generator.getErrors().containsKey("1-invalid/icon.svg"));
+   }
+}
@@ -0,0 +1,127 @@
+package org.netxms.ui.svg.maven;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.netxms.ui.svg.SVGIconArchive;
+import org.netxms.ui.svg.SVGImage;
+import org.netxms.ui.svg.SVGParseOptions;
+
+class IconCompilerTest
+{
+   private static void writeIcon(File file, String content) throws IOException
+   {
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), ("<svg viewBox=\"0 0 16 16\" xmlns=\"http://www.w3.org/2000/svg\">" + content + "</svg>").getBytes(StandardCharsets.UTF_8));
+   }
+
+   private static byte[] compiled(SVGImage image) throws IOException
+   {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      image.writeCompiled(out);
+      return out.toByteArray();
+   }
+
+   private static IconCompiler compiler(File dir)
+   {
+      SVGParseOptions options = new SVGParseOptions();
+      options.setStrict(true);
+      return new IconCompiler(new File(dir, "icons"), new File(dir, "cache"), new File(dir, "classes/icons.svga"), options, new SystemStreamLog());
+   }
+
+   @Test
+   void testIncrementalBuild(@TempDir File dir) throws Exception
+   {
+      File icons = new File(dir, "icons");
+      writeIcon(new File(icons, "a.svg"), "<rect width=\"8\" height=\"8\"/>");
+      writeIcon(new File(icons, "objects/b.svg"), "<circle cx=\"8\" cy=\"8\" r=\"4\"/>");
+      writeIcon(new File(icons, "objects/c.svg"), "<title>C</title><path d=\"M0 0 L16 16\" stroke=\"black\"/>");
+      Files.write(new File(icons, "readme.txt").toPath(), new byte[] { 'x' });
+
+      IconCompiler compiler = compiler(dir);
+      assertTrue(compiler.run());
+      assertEquals(3, compiler.getCompiledCount());
+      File archiveFile = new File(dir, "classes/icons.svga");
+      SVGIconArchive archive = SVGIconArchive.open(archiveFile);
+      assertEquals(3, archive.size());
+      assertNotNull(archive.getImage("objects/b.svg"));
+
+      // Nothing changed
+      long timestamp = archiveFile.lastModified();
+      compiler = compiler(dir);
+      assertTrue(compiler.run());
+      assertEquals(0, compiler.getCompiledCount());
+      assertEquals(timestamp, archiveFile.lastModified());
+
+      // One icon changed, one removed
+      File changed = new File(icons, "objects/b.svg");
+      writeIcon(changed, "<circle cx=\"8\" cy=\"8\" r=\"6\"/>");
+      changed.setLastModified(System.currentTimeMillis() + 10000);
+      new File(icons, "a.svg").delete();
+      compiler = compiler(dir);
+      assertTrue(compiler.run());
+      assertEquals(1, compiler.getCompiledCount());
+      archive = SVGIconArchive.open(archiveFile);
+      assertEquals(2, archive.size());
+      assertFalse(archive.contains("a.svg"));
+      assertArrayEquals(compiled(SVGImage.createFromFile(changed)), compiled(archive.getImage("objects/b.svg")));
+   }
+
+   @Test
+   void testErrors(@TempDir File dir) throws Exception
+   {
+      File icons = new File(dir, "icons");
+      writeIcon(new File(icons, "good.svg"), "<rect width=\"8\" height=\"8\"/>");
+      writeIcon(new File(icons, "gradient.svg"), "<defs><linearGradient id=\"g\"/></defs><rect width=\"8\" height=\"8\"/>");
+      Files.write(new File(icons, "broken.svg").toPath(), "<svg><rect".getBytes(StandardCharsets.UTF_8));
+
+      IconCompiler compiler = compiler(dir);
+      assertFalse(compiler.run());
+      assertEquals(2, compiler.getErrors().size());
+      assertTrue(compiler.getErrors().containsKey("broken.svg"));
+      assertTrue(compiler.getErrors().containsKey("gradient.svg"));
+      assertFalse(new File(dir, "classes/icons.svga").exists());
+
+      // Without strict mode unsupported elements are skipped
+      new File(icons, "broken.svg").delete();
+      compiler = new IconCompiler(icons, new File(dir, "cache"), new File(dir, "classes/icons.svga"), new SVGParseOptions(), new SystemStreamLog());
+      assertTrue(compiler.run());
+      assertEquals(2, SVGIconArchive.open(new File(dir, "classes/icons.svga")).size());
+   }
+
+   @Test
+   void testChangeDuringFailedBuild(@TempDir File dir) throws Exception
+   {
+      File icons = new File(dir, "icons");
+      File changed = new File(icons, "a.svg");
+      writeIcon(changed, "<rect width=\"8\" height=\"8\"/>");
+      writeIcon(new File(icons, "b.svg"), "<circle cx=\"8\" cy=\"8\" r=\"4\"/>");
+      assertTrue(compiler(dir).run());
+      long past = System.currentTimeMillis() - 10000;
+      for (String name : new String[] { "icons/a.svg", "icons/b.svg", "cache/a.svg.svgc", "cache/b.svg.svgc", "classes/icons.svga" })
+         new File(dir, name).setLastModified(past);
+
+      // Valid change together with broken icon fails the build
+      writeIcon(changed, "<rect width=\"12\" height=\"12\"/>");
+      File broken = new File(icons, "z.svg");
+      Files.write(broken.toPath(), "<svg><rect".getBytes(StandardCharsets.UTF_8));
+      IconCompiler compiler = compiler(dir);
+      assertFalse(compiler.run());
+      assertEquals(2, compiler.getCompiledCount());
+
+      // After broken icon is removed archive contains the change, although nothing is compiled again
+      broken.delete();
+      compiler = compiler(dir);
+      assertTrue(compiler.run());
+      assertEquals(0, compiler.getCompiledCount());
+      SVGIconArchive archive = SVGIconArchive.open(new File(dir, "classes/icons.svga"));
+      assertArrayEquals(compiled(SVGImage.createFromFile(changed)), compiled(archive.getImage("a.svg")));
+   }
+}
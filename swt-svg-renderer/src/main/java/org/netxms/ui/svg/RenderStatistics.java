@@ -0,0 +1,191 @@
+package org.netxms.ui.svg;
+
+import org.netxms.ui.svg.internal.NativeResourceCounter;
+import org.netxms.ui.svg.internal.RenderCounters;
+
+/**
+ * Immutable snapshot of render statistics. Depending on where it was obtained, snapshot covers single render or
+ * rasterize call (passed to {@link RenderStatisticsListener}) or all calls made on one image since statistics
+ * collection was enabled or last reset ({@link SVGImage#getRenderStatistics()}).
+ */
+public final class RenderStatistics
+{
+   static final int RENDER_COUNT = 0;
+   static final int RENDER_TIME = 1;
+   static final int RASTERIZE_COUNT = 2;
+   static final int RASTERIZE_TIME = 3;
+   static final int NODES_VISITED = 4;
+   static final int NODES_CULLED = 5;
+   static final int FILLS = 6;
+   static final int STROKES = 7;
+   static final int RESOURCES = 8;
+   static final int SIZE = RESOURCES + NativeResourceCounter.getTypeCount();
+
+   static final RenderStatistics EMPTY = new RenderStatistics(new long[SIZE]);
+
+   private final long[] values;
+
+   /**
+    * Create snapshot from given values (array is not copied).
+    */
+   RenderStatistics(long[] values)
+   {
+      this.values = values;
+   }
+
+   /**
+    * Create snapshot for single call.
+    *
+    * @param rasterize true if call was rasterize call
+    * @param counters counters collected during call
+    * @param elapsed elapsed time in nanoseconds
+    * @return snapshot
+    */
+   static RenderStatistics fromCounters(boolean rasterize, RenderCounters counters, long elapsed)
+   {
+      long[] values = new long[SIZE];
+      add(values, rasterize, counters, elapsed);
+      return new RenderStatistics(values);
+   }
+
+   /**
+    * Add single call data to values array.
+    *
+    * @param values values array
+    * @param rasterize true if call was rasterize call
+    * @param counters counters collected during call
+    * @param elapsed elapsed time in nanoseconds
+    */
+   static void add(long[] values, boolean rasterize, RenderCounters counters, long elapsed)
+   {
+      values[rasterize ? RASTERIZE_COUNT : RENDER_COUNT]++;
+      values[rasterize ? RASTERIZE_TIME : RENDER_TIME] += elapsed;
+      values[NODES_VISITED] += counters.nodesVisited;
+      values[NODES_CULLED] += counters.nodesCulled;
+      values[FILLS] += counters.fills;
+      values[STROKES] += counters.strokes;
+      for (int i = 0; i < counters.resourcesCreated.length; i++)
+         values[RESOURCES + i] += counters.resourcesCreated[i];
+   }
+
+   /**
+    * @return number of render calls (drawing on caller's GC)
+    */
+   public long getRenderCount()
+   {
+      return values[RENDER_COUNT];
+   }
+
+   /**
+    * @return total time spent in render calls in nanoseconds
+    */
+   public long getRenderTime()
+   {
+      return values[RENDER_TIME];
+   }
+
+   /**
+    * @return number of rasterize calls (producing new image or pixel array)
+    */
+   public long getRasterizeCount()
+   {
+      return values[RASTERIZE_COUNT];
+   }
+
+   /**
+    * @return total time spent in rasterize calls in nanoseconds
+    */
+   public long getRasterizeTime()
+   {
+      return values[RASTERIZE_TIME];
+   }
+
+   /**
+    * @return number of document nodes traversed
+    */
+   public long getNodesVisited()
+   {
+      return values[NODES_VISITED];
+   }
+
+   /**
+    * @return number of traversed nodes skipped without drawing (not displayed or having neither fill nor stroke)
+    */
+   public long getNodesCulled()
+   {
+      return values[NODES_CULLED];
+   }
+
+   /**
+    * @return number of fill operations
+    */
+   public long getFillCount()
+   {
+      return values[FILLS];
+   }
+
+   /**
+    * @return number of stroke operations
+    */
+   public long getStrokeCount()
+   {
+      return values[STROKES];
+   }
+
+   /**
+    * @return number of SWT Path objects created
+    */
+   public long getPathsCreated()
+   {
+      return values[RESOURCES + NativeResourceCounter.PATH];
+   }
+
+   /**
+    * @return number of SWT Transform objects created
+    */
+   public long getTransformsCreated()
+   {
+      return values[RESOURCES + NativeResourceCounter.TRANSFORM];
+   }
+
+   /**
+    * @return number of SWT Color objects created
+    */
+   public long getColorsCreated()
+   {
+      return values[RESOURCES + NativeResourceCounter.COLOR];
+   }
+
+   /**
+    * @return number of SWT Image objects created
+    */
+   public long getImagesCreated()
+   {
+      return values[RESOURCES + NativeResourceCounter.IMAGE];
+   }
+
+   /**
+    * @return number of SWT GC objects created
+    */
+   public long getGCsCreated()
+   {
+      return values[RESOURCES + NativeResourceCounter.GC];
+   }
+
+   /**
+    * @see java.lang.Object#toString()
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder("RenderStatistics [renders=");
+      sb.append(getRenderCount()).append(" (").append(getRenderTime()).append(" ns), rasterizations=");
+      sb.append(getRasterizeCount()).append(" (").append(getRasterizeTime()).append(" ns), nodesVisited=");
+      sb.append(getNodesVisited()).append(", nodesCulled=").append(getNodesCulled());
+      sb.append(", fills=").append(getFillCount()).append(", strokes=").append(getStrokeCount());
+      for (int i = 0; i < NativeResourceCounter.getTypeCount(); i++)
+         sb.append(", ").append(NativeResourceCounter.getName(i)).append('=').append(values[RESOURCES + i]);
+      sb.append(']');
+      return sb.toString();
+   }
+}
@@ -0,0 +1,16 @@
+package org.netxms.ui.svg;
+
+/**
+ * Listener notified after each render or rasterize call when statistics collection is enabled. Called on the thread
+ * which made the call, so implementation should be fast and thread-safe.
+ */
+public interface RenderStatisticsListener
+{
+   /**
+    * Called when render or rasterize call completes.
+    *
+    * @param image image which was rendered
+    * @param statistics statistics for this call only
+    */
+   void renderCompleted(SVGImage image, RenderStatistics statistics);
+}
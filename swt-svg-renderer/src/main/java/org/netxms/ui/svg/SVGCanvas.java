@@ -0,0 +1,111 @@
+package org.netxms.ui.svg;
+
+/**
+ * Drawing interface used by generated icon classes (see {@link SVGRenderable} and {@link SVGCodeGenerator}). For
+ * each painted shape caller issues {@link #setTransform} (only when transformation changes), {@link #beginPath}, path
+ * construction calls, {@link #fill} and/or {@link #stroke}, and finally {@link #endPath}. Coordinates are in
+ * document's user space (view box coordinates); canvas maps them to the target area.
+ */
+public interface SVGCanvas
+{
+   /**
+    * Color value meaning "currentColor" (color passed to render call).
+    */
+   int CURRENT_COLOR = -2;
+
+   /**
+    * Set transformation from shape coordinates to document's user space. Identity transformation is in effect
+    * until first call.
+    *
+    * @param a matrix element a (x scale)
+    * @param b matrix element b (y skew)
+    * @param c matrix element c (x skew)
+    * @param d matrix element d (y scale)
+    * @param e matrix element e (x translation)
+    * @param f matrix element f (y translation)
+    */
+   void setTransform(float a, float b, float c, float d, float e, float f);
+
+   /**
+    * Start new path.
+    */
+   void beginPath();
+
+   /**
+    * Start new subpath.
+    *
+    * @param x x coordinate
+    * @param y y coordinate
+    */
+   void moveTo(float x, float y);
+
+   /**
+    * Add line segment.
+    *
+    * @param x x coordinate
+    * @param y y coordinate
+    */
+   void lineTo(float x, float y);
+
+   /**
+    * Add cubic Bezier segment.
+    *
+    * @param x1 first control point x
+    * @param y1 first control point y
+    * @param x2 second control point x
+    * @param y2 second control point y
+    * @param x end point x
+    * @param y end point y
+    */
+   void cubicTo(float x1, float y1, float x2, float y2, float x, float y);
+
+   /**
+    * Add quadratic Bezier segment.
+    *
+    * @param x1 control point x
+    * @param y1 control point y
+    * @param x end point x
+    * @param y end point y
+    */
+   void quadTo(float x1, float y1, float x, float y);
+
+   /**
+    * Close current subpath.
+    */
+   void close();
+
+   /**
+    * Add axis-aligned rectangle as closed subpath.
+    *
+    * @param x left edge
+    * @param y top edge
+    * @param width rectangle width
+    * @param height rectangle height
+    */
+   void addRectangle(float x, float y, float width, float height);
+
+   /**
+    * Fill current path.
+    *
+    * @param rgb color as 0xRRGGBB or {@link #CURRENT_COLOR}
+    * @param alpha alpha (0..255)
+    * @param evenOdd true to use even-odd fill rule, false for non-zero winding rule
+    */
+   void fill(int rgb, int alpha, boolean evenOdd);
+
+   /**
+    * Stroke current path.
+    *
+    * @param rgb color as 0xRRGGBB or {@link #CURRENT_COLOR}
+    * @param alpha alpha (0..255)
+    * @param width line width in user space
+    * @param lineCap line cap (SWT.CAP_FLAT, SWT.CAP_ROUND or SWT.CAP_SQUARE)
+    * @param lineJoin line join (SWT.JOIN_MITER, SWT.JOIN_ROUND or SWT.JOIN_BEVEL)
+    */
+   void stroke(int rgb, int alpha, float width, int lineCap, int lineJoin);
+
+   /**
+    * Finish current path.
+    */
+   void endPath();
+}
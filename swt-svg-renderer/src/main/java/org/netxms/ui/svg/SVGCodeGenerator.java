@@ -0,0 +1,433 @@
+package org.netxms.ui.svg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.SourceVersion;
+
+import org.eclipse.swt.SWT;
+import org.netxms.ui.svg.internal.PathData;
+import org.netxms.ui.svg.internal.ResolvedStyle;
+import org.netxms.ui.svg.internal.SVGDocument;
+import org.netxms.ui.svg.internal.SVGGroup;
+import org.netxms.ui.svg.internal.SVGLine;
+import org.netxms.ui.svg.internal.SVGNode;
+import org.netxms.ui.svg.internal.SVGRect;
+import org.netxms.ui.svg.internal.SVGTransform;
+import org.netxms.ui.svg.internal.ShapeGeometry;
+
+/**
+ * Generator of Java source code drawing given image. Generated class implements {@link SVGRenderable} and consists
+ * of straight-line {@link SVGCanvas} calls with transformations, styles and shape geometry resolved at generation
+ * time, so drawing does not walk document tree and loading does not parse anything. Use
+ * {@link SVGImage#createFromRenderable(SVGRenderable)} to render generated class with regular API.
+ * <p>
+ * Can be run from command line:
+ * <pre>
+ * java -cp ... org.netxms.ui.svg.SVGCodeGenerator &lt;package&gt; &lt;output directory&gt; &lt;file or directory&gt;...
+ * </pre>
+ */
+public final class SVGCodeGenerator
+{
+   /** Maximum number of statements in single generated method (keeps method well below 64KB bytecode limit) */
+   private static final int STATEMENTS_PER_METHOD = 2000;
+
+   /** Maximum number of distinct constants (class constant pool is limited to 65535 entries) */
+   private static final int MAX_CONSTANTS = 60000;
+
+   private final List<StringBuilder> methods = new ArrayList<>();
+   private final Set<Integer> constants = new HashSet<>();
+   private StringBuilder body = null;
+   private int statements = 0;
+   private float[] currentMatrix = SVGTransform.identity();
+   private boolean usesSWT = false;
+
+   /**
+    * Private constructor (generator state is used for single image only).
+    */
+   private SVGCodeGenerator()
+   {
+   }
+
+   /**
+    * Generate Java source of class drawing given image.
+    *
+    * @param image image parsed from SVG source
+    * @param packageName package of generated class (null or empty string for default package)
+    * @param className simple name of generated class
+    * @return source code of generated class
+    * @throws IllegalArgumentException if package or class name is not valid, image was itself created from generated
+    *            code, or image is too complex to fit into single class
+    */
+   public static String generate(SVGImage image, String packageName, String className)
+   {
+      if (image == null)
+         throw new IllegalArgumentException("Image is null");
+      if (className == null || !SourceVersion.isIdentifier(className) || SourceVersion.isKeyword(className))
+         throw new IllegalArgumentException("Invalid class name \"" + className + "\"");
+      if (packageName != null && !packageName.isEmpty() && !SourceVersion.isName(packageName))
+         throw new IllegalArgumentException("Invalid package name \"" + packageName + "\"");
+
+      SVGDocument doc = image.getDocument();
+      if (doc.getRenderable() != null)
+         throw new IllegalArgumentException("Image is already drawn by generated code");
+
+      SVGCodeGenerator generator = new SVGCodeGenerator();
+      generator.generateNodes(doc.getChildren(), SVGTransform.identity());
+      if (generator.constants.size() > MAX_CONSTANTS)
+         throw new IllegalArgumentException("Image is too complex for code generation (" + generator.constants.size() + " distinct constants)");
+      return generator.buildClass(doc, packageName, className, image.getSource());
+   }
+
+   /**
+    * Convert file name to Java class name (for example, "alarm-critical.svg" to "AlarmCritical"). Directory and
+    * extension are removed, words separated by non-alphanumeric characters are capitalized.
+    *
+    * @param fileName file name
+    * @return class name
+    */
+   public static String toClassName(String fileName)
+   {
+      String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+      int dot = name.lastIndexOf('.');
+      if (dot > 0)
+         name = name.substring(0, dot);
+
+      StringBuilder sb = new StringBuilder();
+      boolean capitalize = true;
+      for (int i = 0; i < name.length(); i++)
+      {
+         char ch = name.charAt(i);
+         if (Character.isLetterOrDigit(ch))
+         {
+            sb.append(capitalize ? Character.toUpperCase(ch) : ch);
+            capitalize = false;
+         }
+         else
+         {
+            capitalize = true;
+         }
+      }
+      if ((sb.length() == 0) || !Character.isJavaIdentifierStart(sb.charAt(0)))
+         sb.insert(0, "Icon");
+      return sb.toString();
+   }
+
+   /**
+    * Generate drawing calls for list of nodes. Mirrors tree walk of the renderer: hidden nodes are skipped,
+    * transformations are combined at generation time.
+    */
+   private void generateNodes(List<SVGNode> nodes, float[] parentMatrix)
+   {
+      for (SVGNode node : nodes)
+      {
+         if (!node.isDisplay())
+            continue;
+
+         float[] matrix = parentMatrix;
+         float[] nodeTransform = node.getTransform();
+         if (nodeTransform != null && !SVGTransform.isIdentity(nodeTransform))
+            matrix = SVGTransform.multiply(parentMatrix, nodeTransform);
+
+         if (node instanceof SVGGroup)
+         {
+            generateNodes(((SVGGroup)node).getChildren(), matrix);
+            continue;
+         }
+
+         // Lines only have stroke, no fill
+         ResolvedStyle style = node.getResolvedStyle();
+         boolean fill = style.hasFill() && !(node instanceof SVGLine);
+         if (!fill && !style.hasStroke())
+            continue;
+
+         if (!Arrays.equals(matrix, currentMatrix))
+         {
+            emit("setTransform", matrix[0], matrix[1], matrix[2], matrix[3], matrix[4], matrix[5]);
+            currentMatrix = matrix;
+         }
+         emit("beginPath");
+         if (node instanceof SVGRect && ((SVGRect)node).getRx() <= 0 && ((SVGRect)node).getRy() <= 0)
+         {
+            SVGRect r = (SVGRect)node;
+            emit("addRectangle", r.getX(), r.getY(), r.getWidth(), r.getHeight());
+         }
+         else
+         {
+            generatePath(ShapeGeometry.toPathData(node));
+         }
+         if (fill)
+         {
+            emitStatement("fill(" + color(style.getFillColor()) + ", " + style.getFillAlpha() + ", " + (style.getFillRule() == SWT.FILL_EVEN_ODD) + ")");
+         }
+         if (style.hasStroke())
+         {
+            emitStatement("stroke(" + color(style.getStrokeColor()) + ", " + style.getStrokeAlpha() + ", " + literal(style.getLineWidth()) + ", " +
+                  lineCap(style.getLineCap()) + ", " + lineJoin(style.getLineJoin()) + ")");
+            usesSWT = true;
+         }
+         emit("endPath");
+      }
+   }
+
+   /**
+    * Generate path construction calls.
+    */
+   private void generatePath(PathData data)
+   {
+      int count = data.getVerbCount();
+      int c = 0;
+      for (int i = 0; i < count; i++)
+      {
+         switch(data.getVerb(i))
+         {
+            case PathData.MOVE_TO:
+               emit("moveTo", data.getCoordinate(c), data.getCoordinate(c + 1));
+               c += 2;
+               break;
+            case PathData.LINE_TO:
+               emit("lineTo", data.getCoordinate(c), data.getCoordinate(c + 1));
+               c += 2;
+               break;
+            case PathData.CUBIC_TO:
+               emit("cubicTo", data.getCoordinate(c), data.getCoordinate(c + 1), data.getCoordinate(c + 2), data.getCoordinate(c + 3),
+                     data.getCoordinate(c + 4), data.getCoordinate(c + 5));
+               c += 6;
+               break;
+            case PathData.QUAD_TO:
+               emit("quadTo", data.getCoordinate(c), data.getCoordinate(c + 1), data.getCoordinate(c + 2), data.getCoordinate(c + 3));
+               c += 4;
+               break;
+            case PathData.CLOSE:
+               emit("close");
+               break;
+         }
+      }
+   }
+
+   /**
+    * Emit canvas call with float arguments.
+    */
+   private void emit(String method, float... args)
+   {
+      StringBuilder sb = new StringBuilder(method).append('(');
+      for (int i = 0; i < args.length; i++)
+      {
+         if (i > 0)
+            sb.append(", ");
+         sb.append(literal(args[i]));
+      }
+      emitStatement(sb.append(')').toString());
+   }
+
+   /**
+    * Emit canvas call. Statements are split into several methods to stay within JVM method size limit.
+    */
+   private void emitStatement(String call)
+   {
+      if (body == null || statements == STATEMENTS_PER_METHOD)
+      {
+         body = new StringBuilder();
+         methods.add(body);
+         statements = 0;
+      }
+      body.append("      canvas.").append(call).append(";\n");
+      statements++;
+   }
+
+   /**
+    * Get Java literal for given float value, registering it as class constant.
+    */
+   private String literal(float value)
+   {
+      if (value == 0f)
+         return (Float.floatToRawIntBits(value) == 0) ? "0f" : "-0f";
+      if (value != 1f && value != 2f)
+         constants.add(Float.floatToRawIntBits(value));
+
+      // Parser accepts out of range numbers, so geometry can contain values without literal form
+      if (Float.isNaN(value))
+         return "Float.NaN";
+      if (Float.isInfinite(value))
+         return (value > 0) ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY";
+
+      String s = Float.toString(value);
+      if (s.endsWith(".0"))
+         s = s.substring(0, s.length() - 2);
+      return s + "f";
+   }
+
+   /**
+    * Get Java expression for given color.
+    */
+   private String color(int color)
+   {
+      if (color == ResolvedStyle.COLOR_CURRENT)
+         return "SVGCanvas.CURRENT_COLOR";
+      if (color > Short.MAX_VALUE)
+         constants.add(color);
+      return String.format("0x%06X", color);
+   }
+
+   /**
+    * Get Java expression for SWT line cap.
+    */
+   private static String lineCap(int cap)
+   {
+      switch(cap)
+      {
+         case SWT.CAP_ROUND:
+            return "SWT.CAP_ROUND";
+         case SWT.CAP_SQUARE:
+            return "SWT.CAP_SQUARE";
+         default:
+            return "SWT.CAP_FLAT";
+      }
+   }
+
+   /**
+    * Get Java expression for SWT line join.
+    */
+   private static String lineJoin(int join)
+   {
+      switch(join)
+      {
+         case SWT.JOIN_ROUND:
+            return "SWT.JOIN_ROUND";
+         case SWT.JOIN_BEVEL:
+            return "SWT.JOIN_BEVEL";
+         default:
+            return "SWT.JOIN_MITER";
+      }
+   }
+
+   /**
+    * Build source of generated class.
+    */
+   private String buildClass(SVGDocument doc, String packageName, String className, String source)
+   {
+      StringBuilder sb = new StringBuilder();
+      if (packageName != null && !packageName.isEmpty())
+         sb.append("package ").append(packageName).append(";\n\n");
+      if (usesSWT)
+         sb.append("import org.eclipse.swt.SWT;\n");
+      sb.append("import org.netxms.ui.svg.SVGCanvas;\n");
+      sb.append("import org.netxms.ui.svg.SVGRenderable;\n\n");
+      sb.append("/**\n * Generated by SVGCodeGenerator");
+      if (source != null)
+         sb.append(" from ").append(new File(source).getName().replace("*/", "*&#47;"));
+      sb.append(". Do not edit.\n */\n");
+      sb.append("public final class ").append(className).append(" implements SVGRenderable\n{\n");
+
+      appendGetter(sb, "getViewBoxX", doc.getViewBoxX());
+      appendGetter(sb, "getViewBoxY", doc.getViewBoxY());
+      appendGetter(sb, "getViewBoxWidth", doc.getViewBoxWidth());
+      appendGetter(sb, "getViewBoxHeight", doc.getViewBoxHeight());
+      appendGetter(sb, "getWidth", doc.getWidth());
+      appendGetter(sb, "getHeight", doc.getHeight());
+
+      sb.append("   @Override\n   public void draw(SVGCanvas canvas)\n   {\n");
+      if (methods.size() == 1)
+      {
+         sb.append(methods.get(0));
+      }
+      else
+      {
+         for (int i = 0; i < methods.size(); i++)
+            sb.append("      draw").append(i).append("(canvas);\n");
+      }
+      sb.append("   }\n");
+
+      if (methods.size() > 1)
+      {
+         for (int i = 0; i < methods.size(); i++)
+         {
+            sb.append("\n   private static void draw").append(i).append("(SVGCanvas canvas)\n   {\n");
+            sb.append(methods.get(i));
+            sb.append("   }\n");
+         }
+      }
+      sb.append("}\n");
+      return sb.toString();
+   }
+
+   /**
+    * Append getter returning float constant.
+    */
+   private void appendGetter(StringBuilder sb, String name, float value)
+   {
+      sb.append("   @Override\n   public float ").append(name).append("()\n   {\n      return ").append(literal(value)).append(";\n   }\n\n");
+   }
+
+   /**
+    * Command line entry point. Generates one class per SVG file; directories are scanned for *.svg files
+    * (non-recursively). Exits with non-zero status if any file cannot be processed.
+    *
+    * @param args package name, output directory and list of SVG files or directories
+    */
+   public static void main(String[] args)
+   {
+      if (args.length < 3)
+      {
+         System.err.println("Usage: SVGCodeGenerator <package> <output directory> <file or directory>...");
+         System.exit(1);
+      }
+
+      String packageName = args[0];
+      File outputDirectory = new File(args[1], packageName.replace('.', File.separatorChar));
+      List<File> files = new ArrayList<>();
+      for (int i = 2; i < args.length; i++)
+      {
+         File f = new File(args[i]);
+         if (f.isDirectory())
+         {
+            File[] content = f.listFiles((dir, name) -> name.toLowerCase().endsWith(".svg"));
+            if (content != null)
+            {
+               Arrays.sort(content);
+               files.addAll(Arrays.asList(content));
+            }
+         }
+         else
+         {
+            files.add(f);
+         }
+      }
+
+      int errors = 0;
+      Map<String, File> classes = new HashMap<>();
+      for (File f : files)
+      {
+         String className = toClassName(f.getName());
+         File previous = classes.putIfAbsent(className, f);
+         if (previous != null)
+         {
+            System.err.println(f + ": class name " + className + " already used for " + previous);
+            errors++;
+            continue;
+         }
+         try
+         {
+            String code = generate(SVGImage.createFromFile(f), packageName, className);
+            outputDirectory.mkdirs();
+            Files.write(new File(outputDirectory, className + ".java").toPath(), code.getBytes(StandardCharsets.UTF_8));
+         }
+         catch(SVGParseException | IllegalArgumentException | IOException e)
+         {
+            System.err.println(f + ": " + e.getMessage());
+            errors++;
+         }
+      }
+      System.out.println((files.size() - errors) + " class(es) generated in " + outputDirectory);
+      if (errors > 0)
+         System.exit(1);
+   }
+}
@@ -0,0 +1,342 @@
+package org.netxms.ui.svg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+/**
+ * Archive of compiled SVG images (see {@link SVGImage#writeCompiled(java.io.OutputStream)}) stored in single file
+ * with name index. Archive file is memory-mapped, so opening it costs one system call regardless of number of
+ * icons; images are decoded from mapped buffer on first request and kept by the archive afterwards. Lookup by
+ * name uses hash table stored in the archive and does not require reading whole index. Archive is thread-safe.
+ * <p>
+ * Archive layout (all values big-endian):
+ * <pre>
+ * header:  magic "SVGA" (4), version (2), flags (2), entry count (4), hash table size (4), CRC32 of index (4)
+ * index:   hash table (int per slot: entry number + 1, or 0 for empty slot)
+ *          entry table sorted by name (name hash, name offset, name length, image offset, image length)
+ *          names (UTF-8)
+ * images:  compiled images back to back
+ * </pre>
+ * All offsets are relative to the start of the archive.
+ */
+public final class SVGIconArchive
+{
+   /** Archive magic ("SVGA") */
+   private static final int MAGIC = 0x53564741;
+   private static final int VERSION = 1;
+   private static final int HEADER_SIZE = 20;
+   private static final int ENTRY_SIZE = 20;
+
+   private final ByteBuffer buffer;
+   private final int entryCount;
+   private final int tableSize;
+   private final int entryTableOffset;
+   private final AtomicReferenceArray<SVGImage> images;
+
+   /**
+    * Create archive from buffer and validate index.
+    */
+   private SVGIconArchive(ByteBuffer buffer) throws SVGParseException
+   {
+      this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+      if (this.buffer.remaining() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC)
+         throw new SVGParseException("Invalid SVG icon archive: bad magic number");
+      int version = this.buffer.getShort(4);
+      if (version != VERSION)
+         throw new SVGParseException("Unsupported SVG icon archive version " + version);
+      entryCount = this.buffer.getInt(8);
+      tableSize = this.buffer.getInt(12);
+      if (entryCount < 0 || tableSize < 0 || Integer.bitCount(tableSize) > 1 || tableSize < entryCount ||
+            (long)tableSize * 4 + (long)entryCount * ENTRY_SIZE > this.buffer.remaining() - HEADER_SIZE)
+         throw new SVGParseException("Invalid SVG icon archive: bad index size");
+      entryTableOffset = HEADER_SIZE + tableSize * 4;
+
+      // Names follow entry table; index ends where first image starts
+      int indexEnd = entryTableOffset + entryCount * ENTRY_SIZE;
+      for (int i = 0; i < entryCount; i++)
+      {
+         int e = entryTableOffset + i * ENTRY_SIZE;
+         indexEnd = Math.max(indexEnd, checkRange(this.buffer.getInt(e + 4), this.buffer.getInt(e + 8)));
+         checkRange(this.buffer.getInt(e + 12), this.buffer.getInt(e + 16));
+      }
+      CRC32 crc = new CRC32();
+      ByteBuffer index = this.buffer.duplicate();
+      index.position(HEADER_SIZE).limit(indexEnd);
+      crc.update(index);
+      if ((int)crc.getValue() != this.buffer.getInt(16))
+         throw new SVGParseException("Invalid SVG icon archive: index checksum mismatch");
+
+      images = new AtomicReferenceArray<>(entryCount);
+   }
+
+   /**
+    * Check that range is within archive.
+    *
+    * @return end of range
+    */
+   private int checkRange(int offset, int length) throws SVGParseException
+   {
+      if (offset < HEADER_SIZE || length < 0 || offset > buffer.limit() - length)
+         throw new SVGParseException("Invalid SVG icon archive: bad entry");
+      return offset + length;
+   }
+
+   /**
+    * Open archive file. File is memory-mapped and stays mapped until archive object is garbage collected.
+    *
+    * @param file archive file
+    * @return archive
+    * @throws SVGParseException if file cannot be read or is not valid archive
+    */
+   public static SVGIconArchive open(File file) throws SVGParseException
+   {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         return new SVGIconArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+      catch(IOException e)
+      {
+         throw new SVGParseException("Failed to open SVG icon archive: " + file.getAbsolutePath(), e);
+      }
+   }
+
+   /**
+    * Open archive from byte buffer (for example, archive loaded from class path). Archive is read between buffer's
+    * position and limit; buffer must not be modified while archive is in use. Buffer position is not changed.
+    *
+    * @param buffer archive content
+    * @return archive
+    * @throws SVGParseException if buffer does not contain valid archive
+    */
+   public static SVGIconArchive open(ByteBuffer buffer) throws SVGParseException
+   {
+      return new SVGIconArchive(buffer);
+   }
+
+   /**
+    * Load archive from input stream (for example, class path resource) into memory.
+    *
+    * @param stream input stream (not closed by this method)
+    * @return archive
+    * @throws SVGParseException if stream cannot be read or does not contain valid archive
+    */
+   public static SVGIconArchive load(InputStream stream) throws SVGParseException
+   {
+      try
+      {
+         return new SVGIconArchive(ByteBuffer.wrap(stream.readAllBytes()));
+      }
+      catch(IOException e)
+      {
+         throw new SVGParseException("Failed to read SVG icon archive", e);
+      }
+   }
+
+   /**
+    * Write archive with given images.
+    *
+    * @param images images by name
+    * @param out output stream (not closed by this method)
+    * @throws IOException on write error
+    */
+   public static void write(Map<String, SVGImage> images, OutputStream out) throws IOException
+   {
+      Map<String, SVGImage> sorted = new TreeMap<>(images);
+      int count = sorted.size();
+      int tableSize = Integer.highestOneBit(Math.max(count * 2 - 1, 1)) << 1;
+
+      byte[][] names = new byte[count][];
+      int[] hashes = new int[count];
+      int[] table = new int[tableSize];
+      ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+      int[] imageOffsets = new int[count + 1];
+      int namesSize = 0;
+      int i = 0;
+      for (Map.Entry<String, SVGImage> e : sorted.entrySet())
+      {
+         names[i] = e.getKey().getBytes(StandardCharsets.UTF_8);
+         namesSize += names[i].length;
+         hashes[i] = e.getKey().hashCode();
+         int slot = slot(hashes[i], tableSize);
+         while (table[slot] != 0)
+            slot = (slot + 1) & (tableSize - 1);
+         table[slot] = i + 1;
+         e.getValue().writeCompiled(compiled);
+         imageOffsets[++i] = compiled.size();
+      }
+
+      ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(tableSize * 4 + count * ENTRY_SIZE + namesSize);
+      DataOutputStream index = new DataOutputStream(indexBytes);
+      for (int s : table)
+         index.writeInt(s);
+      int nameOffset = HEADER_SIZE + tableSize * 4 + count * ENTRY_SIZE;
+      int imageBase = nameOffset + namesSize;
+      for (i = 0; i < count; i++)
+      {
+         index.writeInt(hashes[i]);
+         index.writeInt(nameOffset);
+         index.writeInt(names[i].length);
+         index.writeInt(imageBase + imageOffsets[i]);
+         index.writeInt(imageOffsets[i + 1] - imageOffsets[i]);
+         nameOffset += names[i].length;
+      }
+      for (byte[] n : names)
+         index.write(n);
+      index.flush();
+
+      CRC32 crc = new CRC32();
+      crc.update(indexBytes.toByteArray());
+
+      DataOutputStream dout = new DataOutputStream(out);
+      dout.writeInt(MAGIC);
+      dout.writeShort(VERSION);
+      dout.writeShort(0);
+      dout.writeInt(count);
+      dout.writeInt(tableSize);
+      dout.writeInt((int)crc.getValue());
+      indexBytes.writeTo(dout);
+      compiled.writeTo(dout);
+      dout.flush();
+   }
+
+   /**
+    * Get hash table slot for given name hash.
+    */
+   private static int slot(int hash, int tableSize)
+   {
+      return (hash ^ (hash >>> 16)) & (tableSize - 1);
+   }
+
+   /**
+    * Find entry by name.
+    *
+    * @return entry number or -1 if not found
+    */
+   private int find(String name)
+   {
+      if (tableSize == 0)
+         return -1;
+      int hash = name.hashCode();
+      byte[] nameBytes = null;
+      int slot = slot(hash, tableSize);
+      for (int probes = 0; probes < tableSize; probes++)
+      {
+         int entry = buffer.getInt(HEADER_SIZE + slot * 4) - 1;
+         if (entry < 0)
+            return -1;
+         if (entry < entryCount)
+         {
+            int e = entryTableOffset + entry * ENTRY_SIZE;
+            if (buffer.getInt(e) == hash)
+            {
+               if (nameBytes == null)
+                  nameBytes = name.getBytes(StandardCharsets.UTF_8);
+               if (nameEquals(buffer.getInt(e + 4), buffer.getInt(e + 8), nameBytes))
+                  return entry;
+            }
+         }
+         slot = (slot + 1) & (tableSize - 1);
+      }
+      return -1;
+   }
+
+   private boolean nameEquals(int offset, int length, byte[] name)
+   {
+      if (length != name.length)
+         return false;
+      for (int i = 0; i < length; i++)
+         if (buffer.get(offset + i) != name[i])
+            return false;
+      return true;
+   }
+
+   /**
+    * Get number of images in archive.
+    *
+    * @return number of images
+    */
+   public int size()
+   {
+      return entryCount;
+   }
+
+   /**
+    * Check if archive contains image with given name.
+    *
+    * @param name image name
+    * @return true if archive contains image with given name
+    */
+   public boolean contains(String name)
+   {
+      return find(name) >= 0;
+   }
+
+   /**
+    * Get image by name. Image is decoded on first request and the same instance is returned afterwards.
+    *
+    * @param name image name
+    * @return image or null if archive does not contain image with given name
+    * @throws SVGParseException if stored image is corrupted
+    */
+   public SVGImage getImage(String name) throws SVGParseException
+   {
+      int entry = find(name);
+      if (entry < 0)
+         return null;
+      SVGImage image = images.get(entry);
+      if (image == null)
+      {
+         int e = entryTableOffset + entry * ENTRY_SIZE;
+         ByteBuffer data = buffer.duplicate();
+         data.position(buffer.getInt(e + 12)).limit(buffer.getInt(e + 12) + buffer.getInt(e + 16));
+         image = SVGImage.readCompiled(data);
+         if (!images.compareAndSet(entry, null, image))
+            image = images.get(entry);
+      }
+      return image;
+   }
+
+   /**
+    * Get names of all images in archive, sorted. Names are decoded on access.
+    *
+    * @return unmodifiable list of image names
+    */
+   public List<String> getNames()
+   {
+      return new AbstractList<String>() {
+         @Override
+         public String get(int index)
+         {
+            if (index < 0 || index >= entryCount)
+               throw new IndexOutOfBoundsException("Index " + index + " out of range");
+            int e = entryTableOffset + index * ENTRY_SIZE;
+            byte[] name = new byte[buffer.getInt(e + 8)];
+            ByteBuffer data = buffer.duplicate();
+            data.position(buffer.getInt(e + 4));
+            data.get(name);
+            return new String(name, StandardCharsets.UTF_8);
+         }
+
+         @Override
+         public int size()
+         {
+            return entryCount;
+         }
+      };
+   }
+}
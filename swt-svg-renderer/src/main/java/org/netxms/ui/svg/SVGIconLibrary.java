@@ -0,0 +1,285 @@
+package org.netxms.ui.svg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Set of images loaded in parallel from directory, list of files or class path resources. Images are parsed by
+ * several tasks on given executor, one task per available core or per thread of fork-join pool (parser is stateless,
+ * so any number of images can be parsed at once); loading returns when all images are processed. Images which cannot
+ * be loaded do not stop loading of other images and are reported by {@link #getErrors()}.
+ * <p>
+ * Default executor uses virtual threads on Java 21 and later (so reading files does not block parsing) and common
+ * fork-join pool on earlier versions.
+ */
+public final class SVGIconLibrary
+{
+   private final Map<String, SVGImage> images;
+   private final Map<String, SVGParseException> errors;
+
+   /**
+    * Create library from load results.
+    */
+   private SVGIconLibrary(Map<String, SVGImage> images, Map<String, SVGParseException> errors)
+   {
+      this.images = Collections.unmodifiableMap(images);
+      this.errors = Collections.unmodifiableMap(errors);
+   }
+
+   /**
+    * Load all SVG files (files with extension ".svg") from directory tree using default parse options and executor.
+    *
+    * @param directory directory to load (scanned recursively)
+    * @return loaded library
+    * @throws IllegalArgumentException if given file is not a directory
+    */
+   public static SVGIconLibrary load(File directory)
+   {
+      return load(directory, null, null);
+   }
+
+   /**
+    * Load all SVG files (files with extension ".svg") from directory tree. Images are named by their path relative
+    * to given directory with "/" as separator, for example "objects/node.svg".
+    *
+    * @param directory directory to load (scanned recursively)
+    * @param options parse options (null for defaults)
+    * @param executor executor for parse tasks (null for default executor)
+    * @return loaded library
+    * @throws IllegalArgumentException if given file is not a directory
+    */
+   public static SVGIconLibrary load(File directory, SVGParseOptions options, Executor executor)
+   {
+      if (directory == null || !directory.isDirectory())
+         throw new IllegalArgumentException(directory + " is not a directory");
+      List<String> names = new ArrayList<>();
+      List<File> files = new ArrayList<>();
+      scan(directory, "", names, files);
+      return load(names, (i) -> SVGImage.createFromFile(files.get(i), options), executor);
+   }
+
+   /**
+    * Load given SVG files. Images are named by file path as returned by {@link File#getPath()}.
+    *
+    * @param files files to load
+    * @param options parse options (null for defaults)
+    * @param executor executor for parse tasks (null for default executor)
+    * @return loaded library
+    */
+   public static SVGIconLibrary load(Collection<File> files, SVGParseOptions options, Executor executor)
+   {
+      List<File> list = new ArrayList<>(files);
+      List<String> names = new ArrayList<>(list.size());
+      for (File f : list)
+         names.add(f.getPath());
+      return load(names, (i) -> SVGImage.createFromFile(list.get(i), options), executor);
+   }
+
+   /**
+    * Load given class path resources. Images are named by resource name.
+    *
+    * @param classLoader class loader to load resources from
+    * @param resources resource names (as accepted by {@link ClassLoader#getResourceAsStream(String)})
+    * @param options parse options (null for defaults)
+    * @param executor executor for parse tasks (null for default executor)
+    * @return loaded library
+    */
+   public static SVGIconLibrary loadResources(ClassLoader classLoader, Collection<String> resources, SVGParseOptions options, Executor executor)
+   {
+      List<String> names = new ArrayList<>(resources);
+      return load(names, (i) -> {
+         String name = names.get(i);
+         try (InputStream in = classLoader.getResourceAsStream(name))
+         {
+            if (in == null)
+               throw new SVGParseException("Resource " + name + " not found");
+            return SVGImage.createFromStream(in, options);
+         }
+         catch(IOException e)
+         {
+            throw new SVGParseException("Failed to read resource " + name, e);
+         }
+      }, executor);
+   }
+
+   /**
+    * Load images in parallel.
+    *
+    * @param names image names
+    * @param loader image loader (called with image index)
+    * @param executor executor for parse tasks (null for default executor)
+    * @return loaded library
+    */
+   private static SVGIconLibrary load(List<String> names, ImageLoader loader, Executor executor)
+   {
+      if (executor == null)
+         executor = getDefaultExecutor();
+
+      // Fixed number of tasks take images from shared counter, so scheduling overhead does not depend on number of
+      // images and faster tasks take over remaining work from slower ones
+      int count = names.size();
+      SVGImage[] loaded = new SVGImage[count];
+      SVGParseException[] failed = new SVGParseException[count];
+      AtomicInteger next = new AtomicInteger();
+      int parallelism = (executor instanceof ForkJoinPool) ? ((ForkJoinPool)executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+      CompletableFuture<?>[] tasks = new CompletableFuture<?>[Math.min(count, parallelism)];
+      for (int i = 0; i < tasks.length; i++)
+      {
+         tasks[i] = CompletableFuture.runAsync(() -> {
+            int index;
+            while ((index = next.getAndIncrement()) < count)
+            {
+               try
+               {
+                  loaded[index] = loader.load(index);
+               }
+               catch(SVGParseException e)
+               {
+                  failed[index] = e;
+               }
+               catch(RuntimeException e)
+               {
+                  failed[index] = new SVGParseException("Failed to load " + names.get(index) + ": " + e.getMessage(), e);
+               }
+            }
+         }, executor);
+      }
+      // Completion of all tasks also guarantees visibility of array elements written by them
+      CompletableFuture.allOf(tasks).join();
+
+      Map<String, SVGImage> images = new LinkedHashMap<>();
+      Map<String, SVGParseException> errors = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++)
+      {
+         if (loaded[i] != null)
+            images.put(names.get(i), loaded[i]);
+         else
+            errors.put(names.get(i), failed[i]);
+      }
+      return new SVGIconLibrary(images, errors);
+   }
+
+   /**
+    * Collect SVG files from directory tree, sorted by name within each directory.
+    */
+   private static void scan(File dir, String prefix, List<String> names, List<File> files)
+   {
+      File[] content = dir.listFiles();
+      if (content == null)
+         return;
+      Arrays.sort(content);
+      for (File f : content)
+      {
+         if (f.isDirectory())
+         {
+            scan(f, prefix + f.getName() + "/", names, files);
+         }
+         else if (f.getName().toLowerCase().endsWith(".svg"))
+         {
+            names.add(prefix + f.getName());
+            files.add(f);
+         }
+      }
+   }
+
+   /**
+    * Get executor used when no executor is given: virtual thread per task executor on Java 21 and later, common
+    * fork-join pool otherwise.
+    *
+    * @return default executor
+    */
+   public static Executor getDefaultExecutor()
+   {
+      return DefaultExecutorHolder.executor;
+   }
+
+   /**
+    * Get loaded images in load order (directory order for directories, given order otherwise).
+    *
+    * @return unmodifiable map of image names to images
+    */
+   public Map<String, SVGImage> getImages()
+   {
+      return images;
+   }
+
+   /**
+    * Get loaded image by name.
+    *
+    * @param name image name
+    * @return image or null if image with given name was not loaded
+    */
+   public SVGImage getImage(String name)
+   {
+      return images.get(name);
+   }
+
+   /**
+    * Get images which cannot be loaded.
+    *
+    * @return unmodifiable map of image names to load errors
+    */
+   public Map<String, SVGParseException> getErrors()
+   {
+      return errors;
+   }
+
+   /**
+    * @return true if some images cannot be loaded
+    */
+   public boolean hasErrors()
+   {
+      return !errors.isEmpty();
+   }
+
+   /**
+    * Loader of single image.
+    */
+   @FunctionalInterface
+   private interface ImageLoader
+   {
+      SVGImage load(int index) throws SVGParseException;
+   }
+
+   /**
+    * Lazy holder for default executor.
+    */
+   private static final class DefaultExecutorHolder
+   {
+      static final Executor executor = createDefaultExecutor();
+
+      /**
+       * Library is compiled for Java 11, so virtual thread executor is obtained by reflection.
+       */
+      private static Executor createDefaultExecutor()
+      {
+         if (Runtime.version().feature() >= 21)
+         {
+            try
+            {
+               Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+               return (Executor)method.invoke(null);
+            }
+            catch(ReflectiveOperationException | RuntimeException e)
+            {
+               // Fall back to fork-join pool
+            }
+         }
+         return ForkJoinPool.commonPool();
+      }
+   }
+}
@@ -4,31 +4,120 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
-import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Display;
+import org.netxms.ui.svg.internal.AlphaRecovery;
+import org.netxms.ui.svg.internal.AlphaSurfaceProbe;
+import org.netxms.ui.svg.internal.CompiledDocument;
+import org.netxms.ui.svg.internal.DocumentMetrics;
+import org.netxms.ui.svg.internal.MemoryEstimator;
+import org.netxms.ui.svg.internal.NativeResourceCounter;
+import org.netxms.ui.svg.internal.OptimizeEvent;
+import org.netxms.ui.svg.internal.ParseEvent;
+import org.netxms.ui.svg.internal.RasterizeEvent;
+import org.netxms.ui.svg.internal.RenderCounters;
 import org.netxms.ui.svg.internal.SVGDocument;
+import org.netxms.ui.svg.internal.SVGOptimizer;
 import org.netxms.ui.svg.internal.SVGParser;
 import org.netxms.ui.svg.internal.SVGRenderer;
+import org.netxms.ui.svg.internal.SoftwareRenderer;
+import org.netxms.ui.svg.internal.TransformBaker;
 
 /**
  * Immutable, parsed SVG image ready for rendering on SWT GC.
- * Thread-safe for rendering (no mutable state after construction).
- * Not tied to any Display — all SWT resources are created and disposed per render call.
+ * Thread-safe for rendering (document is not modified after construction).
+ * Not tied to any Display — all SWT resources are created and disposed per render call,
+ * unless rendering is done with {@link SVGRenderContext}.
+ * Render statistics (disabled by default) are the only mutable state and are updated under image's monitor.
  */
 public class SVGImage
 {
+   /** Size of instance fields (document, source, statistics) for memory estimation */
+   private static final int FIELD_SIZE = 3 * 4;
+
+   private static volatile boolean statisticsEnabled = false;
+   private static volatile RenderStatisticsListener statisticsListener = null;
+
    private final SVGDocument document;
+   private final String source;
+   private long[] statistics = null;
 
-   private SVGImage(SVGDocument document)
+   private SVGImage(SVGDocument document, SVGParseOptions options, String source)
+   {
+      OptimizeEvent event = new OptimizeEvent();
+      event.begin();
+      SVGDocument baked = TransformBaker.bake(document);
+      this.document = (options == null || options.isOptimize()) ? new SVGOptimizer().optimize(baked) : baked;
+      this.source = source;
+      event.end();
+      if (event.shouldCommit())
+      {
+         event.documentId = System.identityHashCode(this.document);
+         event.nodesBefore = DocumentMetrics.countNodes(document);
+         event.nodesAfter = DocumentMetrics.countNodes(this.document);
+         event.commit();
+      }
+   }
+
+   /**
+    * Create image from already processed document (loaded from compiled form).
+    */
+   private SVGImage(SVGDocument document, String source)
    {
       this.document = document;
+      this.source = source;
+   }
+
+   /**
+    * Parser invocation for {@link #create}.
+    */
+   private interface DocumentParser
+   {
+      SVGDocument parse() throws SVGParseException;
+   }
+
+   /**
+    * Parse document and create image, emitting flight recorder event for parsing.
+    *
+    * @param parser parser invocation
+    * @param source source file name or null
+    * @param inputSize size of input in bytes or -1 if unknown
+    * @param options parse options (null for defaults)
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   private static SVGImage create(DocumentParser parser, String source, long inputSize, SVGParseOptions options) throws SVGParseException
+   {
+      boolean monitored = SVGRendererMonitor.isEnabled();
+      long start = monitored ? System.nanoTime() : 0;
+      ParseEvent event = new ParseEvent();
+      event.begin();
+      SVGDocument doc = parser.parse();
+      event.end();
+      SVGImage image = new SVGImage(doc, options, source);
+      if (monitored)
+         SVGRendererMonitor.imageParsed(image, start);
+      if (event.shouldCommit())
+      {
+         event.source = source;
+         event.documentId = System.identityHashCode(image.document);
+         event.inputSize = inputSize;
+         event.fastParser = (options != null) && options.isFastParser();
+         event.nodeCount = DocumentMetrics.countNodes(doc);
+         event.segmentCount = DocumentMetrics.countSegments(doc);
+         event.commit();
+      }
+      return image;
    }
 
    /**
@@ -39,10 +128,23 @@ public class SVGImage
     * @throws SVGParseException if SVG is malformed or uses unsupported features
     */
    public static SVGImage createFromFile(File file) throws SVGParseException
+   {
+      return createFromFile(file, null);
+   }
+
+   /**
+    * Parse SVG from a file using given parse options.
+    *
+    * @param file the SVG file
+    * @param options parse options (null for defaults)
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromFile(File file, SVGParseOptions options) throws SVGParseException
    {
       try (InputStream is = new FileInputStream(file))
       {
-         return createFromStream(is);
+         return create(() -> SVGParser.parse(is, options), file.getPath(), file.length(), options);
       }
       catch(IOException e)
       {
@@ -59,8 +161,20 @@ public class SVGImage
     */
    public static SVGImage createFromStream(InputStream stream) throws SVGParseException
    {
-      SVGDocument doc = SVGParser.parse(stream);
-      return new SVGImage(doc);
+      return createFromStream(stream, null);
+   }
+
+   /**
+    * Parse SVG from an input stream using given parse options.
+    *
+    * @param stream the input stream
+    * @param options parse options (null for defaults)
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromStream(InputStream stream, SVGParseOptions options) throws SVGParseException
+   {
+      return create(() -> SVGParser.parse(stream, options), null, -1, options);
    }
 
    /**
@@ -72,8 +186,147 @@ public class SVGImage
     */
    public static SVGImage createFromString(String svgContent) throws SVGParseException
    {
-      SVGDocument doc = SVGParser.parse(svgContent);
-      return new SVGImage(doc);
+      return createFromString(svgContent, null);
+   }
+
+   /**
+    * Parse SVG from a string using given parse options.
+    *
+    * @param svgContent the SVG content string
+    * @param options parse options (null for defaults)
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromString(String svgContent, SVGParseOptions options) throws SVGParseException
+   {
+      return create(() -> SVGParser.parse(svgContent, options), null, -1, options);
+   }
+
+   /**
+    * Parse SVG from a byte array.
+    *
+    * @param data the SVG content
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromBytes(byte[] data) throws SVGParseException
+   {
+      return createFromBytes(data, null);
+   }
+
+   /**
+    * Parse SVG from a byte array using given parse options.
+    *
+    * @param data the SVG content
+    * @param options parse options (null for defaults)
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromBytes(byte[] data, SVGParseOptions options) throws SVGParseException
+   {
+      return create(() -> SVGParser.parse(data, 0, data.length, options), null, data.length, options);
+   }
+
+   /**
+    * Parse SVG from a byte buffer. SVG content is read between buffer's position and limit;
+    * buffer position is not changed.
+    *
+    * @param buffer the SVG content
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromBuffer(ByteBuffer buffer) throws SVGParseException
+   {
+      return createFromBuffer(buffer, null);
+   }
+
+   /**
+    * Parse SVG from a byte buffer using given parse options. SVG content is read between buffer's
+    * position and limit; buffer position is not changed.
+    *
+    * @param buffer the SVG content
+    * @param options parse options (null for defaults)
+    * @return parsed SVGImage
+    * @throws SVGParseException if SVG is malformed or uses unsupported features
+    */
+   public static SVGImage createFromBuffer(ByteBuffer buffer, SVGParseOptions options) throws SVGParseException
+   {
+      return create(() -> SVGParser.parse(buffer, options), null, buffer.remaining(), options);
+   }
+
+   /**
+    * Create image drawn by generated code (see {@link SVGCodeGenerator}). Returned image can be used everywhere
+    * where parsed image can, except {@link #writeCompiled(OutputStream)}.
+    *
+    * @param renderable generated image
+    * @return SVGImage drawn by given renderable
+    */
+   public static SVGImage createFromRenderable(SVGRenderable renderable)
+   {
+      if (renderable == null)
+         throw new IllegalArgumentException("Renderable is null");
+      return new SVGImage(new SVGDocument(renderable), renderable.getClass().getName());
+   }
+
+   /**
+    * Write image in compiled binary form. Compiled form contains processed document tree (after transform baking and
+    * optimization), so it can be loaded with {@link #readCompiled(InputStream)} much faster than SVG source can be
+    * parsed. Format is versioned and protected by checksum.
+    *
+    * @param out output stream (not closed by this method)
+    * @throws IOException on write error
+    * @throws IllegalStateException if image was created by {@link #createFromRenderable(SVGRenderable)}
+    */
+   public void writeCompiled(OutputStream out) throws IOException
+   {
+      if (document.getRenderable() != null)
+         throw new IllegalStateException("Image created from generated code cannot be written in compiled form");
+      CompiledDocument.write(document, out);
+   }
+
+   /**
+    * Read image in compiled binary form written by {@link #writeCompiled(OutputStream)}. Stream is read up to the end
+    * of compiled image.
+    *
+    * @param stream input stream (not closed by this method)
+    * @return loaded SVGImage
+    * @throws SVGParseException if data is not valid compiled image or cannot be read
+    */
+   public static SVGImage readCompiled(InputStream stream) throws SVGParseException
+   {
+      try
+      {
+         byte[] header = stream.readNBytes(CompiledDocument.HEADER_SIZE);
+         int size = CompiledDocument.getSize(ByteBuffer.wrap(header));
+         byte[] data = new byte[size];
+         System.arraycopy(header, 0, data, 0, header.length);
+         int bytes = stream.readNBytes(data, header.length, size - header.length);
+         if (bytes < size - header.length)
+            throw new SVGParseException("Invalid compiled SVG document: truncated data");
+         return readCompiled(ByteBuffer.wrap(data));
+      }
+      catch(IOException e)
+      {
+         throw new SVGParseException("Failed to read compiled SVG document", e);
+      }
+   }
+
+   /**
+    * Read image in compiled binary form written by {@link #writeCompiled(OutputStream)}. Compiled image is read
+    * starting at buffer's position; buffer position is not changed.
+    *
+    * @param buffer buffer with compiled image
+    * @return loaded SVGImage
+    * @throws SVGParseException if data is not valid compiled image
+    */
+   public static SVGImage readCompiled(ByteBuffer buffer) throws SVGParseException
+   {
+      boolean monitored = SVGRendererMonitor.isEnabled();
+      long start = monitored ? System.nanoTime() : 0;
+      SVGImage image = new SVGImage(CompiledDocument.read(buffer), null);
+      if (monitored)
+         SVGRendererMonitor.imageParsed(image, start);
+      return image;
    }
 
    /**
@@ -133,7 +386,61 @@ public class SVGImage
    public void render(GC gc, int x, int y, int width, int height,
          Color currentColor, ScaleMode scaleMode)
    {
-      SVGRenderer.render(document, gc, x, y, width, height, currentColor, scaleMode);
+      if (!statisticsEnabled)
+      {
+         SVGRenderer.render(document, gc, x, y, width, height, currentColor, scaleMode);
+         return;
+      }
+
+      RenderCounters counters = new RenderCounters();
+      long start = System.nanoTime();
+      SVGRenderer.render(document, gc, x, y, width, height, currentColor, scaleMode, counters);
+      recordStatistics(false, counters, start);
+   }
+
+   /**
+    * Render SVG into the given bounds using given render context, ScaleMode.UNIFORM, and
+    * currentColor = black. SWT resources created for rendering are kept in the context and
+    * reused by subsequent calls.
+    *
+    * @param context render context (must be bound to the same device as GC)
+    * @param gc the graphics context to render to
+    * @param x target x position in pixels
+    * @param y target y position in pixels
+    * @param width target width in pixels
+    * @param height target height in pixels
+    */
+   public void render(SVGRenderContext context, GC gc, int x, int y, int width, int height)
+   {
+      render(context, gc, x, y, width, height, null, ScaleMode.UNIFORM);
+   }
+
+   /**
+    * Render SVG using given render context with explicit currentColor and scale mode. SWT resources
+    * created for rendering are kept in the context and reused by subsequent calls.
+    *
+    * @param context render context (must be bound to the same device as GC)
+    * @param gc the graphics context to render to
+    * @param x target x position in pixels
+    * @param y target y position in pixels
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor the color to use for "currentColor" values, or null for black
+    * @param scaleMode how to scale the SVG into the target rectangle
+    */
+   public void render(SVGRenderContext context, GC gc, int x, int y, int width, int height,
+         Color currentColor, ScaleMode scaleMode)
+   {
+      if (!statisticsEnabled)
+      {
+         SVGRenderer.render(document, gc, x, y, width, height, currentColor, scaleMode, context.getCache());
+         return;
+      }
+
+      RenderCounters counters = new RenderCounters();
+      long start = System.nanoTime();
+      SVGRenderer.render(document, gc, x, y, width, height, currentColor, scaleMode, context.getCache(), counters);
+      recordStatistics(false, counters, start);
    }
 
    /**
@@ -173,9 +480,57 @@ public class SVGImage
    }
 
    /**
-    * Rasterize SVG to an SWT Image with proper alpha transparency. SWT GC drawing does not update the alpha channel of the target
-    * image, so this method uses the dual-render technique: it renders on both black and white backgrounds, then computes per-pixel
-    * alpha from the difference.
+    * Estimate heap memory retained by this image. Estimate covers parsed document tree (nodes, styles, transforms,
+    * path segments and points); source file name, render statistics and SWT resources are not included.
+    *
+    * @return estimated memory usage
+    */
+   public SVGMemoryUsage estimateMemoryUsage()
+   {
+      MemoryEstimator estimator = new MemoryEstimator();
+      estimator.add(document, FIELD_SIZE);
+      return new SVGMemoryUsage(estimator);
+   }
+
+   /**
+    * Estimate heap memory retained by given images together. Objects shared between images are counted once.
+    *
+    * @param images images to estimate
+    * @return estimated memory usage
+    */
+   public static SVGMemoryUsage estimateMemoryUsage(Collection<SVGImage> images)
+   {
+      MemoryEstimator estimator = new MemoryEstimator();
+      for (SVGImage image : images)
+         estimator.add(image.document, FIELD_SIZE);
+      return new SVGMemoryUsage(estimator);
+   }
+
+   /**
+    * Get parsed document.
+    *
+    * @return parsed document
+    */
+   SVGDocument getDocument()
+   {
+      return document;
+   }
+
+   /**
+    * Get source file name.
+    *
+    * @return source file name or null
+    */
+   String getSource()
+   {
+      return source;
+   }
+
+   /**
+    * Rasterize SVG to an SWT Image with proper alpha transparency. If the platform supports drawing on images with alpha channel
+    * (checked once per display), SVG is rendered once onto transparent image. Otherwise this method uses the dual-render technique:
+    * it renders on both black and white backgrounds, then computes per-pixel alpha from the difference. Single pass rendering can be
+    * disabled by setting system property {@code org.netxms.ui.svg.disableSinglePassRasterization} to {@code true}.
     *
     * @param display display to create image on
     * @param width target width in pixels
@@ -199,59 +554,239 @@ public class SVGImage
     */
    public Image rasterize(Display display, int width, int height, Color currentColor, ScaleMode scaleMode)
    {
-      ImageData onBlack = renderOnBackground(display, width, height, 0, 0, 0, currentColor, scaleMode);
-      ImageData onWhite = renderOnBackground(display, width, height, 255, 255, 255, currentColor, scaleMode);
+      RasterizeEvent event = new RasterizeEvent();
+      event.begin();
+      boolean monitored = SVGRendererMonitor.isEnabled();
+      RenderCounters counters = statisticsEnabled ? new RenderCounters() : null;
+      long start = (counters != null || monitored) ? System.nanoTime() : 0;
+      boolean singlePass = AlphaSurfaceProbe.isSupported(display);
+      Image image = singlePass ?
+            rasterizeSinglePass(display, width, height, currentColor, scaleMode, counters) :
+            rasterizeDualPass(display, width, height, currentColor, scaleMode, counters);
+      if (counters != null)
+         recordStatistics(true, counters, start);
+      if (monitored)
+         SVGRendererMonitor.imageRasterized(start);
+      commitRasterizeEvent(event, singlePass ? RasterizeEvent.SINGLE_PASS : RasterizeEvent.DUAL_PASS, width, height);
+      return image;
+   }
 
-      PaletteData palette = new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF);
-      ImageData result = new ImageData(width, height, 32, palette);
-      result.alphaData = new byte[width * height];
+   /**
+    * Rasterize SVG to image data using pure Java software renderer. Does not require a display and can be called from any thread.
+    *
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @return image data with 32 bit RGB pixels and alpha data
+    */
+   public ImageData rasterizeToImageData(int width, int height)
+   {
+      return rasterizeToImageData(width, height, null, ScaleMode.UNIFORM);
+   }
 
-      for(int y = 0; y < height; y++)
+   /**
+    * Rasterize SVG to image data using pure Java software renderer with explicit currentColor. Does not require a display and can
+    * be called from any thread.
+    *
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor the color to use for "currentColor" values, or null for black
+    * @param scaleMode how to scale the SVG into the target rectangle
+    * @return image data with 32 bit RGB pixels and alpha data
+    */
+   public ImageData rasterizeToImageData(int width, int height, RGB currentColor, ScaleMode scaleMode)
+   {
+      return SoftwareRenderer.toImageData(rasterizeToARGB(width, height, currentColor, scaleMode), width, height);
+   }
+
+   /**
+    * Rasterize SVG to array of non-premultiplied ARGB pixels (0xAARRGGBB, row by row) using pure Java software renderer. Does not
+    * require a display and can be called from any thread.
+    *
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor the color to use for "currentColor" values, or null for black
+    * @param scaleMode how to scale the SVG into the target rectangle
+    * @return array of width * height pixels
+    */
+   public int[] rasterizeToARGB(int width, int height, RGB currentColor, ScaleMode scaleMode)
+   {
+      RasterizeEvent event = new RasterizeEvent();
+      event.begin();
+      int color = (currentColor != null) ? (currentColor.red << 16) | (currentColor.green << 8) | currentColor.blue : 0;
+      boolean monitored = SVGRendererMonitor.isEnabled();
+      RenderCounters counters = statisticsEnabled ? new RenderCounters() : null;
+      long start = (counters != null || monitored) ? System.nanoTime() : 0;
+      int[] pixels = SoftwareRenderer.render(document, width, height, color, scaleMode, counters);
+      if (counters != null)
+         recordStatistics(true, counters, start);
+      if (monitored)
+         SVGRendererMonitor.imageRasterized(start);
+      commitRasterizeEvent(event, RasterizeEvent.SOFTWARE, width, height);
+      return pixels;
+   }
+
+   /**
+    * Finish rasterize event and commit it if it exceeds configured threshold.
+    */
+   private void commitRasterizeEvent(RasterizeEvent event, String method, int width, int height)
+   {
+      event.end();
+      if (!event.shouldCommit())
+         return;
+      event.source = source;
+      event.documentId = System.identityHashCode(document);
+      event.method = method;
+      event.width = width;
+      event.height = height;
+      event.nodeCount = DocumentMetrics.countNodes(document);
+      event.segmentCount = DocumentMetrics.countSegments(document);
+      event.commit();
+   }
+
+   /**
+    * Rasterize by rendering once onto transparent image. Requires platform support for drawing on images with alpha channel.
+    */
+   Image rasterizeSinglePass(Display display, int width, int height, Color currentColor, ScaleMode scaleMode)
+   {
+      return rasterizeSinglePass(display, width, height, currentColor, scaleMode, null);
+   }
+
+   /**
+    * Rasterize by rendering once onto transparent image, collecting statistics.
+    */
+   private Image rasterizeSinglePass(Display display, int width, int height, Color currentColor, ScaleMode scaleMode, RenderCounters counters)
+   {
+      Image image = AlphaSurfaceProbe.createTransparentImage(display, width, height, counters);
+      GC gc = new GC(image);
+      NativeResourceCounter.created(NativeResourceCounter.GC, counters);
+      try
+      {
+         gc.setAdvanced(true);
+         gc.setAntialias(SWT.ON);
+         SVGRenderer.render(document, gc, 0, 0, width, height, currentColor, scaleMode, counters);
+      }
+      finally
       {
-         for(int x = 0; x < width; x++)
-         {
-            int pb = onBlack.getPixel(x, y);
-            int pw = onWhite.getPixel(x, y);
-
-            int rb = (pb >> 16) & 0xFF, gb = (pb >> 8) & 0xFF, bb = pb & 0xFF;
-            int rw = (pw >> 16) & 0xFF, gw = (pw >> 8) & 0xFF, bw = pw & 0xFF;
-
-            // alpha = 255 - max(white_channel - black_channel)
-            int alpha = 255 - Math.max(Math.max(rw - rb, gw - gb), bw - bb);
-            result.alphaData[y * width + x] = (byte)alpha;
-
-            if (alpha > 0)
-            {
-               // Recover original color: source = black_pixel * 255 / alpha
-               int r = Math.min(255, rb * 255 / alpha);
-               int g = Math.min(255, gb * 255 / alpha);
-               int b = Math.min(255, bb * 255 / alpha);
-               result.setPixel(x, y, (r << 16) | (g << 8) | b);
-            }
-         }
+         gc.dispose();
       }
+      return image;
+   }
 
-      return new Image(display, result);
+   /**
+    * Rasterize by rendering on black and white backgrounds and recovering alpha from the difference.
+    */
+   Image rasterizeDualPass(Display display, int width, int height, Color currentColor, ScaleMode scaleMode)
+   {
+      return rasterizeDualPass(display, width, height, currentColor, scaleMode, null);
+   }
+
+   /**
+    * Rasterize by rendering on black and white backgrounds, collecting statistics.
+    */
+   private Image rasterizeDualPass(Display display, int width, int height, Color currentColor, ScaleMode scaleMode, RenderCounters counters)
+   {
+      ImageData onBlack = renderOnBackground(display, width, height, 0, 0, 0, currentColor, scaleMode, counters);
+      ImageData onWhite = renderOnBackground(display, width, height, 255, 255, 255, currentColor, scaleMode, counters);
+
+      NativeResourceCounter.created(NativeResourceCounter.IMAGE, counters);
+      return new Image(display, AlphaRecovery.recover(onBlack, onWhite));
    }
 
    /**
     * Render SVG onto a solid color background and return the resulting ImageData.
     */
    private ImageData renderOnBackground(Display display, int width, int height, int bgR, int bgG, int bgB,
-         Color currentColor, ScaleMode scaleMode)
+         Color currentColor, ScaleMode scaleMode, RenderCounters counters)
    {
       Image image = new Image(display, width, height);
       GC gc = new GC(image);
       Color bg = new Color(display, bgR, bgG, bgB);
+      NativeResourceCounter.created(NativeResourceCounter.IMAGE, counters);
+      NativeResourceCounter.created(NativeResourceCounter.GC, counters);
+      NativeResourceCounter.created(NativeResourceCounter.COLOR, counters);
       gc.setBackground(bg);
       gc.fillRectangle(0, 0, width, height);
       bg.dispose();
       gc.setAdvanced(true);
       gc.setAntialias(SWT.ON);
-      SVGRenderer.render(document, gc, 0, 0, width, height, currentColor, scaleMode);
+      SVGRenderer.render(document, gc, 0, 0, width, height, currentColor, scaleMode, counters);
       gc.dispose();
       ImageData data = image.getImageData();
       image.dispose();
       return data;
    }
+
+   /**
+    * Add statistics of completed call to this image's totals and notify listener.
+    */
+   private void recordStatistics(boolean rasterize, RenderCounters counters, long start)
+   {
+      long elapsed = System.nanoTime() - start;
+      synchronized(this)
+      {
+         if (statistics == null)
+            statistics = new long[RenderStatistics.SIZE];
+         RenderStatistics.add(statistics, rasterize, counters, elapsed);
+      }
+      RenderStatisticsListener listener = statisticsListener;
+      if (listener != null)
+         listener.renderCompleted(this, RenderStatistics.fromCounters(rasterize, counters, elapsed));
+   }
+
+   /**
+    * Get statistics accumulated by render and rasterize calls on this image since statistics collection was enabled or
+    * statistics were reset.
+    *
+    * @return statistics snapshot (all zeroes if nothing was collected)
+    */
+   public RenderStatistics getRenderStatistics()
+   {
+      synchronized(this)
+      {
+         return (statistics != null) ? new RenderStatistics(statistics.clone()) : RenderStatistics.EMPTY;
+      }
+   }
+
+   /**
+    * Reset statistics accumulated for this image.
+    */
+   public void resetRenderStatistics()
+   {
+      synchronized(this)
+      {
+         statistics = null;
+      }
+   }
+
+   /**
+    * Enable or disable collection of render statistics for all images (disabled by default). When disabled, the only
+    * overhead is a single volatile read per render or rasterize call.
+    *
+    * @param enabled true to enable statistics collection
+    */
+   public static void setStatisticsEnabled(boolean enabled)
+   {
+      statisticsEnabled = enabled;
+   }
+
+   /**
+    * Check if render statistics collection is enabled.
+    *
+    * @return true if statistics collection is enabled
+    */
+   public static boolean isStatisticsEnabled()
+   {
+      return statisticsEnabled;
+   }
+
+   /**
+    * Set listener to be notified with statistics of each render or rasterize call while statistics collection is
+    * enabled.
+    *
+    * @param listener new listener or null to remove current one
+    */
+   public static void setStatisticsListener(RenderStatisticsListener listener)
+   {
+      statisticsListener = listener;
+   }
 }
@@ -0,0 +1,247 @@
+package org.netxms.ui.svg;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+import org.netxms.ui.svg.internal.DisplayDisposeRegistry;
+import org.netxms.ui.svg.internal.ResourceCache;
+
+/**
+ * Cache of rasterized SVG images. Identical requests (same SVG image, size, current color and scale
+ * mode) share single SWT image. Images are reference-counted: every image obtained by
+ * {@link #acquire(SVGImage, int, int, Color, ScaleMode)} must be returned by {@link #release(Image)}
+ * and must not be disposed by the caller.
+ * <p>
+ * Cache size is limited by estimated memory usage of cached images and optionally by number of
+ * cached images (native handles). When limit is exceeded, least recently used images are removed
+ * from the cache; images still in use are disposed when released. Cache is thread-safe; concurrent
+ * requests for the same missing image wait for single rasterization. Cache is disposed automatically
+ * when the display is disposed.
+ */
+public class SVGImageCache
+{
+   private final Display display;
+   private final ResourceCache<Key, Image> cache;
+
+   /**
+    * Create new image cache without limit on number of images. Must be called from the UI thread.
+    *
+    * @param display display to create images on
+    * @param maxBytes maximum estimated memory usage of cached images in bytes
+    */
+   public SVGImageCache(Display display, long maxBytes)
+   {
+      this(display, maxBytes, 0);
+   }
+
+   /**
+    * Create new image cache. Must be called from the UI thread.
+    *
+    * @param display display to create images on
+    * @param maxBytes maximum estimated memory usage of cached images in bytes
+    * @param maxImages maximum number of cached images (native handles), or 0 for no limit
+    */
+   public SVGImageCache(Display display, long maxBytes, int maxImages)
+   {
+      if (display == null || display.isDisposed())
+         throw new IllegalArgumentException("Display is null or disposed");
+      if (maxBytes <= 0 || maxImages < 0)
+         throw new IllegalArgumentException("Invalid cache limits");
+      this.display = display;
+      cache = new ResourceCache<>(maxBytes, maxImages, (image) -> {
+         Rectangle r = image.getBounds();
+         return estimateImageSize(r.width, r.height);
+      }, (image) -> {
+         if (!image.isDisposed())
+            image.dispose();
+      });
+      DisplayDisposeRegistry.register(display, this, SVGImageCache::dispose);
+      SVGRendererMonitor.addImageCache(this);
+   }
+
+   /**
+    * Get rasterized image using ScaleMode.UNIFORM and currentColor = black.
+    *
+    * @param image SVG image
+    * @param width image width in pixels
+    * @param height image height in pixels
+    * @return shared SWT image (must be released with {@link #release(Image)})
+    */
+   public Image acquire(SVGImage image, int width, int height)
+   {
+      return acquire(image, width, height, null, ScaleMode.UNIFORM);
+   }
+
+   /**
+    * Get rasterized image. Image is taken from the cache or rasterized with
+    * {@link SVGImage#rasterize(Display, int, int, Color, ScaleMode)} and added to the cache.
+    *
+    * @param image SVG image
+    * @param width image width in pixels
+    * @param height image height in pixels
+    * @param currentColor the color to use for "currentColor" values, or null for black
+    * @param scaleMode how to scale the SVG into the target rectangle
+    * @return shared SWT image (must be released with {@link #release(Image)})
+    * @throws IllegalStateException if cache is disposed
+    */
+   public Image acquire(SVGImage image, int width, int height, Color currentColor, ScaleMode scaleMode)
+   {
+      Key key = new Key(image, width, height, (currentColor != null) ? currentColor.getRGB() : null, scaleMode);
+      return cache.acquire(key, (k) -> image.rasterize(display, width, height, currentColor, scaleMode));
+   }
+
+   /**
+    * Release image obtained from this cache. Does nothing if cache is already disposed.
+    *
+    * @param image image to release
+    * @throws IllegalArgumentException if image was not obtained from this cache or is already released
+    */
+   public void release(Image image)
+   {
+      cache.release(image);
+   }
+
+   /**
+    * Remove all images from the cache. Images currently in use are disposed when released.
+    */
+   public void clear()
+   {
+      cache.clear();
+   }
+
+   /**
+    * Dispose this cache and all images, including images currently in use.
+    */
+   public void dispose()
+   {
+      DisplayDisposeRegistry.unregister(display, this);
+      SVGRendererMonitor.removeImageCache(this);
+      cache.dispose();
+   }
+
+   /**
+    * Check if this cache is disposed.
+    *
+    * @return true if cache is disposed
+    */
+   public boolean isDisposed()
+   {
+      return cache.isDisposed();
+   }
+
+   /**
+    * Get display this cache is bound to.
+    *
+    * @return display
+    */
+   public Display getDisplay()
+   {
+      return display;
+   }
+
+   /**
+    * Get number of cached images.
+    *
+    * @return number of cached images
+    */
+   public int getImageCount()
+   {
+      return cache.getCount();
+   }
+
+   /**
+    * Get estimated memory usage of cached images.
+    *
+    * @return estimated memory usage in bytes
+    */
+   public long getByteCount()
+   {
+      return cache.getSize();
+   }
+
+   /**
+    * Get number of requests served without rasterization.
+    *
+    * @return number of cache hits
+    */
+   public long getHitCount()
+   {
+      return cache.getHits();
+   }
+
+   /**
+    * Get number of requests which caused rasterization.
+    *
+    * @return number of cache misses
+    */
+   public long getMissCount()
+   {
+      return cache.getMisses();
+   }
+
+   /**
+    * Get number of images removed from the cache because of size limits.
+    *
+    * @return number of evictions
+    */
+   public long getEvictionCount()
+   {
+      return cache.getEvictions();
+   }
+
+   /**
+    * Estimate memory usage of rasterized image (32 bit pixels plus 8 bit alpha).
+    *
+    * @param width image width
+    * @param height image height
+    * @return estimated size in bytes
+    */
+   static long estimateImageSize(int width, int height)
+   {
+      return (long)width * height * 5;
+   }
+
+   /**
+    * Cache key. SVG images are compared by identity.
+    */
+   private static final class Key
+   {
+      private final SVGImage image;
+      private final int width;
+      private final int height;
+      private final RGB currentColor;
+      private final ScaleMode scaleMode;
+
+      Key(SVGImage image, int width, int height, RGB currentColor, ScaleMode scaleMode)
+      {
+         this.image = image;
+         this.width = width;
+         this.height = height;
+         this.currentColor = currentColor;
+         this.scaleMode = scaleMode;
+      }
+
+      @Override
+      public boolean equals(Object obj)
+      {
+         if (!(obj instanceof Key))
+            return false;
+         Key k = (Key)obj;
+         return (image == k.image) && (width == k.width) && (height == k.height) && (scaleMode == k.scaleMode) &&
+               ((currentColor != null) ? currentColor.equals(k.currentColor) : (k.currentColor == null));
+      }
+
+      @Override
+      public int hashCode()
+      {
+         int h = System.identityHashCode(image);
+         h = h * 31 + width;
+         h = h * 31 + height;
+         h = h * 31 + ((currentColor != null) ? currentColor.hashCode() : 0);
+         h = h * 31 + ((scaleMode != null) ? scaleMode.hashCode() : 0);
+         return h;
+      }
+   }
+}
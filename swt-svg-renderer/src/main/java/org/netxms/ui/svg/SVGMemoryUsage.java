@@ -0,0 +1,121 @@
+package org.netxms.ui.svg;
+
+import org.netxms.ui.svg.internal.MemoryEstimator;
+
+/**
+ * Estimated heap memory retained by one or more parsed SVG images, with breakdown by category. Estimate assumes
+ * 64 bit JVM with compressed references; objects shared between images (for example identical styles) are counted
+ * once. Memory used by SWT resources created for rendering is not included.
+ */
+public final class SVGMemoryUsage
+{
+   private final long[] bytes = new long[MemoryEstimator.CATEGORY_COUNT];
+   private final long totalBytes;
+   private final int imageCount;
+   private final int nodeCount;
+   private final int segmentCount;
+
+   /**
+    * Create snapshot from estimator.
+    */
+   SVGMemoryUsage(MemoryEstimator estimator)
+   {
+      for (int i = 0; i < bytes.length; i++)
+         bytes[i] = estimator.get(i);
+      totalBytes = estimator.getTotal();
+      imageCount = estimator.getDocumentCount();
+      nodeCount = estimator.getNodeCount();
+      segmentCount = estimator.getSegmentCount();
+   }
+
+   /**
+    * @return estimated total size in bytes
+    */
+   public long getTotalBytes()
+   {
+      return totalBytes;
+   }
+
+   /**
+    * @return estimated size of image and document objects and child node lists
+    */
+   public long getStructureBytes()
+   {
+      return bytes[MemoryEstimator.STRUCTURE];
+   }
+
+   /**
+    * @return estimated size of node objects (shapes and groups)
+    */
+   public long getNodeBytes()
+   {
+      return bytes[MemoryEstimator.NODES];
+   }
+
+   /**
+    * @return estimated size of style properties, resolved styles and colors
+    */
+   public long getStyleBytes()
+   {
+      return bytes[MemoryEstimator.STYLES];
+   }
+
+   /**
+    * @return estimated size of transformation matrices
+    */
+   public long getTransformBytes()
+   {
+      return bytes[MemoryEstimator.TRANSFORMS];
+   }
+
+   /**
+    * @return estimated size of path segment storage
+    */
+   public long getPathDataBytes()
+   {
+      return bytes[MemoryEstimator.PATH_DATA];
+   }
+
+   /**
+    * @return estimated size of polygon and polyline point arrays
+    */
+   public long getPointBytes()
+   {
+      return bytes[MemoryEstimator.POINTS];
+   }
+
+   /**
+    * @return number of distinct images included in the estimate
+    */
+   public int getImageCount()
+   {
+      return imageCount;
+   }
+
+   /**
+    * @return number of nodes (shapes and groups) in all images
+    */
+   public int getNodeCount()
+   {
+      return nodeCount;
+   }
+
+   /**
+    * @return number of path segments and polygon/polyline points in all images
+    */
+   public int getSegmentCount()
+   {
+      return segmentCount;
+   }
+
+   /**
+    * @see java.lang.Object#toString()
+    */
+   @Override
+   public String toString()
+   {
+      return "SVGMemoryUsage [total=" + getTotalBytes() + ", structure=" + getStructureBytes() + ", nodes=" + getNodeBytes() +
+            ", styles=" + getStyleBytes() + ", transforms=" + getTransformBytes() + ", pathData=" + getPathDataBytes() +
+            ", points=" + getPointBytes() + ", imageCount=" + imageCount + ", nodeCount=" + nodeCount + ", segmentCount=" + segmentCount + "]";
+   }
+}
@@ -0,0 +1,88 @@
+package org.netxms.ui.svg;
+
+/**
+ * Options controlling how SVG source is parsed by {@link SVGImage} factory methods.
+ */
+public class SVGParseOptions
+{
+   private boolean fastParser = false;
+   private boolean optimize = true;
+   private boolean strict = false;
+
+   /**
+    * Create options with default settings.
+    */
+   public SVGParseOptions()
+   {
+   }
+
+   /**
+    * Check if built-in fast XML tokenizer should be used instead of StAX parser.
+    *
+    * @return true if fast XML tokenizer is selected
+    */
+   public boolean isFastParser()
+   {
+      return fastParser;
+   }
+
+   /**
+    * Select built-in fast XML tokenizer instead of StAX parser. Fast tokenizer works directly on
+    * UTF-8 bytes and supports only the XML subset used by SVG icons (elements, attributes, comments,
+    * CDATA sections, processing instructions, predefined and numeric character references). Documents
+    * in other encodings are transparently parsed with StAX parser. DOCTYPE declarations are rejected
+    * by both parsers.
+    *
+    * @param fastParser true to use fast XML tokenizer
+    */
+   public void setFastParser(boolean fastParser)
+   {
+      this.fastParser = fastParser;
+   }
+
+   /**
+    * Check if parsed document tree should be optimized.
+    *
+    * @return true if tree optimization is enabled
+    */
+   public boolean isOptimize()
+   {
+      return optimize;
+   }
+
+   /**
+    * Enable or disable optimization of parsed document tree (enabled by default). Optimizer removes
+    * groups which do not affect rendering and nodes which never draw anything, and merges consecutive
+    * non-overlapping shapes with the same fill into single path. Rendering result is not changed.
+    *
+    * @param optimize true to optimize document tree
+    */
+   public void setOptimize(boolean optimize)
+   {
+      this.optimize = optimize;
+   }
+
+   /**
+    * Check if strict parsing is enabled.
+    *
+    * @return true if strict parsing is enabled
+    */
+   public boolean isStrict()
+   {
+      return strict;
+   }
+
+   /**
+    * Enable or disable strict parsing (disabled by default). By default, problems which parser can recover from
+    * (invalid viewBox, missing or malformed path data, unsupported elements) are logged and offending element is
+    * skipped. In strict mode such problems cause {@link SVGParseException}. Descriptive elements (title, desc,
+    * metadata) and elements from other namespaces are ignored in both modes. Intended for validation of icons at
+    * build time.
+    *
+    * @param strict true to enable strict parsing
+    */
+   public void setStrict(boolean strict)
+   {
+      this.strict = strict;
+   }
+}
@@ -0,0 +1,118 @@
+package org.netxms.ui.svg;
+
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.widgets.Display;
+import org.netxms.ui.svg.internal.DisplayDisposeRegistry;
+import org.netxms.ui.svg.internal.RenderCache;
+
+/**
+ * Render context which keeps SWT resources (compiled paths for each rendered image, colors, and
+ * scratch transforms) between render calls. Using the same context for repeated rendering of the
+ * same images avoids creation of native objects on every paint.
+ * <p>
+ * Context is bound to single device and can only be used for rendering on GCs of that device. It
+ * is not thread-safe and should be used from the thread owning the device (normally the UI thread).
+ * Compiled paths are kept until the image is released with {@link #release(SVGImage)}, or the context
+ * is cleared or disposed. If the device is a {@link Display}, context is disposed automatically when
+ * the display is disposed, even if it was dropped without calling {@link #dispose()}.
+ */
+public class SVGRenderContext
+{
+   private final RenderCache cache;
+
+   /**
+    * Create new render context for given device. Must be called from the thread owning the device.
+    *
+    * @param device device to create resources on
+    */
+   public SVGRenderContext(Device device)
+   {
+      if (device == null || device.isDisposed())
+         throw new IllegalArgumentException("Device is null or disposed");
+      cache = new RenderCache(device, true);
+      if (device instanceof Display)
+         DisplayDisposeRegistry.register((Display)device, this, SVGRenderContext::dispose);
+      SVGRendererMonitor.addRenderContext(this);
+   }
+
+   /**
+    * Get device this context is bound to.
+    *
+    * @return device
+    */
+   public Device getDevice()
+   {
+      return cache.getDevice();
+   }
+
+   /**
+    * Release resources cached for given image.
+    *
+    * @param image image to release resources for
+    */
+   public void release(SVGImage image)
+   {
+      cache.release(image.getDocument());
+   }
+
+   /**
+    * Release all cached resources. Context remains usable.
+    */
+   public void clear()
+   {
+      cache.clear();
+   }
+
+   /**
+    * Dispose this context and all cached resources.
+    */
+   public void dispose()
+   {
+      if (cache.getDevice() instanceof Display)
+         DisplayDisposeRegistry.unregister((Display)cache.getDevice(), this);
+      SVGRendererMonitor.removeRenderContext(this);
+      cache.dispose();
+   }
+
+   /**
+    * Check if this context is disposed.
+    *
+    * @return true if context is disposed
+    */
+   public boolean isDisposed()
+   {
+      return cache.isDisposed();
+   }
+
+   /**
+    * Get number of compiled paths currently cached. Can be called from any thread.
+    *
+    * @return number of cached paths
+    */
+   public int getCachedPathCount()
+   {
+      return cache.getPathCount();
+   }
+
+   /**
+    * Get number of colors currently cached. Can be called from any thread.
+    *
+    * @return number of cached colors
+    */
+   public int getCachedColorCount()
+   {
+      return cache.getColorCount();
+   }
+
+   /**
+    * Get underlying render cache.
+    *
+    * @return render cache
+    */
+   RenderCache getCache()
+   {
+      if (cache.isDisposed())
+         throw new IllegalStateException("Render context is disposed");
+      return cache;
+   }
+}
@@ -0,0 +1,47 @@
+package org.netxms.ui.svg;
+
+/**
+ * Image which draws itself directly on {@link SVGCanvas}, without document tree. Implemented by classes produced by
+ * {@link SVGCodeGenerator}; wrap instance with {@link SVGImage#createFromRenderable(SVGRenderable)} to use it with
+ * any API accepting {@link SVGImage}. Implementations must be stateless, as they can be drawn from several threads
+ * at once.
+ */
+public interface SVGRenderable
+{
+   /**
+    * @return view box origin x coordinate
+    */
+   float getViewBoxX();
+
+   /**
+    * @return view box origin y coordinate
+    */
+   float getViewBoxY();
+
+   /**
+    * @return view box width
+    */
+   float getViewBoxWidth();
+
+   /**
+    * @return view box height
+    */
+   float getViewBoxHeight();
+
+   /**
+    * @return intrinsic width
+    */
+   float getWidth();
+
+   /**
+    * @return intrinsic height
+    */
+   float getHeight();
+
+   /**
+    * Draw image on given canvas.
+    *
+    * @param canvas canvas to draw on
+    */
+   void draw(SVGCanvas canvas);
+}
@@ -0,0 +1,141 @@
+package org.netxms.ui.svg;
+
+import java.util.Map;
+
+/**
+ * Management interface of SVG renderer, registered by {@link SVGRendererMonitor#register()}. Times are in
+ * microseconds unless stated otherwise.
+ */
+public interface SVGRendererMXBean
+{
+   /**
+    * @return number of SVG images parsed since monitoring was enabled or statistics were reset
+    */
+   long getParsedDocumentCount();
+
+   /**
+    * @return number of SVG images parsed while monitoring was enabled which are still reachable
+    */
+   long getLiveDocumentCount();
+
+   /**
+    * @return estimated heap memory retained by live SVG images counted by {@link #getLiveDocumentCount()} (estimated
+    *         on each call)
+    */
+   long getLiveDocumentBytes();
+
+   /**
+    * @return average parse time
+    */
+   double getParseTimeAverage();
+
+   /**
+    * @return maximum parse time
+    */
+   long getParseTimeMax();
+
+   /**
+    * @return parse time histogram (see {@link #getLatencyHistogramBounds()})
+    */
+   long[] getParseLatencyHistogram();
+
+   /**
+    * @return number of rasterize calls since monitoring was enabled or statistics were reset
+    */
+   long getRasterizeCount();
+
+   /**
+    * @return average rasterize time
+    */
+   double getRasterizeTimeAverage();
+
+   /**
+    * @return maximum rasterize time
+    */
+   long getRasterizeTimeMax();
+
+   /**
+    * @return rasterize time histogram (see {@link #getLatencyHistogramBounds()})
+    */
+   long[] getRasterizeLatencyHistogram();
+
+   /**
+    * Get upper bounds of latency histogram buckets. Histograms have one more element than bounds, counting samples
+    * above highest bound.
+    *
+    * @return bucket bounds in microseconds
+    */
+   long[] getLatencyHistogramBounds();
+
+   /**
+    * @return number of active image caches
+    */
+   int getImageCacheCount();
+
+   /**
+    * @return number of SWT images held by all image caches
+    */
+   int getCachedImageCount();
+
+   /**
+    * @return estimated memory used by images held by all image caches
+    */
+   long getCachedImageBytes();
+
+   /**
+    * @return total number of image cache hits
+    */
+   long getImageCacheHits();
+
+   /**
+    * @return total number of image cache misses
+    */
+   long getImageCacheMisses();
+
+   /**
+    * @return total number of image cache evictions
+    */
+   long getImageCacheEvictions();
+
+   /**
+    * @return ratio of image cache hits to all requests (0 if there were no requests)
+    */
+   double getImageCacheHitRatio();
+
+   /**
+    * @return number of active render contexts
+    */
+   int getRenderContextCount();
+
+   /**
+    * @return number of SWT paths held by all render contexts
+    */
+   int getCachedPathCount();
+
+   /**
+    * @return number of SWT colors held by all render contexts
+    */
+   int getCachedColorCount();
+
+   /**
+    * @return number of native SWT resources created by the renderer since process start, by SWT class name
+    */
+   Map<String, Long> getNativeResourcesCreated();
+
+   /**
+    * Remove all images from all image caches. Images currently in use are disposed when released. Caches are
+    * cleared asynchronously on the display's thread.
+    */
+   void clearImageCaches();
+
+   /**
+    * Release all resources held by render contexts bound to a display. Contexts are cleared asynchronously on the
+    * display's thread; contexts bound to other devices are not affected.
+    */
+   void clearRenderContexts();
+
+   /**
+    * Reset parse and rasterize counters and histograms.
+    */
+   void resetStatistics();
+}
@@ -0,0 +1,415 @@
+package org.netxms.ui.svg;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.widgets.Display;
+import org.netxms.ui.svg.internal.LatencyHistogram;
+import org.netxms.ui.svg.internal.NativeResourceCounter;
+
+/**
+ * JMX monitoring of SVG renderer. Monitoring is disabled until {@link #register()} is called; while disabled, the
+ * only overhead is a volatile read per parse or rasterize call. Image caches and render contexts are always
+ * tracked (weakly), so their figures include instances created before registration.
+ */
+public final class SVGRendererMonitor implements SVGRendererMXBean
+{
+   /**
+    * Object name of registered MBean
+    */
+   public static final String OBJECT_NAME = "org.netxms.ui.svg:type=SVGRenderer";
+
+   private static final SVGRendererMonitor instance = new SVGRendererMonitor();
+   private static final Set<SVGImageCache> imageCaches = Collections.newSetFromMap(new WeakHashMap<>());
+   private static final Set<SVGRenderContext> renderContexts = Collections.newSetFromMap(new WeakHashMap<>());
+   private static final Set<SVGImage> liveImages = Collections.newSetFromMap(new WeakHashMap<>());
+
+   private static volatile boolean enabled = false;
+
+   private final LatencyHistogram parseLatency = new LatencyHistogram();
+   private final LatencyHistogram rasterizeLatency = new LatencyHistogram();
+
+   private SVGRendererMonitor()
+   {
+   }
+
+   /**
+    * Enable monitoring and register MBean in platform MBean server under {@link #OBJECT_NAME}. Does nothing if
+    * already registered.
+    *
+    * @throws IllegalStateException if MBean cannot be registered
+    */
+   public static synchronized void register()
+   {
+      try
+      {
+         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+         ObjectName name = new ObjectName(OBJECT_NAME);
+         if (!server.isRegistered(name))
+            server.registerMBean(instance, name);
+         enabled = true;
+      }
+      catch(JMException e)
+      {
+         throw new IllegalStateException("Cannot register SVG renderer MBean", e);
+      }
+   }
+
+   /**
+    * Disable monitoring and unregister MBean. Does nothing if not registered.
+    */
+   public static synchronized void unregister()
+   {
+      enabled = false;
+      try
+      {
+         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+         ObjectName name = new ObjectName(OBJECT_NAME);
+         if (server.isRegistered(name))
+            server.unregisterMBean(name);
+      }
+      catch(JMException e)
+      {
+         throw new IllegalStateException("Cannot unregister SVG renderer MBean", e);
+      }
+   }
+
+   /**
+    * Check if monitoring is enabled.
+    *
+    * @return true if monitoring is enabled
+    */
+   public static boolean isEnabled()
+   {
+      return enabled;
+   }
+
+   /**
+    * Get monitor instance (same object as registered MBean).
+    *
+    * @return monitor instance
+    */
+   public static SVGRendererMonitor getInstance()
+   {
+      return instance;
+   }
+
+   /**
+    * Register parsed image. Called only when monitoring is enabled. Image is only tracked (weakly) here; its memory
+    * usage is estimated when queried, so parsing does not pay for tree walk.
+    *
+    * @param image parsed image
+    * @param start parse start time as returned by {@link System#nanoTime()}
+    */
+   static void imageParsed(SVGImage image, long start)
+   {
+      instance.parseLatency.add(System.nanoTime() - start);
+      synchronized(liveImages)
+      {
+         liveImages.add(image);
+      }
+   }
+
+   /**
+    * Register completed rasterization. Called only when monitoring is enabled.
+    *
+    * @param start rasterize start time as returned by {@link System#nanoTime()}
+    */
+   static void imageRasterized(long start)
+   {
+      instance.rasterizeLatency.add(System.nanoTime() - start);
+   }
+
+   /**
+    * Start tracking of image cache.
+    */
+   static void addImageCache(SVGImageCache cache)
+   {
+      synchronized(imageCaches)
+      {
+         imageCaches.add(cache);
+      }
+   }
+
+   /**
+    * Stop tracking of image cache.
+    */
+   static void removeImageCache(SVGImageCache cache)
+   {
+      synchronized(imageCaches)
+      {
+         imageCaches.remove(cache);
+      }
+   }
+
+   /**
+    * Start tracking of render context.
+    */
+   static void addRenderContext(SVGRenderContext context)
+   {
+      synchronized(renderContexts)
+      {
+         renderContexts.add(context);
+      }
+   }
+
+   /**
+    * Stop tracking of render context.
+    */
+   static void removeRenderContext(SVGRenderContext context)
+   {
+      synchronized(renderContexts)
+      {
+         renderContexts.remove(context);
+      }
+   }
+
+   private static List<SVGImageCache> getImageCaches()
+   {
+      synchronized(imageCaches)
+      {
+         return new ArrayList<>(imageCaches);
+      }
+   }
+
+   private static List<SVGImage> getLiveImages()
+   {
+      synchronized(liveImages)
+      {
+         return new ArrayList<>(liveImages);
+      }
+   }
+
+   private static List<SVGRenderContext> getRenderContexts()
+   {
+      synchronized(renderContexts)
+      {
+         return new ArrayList<>(renderContexts);
+      }
+   }
+
+   private static double averageMicros(LatencyHistogram histogram)
+   {
+      long count = histogram.getCount();
+      return (count > 0) ? histogram.getTotalTime() / 1000.0 / count : 0;
+   }
+
+   @Override
+   public long getParsedDocumentCount()
+   {
+      return parseLatency.getCount();
+   }
+
+   @Override
+   public long getLiveDocumentCount()
+   {
+      synchronized(liveImages)
+      {
+         return liveImages.size();
+      }
+   }
+
+   @Override
+   public long getLiveDocumentBytes()
+   {
+      long bytes = 0;
+      for (SVGImage image : getLiveImages())
+         bytes += image.estimateMemoryUsage().getTotalBytes();
+      return bytes;
+   }
+
+   @Override
+   public double getParseTimeAverage()
+   {
+      return averageMicros(parseLatency);
+   }
+
+   @Override
+   public long getParseTimeMax()
+   {
+      return parseLatency.getMaxTime() / 1000;
+   }
+
+   @Override
+   public long[] getParseLatencyHistogram()
+   {
+      return parseLatency.getBuckets();
+   }
+
+   @Override
+   public long getRasterizeCount()
+   {
+      return rasterizeLatency.getCount();
+   }
+
+   @Override
+   public double getRasterizeTimeAverage()
+   {
+      return averageMicros(rasterizeLatency);
+   }
+
+   @Override
+   public long getRasterizeTimeMax()
+   {
+      return rasterizeLatency.getMaxTime() / 1000;
+   }
+
+   @Override
+   public long[] getRasterizeLatencyHistogram()
+   {
+      return rasterizeLatency.getBuckets();
+   }
+
+   @Override
+   public long[] getLatencyHistogramBounds()
+   {
+      return LatencyHistogram.getBounds();
+   }
+
+   @Override
+   public int getImageCacheCount()
+   {
+      return getImageCaches().size();
+   }
+
+   @Override
+   public int getCachedImageCount()
+   {
+      int count = 0;
+      for (SVGImageCache c : getImageCaches())
+         count += c.getImageCount();
+      return count;
+   }
+
+   @Override
+   public long getCachedImageBytes()
+   {
+      long bytes = 0;
+      for (SVGImageCache c : getImageCaches())
+         bytes += c.getByteCount();
+      return bytes;
+   }
+
+   @Override
+   public long getImageCacheHits()
+   {
+      long hits = 0;
+      for (SVGImageCache c : getImageCaches())
+         hits += c.getHitCount();
+      return hits;
+   }
+
+   @Override
+   public long getImageCacheMisses()
+   {
+      long misses = 0;
+      for (SVGImageCache c : getImageCaches())
+         misses += c.getMissCount();
+      return misses;
+   }
+
+   @Override
+   public long getImageCacheEvictions()
+   {
+      long evictions = 0;
+      for (SVGImageCache c : getImageCaches())
+         evictions += c.getEvictionCount();
+      return evictions;
+   }
+
+   @Override
+   public double getImageCacheHitRatio()
+   {
+      long hits = 0, requests = 0;
+      for (SVGImageCache c : getImageCaches())
+      {
+         hits += c.getHitCount();
+         requests += c.getHitCount() + c.getMissCount();
+      }
+      return (requests > 0) ? (double)hits / requests : 0;
+   }
+
+   @Override
+   public int getRenderContextCount()
+   {
+      return getRenderContexts().size();
+   }
+
+   @Override
+   public int getCachedPathCount()
+   {
+      int count = 0;
+      for (SVGRenderContext c : getRenderContexts())
+         count += c.getCachedPathCount();
+      return count;
+   }
+
+   @Override
+   public int getCachedColorCount()
+   {
+      int count = 0;
+      for (SVGRenderContext c : getRenderContexts())
+         count += c.getCachedColorCount();
+      return count;
+   }
+
+   @Override
+   public Map<String, Long> getNativeResourcesCreated()
+   {
+      Map<String, Long> result = new LinkedHashMap<>();
+      for (int i = 0; i < NativeResourceCounter.getTypeCount(); i++)
+         result.put(NativeResourceCounter.getName(i), NativeResourceCounter.get(i));
+      return result;
+   }
+
+   @Override
+   public void clearImageCaches()
+   {
+      // Cleared images are disposed, which is only allowed on the display's thread
+      for (SVGImageCache c : getImageCaches())
+      {
+         Display display = c.getDisplay();
+         if (!display.isDisposed())
+            display.asyncExec(() -> {
+               if (!c.isDisposed())
+                  c.clear();
+            });
+      }
+   }
+
+   @Override
+   public void clearRenderContexts()
+   {
+      // Contexts are not thread-safe, so they can only be cleared on the owning thread; contexts of other devices
+      // (like printers) do not have known owning thread and are left to the application
+      for (SVGRenderContext c : getRenderContexts())
+      {
+         Device device = c.getDevice();
+         if (device instanceof Display)
+         {
+            Display display = (Display)device;
+            if (!display.isDisposed())
+               display.asyncExec(() -> {
+                  if (!c.isDisposed())
+                     c.clear();
+               });
+         }
+      }
+   }
+
+   @Override
+   public void resetStatistics()
+   {
+      parseLatency.reset();
+      rasterizeLatency.reset();
+   }
+}
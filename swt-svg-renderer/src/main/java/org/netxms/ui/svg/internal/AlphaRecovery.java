@@ -0,0 +1,255 @@
+package org.netxms.ui.svg.internal;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * Recovery of color and alpha from two renderings of the same image on black and white backgrounds.
+ * For each pixel alpha is 255 minus the largest channel difference between white and black renderings,
+ * and color is the black rendering divided by alpha. Works directly on {@link ImageData#data} arrays
+ * instead of going through {@link ImageData#getPixel(int, int)} for every pixel.
+ */
+public final class AlphaRecovery
+{
+   /** Palette of produced images (32 bit, 0xRRGGBB) */
+   private static final PaletteData RGB_PALETTE = new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF);
+
+   /** Un-premultiply table: UNPREMULTIPLY[(alpha << 8) | value] = min(255, value * 255 / alpha) */
+   private static final byte[] UNPREMULTIPLY = createUnpremultiplyTable();
+
+   private AlphaRecovery()
+   {
+   }
+
+   /**
+    * Create image data with alpha from renderings on black and white backgrounds. Both source images
+    * must have the same size. Result is 32 bit direct image with 0xRRGGBB pixels and alpha data.
+    *
+    * @param onBlack image rendered on black background
+    * @param onWhite image rendered on white background
+    * @return image data with alpha
+    */
+   public static ImageData recover(ImageData onBlack, ImageData onWhite)
+   {
+      if (onBlack.width != onWhite.width || onBlack.height != onWhite.height)
+         throw new IllegalArgumentException("Source images have different size");
+
+      int width = onBlack.width;
+      int height = onBlack.height;
+      ImageData result = new ImageData(width, height, 32, RGB_PALETTE);
+      result.alphaData = new byte[width * height];
+      int[] offsets = channelOffsets(onBlack);
+      if (offsets != null && sameFormat(onBlack, onWhite))
+         recoverDirect(onBlack, onWhite, offsets, result);
+      else
+         recoverRows(onBlack, onWhite, result);
+      return result;
+   }
+
+   /**
+    * Recover alpha from images which have each color channel in separate byte, reading source bytes directly.
+    */
+   private static void recoverDirect(ImageData onBlack, ImageData onWhite, int[] offsets, ImageData result)
+   {
+      byte[] black = onBlack.data;
+      byte[] white = onWhite.data;
+      byte[] out = result.data;
+      byte[] alphaData = result.alphaData;
+      int width = onBlack.width;
+      int bytesPerPixel = onBlack.depth / 8;
+      int ro = offsets[0], go = offsets[1], bo = offsets[2];
+      for (int y = 0; y < onBlack.height; y++)
+      {
+         int index = y * onBlack.bytesPerLine;
+         int outIndex = y * result.bytesPerLine;
+         int alphaIndex = y * width;
+         for (int x = 0; x < width; x++, index += bytesPerPixel, outIndex += 4)
+         {
+            int rb = black[index + ro] & 0xFF, gb = black[index + go] & 0xFF, bb = black[index + bo] & 0xFF;
+            int rw = white[index + ro] & 0xFF, gw = white[index + go] & 0xFF, bw = white[index + bo] & 0xFF;
+            int alpha = alpha(rb, gb, bb, rw, gw, bw);
+            alphaData[alphaIndex + x] = (byte)alpha;
+            setColor(out, outIndex, alpha, rb, gb, bb);
+         }
+      }
+   }
+
+   /**
+    * Recover alpha from images of any format, converting source rows to 0xRRGGBB first.
+    */
+   private static void recoverRows(ImageData onBlack, ImageData onWhite, ImageData result)
+   {
+      byte[] out = result.data;
+      byte[] alphaData = result.alphaData;
+      int width = onBlack.width;
+      int[] black = new int[width];
+      int[] white = new int[width];
+      for (int y = 0; y < onBlack.height; y++)
+      {
+         readRow(onBlack, y, black);
+         readRow(onWhite, y, white);
+         int outIndex = y * result.bytesPerLine;
+         int alphaIndex = y * width;
+         for (int x = 0; x < width; x++, outIndex += 4)
+         {
+            int pb = black[x];
+            int pw = white[x];
+
+            int rb = (pb >> 16) & 0xFF, gb = (pb >> 8) & 0xFF, bb = pb & 0xFF;
+            int rw = (pw >> 16) & 0xFF, gw = (pw >> 8) & 0xFF, bw = pw & 0xFF;
+
+            int alpha = alpha(rb, gb, bb, rw, gw, bw);
+            alphaData[alphaIndex + x] = (byte)alpha;
+            setColor(out, outIndex, alpha, rb, gb, bb);
+         }
+      }
+   }
+
+   /**
+    * Calculate alpha as 255 - max(white_channel - black_channel). Pixel which is brighter on black background than
+    * on white (possible with inconsistent renderings or lossy sources) gives value above 255, which is treated as
+    * opaque.
+    */
+   private static int alpha(int rb, int gb, int bb, int rw, int gw, int bw)
+   {
+      return Math.min(255, 255 - Math.max(Math.max(rw - rb, gw - gb), bw - bb));
+   }
+
+   /**
+    * Recover original color (source = black_pixel * 255 / alpha) and store it into 32 bit 0xRRGGBB pixel.
+    * Table lookup returns 0 for alpha 0, so no branch is needed.
+    */
+   private static void setColor(byte[] out, int outIndex, int alpha, int r, int g, int b)
+   {
+      int t = alpha << 8;
+      out[outIndex + 1] = UNPREMULTIPLY[t | r];
+      out[outIndex + 2] = UNPREMULTIPLY[t | g];
+      out[outIndex + 3] = UNPREMULTIPLY[t | b];
+   }
+
+   /**
+    * Get byte offsets of red, green, and blue channels within pixel.
+    *
+    * @return array of offsets or null if image is not 24 or 32 bit direct color image with 8 bit channels
+    */
+   private static int[] channelOffsets(ImageData image)
+   {
+      if (!image.palette.isDirect || (image.depth != 24 && image.depth != 32))
+         return null;
+      int bytesPerPixel = image.depth / 8;
+      int ro = byteOffset(image.palette.redMask, bytesPerPixel);
+      int go = byteOffset(image.palette.greenMask, bytesPerPixel);
+      int bo = byteOffset(image.palette.blueMask, bytesPerPixel);
+      return (ro >= 0 && go >= 0 && bo >= 0) ? new int[] { ro, go, bo } : null;
+   }
+
+   private static boolean sameFormat(ImageData a, ImageData b)
+   {
+      return a.depth == b.depth && a.bytesPerLine == b.bytesPerLine && a.palette.isDirect == b.palette.isDirect &&
+            a.palette.redMask == b.palette.redMask && a.palette.greenMask == b.palette.greenMask && a.palette.blueMask == b.palette.blueMask;
+   }
+
+   private static byte[] createUnpremultiplyTable()
+   {
+      byte[] table = new byte[256 * 256];
+      for (int alpha = 1; alpha < 256; alpha++)
+      {
+         for (int value = 0; value < 256; value++)
+            table[(alpha << 8) | value] = (byte)Math.min(255, value * 255 / alpha);
+      }
+      return table;
+   }
+
+   /**
+    * Read one row of the image as 0xRRGGBB values.
+    *
+    * @param image source image
+    * @param y row index
+    * @param rgb array to receive pixel colors (at least image width elements)
+    */
+   static void readRow(ImageData image, int y, int[] rgb)
+   {
+      PaletteData palette = image.palette;
+      if (!palette.isDirect)
+      {
+         image.getPixels(0, y, image.width, rgb, 0);
+         RGB[] colors = palette.colors;
+         for (int x = 0; x < image.width; x++)
+         {
+            RGB c = colors[rgb[x]];
+            rgb[x] = (c.red << 16) | (c.green << 8) | c.blue;
+         }
+         return;
+      }
+
+      byte[] data = image.data;
+      int index = y * image.bytesPerLine;
+      int width = image.width;
+      switch(image.depth)
+      {
+         case 32:
+         case 24:
+            int bytesPerPixel = image.depth / 8;
+            int ro = byteOffset(palette.redMask, bytesPerPixel);
+            int go = byteOffset(palette.greenMask, bytesPerPixel);
+            int bo = byteOffset(palette.blueMask, bytesPerPixel);
+            if (ro >= 0 && go >= 0 && bo >= 0)
+            {
+               // Each channel occupies whole byte - read channels directly
+               for (int x = 0; x < width; x++, index += bytesPerPixel)
+                  rgb[x] = ((data[index + ro] & 0xFF) << 16) | ((data[index + go] & 0xFF) << 8) | (data[index + bo] & 0xFF);
+            }
+            else if (image.depth == 32)
+            {
+               for (int x = 0; x < width; x++, index += 4)
+                  rgb[x] = toRGB(palette, ((data[index] & 0xFF) << 24) | ((data[index + 1] & 0xFF) << 16) | ((data[index + 2] & 0xFF) << 8) | (data[index + 3] & 0xFF));
+            }
+            else
+            {
+               for (int x = 0; x < width; x++, index += 3)
+                  rgb[x] = toRGB(palette, ((data[index] & 0xFF) << 16) | ((data[index + 1] & 0xFF) << 8) | (data[index + 2] & 0xFF));
+            }
+            break;
+         case 16:
+            // 16 bit pixels are stored least significant byte first
+            for (int x = 0; x < width; x++, index += 2)
+               rgb[x] = toRGB(palette, ((data[index + 1] & 0xFF) << 8) | (data[index] & 0xFF));
+            break;
+         default:
+            image.getPixels(0, y, width, rgb, 0);
+            for (int x = 0; x < width; x++)
+               rgb[x] = toRGB(palette, rgb[x]);
+            break;
+      }
+   }
+
+   /**
+    * Get offset of the byte holding color channel within most significant byte first pixel.
+    *
+    * @return byte offset or -1 if channel mask does not cover exactly one byte
+    */
+   private static int byteOffset(int mask, int bytesPerPixel)
+   {
+      for (int i = 0; i < bytesPerPixel; i++)
+      {
+         if (mask == (0xFF << ((bytesPerPixel - i - 1) * 8)))
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Convert pixel value of direct palette image to 0xRRGGBB.
+    */
+   private static int toRGB(PaletteData palette, int pixel)
+   {
+      int r = pixel & palette.redMask;
+      r = (palette.redShift < 0) ? r >>> -palette.redShift : r << palette.redShift;
+      int g = pixel & palette.greenMask;
+      g = (palette.greenShift < 0) ? g >>> -palette.greenShift : g << palette.greenShift;
+      int b = pixel & palette.blueMask;
+      b = (palette.blueShift < 0) ? b >>> -palette.blueShift : b << palette.blueShift;
+      return (r << 16) | (g << 8) | b;
+   }
+}
@@ -0,0 +1,129 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Logger;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Runtime check if GC drawing on an image with alpha channel updates that alpha channel (true for
+ * cairo based GTK implementation). When supported, SVG can be rasterized in single pass onto
+ * transparent image instead of rendering it twice on black and white backgrounds. Result is
+ * determined once per display by drawing test pixels and reading them back.
+ */
+public final class AlphaSurfaceProbe
+{
+   private static final Logger logger = Logger.getLogger(AlphaSurfaceProbe.class.getName());
+
+   /** System property which disables single pass rasterization when set to true */
+   public static final String DISABLE_PROPERTY = "org.netxms.ui.svg.disableSinglePassRasterization";
+
+   private static final PaletteData RGB_PALETTE = new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF);
+   private static final Map<Display, Boolean> results = new WeakHashMap<>();
+
+   private AlphaSurfaceProbe()
+   {
+   }
+
+   /**
+    * Check if single pass rasterization onto transparent image is supported on given display.
+    *
+    * @param display display
+    * @return true if drawing on transparent image produces correct alpha
+    */
+   public static boolean isSupported(Display display)
+   {
+      if (Boolean.getBoolean(DISABLE_PROPERTY))
+         return false;
+      synchronized(results)
+      {
+         Boolean supported = results.get(display);
+         if (supported == null)
+         {
+            supported = probe(display);
+            logger.fine("Single pass alpha rasterization " + (supported ? "supported" : "not supported") + " on " + SWT.getPlatform());
+            results.put(display, supported);
+         }
+         return supported;
+      }
+   }
+
+   /**
+    * Create fully transparent 32 bit image.
+    *
+    * @param display display
+    * @param width image width
+    * @param height image height
+    * @param counters per-call counters (may be null)
+    * @return new image
+    */
+   public static Image createTransparentImage(Display display, int width, int height, RenderCounters counters)
+   {
+      ImageData data = new ImageData(width, height, 32, RGB_PALETTE);
+      data.alphaData = new byte[width * height];
+      NativeResourceCounter.created(NativeResourceCounter.IMAGE, counters);
+      return new Image(display, data);
+   }
+
+   /**
+    * Draw opaque and half-transparent pixels on transparent image and verify read back values.
+    */
+   private static boolean probe(Display display)
+   {
+      Image image = null;
+      Color red = null;
+      try
+      {
+         image = createTransparentImage(display, 4, 1, null);
+         red = new Color(display, 255, 0, 0);
+         GC gc = new GC(image);
+         NativeResourceCounter.created(NativeResourceCounter.COLOR);
+         NativeResourceCounter.created(NativeResourceCounter.GC);
+         try
+         {
+            gc.setAdvanced(true);
+            if (!gc.getAdvanced())
+               return false;
+            gc.setBackground(red);
+            gc.fillRectangle(0, 0, 1, 1);
+            gc.setAlpha(128);
+            gc.fillRectangle(1, 0, 1, 1);
+         }
+         finally
+         {
+            gc.dispose();
+         }
+
+         ImageData data = image.getImageData();
+         if (data.alphaData == null)
+            return false;
+         int opaque = data.getAlpha(0, 0);
+         int half = data.getAlpha(1, 0);
+         int clear = data.getAlpha(2, 0);
+         RGB c0 = data.palette.getRGB(data.getPixel(0, 0));
+         RGB c1 = data.palette.getRGB(data.getPixel(1, 0));
+         return opaque == 255 && Math.abs(half - 128) <= 2 && clear == 0 &&
+               c0.red >= 250 && c0.green <= 5 && c0.blue <= 5 && c1.red >= 245 && c1.green <= 10 && c1.blue <= 10;
+      }
+      catch(Exception e)
+      {
+         logger.fine("Single pass alpha rasterization probe failed: " + e.getMessage());
+         return false;
+      }
+      finally
+      {
+         if (red != null)
+            red.dispose();
+         if (image != null)
+            image.dispose();
+      }
+   }
+}
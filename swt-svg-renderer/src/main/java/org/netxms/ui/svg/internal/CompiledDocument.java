@@ -0,0 +1,536 @@
+package org.netxms.ui.svg.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.netxms.ui.svg.SVGParseException;
+
+/**
+ * Binary encoding of parsed document tree. Compiled document consists of fixed header and payload (all values
+ * big-endian):
+ * <pre>
+ * header:  magic "SVGC" (4), version (2), flags (2), payload length (4), CRC32 of payload (4)
+ * payload: view box x, y, width, height, intrinsic width, height (6 floats)
+ *          style table:          count, then per entry fill, stroke (int), fill opacity, stroke opacity,
+ *                                stroke width, opacity (float), fill rule, line cap, line join (byte)
+ *          resolved style table: count, then per entry style index (int), stroke width, line width (float)
+ *          transform table:      count, then 6 floats per entry
+ *          float pool:           count, then floats (shape parameters, points, path coordinates)
+ *          verb pool:            count, then path verbs (byte)
+ *          node table:           number of top level nodes, then nodes in pre-order
+ * </pre>
+ * Style and transform objects are interned, so shared objects are stored once. Each node record has type, display
+ * flag, style, resolved style and transform indexes (-1 for none), followed by type specific data: child count for
+ * groups, offset into float pool for basic shapes, offset and count into float pool for polygons and polylines, and
+ * verb offset, verb count and coordinate offset for paths. Geometry is read with bulk array copies.
+ */
+public final class CompiledDocument
+{
+   /** Format magic ("SVGC") */
+   public static final int MAGIC = 0x53564743;
+   /** Current format version */
+   public static final int VERSION = 1;
+   /** Header size in bytes */
+   public static final int HEADER_SIZE = 16;
+
+   private static final byte NODE_GROUP = 0;
+   private static final byte NODE_PATH = 1;
+   private static final byte NODE_RECT = 2;
+   private static final byte NODE_CIRCLE = 3;
+   private static final byte NODE_ELLIPSE = 4;
+   private static final byte NODE_LINE = 5;
+   private static final byte NODE_POLYGON = 6;
+   private static final byte NODE_POLYLINE = 7;
+
+   private static final int COLOR_INHERIT = -1;
+   private static final int COLOR_NONE = -2;
+   private static final int COLOR_CURRENT = -3;
+
+   private CompiledDocument()
+   {
+   }
+
+   /**
+    * Write compiled document to output stream.
+    *
+    * @param doc document to write
+    * @param out output stream
+    * @throws IOException on write error
+    */
+   public static void write(SVGDocument doc, OutputStream out) throws IOException
+   {
+      byte[] payload = new Writer().encode(doc);
+      CRC32 crc = new CRC32();
+      crc.update(payload);
+
+      DataOutputStream dout = new DataOutputStream(out);
+      dout.writeInt(MAGIC);
+      dout.writeShort(VERSION);
+      dout.writeShort(0);
+      dout.writeInt(payload.length);
+      dout.writeInt((int)crc.getValue());
+      dout.write(payload);
+      dout.flush();
+   }
+
+   /**
+    * Get total size (header and payload) of compiled document starting at buffer's position. Only header is
+    * validated.
+    *
+    * @param buffer buffer with compiled document
+    * @return document size in bytes
+    * @throws SVGParseException if header is invalid
+    */
+   public static int getSize(ByteBuffer buffer) throws SVGParseException
+   {
+      return HEADER_SIZE + readHeader(buffer.duplicate().order(ByteOrder.BIG_ENDIAN));
+   }
+
+   /**
+    * Read compiled document starting at buffer's position. Buffer position is not changed.
+    *
+    * @param buffer buffer with compiled document
+    * @return document
+    * @throws SVGParseException if data is not valid compiled document
+    */
+   public static SVGDocument read(ByteBuffer buffer) throws SVGParseException
+   {
+      ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+      int length = readHeader(in);
+      int checksum = in.getInt();
+      if (in.remaining() < length)
+         throw new SVGParseException("Invalid compiled SVG document: truncated data");
+
+      ByteBuffer payload = in.slice();
+      payload.limit(length);
+      CRC32 crc = new CRC32();
+      crc.update(payload.duplicate());
+      if ((int)crc.getValue() != checksum)
+         throw new SVGParseException("Invalid compiled SVG document: checksum mismatch");
+
+      try
+      {
+         return new Reader(payload).decode();
+      }
+      catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+      {
+         throw new SVGParseException("Invalid compiled SVG document: " + e.getClass().getSimpleName(), e);
+      }
+   }
+
+   /**
+    * Validate header and return payload length. Buffer is positioned at checksum field on return.
+    */
+   private static int readHeader(ByteBuffer in) throws SVGParseException
+   {
+      if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+         throw new SVGParseException("Invalid compiled SVG document: bad magic number");
+      int version = in.getShort();
+      if (version != VERSION)
+         throw new SVGParseException("Unsupported compiled SVG document version " + version);
+      in.getShort(); // flags
+      int length = in.getInt();
+      if (length < 0)
+         throw new SVGParseException("Invalid compiled SVG document: bad payload length");
+      return length;
+   }
+
+   /**
+    * Document encoder. Interns shared objects and collects geometry into pools while writing node table.
+    */
+   private static final class Writer
+   {
+      private final Map<StyleProps, Integer> styles = new IdentityHashMap<>();
+      private final Map<ResolvedStyle, Integer> resolvedStyles = new IdentityHashMap<>();
+      private final Map<float[], Integer> transforms = new IdentityHashMap<>();
+      private final List<StyleProps> styleList = new ArrayList<>();
+      private final List<ResolvedStyle> resolvedStyleList = new ArrayList<>();
+      private final List<float[]> transformList = new ArrayList<>();
+      private float[] floats = new float[256];
+      private int floatCount = 0;
+      private byte[] verbs = new byte[256];
+      private int verbCount = 0;
+      private final ByteArrayOutputStream nodeBytes = new ByteArrayOutputStream();
+      private final DataOutputStream nodes = new DataOutputStream(nodeBytes);
+
+      byte[] encode(SVGDocument doc) throws IOException
+      {
+         nodes.writeInt(doc.getChildren().size());
+         for (SVGNode node : doc.getChildren())
+            writeNode(node);
+
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream(nodeBytes.size() + floatCount * 4 + verbCount + 1024);
+         DataOutputStream out = new DataOutputStream(bytes);
+         out.writeFloat(doc.getViewBoxX());
+         out.writeFloat(doc.getViewBoxY());
+         out.writeFloat(doc.getViewBoxWidth());
+         out.writeFloat(doc.getViewBoxHeight());
+         out.writeFloat(doc.getWidth());
+         out.writeFloat(doc.getHeight());
+
+         out.writeInt(styleList.size());
+         for (StyleProps s : styleList)
+         {
+            out.writeInt(encodeColor(s.getFill()));
+            out.writeInt(encodeColor(s.getStroke()));
+            out.writeFloat(s.getFillOpacity());
+            out.writeFloat(s.getStrokeOpacity());
+            out.writeFloat(s.getStrokeWidth());
+            out.writeFloat(s.getOpacity());
+            out.writeByte(s.getFillRule());
+            out.writeByte(s.getLineCap());
+            out.writeByte(s.getLineJoin());
+         }
+
+         out.writeInt(resolvedStyleList.size());
+         for (ResolvedStyle s : resolvedStyleList)
+         {
+            out.writeInt(styles.get(s.getProperties()));
+            out.writeFloat(s.getStrokeWidth());
+            out.writeFloat(s.getLineWidth());
+         }
+
+         out.writeInt(transformList.size());
+         for (float[] m : transformList)
+            for (int i = 0; i < 6; i++)
+               out.writeFloat(m[i]);
+
+         out.writeInt(floatCount);
+         ByteBuffer floatBytes = ByteBuffer.allocate(floatCount * 4);
+         floatBytes.asFloatBuffer().put(floats, 0, floatCount);
+         out.write(floatBytes.array());
+
+         out.writeInt(verbCount);
+         out.write(verbs, 0, verbCount);
+
+         nodes.flush();
+         nodeBytes.writeTo(out);
+         out.flush();
+         return bytes.toByteArray();
+      }
+
+      private void writeNode(SVGNode node) throws IOException
+      {
+         byte type;
+         if (node instanceof SVGGroup)
+            type = NODE_GROUP;
+         else if (node instanceof SVGPath)
+            type = NODE_PATH;
+         else if (node instanceof SVGRect)
+            type = NODE_RECT;
+         else if (node instanceof SVGCircle)
+            type = NODE_CIRCLE;
+         else if (node instanceof SVGEllipse)
+            type = NODE_ELLIPSE;
+         else if (node instanceof SVGLine)
+            type = NODE_LINE;
+         else if (node instanceof SVGPolygon)
+            type = NODE_POLYGON;
+         else if (node instanceof SVGPolyline)
+            type = NODE_POLYLINE;
+         else
+            throw new IllegalArgumentException("Unsupported node type " + node.getClass().getName());
+
+         nodes.writeByte(type);
+         nodes.writeByte(node.isDisplay() ? 1 : 0);
+         nodes.writeInt(internStyle(node.getStyle()));
+         nodes.writeInt(internResolvedStyle(node.getResolvedStyle()));
+         nodes.writeInt(node.hasTransform() ? internTransform(node.getTransform()) : -1);
+
+         switch(type)
+         {
+            case NODE_GROUP:
+               List<SVGNode> children = ((SVGGroup)node).getChildren();
+               nodes.writeInt(children.size());
+               for (SVGNode child : children)
+                  writeNode(child);
+               break;
+            case NODE_PATH:
+               PathData pathData = ((SVGPath)node).getPathData();
+               nodes.writeInt(verbCount);
+               nodes.writeInt(pathData.getVerbCount());
+               nodes.writeInt(floatCount);
+               addVerbs(pathData.getVerbs());
+               addFloats(pathData.getCoordinates());
+               break;
+            case NODE_RECT:
+               SVGRect r = (SVGRect)node;
+               nodes.writeInt(addFloats(r.getX(), r.getY(), r.getWidth(), r.getHeight(), r.getRx(), r.getRy()));
+               break;
+            case NODE_CIRCLE:
+               SVGCircle c = (SVGCircle)node;
+               nodes.writeInt(addFloats(c.getCx(), c.getCy(), c.getR()));
+               break;
+            case NODE_ELLIPSE:
+               SVGEllipse e = (SVGEllipse)node;
+               nodes.writeInt(addFloats(e.getCx(), e.getCy(), e.getRx(), e.getRy()));
+               break;
+            case NODE_LINE:
+               SVGLine l = (SVGLine)node;
+               nodes.writeInt(addFloats(l.getX1(), l.getY1(), l.getX2(), l.getY2()));
+               break;
+            default: // polygon and polyline
+               float[] points = (type == NODE_POLYGON) ? ((SVGPolygon)node).getPoints() : ((SVGPolyline)node).getPoints();
+               nodes.writeInt(floatCount);
+               nodes.writeInt(points.length);
+               addFloats(points);
+               break;
+         }
+      }
+
+      private int internStyle(StyleProps style)
+      {
+         if (style == null)
+            return -1;
+         Integer index = styles.get(style);
+         if (index == null)
+         {
+            index = styleList.size();
+            styles.put(style, index);
+            styleList.add(style);
+         }
+         return index;
+      }
+
+      private int internResolvedStyle(ResolvedStyle style)
+      {
+         if (style == null)
+            return -1;
+         Integer index = resolvedStyles.get(style);
+         if (index == null)
+         {
+            internStyle(style.getProperties());
+            index = resolvedStyleList.size();
+            resolvedStyles.put(style, index);
+            resolvedStyleList.add(style);
+         }
+         return index;
+      }
+
+      private int internTransform(float[] transform)
+      {
+         Integer index = transforms.get(transform);
+         if (index == null)
+         {
+            index = transformList.size();
+            transforms.put(transform, index);
+            transformList.add(transform);
+         }
+         return index;
+      }
+
+      private static int encodeColor(SVGColor color)
+      {
+         if (color == null)
+            return COLOR_INHERIT;
+         if (color instanceof SVGColor.None)
+            return COLOR_NONE;
+         if (color instanceof SVGColor.CurrentColor)
+            return COLOR_CURRENT;
+         SVGColor.Absolute c = (SVGColor.Absolute)color;
+         return (c.getR() << 16) | (c.getG() << 8) | c.getB();
+      }
+
+      /**
+       * Add floats to the pool.
+       *
+       * @return offset of first added value
+       */
+      private int addFloats(float... values)
+      {
+         int offset = floatCount;
+         if (floatCount + values.length > floats.length)
+            floats = Arrays.copyOf(floats, Math.max(floats.length * 2, floatCount + values.length));
+         System.arraycopy(values, 0, floats, floatCount, values.length);
+         floatCount += values.length;
+         return offset;
+      }
+
+      private void addVerbs(byte[] values)
+      {
+         if (verbCount + values.length > verbs.length)
+            verbs = Arrays.copyOf(verbs, Math.max(verbs.length * 2, verbCount + values.length));
+         System.arraycopy(values, 0, verbs, verbCount, values.length);
+         verbCount += values.length;
+      }
+   }
+
+   /**
+    * Document decoder.
+    */
+   private static final class Reader
+   {
+      private final ByteBuffer in;
+      private StyleProps[] styles;
+      private ResolvedStyle[] resolvedStyles;
+      private float[][] transforms;
+      private float[] floats;
+      private byte[] verbs;
+
+      Reader(ByteBuffer in)
+      {
+         this.in = in;
+      }
+
+      SVGDocument decode()
+      {
+         float viewBoxX = in.getFloat();
+         float viewBoxY = in.getFloat();
+         float viewBoxWidth = in.getFloat();
+         float viewBoxHeight = in.getFloat();
+         float width = in.getFloat();
+         float height = in.getFloat();
+
+         styles = new StyleProps[checkCount(in.getInt(), 29)];
+         for (int i = 0; i < styles.length; i++)
+         {
+            SVGColor fill = decodeColor(in.getInt());
+            SVGColor stroke = decodeColor(in.getInt());
+            float fillOpacity = in.getFloat();
+            float strokeOpacity = in.getFloat();
+            float strokeWidth = in.getFloat();
+            float opacity = in.getFloat();
+            int fillRule = in.get();
+            int lineCap = in.get();
+            int lineJoin = in.get();
+            styles[i] = new StyleProps(fill, stroke, fillOpacity, strokeOpacity, strokeWidth, opacity, fillRule, lineCap, lineJoin);
+         }
+
+         resolvedStyles = new ResolvedStyle[checkCount(in.getInt(), 12)];
+         for (int i = 0; i < resolvedStyles.length; i++)
+         {
+            StyleProps props = styles[in.getInt()];
+            float strokeWidth = in.getFloat();
+            float lineWidth = in.getFloat();
+            resolvedStyles[i] = new ResolvedStyle(props).withStrokeWidth(strokeWidth, lineWidth);
+         }
+
+         transforms = new float[checkCount(in.getInt(), 24)][];
+         for (int i = 0; i < transforms.length; i++)
+         {
+            transforms[i] = new float[6];
+            in.asFloatBuffer().get(transforms[i]);
+            in.position(in.position() + 24);
+         }
+
+         floats = new float[checkCount(in.getInt(), 4)];
+         in.asFloatBuffer().get(floats);
+         in.position(in.position() + floats.length * 4);
+
+         verbs = new byte[checkCount(in.getInt(), 1)];
+         in.get(verbs);
+
+         List<SVGNode> children = readNodes(in.getInt());
+         return new SVGDocument(viewBoxX, viewBoxY, viewBoxWidth, viewBoxHeight, width, height, children);
+      }
+
+      /**
+       * Check that element count is not negative and elements of given size fit into remaining data.
+       */
+      private int checkCount(int count, int elementSize)
+      {
+         if (count < 0 || (long)count * elementSize > in.remaining())
+            throw new IllegalArgumentException("bad element count");
+         return count;
+      }
+
+      private List<SVGNode> readNodes(int count)
+      {
+         List<SVGNode> nodes = new ArrayList<>(checkCount(count, 14));
+         for (int i = 0; i < count; i++)
+            nodes.add(readNode());
+         return nodes;
+      }
+
+      private SVGNode readNode()
+      {
+         byte type = in.get();
+         boolean display = in.get() != 0;
+         int styleIndex = in.getInt();
+         StyleProps style = (styleIndex >= 0) ? styles[styleIndex] : null;
+         int resolvedStyleIndex = in.getInt();
+         ResolvedStyle resolvedStyle = (resolvedStyleIndex >= 0) ? resolvedStyles[resolvedStyleIndex] : null;
+         int transformIndex = in.getInt();
+         float[] transform = (transformIndex >= 0) ? transforms[transformIndex] : null;
+
+         int offset;
+         switch(type)
+         {
+            case NODE_GROUP:
+               return new SVGGroup(style, resolvedStyle, transform, display, readNodes(in.getInt()));
+            case NODE_PATH:
+               int verbOffset = in.getInt();
+               int verbCount = in.getInt();
+               byte[] pathVerbs = Arrays.copyOfRange(verbs, verbOffset, checkRange(verbOffset, verbCount, verbs.length));
+               int coordOffset = in.getInt();
+               int coordCount = 0;
+               for (byte v : pathVerbs)
+                  coordCount += PathData.coordinateCount(v);
+               float[] coords = Arrays.copyOfRange(floats, coordOffset, checkRange(coordOffset, coordCount, floats.length));
+               return new SVGPath(style, resolvedStyle, transform, display, PathData.wrap(pathVerbs, coords));
+            case NODE_RECT:
+               offset = checkRange(in.getInt(), 6, floats.length) - 6;
+               return new SVGRect(style, resolvedStyle, transform, display, floats[offset], floats[offset + 1], floats[offset + 2],
+                     floats[offset + 3], floats[offset + 4], floats[offset + 5]);
+            case NODE_CIRCLE:
+               offset = checkRange(in.getInt(), 3, floats.length) - 3;
+               return new SVGCircle(style, resolvedStyle, transform, display, floats[offset], floats[offset + 1], floats[offset + 2]);
+            case NODE_ELLIPSE:
+               offset = checkRange(in.getInt(), 4, floats.length) - 4;
+               return new SVGEllipse(style, resolvedStyle, transform, display, floats[offset], floats[offset + 1], floats[offset + 2], floats[offset + 3]);
+            case NODE_LINE:
+               offset = checkRange(in.getInt(), 4, floats.length) - 4;
+               return new SVGLine(style, resolvedStyle, transform, display, floats[offset], floats[offset + 1], floats[offset + 2], floats[offset + 3]);
+            case NODE_POLYGON:
+            case NODE_POLYLINE:
+               offset = in.getInt();
+               int length = in.getInt();
+               float[] points = Arrays.copyOfRange(floats, offset, checkRange(offset, length, floats.length));
+               if (type == NODE_POLYGON)
+                  return new SVGPolygon(style, resolvedStyle, transform, display, points);
+               return new SVGPolyline(style, resolvedStyle, transform, display, points);
+            default:
+               throw new IllegalArgumentException("bad node type");
+         }
+      }
+
+      /**
+       * Check that range is within array bounds.
+       *
+       * @return end of range
+       */
+      private static int checkRange(int offset, int count, int arrayLength)
+      {
+         if (offset < 0 || count < 0 || offset > arrayLength - count)
+            throw new IndexOutOfBoundsException("bad geometry range");
+         return offset + count;
+      }
+
+      private static SVGColor decodeColor(int value)
+      {
+         switch(value)
+         {
+            case COLOR_INHERIT:
+               return null;
+            case COLOR_NONE:
+               return SVGColor.None.INSTANCE;
+            case COLOR_CURRENT:
+               return SVGColor.CurrentColor.INSTANCE;
+            default:
+               if ((value & 0xFF000000) != 0)
+                  throw new IllegalArgumentException("bad color");
+               return new SVGColor.Absolute((value >> 16) & 0xFF, (value >> 8) & 0xFF, value & 0xFF);
+         }
+      }
+   }
+}
@@ -0,0 +1,132 @@
+package org.netxms.ui.svg.internal;
+
+/**
+ * Render target which does not draw anything and only counts calls. Rendering onto this target measures cost of
+ * document traversal and geometry generation without any drawing backend.
+ */
+public final class CountingRenderTarget implements RenderTarget
+{
+   private int transforms = 0;
+   private int paths = 0;
+   private int segments = 0;
+   private int fills = 0;
+   private int strokes = 0;
+
+   @Override
+   public void setTransform(float[] matrix)
+   {
+      transforms++;
+   }
+
+   @Override
+   public boolean beginPath(SVGNode node)
+   {
+      paths++;
+      return true;
+   }
+
+   @Override
+   public void moveTo(float x, float y)
+   {
+      segments++;
+   }
+
+   @Override
+   public void lineTo(float x, float y)
+   {
+      segments++;
+   }
+
+   @Override
+   public void cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+   {
+      segments++;
+   }
+
+   @Override
+   public void quadTo(float x1, float y1, float x, float y)
+   {
+      segments++;
+   }
+
+   @Override
+   public void close()
+   {
+      segments++;
+   }
+
+   @Override
+   public void addRectangle(float x, float y, float width, float height)
+   {
+      segments++;
+   }
+
+   @Override
+   public void fill(ResolvedStyle style)
+   {
+      fills++;
+   }
+
+   @Override
+   public void stroke(ResolvedStyle style)
+   {
+      strokes++;
+   }
+
+   @Override
+   public void endPath()
+   {
+   }
+
+   /**
+    * Reset all counters.
+    */
+   public void reset()
+   {
+      transforms = 0;
+      paths = 0;
+      segments = 0;
+      fills = 0;
+      strokes = 0;
+   }
+
+   /**
+    * @return number of transform changes
+    */
+   public int getTransformCount()
+   {
+      return transforms;
+   }
+
+   /**
+    * @return number of paths
+    */
+   public int getPathCount()
+   {
+      return paths;
+   }
+
+   /**
+    * @return number of path segments (rectangle is counted as one segment)
+    */
+   public int getSegmentCount()
+   {
+      return segments;
+   }
+
+   /**
+    * @return number of fill operations
+    */
+   public int getFillCount()
+   {
+      return fills;
+   }
+
+   /**
+    * @return number of stroke operations
+    */
+   public int getStrokeCount()
+   {
+      return strokes;
+   }
+}
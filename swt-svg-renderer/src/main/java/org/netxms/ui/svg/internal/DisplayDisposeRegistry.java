@@ -0,0 +1,96 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Registry of objects which should be disposed together with display. Single dispose hook is installed per display
+ * (SWT does not allow to remove dispose hooks), and objects disposed before the display unregister themselves, so
+ * only live objects are kept. Registered objects are referenced strongly: objects which are dropped without being
+ * disposed still own native resources and are disposed when the display is disposed.
+ */
+public final class DisplayDisposeRegistry
+{
+   private static final Map<Display, Map<Object, Consumer<Object>>> registrations = new HashMap<>();
+
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private DisplayDisposeRegistry()
+   {
+   }
+
+   /**
+    * Register object to be disposed when display is disposed. Must be called from the thread owning the display
+    * when first object is registered for that display. Objects are disposed in registration order.
+    *
+    * @param display display
+    * @param object object to dispose
+    * @param disposer dispose action
+    */
+   @SuppressWarnings("unchecked")
+   public static synchronized <T> void register(Display display, T object, Consumer<? super T> disposer)
+   {
+      Map<Object, Consumer<Object>> objects = registrations.get(display);
+      if (objects == null)
+      {
+         objects = new LinkedHashMap<>();
+         registrations.put(display, objects);
+         display.disposeExec(() -> displayDisposed(display));
+      }
+      objects.put(object, (Consumer<Object>)disposer);
+   }
+
+   /**
+    * Unregister object (normally called when object is disposed before display).
+    *
+    * @param display display
+    * @param object object to unregister
+    */
+   public static synchronized void unregister(Display display, Object object)
+   {
+      Map<Object, Consumer<Object>> objects = registrations.get(display);
+      if (objects != null)
+         objects.remove(object);
+   }
+
+   /**
+    * Check if object is registered for given display.
+    *
+    * @param display display
+    * @param object object to check
+    * @return true if object will be disposed together with display
+    */
+   public static synchronized boolean isRegistered(Display display, Object object)
+   {
+      Map<Object, Consumer<Object>> objects = registrations.get(display);
+      return (objects != null) && objects.containsKey(object);
+   }
+
+   /**
+    * Dispose all objects still registered for given display.
+    */
+   private static void displayDisposed(Display display)
+   {
+      List<Object> objects = new ArrayList<>();
+      List<Consumer<Object>> disposers = new ArrayList<>();
+      synchronized(DisplayDisposeRegistry.class)
+      {
+         Map<Object, Consumer<Object>> registered = registrations.remove(display);
+         if (registered == null)
+            return;
+         for (Map.Entry<Object, Consumer<Object>> e : registered.entrySet())
+         {
+            objects.add(e.getKey());
+            disposers.add(e.getValue());
+         }
+      }
+      for (int i = 0; i < objects.size(); i++)
+         disposers.get(i).accept(objects.get(i));
+   }
+}
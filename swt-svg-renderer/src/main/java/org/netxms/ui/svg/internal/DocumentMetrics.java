@@ -0,0 +1,63 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.List;
+
+/**
+ * Size metrics of parsed document tree, used for diagnostics. Metrics are computed by walking the tree on each call.
+ */
+public final class DocumentMetrics
+{
+   private DocumentMetrics()
+   {
+   }
+
+   /**
+    * Count all nodes (shapes and groups) in document.
+    *
+    * @param doc document
+    * @return number of nodes
+    */
+   public static int countNodes(SVGDocument doc)
+   {
+      return countNodes(doc.getChildren());
+   }
+
+   /**
+    * Count geometry segments in document: path verbs and polygon/polyline points. Basic shapes are not counted.
+    *
+    * @param doc document
+    * @return number of segments
+    */
+   public static int countSegments(SVGDocument doc)
+   {
+      return countSegments(doc.getChildren());
+   }
+
+   private static int countNodes(List<SVGNode> nodes)
+   {
+      int count = nodes.size();
+      for (SVGNode node : nodes)
+      {
+         if (node instanceof SVGGroup)
+            count += countNodes(((SVGGroup)node).getChildren());
+      }
+      return count;
+   }
+
+   private static int countSegments(List<SVGNode> nodes)
+   {
+      int count = 0;
+      for (SVGNode node : nodes)
+      {
+         if (node instanceof SVGGroup)
+            count += countSegments(((SVGGroup)node).getChildren());
+         else if (node instanceof SVGPath)
+            count += ((SVGPath)node).getPathData().getVerbCount();
+         else if (node instanceof SVGPolygon)
+            count += ((SVGPolygon)node).getPoints().length / 2;
+         else if (node instanceof SVGPolyline)
+            count += ((SVGPolyline)node).getPoints().length / 2;
+      }
+      return count;
+   }
+}
@@ -0,0 +1,70 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.Arrays;
+
+/**
+ * Reusable attribute list for the element currently being parsed. XML front ends fill
+ * it for every start tag and hand it to {@link SVGTreeBuilder}; values must not be
+ * retained after the builder returns.
+ */
+public final class ElementAttributes
+{
+   private String[] names = new String[16];
+   private String[] values = new String[16];
+   private int count;
+
+   /**
+    * Remove all attributes.
+    */
+   public void clear()
+   {
+      for (int i = 0; i < count; i++)
+      {
+         names[i] = null;
+         values[i] = null;
+      }
+      count = 0;
+   }
+
+   /**
+    * Add attribute.
+    *
+    * @param name attribute name (qualified name as written in the document)
+    * @param value attribute value with entities already expanded
+    */
+   public void add(String name, String value)
+   {
+      if (count == names.length)
+      {
+         names = Arrays.copyOf(names, count * 2);
+         values = Arrays.copyOf(values, count * 2);
+      }
+      names[count] = name;
+      values[count] = value;
+      count++;
+   }
+
+   /**
+    * Get attribute value by name.
+    *
+    * @param name attribute name
+    * @return attribute value, or null if attribute is not present
+    */
+   public String get(String name)
+   {
+      for (int i = 0; i < count; i++)
+      {
+         if (names[i].equals(name))
+            return values[i];
+      }
+      return null;
+   }
+
+   /**
+    * @return number of attributes
+    */
+   public int size()
+   {
+      return count;
+   }
+}
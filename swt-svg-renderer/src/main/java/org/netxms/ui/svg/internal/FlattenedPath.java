@@ -0,0 +1,297 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.Arrays;
+
+/**
+ * Path geometry with curves replaced by line segments: list of subpaths, each being a polyline
+ * with open or closed flag. Coordinates stay in the path's own coordinate system.
+ */
+public final class FlattenedPath
+{
+   /** Maximum number of line segments per curve */
+   private static final int MAX_CURVE_SEGMENTS = 256;
+
+   private float[] points = new float[64];
+   private int pointCount = 0;
+   private int[] subpathStart = new int[8];
+   private boolean[] subpathClosed = new boolean[8];
+   private int subpathCount = 0;
+
+   private float tolerance = 0.1f;
+   private float currentX = 0;
+   private float currentY = 0;
+
+   /**
+    * Create empty flattened path. Geometry can be added with path construction methods.
+    */
+   public FlattenedPath()
+   {
+   }
+
+   /**
+    * Flatten path geometry.
+    *
+    * @param path path geometry
+    * @param tolerance maximum distance between curve and its approximation
+    * @return flattened path
+    */
+   public static FlattenedPath flatten(PathData path, float tolerance)
+   {
+      FlattenedPath result = new FlattenedPath();
+      result.reset(tolerance);
+      int c = 0;
+      for (int i = 0; i < path.getVerbCount(); i++)
+      {
+         switch(path.getVerb(i))
+         {
+            case PathData.MOVE_TO:
+               result.moveTo(path.getCoordinate(c), path.getCoordinate(c + 1));
+               c += 2;
+               break;
+            case PathData.LINE_TO:
+               result.lineTo(path.getCoordinate(c), path.getCoordinate(c + 1));
+               c += 2;
+               break;
+            case PathData.CUBIC_TO:
+               result.cubicTo(path.getCoordinate(c), path.getCoordinate(c + 1), path.getCoordinate(c + 2), path.getCoordinate(c + 3),
+                     path.getCoordinate(c + 4), path.getCoordinate(c + 5));
+               c += 6;
+               break;
+            case PathData.QUAD_TO:
+               result.quadTo(path.getCoordinate(c), path.getCoordinate(c + 1), path.getCoordinate(c + 2), path.getCoordinate(c + 3));
+               c += 4;
+               break;
+            case PathData.CLOSE:
+               result.close();
+               break;
+         }
+      }
+      result.finish();
+      return result;
+   }
+
+   /**
+    * Remove all geometry and set flattening tolerance for subsequently added curves. Allocated buffers are kept.
+    *
+    * @param tolerance maximum distance between curve and its approximation
+    */
+   public void reset(float tolerance)
+   {
+      this.tolerance = Math.max(tolerance, 1e-4f);
+      pointCount = 0;
+      subpathCount = 0;
+      currentX = 0;
+      currentY = 0;
+   }
+
+   /**
+    * Start new subpath.
+    *
+    * @param x x coordinate
+    * @param y y coordinate
+    */
+   public void moveTo(float x, float y)
+   {
+      currentX = x;
+      currentY = y;
+      startSubpath(x, y);
+   }
+
+   /**
+    * Add line segment.
+    *
+    * @param x x coordinate
+    * @param y y coordinate
+    */
+   public void lineTo(float x, float y)
+   {
+      currentX = x;
+      currentY = y;
+      addPoint(x, y);
+   }
+
+   /**
+    * Add cubic Bezier segment approximated by line segments.
+    *
+    * @param x1 first control point x
+    * @param y1 first control point y
+    * @param x2 second control point x
+    * @param y2 second control point y
+    * @param x3 end point x
+    * @param y3 end point y
+    */
+   public void cubicTo(float x1, float y1, float x2, float y2, float x3, float y3)
+   {
+      float cx = currentX, cy = currentY;
+      float ddx = Math.max(Math.abs(cx - 2 * x1 + x2), Math.abs(x1 - 2 * x2 + x3));
+      float ddy = Math.max(Math.abs(cy - 2 * y1 + y2), Math.abs(y1 - 2 * y2 + y3));
+      int n = segmentCount((float)Math.sqrt(ddx * ddx + ddy * ddy) * 0.75f, tolerance);
+      for (int k = 1; k < n; k++)
+      {
+         float t = (float)k / n;
+         float mt = 1 - t;
+         float a = mt * mt * mt, b = 3 * mt * mt * t, d = 3 * mt * t * t, e = t * t * t;
+         addPoint(a * cx + b * x1 + d * x2 + e * x3, a * cy + b * y1 + d * y2 + e * y3);
+      }
+      addPoint(x3, y3);
+      currentX = x3;
+      currentY = y3;
+   }
+
+   /**
+    * Add quadratic Bezier segment approximated by line segments.
+    *
+    * @param x1 control point x
+    * @param y1 control point y
+    * @param x2 end point x
+    * @param y2 end point y
+    */
+   public void quadTo(float x1, float y1, float x2, float y2)
+   {
+      float cx = currentX, cy = currentY;
+      float ddx = cx - 2 * x1 + x2;
+      float ddy = cy - 2 * y1 + y2;
+      int n = segmentCount((float)Math.sqrt(ddx * ddx + ddy * ddy) * 0.25f, tolerance);
+      for (int k = 1; k < n; k++)
+      {
+         float t = (float)k / n;
+         float mt = 1 - t;
+         float a = mt * mt, b = 2 * mt * t, d = t * t;
+         addPoint(a * cx + b * x1 + d * x2, a * cy + b * y1 + d * y2);
+      }
+      addPoint(x2, y2);
+      currentX = x2;
+      currentY = y2;
+   }
+
+   /**
+    * Close current subpath. Drawing after close starts new subpath at the same point.
+    */
+   public void close()
+   {
+      if (subpathCount > 0)
+      {
+         subpathClosed[subpathCount - 1] = true;
+         int start = subpathStart[subpathCount - 1];
+         currentX = points[start * 2];
+         currentY = points[start * 2 + 1];
+         startSubpath(currentX, currentY);
+      }
+   }
+
+   /**
+    * Finish path construction (removes empty subpath left after final close).
+    */
+   public void finish()
+   {
+      removeTrailingEmptySubpath();
+   }
+
+   /**
+    * Calculate number of line segments needed for curve with given deviation measure.
+    */
+   private static int segmentCount(float deviation, float tolerance)
+   {
+      int n = (int)Math.ceil(Math.sqrt(deviation / tolerance));
+      return Math.max(1, Math.min(MAX_CURVE_SEGMENTS, n));
+   }
+
+   private void startSubpath(float x, float y)
+   {
+      removeTrailingEmptySubpath();
+      if (subpathCount == subpathStart.length)
+      {
+         subpathStart = Arrays.copyOf(subpathStart, subpathCount * 2);
+         subpathClosed = Arrays.copyOf(subpathClosed, subpathCount * 2);
+      }
+      subpathStart[subpathCount] = pointCount;
+      subpathClosed[subpathCount] = false;
+      subpathCount++;
+      appendPoint(x, y);
+   }
+
+   /**
+    * Remove last subpath if it consists of single point produced by close and is not closed itself.
+    */
+   private void removeTrailingEmptySubpath()
+   {
+      if (subpathCount > 1 && !subpathClosed[subpathCount - 1] && subpathStart[subpathCount - 1] == pointCount - 1 &&
+            subpathClosed[subpathCount - 2])
+      {
+         subpathCount--;
+         pointCount--;
+      }
+   }
+
+   private void addPoint(float x, float y)
+   {
+      if (subpathCount == 0)
+      {
+         startSubpath(x, y);
+         return;
+      }
+      appendPoint(x, y);
+   }
+
+   private void appendPoint(float x, float y)
+   {
+      if (pointCount * 2 == points.length)
+         points = Arrays.copyOf(points, points.length * 2);
+      points[pointCount * 2] = x;
+      points[pointCount * 2 + 1] = y;
+      pointCount++;
+   }
+
+   /**
+    * @return number of subpaths
+    */
+   public int getSubpathCount()
+   {
+      return subpathCount;
+   }
+
+   /**
+    * @param subpath subpath index
+    * @return index of first point of given subpath
+    */
+   public int getSubpathStart(int subpath)
+   {
+      return subpathStart[subpath];
+   }
+
+   /**
+    * @param subpath subpath index
+    * @return index after last point of given subpath
+    */
+   public int getSubpathEnd(int subpath)
+   {
+      return (subpath + 1 < subpathCount) ? subpathStart[subpath + 1] : pointCount;
+   }
+
+   /**
+    * @param subpath subpath index
+    * @return true if subpath is closed
+    */
+   public boolean isClosed(int subpath)
+   {
+      return subpathClosed[subpath];
+   }
+
+   /**
+    * @param index point index
+    * @return x coordinate of given point
+    */
+   public float getX(int index)
+   {
+      return points[index * 2];
+   }
+
+   /**
+    * @param index point index
+    * @return y coordinate of given point
+    */
+   public float getY(int index)
+   {
+      return points[index * 2 + 1];
+   }
+}
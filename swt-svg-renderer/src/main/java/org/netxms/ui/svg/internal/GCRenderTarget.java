@@ -0,0 +1,143 @@
+package org.netxms.ui.svg.internal;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Path;
+
+/**
+ * Render target drawing on SWT GC. Paths are taken from and stored into render cache; colors and line attributes are
+ * obtained from the same cache. GC transform is updated only when matrix differs from the one applied last.
+ */
+public final class GCRenderTarget implements RenderTarget
+{
+   private final GC gc;
+   private final Color currentColor;
+   private final RenderCache cache;
+   private SVGNode node;
+   private Path path;
+   private boolean pathCached;
+
+   /**
+    * Create target for given GC.
+    *
+    * @param gc the graphics context to render to
+    * @param currentColor the color to use for "currentColor" values (null = black)
+    * @param cache render cache (must be bound to the same device as GC)
+    */
+   public GCRenderTarget(GC gc, Color currentColor, RenderCache cache)
+   {
+      if (cache.getDevice() != gc.getDevice())
+         throw new IllegalArgumentException("Render cache and GC are bound to different devices");
+      this.gc = gc;
+      this.currentColor = currentColor;
+      this.cache = cache;
+   }
+
+   @Override
+   public void setTransform(float[] matrix)
+   {
+      cache.applyTransform(gc, matrix);
+   }
+
+   @Override
+   public boolean beginPath(SVGNode node)
+   {
+      this.node = node;
+      path = (node != null) ? cache.getPath(node) : null;
+      pathCached = (path != null);
+      if (pathCached)
+         return false;
+      path = new Path(gc.getDevice());
+      cache.resourceCreated(NativeResourceCounter.PATH);
+      return true;
+   }
+
+   @Override
+   public void moveTo(float x, float y)
+   {
+      path.moveTo(x, y);
+   }
+
+   @Override
+   public void lineTo(float x, float y)
+   {
+      path.lineTo(x, y);
+   }
+
+   @Override
+   public void cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+   {
+      path.cubicTo(x1, y1, x2, y2, x, y);
+   }
+
+   @Override
+   public void quadTo(float x1, float y1, float x, float y)
+   {
+      path.quadTo(x1, y1, x, y);
+   }
+
+   @Override
+   public void close()
+   {
+      path.close();
+   }
+
+   @Override
+   public void addRectangle(float x, float y, float width, float height)
+   {
+      path.addRectangle(x, y, width, height);
+   }
+
+   @Override
+   public void fill(ResolvedStyle style)
+   {
+      storePath();
+      gc.setBackground(resolveColor(style.getFillColor()));
+      gc.setAlpha(style.getFillAlpha());
+      gc.setFillRule(style.getFillRule());
+      gc.fillPath(path);
+   }
+
+   @Override
+   public void stroke(ResolvedStyle style)
+   {
+      storePath();
+      gc.setForeground(resolveColor(style.getStrokeColor()));
+      gc.setAlpha(style.getStrokeAlpha());
+      gc.setLineAttributes(cache.getLineAttributes(style.getLineWidth(), style.getLineCap(), style.getLineJoin()));
+      gc.drawPath(path);
+   }
+
+   @Override
+   public void endPath()
+   {
+      if (path != null && !pathCached)
+         path.dispose();
+      path = null;
+      node = null;
+   }
+
+   /**
+    * Pass newly built path to the cache once its geometry is complete. If cache accepts it, it becomes owned by cache.
+    */
+   private void storePath()
+   {
+      if (!pathCached && node != null)
+      {
+         pathCached = cache.putPath(node, path);
+         node = null;
+      }
+   }
+
+   private Color resolveColor(int rgb)
+   {
+      if (rgb == ResolvedStyle.COLOR_CURRENT)
+      {
+         if (currentColor != null)
+            return currentColor;
+         // Default to black
+         return cache.getColor(0);
+      }
+      return cache.getColor(rgb);
+   }
+}
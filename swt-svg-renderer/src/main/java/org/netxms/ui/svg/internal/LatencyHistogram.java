@@ -0,0 +1,97 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed bucket bounds from 10 microseconds to 1 second. Last bucket counts all
+ * samples above highest bound.
+ */
+public final class LatencyHistogram
+{
+   private static final long[] BOUNDS = { 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 20000, 50000, 100000, 200000, 500000, 1000000 };
+
+   private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+   private final AtomicLong count = new AtomicLong();
+   private final AtomicLong totalTime = new AtomicLong();
+   private final AtomicLong maxTime = new AtomicLong();
+
+   /**
+    * Add sample.
+    *
+    * @param nanos elapsed time in nanoseconds
+    */
+   public void add(long nanos)
+   {
+      long micros = nanos / 1000;
+      int bucket = 0;
+      while (bucket < BOUNDS.length && micros > BOUNDS[bucket])
+         bucket++;
+      buckets.incrementAndGet(bucket);
+      count.incrementAndGet();
+      totalTime.addAndGet(nanos);
+      long max = maxTime.get();
+      while (nanos > max && !maxTime.compareAndSet(max, nanos))
+         max = maxTime.get();
+   }
+
+   /**
+    * Get sample counts for each bucket. Element N counts samples not greater than N-th bound and greater than
+    * previous bound; last element counts samples above highest bound.
+    *
+    * @return sample counts (one element more than number of bounds)
+    */
+   public long[] getBuckets()
+   {
+      long[] result = new long[buckets.length()];
+      for (int i = 0; i < result.length; i++)
+         result[i] = buckets.get(i);
+      return result;
+   }
+
+   /**
+    * Get upper bounds of histogram buckets.
+    *
+    * @return bucket bounds in microseconds
+    */
+   public static long[] getBounds()
+   {
+      return BOUNDS.clone();
+   }
+
+   /**
+    * @return number of samples
+    */
+   public long getCount()
+   {
+      return count.get();
+   }
+
+   /**
+    * @return sum of all samples in nanoseconds
+    */
+   public long getTotalTime()
+   {
+      return totalTime.get();
+   }
+
+   /**
+    * @return largest sample in nanoseconds
+    */
+   public long getMaxTime()
+   {
+      return maxTime.get();
+   }
+
+   /**
+    * Reset all counters.
+    */
+   public void reset()
+   {
+      for (int i = 0; i < buckets.length(); i++)
+         buckets.set(i, 0);
+      count.set(0);
+      totalTime.set(0);
+      maxTime.set(0);
+   }
+}
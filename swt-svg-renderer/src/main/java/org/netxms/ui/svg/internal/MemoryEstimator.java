@@ -0,0 +1,225 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimator of heap memory retained by parsed documents. Walks the document tree and sums shallow sizes of nodes,
+ * styles, transforms and geometry arrays, assuming 64 bit JVM with compressed references (12 byte object header,
+ * 16 byte array header, 8 byte alignment). Objects shared between nodes or between documents added to the same
+ * estimator (styles, colors, path data) are counted once.
+ */
+public final class MemoryEstimator
+{
+   /** Document and image objects, child lists */
+   public static final int STRUCTURE = 0;
+   /** Node objects */
+   public static final int NODES = 1;
+   /** Style properties, resolved styles and colors */
+   public static final int STYLES = 2;
+   /** Transformation matrices */
+   public static final int TRANSFORMS = 3;
+   /** Path data (verbs and coordinates) */
+   public static final int PATH_DATA = 4;
+   /** Polygon and polyline points */
+   public static final int POINTS = 5;
+   /** Number of categories */
+   public static final int CATEGORY_COUNT = 6;
+
+   private static final int OBJECT_HEADER = 12;
+   private static final int ARRAY_HEADER = 16;
+   private static final int REFERENCE = 4;
+
+   /** SVGNode fields: style, resolved style, transform, display flag */
+   private static final int NODE_FIELDS = 3 * REFERENCE + 1;
+
+   private final Map<Object, Object> visited = new IdentityHashMap<>();
+   private final long[] bytes = new long[CATEGORY_COUNT];
+   private int documentCount = 0;
+   private int nodeCount = 0;
+   private int segmentCount = 0;
+
+   /**
+    * Create new estimator.
+    */
+   public MemoryEstimator()
+   {
+   }
+
+   /**
+    * Add document to the estimate. Document already added to this estimator is ignored.
+    *
+    * @param doc document
+    * @param ownerFields size of fields of object owning the document (0 if document is not owned by another object)
+    */
+   public void add(SVGDocument doc, int ownerFields)
+   {
+      if (!firstVisit(doc))
+         return;
+      documentCount++;
+      if (ownerFields > 0)
+         bytes[STRUCTURE] += objectSize(ownerFields);
+      bytes[STRUCTURE] += objectSize(6 * 4 + 2 * REFERENCE);
+      addNodes(doc.getChildren());
+   }
+
+   /**
+    * Get estimated size of given category.
+    *
+    * @param category category
+    * @return estimated size in bytes
+    */
+   public long get(int category)
+   {
+      return bytes[category];
+   }
+
+   /**
+    * @return estimated size of all categories in bytes
+    */
+   public long getTotal()
+   {
+      long total = 0;
+      for (long b : bytes)
+         total += b;
+      return total;
+   }
+
+   /**
+    * @return number of distinct documents added
+    */
+   public int getDocumentCount()
+   {
+      return documentCount;
+   }
+
+   /**
+    * @return number of nodes in added documents
+    */
+   public int getNodeCount()
+   {
+      return nodeCount;
+   }
+
+   /**
+    * @return number of geometry segments (path verbs, polygon and polyline points) in added documents
+    */
+   public int getSegmentCount()
+   {
+      return segmentCount;
+   }
+
+   /**
+    * Get size of object with given size of fields, including header and alignment.
+    *
+    * @param fields total size of fields in bytes
+    * @return object size in bytes
+    */
+   static long objectSize(int fields)
+   {
+      return align(OBJECT_HEADER + fields);
+   }
+
+   /**
+    * Get size of array, including header and alignment.
+    *
+    * @param length array length
+    * @param elementSize size of single element in bytes
+    * @return array size in bytes
+    */
+   static long arraySize(int length, int elementSize)
+   {
+      return align(ARRAY_HEADER + (long)length * elementSize);
+   }
+
+   private static long align(long size)
+   {
+      return (size + 7) & ~7L;
+   }
+
+   /**
+    * Add child list (unmodifiable wrapper around array list) and all nodes in it.
+    */
+   private void addNodes(List<SVGNode> nodes)
+   {
+      bytes[STRUCTURE] += objectSize(REFERENCE) + objectSize(4 + REFERENCE + 4) + arraySize(nodes.size(), REFERENCE);
+      nodeCount += nodes.size();
+      for (SVGNode node : nodes)
+         addNode(node);
+   }
+
+   private void addNode(SVGNode node)
+   {
+      int fields;
+      if (node instanceof SVGGroup)
+      {
+         fields = REFERENCE;
+         addNodes(((SVGGroup)node).getChildren());
+      }
+      else if (node instanceof SVGPath)
+      {
+         fields = REFERENCE;
+         PathData pathData = ((SVGPath)node).getPathData();
+         segmentCount += pathData.getVerbCount();
+         if (firstVisit(pathData))
+            bytes[PATH_DATA] += objectSize(2 * REFERENCE) + arraySize(pathData.getVerbCount(), 1) + arraySize(pathData.getCoordinateCount(), 4);
+      }
+      else if (node instanceof SVGPolygon || node instanceof SVGPolyline)
+      {
+         fields = REFERENCE;
+         float[] points = (node instanceof SVGPolygon) ? ((SVGPolygon)node).getPoints() : ((SVGPolyline)node).getPoints();
+         segmentCount += points.length / 2;
+         if (firstVisit(points))
+            bytes[POINTS] += arraySize(points.length, 4);
+      }
+      else if (node instanceof SVGRect)
+      {
+         fields = 6 * 4;
+      }
+      else if (node instanceof SVGCircle)
+      {
+         fields = 3 * 4;
+      }
+      else
+      {
+         fields = 4 * 4; // ellipse and line
+      }
+      bytes[NODES] += objectSize(NODE_FIELDS + fields);
+
+      if (node.hasTransform() && firstVisit(node.getTransform()))
+         bytes[TRANSFORMS] += arraySize(6, 4);
+      addStyle(node.getStyle());
+      ResolvedStyle resolvedStyle = node.getResolvedStyle();
+      if (resolvedStyle != null && firstVisit(resolvedStyle))
+      {
+         bytes[STYLES] += objectSize(REFERENCE + 9 * 4);
+         addStyle(resolvedStyle.getProperties());
+      }
+   }
+
+   private void addStyle(StyleProps style)
+   {
+      if (style == null || !firstVisit(style))
+         return;
+      bytes[STYLES] += objectSize(2 * REFERENCE + 7 * 4);
+      addColor(style.getFill());
+      addColor(style.getStroke());
+   }
+
+   private void addColor(SVGColor color)
+   {
+      if (color instanceof SVGColor.Absolute && firstVisit(color))
+         bytes[STYLES] += objectSize(3 * 4);
+   }
+
+   /**
+    * Mark object as visited.
+    *
+    * @return true if object was not visited before
+    */
+   private boolean firstVisit(Object object)
+   {
+      return visited.put(object, object) == null;
+   }
+}
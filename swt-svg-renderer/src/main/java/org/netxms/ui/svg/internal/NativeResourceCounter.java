@@ -0,0 +1,89 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters of native SWT resources created by the renderer. Creation of native resource is orders of
+ * magnitude more expensive than counter update, so counters are always on.
+ */
+public final class NativeResourceCounter
+{
+   public static final int PATH = 0;
+   public static final int TRANSFORM = 1;
+   public static final int COLOR = 2;
+   public static final int IMAGE = 3;
+   public static final int GC = 4;
+
+   private static final String[] NAMES = { "Path", "Transform", "Color", "Image", "GC" };
+   private static final AtomicLongArray totals = new AtomicLongArray(NAMES.length);
+
+   private NativeResourceCounter()
+   {
+   }
+
+   /**
+    * Register creation of native resource.
+    *
+    * @param type resource type
+    */
+   public static void created(int type)
+   {
+      totals.incrementAndGet(type);
+   }
+
+   /**
+    * Register creation of native resource and add it to given per-call counters.
+    *
+    * @param type resource type
+    * @param counters per-call counters (may be null)
+    */
+   public static void created(int type, RenderCounters counters)
+   {
+      totals.incrementAndGet(type);
+      if (counters != null)
+         counters.resourcesCreated[type]++;
+   }
+
+   /**
+    * Get number of created resources of given type since process start.
+    *
+    * @param type resource type
+    * @return number of created resources
+    */
+   public static long get(int type)
+   {
+      return totals.get(type);
+   }
+
+   /**
+    * Get total number of created resources of all types since process start.
+    *
+    * @return number of created resources
+    */
+   public static long getTotal()
+   {
+      long total = 0;
+      for (int i = 0; i < NAMES.length; i++)
+         total += totals.get(i);
+      return total;
+   }
+
+   /**
+    * Get name of SWT class for given resource type.
+    *
+    * @param type resource type
+    * @return class name
+    */
+   public static String getName(int type)
+   {
+      return NAMES[type];
+   }
+
+   /**
+    * @return number of resource types
+    */
+   public static int getTypeCount()
+   {
+      return NAMES.length;
+   }
+}
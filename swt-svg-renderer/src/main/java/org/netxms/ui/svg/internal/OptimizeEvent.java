@@ -0,0 +1,29 @@
+package org.netxms.ui.svg.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for transform baking and tree optimization of parsed document.
+ */
+@Name("org.netxms.ui.svg.Optimize")
+@Label("SVG Optimize")
+@Description("Transform baking and tree optimization of parsed document")
+@Category({ "NetXMS", "SVG Renderer" })
+@Threshold("1 ms")
+@StackTrace(false)
+public final class OptimizeEvent extends jdk.jfr.Event
+{
+   @Label("Document Id")
+   public int documentId;
+
+   @Label("Nodes Before")
+   public int nodesBefore;
+
+   @Label("Nodes After")
+   public int nodesAfter;
+}
@@ -0,0 +1,42 @@
+package org.netxms.ui.svg.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for parsing SVG source into document tree.
+ */
+@Name("org.netxms.ui.svg.Parse")
+@Label("SVG Parse")
+@Description("Parsing of SVG source into document tree")
+@Category({ "NetXMS", "SVG Renderer" })
+@Threshold("1 ms")
+@StackTrace(false)
+public final class ParseEvent extends jdk.jfr.Event
+{
+   @Label("Source")
+   @Description("File name, or null if image was created from memory")
+   public String source;
+
+   @Label("Document Id")
+   @Description("Identity hash code of parsed document, matches document id of render events")
+   public int documentId;
+
+   @Label("Input Size")
+   @DataAmount
+   public long inputSize;
+
+   @Label("Fast Parser")
+   public boolean fastParser;
+
+   @Label("Node Count")
+   public int nodeCount;
+
+   @Label("Segment Count")
+   public int segmentCount;
+}
@@ -0,0 +1,344 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.Arrays;
+
+/**
+ * Packed path geometry: one verb per segment and flat array of absolute coordinates.
+ * Move-to and line-to verbs use two coordinates, quad-to uses four, cubic-to uses six,
+ * and close uses none. Instances are immutable.
+ */
+public final class PathData
+{
+   /** Move-to verb: sets the current point without drawing (x, y). */
+   public static final byte MOVE_TO = 0;
+   /** Line-to verb: straight line from the current point (x, y). */
+   public static final byte LINE_TO = 1;
+   /** Cubic Bezier verb: two control points and end point (x1, y1, x2, y2, x, y). */
+   public static final byte CUBIC_TO = 2;
+   /** Quadratic Bezier verb: control point and end point (x1, y1, x, y). */
+   public static final byte QUAD_TO = 3;
+   /** Close verb: straight line back to the start of the current subpath. */
+   public static final byte CLOSE = 4;
+
+   /** Empty path. */
+   public static final PathData EMPTY = new PathData(new byte[0], new float[0]);
+
+   private static final int[] COORDINATE_COUNT = { 2, 2, 6, 4, 0 };
+
+   private final byte[] verbs;
+   private final float[] coords;
+
+   /**
+    * Create path from verb and coordinate arrays. Arrays are not copied.
+    */
+   private PathData(byte[] verbs, float[] coords)
+   {
+      this.verbs = verbs;
+      this.coords = coords;
+   }
+
+   /**
+    * Get number of coordinates used by given verb.
+    *
+    * @param verb path verb
+    * @return number of coordinates (each point has two)
+    */
+   public static int coordinateCount(byte verb)
+   {
+      return COORDINATE_COUNT[verb];
+   }
+
+   /**
+    * Create path from existing verb and coordinate arrays. Arrays are not copied and must not be modified afterwards.
+    *
+    * @param verbs path verbs
+    * @param coords coordinates
+    * @return path data
+    * @throws IllegalArgumentException if verbs are invalid or number of coordinates does not match verbs
+    */
+   public static PathData wrap(byte[] verbs, float[] coords)
+   {
+      if (verbs.length == 0 && coords.length == 0)
+         return EMPTY;
+      int count = 0;
+      for (byte verb : verbs)
+      {
+         if (verb < MOVE_TO || verb > CLOSE)
+            throw new IllegalArgumentException("Invalid path verb " + verb);
+         count += COORDINATE_COUNT[verb];
+      }
+      if (count != coords.length)
+         throw new IllegalArgumentException("Coordinate count does not match path verbs");
+      return new PathData(verbs, coords);
+   }
+
+   /**
+    * @return true if path has no segments
+    */
+   public boolean isEmpty()
+   {
+      return verbs.length == 0;
+   }
+
+   /**
+    * @return number of segments (verbs) in the path
+    */
+   public int getVerbCount()
+   {
+      return verbs.length;
+   }
+
+   /**
+    * @param index verb index
+    * @return verb at given index
+    */
+   public byte getVerb(int index)
+   {
+      return verbs[index];
+   }
+
+   /**
+    * @return total number of coordinates in the path
+    */
+   public int getCoordinateCount()
+   {
+      return coords.length;
+   }
+
+   /**
+    * @param index coordinate index
+    * @return coordinate at given index
+    */
+   public float getCoordinate(int index)
+   {
+      return coords[index];
+   }
+
+   /**
+    * @return copy of verb array
+    */
+   public byte[] getVerbs()
+   {
+      return verbs.clone();
+   }
+
+   /**
+    * @return copy of coordinate array
+    */
+   public float[] getCoordinates()
+   {
+      return coords.clone();
+   }
+
+   /**
+    * Get bounding box of all points of the path, including Bezier control points (so result
+    * may be larger than exact bounds of the curve).
+    *
+    * @return bounding box as [minX, minY, maxX, maxY], or null if path is empty
+    */
+   public float[] getBounds()
+   {
+      if (coords.length == 0)
+         return null;
+      float minX = coords[0], minY = coords[1], maxX = minX, maxY = minY;
+      for (int i = 2; i < coords.length; i += 2)
+      {
+         float x = coords[i];
+         float y = coords[i + 1];
+         if (x < minX)
+            minX = x;
+         else if (x > maxX)
+            maxX = x;
+         if (y < minY)
+            minY = y;
+         else if (y > maxY)
+            maxY = y;
+      }
+      return new float[] { minX, minY, maxX, maxY };
+   }
+
+   /**
+    * Apply affine transformation to all coordinates. Verb array is shared with this path.
+    *
+    * @param m 6-element affine matrix [a, b, c, d, e, f]
+    * @return transformed path
+    */
+   public PathData transform(float[] m)
+   {
+      float[] result = new float[coords.length];
+      for (int i = 0; i < coords.length; i += 2)
+      {
+         float x = coords[i];
+         float y = coords[i + 1];
+         result[i] = m[0] * x + m[2] * y + m[4];
+         result[i + 1] = m[1] * x + m[3] * y + m[5];
+      }
+      return new PathData(verbs, result);
+   }
+
+   /**
+    * Builder for path data. Uses growable arrays which are trimmed to exact size by {@link #build()}.
+    */
+   public static final class Builder
+   {
+      private byte[] verbs;
+      private float[] coords;
+      private int verbCount = 0;
+      private int coordCount = 0;
+
+      /**
+       * Create builder with default initial capacity.
+       */
+      public Builder()
+      {
+         this(16);
+      }
+
+      /**
+       * Create builder with given initial capacity.
+       *
+       * @param expectedVerbs expected number of verbs
+       */
+      public Builder(int expectedVerbs)
+      {
+         int capacity = Math.max(expectedVerbs, 4);
+         verbs = new byte[capacity];
+         coords = new float[capacity * 4];
+      }
+
+      /**
+       * Add move-to segment.
+       *
+       * @param x absolute x coordinate
+       * @param y absolute y coordinate
+       * @return this builder
+       */
+      public Builder moveTo(float x, float y)
+      {
+         ensureCapacity(2);
+         verbs[verbCount++] = MOVE_TO;
+         coords[coordCount++] = x;
+         coords[coordCount++] = y;
+         return this;
+      }
+
+      /**
+       * Add line-to segment.
+       *
+       * @param x absolute x coordinate
+       * @param y absolute y coordinate
+       * @return this builder
+       */
+      public Builder lineTo(float x, float y)
+      {
+         ensureCapacity(2);
+         verbs[verbCount++] = LINE_TO;
+         coords[coordCount++] = x;
+         coords[coordCount++] = y;
+         return this;
+      }
+
+      /**
+       * Add cubic Bezier segment.
+       *
+       * @param x1 first control point x coordinate
+       * @param y1 first control point y coordinate
+       * @param x2 second control point x coordinate
+       * @param y2 second control point y coordinate
+       * @param x end point x coordinate
+       * @param y end point y coordinate
+       * @return this builder
+       */
+      public Builder cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+      {
+         ensureCapacity(6);
+         verbs[verbCount++] = CUBIC_TO;
+         coords[coordCount++] = x1;
+         coords[coordCount++] = y1;
+         coords[coordCount++] = x2;
+         coords[coordCount++] = y2;
+         coords[coordCount++] = x;
+         coords[coordCount++] = y;
+         return this;
+      }
+
+      /**
+       * Add quadratic Bezier segment.
+       *
+       * @param x1 control point x coordinate
+       * @param y1 control point y coordinate
+       * @param x end point x coordinate
+       * @param y end point y coordinate
+       * @return this builder
+       */
+      public Builder quadTo(float x1, float y1, float x, float y)
+      {
+         ensureCapacity(4);
+         verbs[verbCount++] = QUAD_TO;
+         coords[coordCount++] = x1;
+         coords[coordCount++] = y1;
+         coords[coordCount++] = x;
+         coords[coordCount++] = y;
+         return this;
+      }
+
+      /**
+       * Add close segment.
+       *
+       * @return this builder
+       */
+      public Builder close()
+      {
+         ensureCapacity(0);
+         verbs[verbCount++] = CLOSE;
+         return this;
+      }
+
+      /**
+       * Append all segments of given path.
+       *
+       * @param path path to append
+       * @return this builder
+       */
+      public Builder append(PathData path)
+      {
+         if (verbCount + path.verbs.length > verbs.length)
+            verbs = Arrays.copyOf(verbs, Math.max(verbs.length * 2, verbCount + path.verbs.length));
+         if (coordCount + path.coords.length > coords.length)
+            coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordCount + path.coords.length));
+         System.arraycopy(path.verbs, 0, verbs, verbCount, path.verbs.length);
+         System.arraycopy(path.coords, 0, coords, coordCount, path.coords.length);
+         verbCount += path.verbs.length;
+         coordCount += path.coords.length;
+         return this;
+      }
+
+      /**
+       * @return true if no segments were added
+       */
+      public boolean isEmpty()
+      {
+         return verbCount == 0;
+      }
+
+      /**
+       * Build path data with exactly sized arrays.
+       *
+       * @return path data
+       */
+      public PathData build()
+      {
+         if (verbCount == 0)
+            return EMPTY;
+         return new PathData(Arrays.copyOf(verbs, verbCount), Arrays.copyOf(coords, coordCount));
+      }
+
+      private void ensureCapacity(int extraCoords)
+      {
+         if (verbCount == verbs.length)
+            verbs = Arrays.copyOf(verbs, verbs.length * 2);
+         if (coordCount + extraCoords > coords.length)
+            coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordCount + extraCoords));
+      }
+   }
+}
@@ -0,0 +1,28 @@
+package org.netxms.ui.svg.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for parsing of large path data attribute. Path data shorter than
+ * {@link PathDataParser#LARGE_PATH_LENGTH} characters is never recorded.
+ */
+@Name("org.netxms.ui.svg.PathDataParse")
+@Label("SVG Path Data Parse")
+@Description("Parsing of large path data attribute")
+@Category({ "NetXMS", "SVG Renderer" })
+@Threshold("1 ms")
+@StackTrace(false)
+public final class PathDataParseEvent extends jdk.jfr.Event
+{
+   @Label("Length")
+   @Description("Length of path data in characters")
+   public int length;
+
+   @Label("Segment Count")
+   public int segmentCount;
+}
@@ -1,31 +1,56 @@
 package org.netxms.ui.svg.internal;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Parser for SVG path "d" attribute data. Converts all commands to absolute
  * coordinates and converts arcs to cubic Bezier segments at parse time.
  */
 public final class PathDataParser
 {
+   /**
+    * Minimal length of path data for which flight recorder event is emitted
+    */
+   public static final int LARGE_PATH_LENGTH = 1024;
+
    private PathDataParser()
    {
    }
 
    /**
-    * Parse SVG path data string into a list of path segments.
+    * Parse SVG path data string into packed path geometry.
     * All coordinates are converted to absolute. Arcs are converted to cubics.
     *
     * @param d the path data string
-    * @return list of path segments, empty list on malformed input
+    * @return path data, empty path on malformed input
+    */
+   public static PathData parse(String d)
+   {
+      if (d == null || d.isBlank())
+         return PathData.EMPTY;
+
+      if (d.length() < LARGE_PATH_LENGTH)
+         return parsePathData(d);
+
+      PathDataParseEvent event = new PathDataParseEvent();
+      event.begin();
+      PathData pathData = parsePathData(d);
+      event.end();
+      if (event.shouldCommit())
+      {
+         event.length = d.length();
+         event.segmentCount = pathData.getVerbCount();
+         event.commit();
+      }
+      return pathData;
+   }
+
+   /**
+    * Parse non-empty path data string.
     */
-   public static List<PathSegment> parse(String d)
+   private static PathData parsePathData(String d)
    {
-      if (d == null || d.trim().isEmpty())
-         return new ArrayList<>();
 
-      List<PathSegment> segments = new ArrayList<>();
+      // Each segment takes at least 4 characters in typical path data
+      PathData.Builder segments = new PathData.Builder(d.length() / 4);
       Tokenizer tokenizer = new Tokenizer(d);
 
       float cx = 0, cy = 0; // current point
@@ -69,7 +94,7 @@ public final class PathDataParser
                      x += cx;
                      y += cy;
                   }
-                  segments.add(new PathSegment.MoveTo(x, y));
+                  segments.moveTo(x, y);
                   cx = x;
                   cy = y;
                   sx = x;
@@ -89,7 +114,7 @@ public final class PathDataParser
                         x += cx;
                         y += cy;
                      }
-                     segments.add(new PathSegment.LineTo(x, y));
+                     segments.lineTo(x, y);
                      cx = x;
                      cy = y;
                      lastCx2 = cx;
@@ -110,7 +135,7 @@ public final class PathDataParser
                         x += cx;
                         y += cy;
                      }
-                     segments.add(new PathSegment.LineTo(x, y));
+                     segments.lineTo(x, y);
                      cx = x;
                      cy = y;
                      lastCx2 = cx;
@@ -128,7 +153,7 @@ public final class PathDataParser
                      float x = tokenizer.nextFloat();
                      if (relative)
                         x += cx;
-                     segments.add(new PathSegment.LineTo(x, cy));
+                     segments.lineTo(x, cy);
                      cx = x;
                      lastCx2 = cx;
                      lastCy2 = cy;
@@ -145,7 +170,7 @@ public final class PathDataParser
                      float y = tokenizer.nextFloat();
                      if (relative)
                         y += cy;
-                     segments.add(new PathSegment.LineTo(cx, y));
+                     segments.lineTo(cx, y);
                      cy = y;
                      lastCx2 = cx;
                      lastCy2 = cy;
@@ -174,7 +199,7 @@ public final class PathDataParser
                         x += cx;
                         y += cy;
                      }
-                     segments.add(new PathSegment.CubicTo(x1, y1, x2, y2, x, y));
+                     segments.cubicTo(x1, y1, x2, y2, x, y);
                      lastCx2 = x2;
                      lastCy2 = y2;
                      cx = x;
@@ -203,7 +228,7 @@ public final class PathDataParser
                         x += cx;
                         y += cy;
                      }
-                     segments.add(new PathSegment.CubicTo(x1, y1, x2, y2, x, y));
+                     segments.cubicTo(x1, y1, x2, y2, x, y);
                      lastCx2 = x2;
                      lastCy2 = y2;
                      cx = x;
@@ -229,7 +254,7 @@ public final class PathDataParser
                         x += cx;
                         y += cy;
                      }
-                     segments.add(new PathSegment.QuadTo(x1, y1, x, y));
+                     segments.quadTo(x1, y1, x, y);
                      lastQx1 = x1;
                      lastQy1 = y1;
                      cx = x;
@@ -254,7 +279,7 @@ public final class PathDataParser
                         x += cx;
                         y += cy;
                      }
-                     segments.add(new PathSegment.QuadTo(x1, y1, x, y));
+                     segments.quadTo(x1, y1, x, y);
                      lastQx1 = x1;
                      lastQy1 = y1;
                      cx = x;
@@ -295,7 +320,7 @@ public final class PathDataParser
                }
                case 'Z':
                {
-                  segments.add(PathSegment.Close.INSTANCE);
+                  segments.close();
                   cx = sx;
                   cy = sy;
                   lastCx2 = cx;
@@ -314,17 +339,40 @@ public final class PathDataParser
       catch(Exception e)
       {
          // Malformed path data — return what we have so far
-         return segments.isEmpty() ? new ArrayList<>() : segments;
+         return segments.build();
       }
 
-      return segments;
+      return segments.build();
+   }
+
+   /**
+    * Parse single number using path data number syntax.
+    *
+    * @param s number
+    * @return parsed value
+    * @throws NumberFormatException if given string is not a valid number
+    */
+   static float parseNumber(String s)
+   {
+      Tokenizer tokenizer = new Tokenizer(s);
+      try
+      {
+         float value = tokenizer.nextFloat();
+         if (tokenizer.pos != s.length())
+            throw new NumberFormatException("Unexpected characters after number: " + s);
+         return value;
+      }
+      catch(IllegalStateException e)
+      {
+         throw new NumberFormatException(e.getMessage());
+      }
    }
 
    /**
     * Convert an SVG arc to one or more cubic Bezier segments.
     * Implements SVG spec F.6.5 algorithm.
     */
-   private static void arcToCubics(List<PathSegment> segments,
+   private static void arcToCubics(PathData.Builder segments,
          float x1, float y1, float rxIn, float ryIn,
          float xAxisRotationDeg, boolean largeArc, boolean sweep,
          float x2, float y2)
@@ -338,7 +386,7 @@ public final class PathDataParser
       float ry = Math.abs(ryIn);
       if (rx == 0 || ry == 0)
       {
-         segments.add(new PathSegment.LineTo(x2, y2));
+         segments.lineTo(x2, y2);
          return;
       }
 
@@ -452,7 +500,7 @@ public final class PathDataParser
             by = y2;
          }
 
-         segments.add(new PathSegment.CubicTo(bx1, by1, bx2, by2, bx, by));
+         segments.cubicTo(bx1, by1, bx2, by2, bx, by);
          currentX = bx;
          currentY = by;
       }
@@ -478,6 +526,11 @@ public final class PathDataParser
     */
    private static class Tokenizer
    {
+      private static final int MAX_MANTISSA_DIGITS = 18;
+      private static final long MAX_EXACT_MANTISSA = 1L << 24;
+      private static final int MAX_EXACT_POWER = 10;
+      private static final float[] POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
       private final String data;
       private int pos;
 
@@ -539,47 +592,118 @@ public final class PathDataParser
          throw new IllegalStateException("Expected flag (0 or 1) at position " + pos);
       }
 
+      /**
+       * Read a number. Number is converted directly from characters when mantissa fits into float
+       * significand (up to 2^24) and decimal exponent is within exactly representable float powers of ten
+       * (up to 10^10), which covers most coordinates in SVG files; otherwise it falls back to
+       * Float.parseFloat. Result is identical to Float.parseFloat in both cases: with exact operands single
+       * correctly rounded float multiplication or division gives correctly rounded result (Clinger's fast path).
+       */
       float nextFloat()
       {
          skipWhitespaceAndCommas();
-         if (pos >= data.length())
+         int length = data.length();
+         if (pos >= length)
             throw new IllegalStateException("Unexpected end of path data");
 
          int start = pos;
-         boolean hasDecimal = false;
-         boolean hasExponent = false;
+         char c = data.charAt(pos);
+         boolean negative = false;
 
          // Handle sign
-         if (pos < data.length() && (data.charAt(pos) == '-' || data.charAt(pos) == '+'))
+         if (c == '-' || c == '+')
+         {
+            negative = (c == '-');
             pos++;
+         }
+
+         long mantissa = 0;
+         int significantDigits = 0;
+         int exponent = 0;
+         boolean hasDigits = false;
+         boolean inexact = false;
 
          // Digits before decimal
-         while (pos < data.length() && data.charAt(pos) >= '0' && data.charAt(pos) <= '9')
+         while (pos < length && (c = data.charAt(pos)) >= '0' && c <= '9')
+         {
+            hasDigits = true;
+            if (significantDigits < MAX_MANTISSA_DIGITS)
+            {
+               mantissa = mantissa * 10 + (c - '0');
+               if (mantissa != 0)
+                  significantDigits++;
+            }
+            else
+            {
+               exponent++;
+               if (c != '0')
+                  inexact = true;
+            }
             pos++;
+         }
 
          // Decimal point
-         if (pos < data.length() && data.charAt(pos) == '.')
+         if (pos < length && data.charAt(pos) == '.')
          {
-            hasDecimal = true;
             pos++;
-            while (pos < data.length() && data.charAt(pos) >= '0' && data.charAt(pos) <= '9')
+            while (pos < length && (c = data.charAt(pos)) >= '0' && c <= '9')
+            {
+               hasDigits = true;
+               if (significantDigits < MAX_MANTISSA_DIGITS)
+               {
+                  mantissa = mantissa * 10 + (c - '0');
+                  if (mantissa != 0)
+                     significantDigits++;
+                  exponent--;
+               }
+               else if (c != '0')
+               {
+                  inexact = true;
+               }
                pos++;
+            }
+         }
+
+         if (!hasDigits)
+         {
+            if (pos == start)
+               throw new IllegalStateException("Expected number at position " + pos);
+            throw new NumberFormatException("Invalid number at position " + start);
          }
 
          // Exponent
-         if (pos < data.length() && (data.charAt(pos) == 'e' || data.charAt(pos) == 'E'))
+         if (pos < length && ((c = data.charAt(pos)) == 'e' || c == 'E'))
          {
-            hasExponent = true;
             pos++;
-            if (pos < data.length() && (data.charAt(pos) == '+' || data.charAt(pos) == '-'))
+            boolean negativeExponent = false;
+            if (pos < length && ((c = data.charAt(pos)) == '+' || c == '-'))
+            {
+               negativeExponent = (c == '-');
                pos++;
-            while (pos < data.length() && data.charAt(pos) >= '0' && data.charAt(pos) <= '9')
+            }
+            int exponentStart = pos;
+            int explicitExponent = 0;
+            while (pos < length && (c = data.charAt(pos)) >= '0' && c <= '9')
+            {
+               if (explicitExponent < 100000)
+                  explicitExponent = explicitExponent * 10 + (c - '0');
                pos++;
+            }
+            if (pos == exponentStart)
+               throw new NumberFormatException("Invalid exponent at position " + exponentStart);
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
          }
 
-         if (pos == start)
-            throw new IllegalStateException("Expected number at position " + pos);
+         if (mantissa == 0)
+            return negative ? -0.0f : 0.0f;
+
+         if (!inexact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -MAX_EXACT_POWER && exponent <= MAX_EXACT_POWER)
+         {
+            float value = (exponent >= 0) ? (float)mantissa * POWERS_OF_TEN[exponent] : (float)mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+         }
 
+         // Slow path for long mantissas and large exponents
          return Float.parseFloat(data.substring(start, pos));
       }
 
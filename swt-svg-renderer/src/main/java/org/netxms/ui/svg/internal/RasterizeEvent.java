@@ -0,0 +1,44 @@
+package org.netxms.ui.svg.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for rasterization of SVG image into new image or pixel array.
+ */
+@Name("org.netxms.ui.svg.Rasterize")
+@Label("SVG Rasterize")
+@Description("Rasterization of SVG image into new image or pixel array")
+@Category({ "NetXMS", "SVG Renderer" })
+@Threshold("1 ms")
+public final class RasterizeEvent extends jdk.jfr.Event
+{
+   public static final String SINGLE_PASS = "single pass";
+   public static final String DUAL_PASS = "dual pass";
+   public static final String SOFTWARE = "software";
+
+   @Label("Source")
+   @Description("File name, or null if image was created from memory")
+   public String source;
+
+   @Label("Document Id")
+   public int documentId;
+
+   @Label("Method")
+   public String method;
+
+   @Label("Width")
+   public int width;
+
+   @Label("Height")
+   public int height;
+
+   @Label("Node Count")
+   public int nodeCount;
+
+   @Label("Segment Count")
+   public int segmentCount;
+}
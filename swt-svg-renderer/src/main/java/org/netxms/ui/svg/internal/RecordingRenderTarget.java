@@ -0,0 +1,304 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Render target which records all calls into compact command list. Recorded commands can be replayed onto another
+ * target (separating drawing cost from traversal cost) or inspected as text.
+ */
+public final class RecordingRenderTarget implements RenderTarget
+{
+   private static final byte SET_TRANSFORM = 0;
+   private static final byte BEGIN_PATH = 1;
+   private static final byte MOVE_TO = 2;
+   private static final byte LINE_TO = 3;
+   private static final byte CUBIC_TO = 4;
+   private static final byte QUAD_TO = 5;
+   private static final byte CLOSE = 6;
+   private static final byte RECTANGLE = 7;
+   private static final byte FILL = 8;
+   private static final byte STROKE = 9;
+   private static final byte END_PATH = 10;
+
+   private byte[] commands = new byte[64];
+   private int commandCount = 0;
+   private float[] args = new float[256];
+   private int argCount = 0;
+   private Object[] objects = new Object[64];
+   private int objectCount = 0;
+
+   @Override
+   public void setTransform(float[] matrix)
+   {
+      addCommand(SET_TRANSFORM);
+      addObject(matrix);
+   }
+
+   @Override
+   public boolean beginPath(SVGNode node)
+   {
+      addCommand(BEGIN_PATH);
+      addObject(node);
+      return true;
+   }
+
+   @Override
+   public void moveTo(float x, float y)
+   {
+      addCommand(MOVE_TO);
+      addArgs(x, y);
+   }
+
+   @Override
+   public void lineTo(float x, float y)
+   {
+      addCommand(LINE_TO);
+      addArgs(x, y);
+   }
+
+   @Override
+   public void cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+   {
+      addCommand(CUBIC_TO);
+      addArgs(x1, y1);
+      addArgs(x2, y2);
+      addArgs(x, y);
+   }
+
+   @Override
+   public void quadTo(float x1, float y1, float x, float y)
+   {
+      addCommand(QUAD_TO);
+      addArgs(x1, y1);
+      addArgs(x, y);
+   }
+
+   @Override
+   public void close()
+   {
+      addCommand(CLOSE);
+   }
+
+   @Override
+   public void addRectangle(float x, float y, float width, float height)
+   {
+      addCommand(RECTANGLE);
+      addArgs(x, y);
+      addArgs(width, height);
+   }
+
+   @Override
+   public void fill(ResolvedStyle style)
+   {
+      addCommand(FILL);
+      addObject(style);
+   }
+
+   @Override
+   public void stroke(ResolvedStyle style)
+   {
+      addCommand(STROKE);
+      addObject(style);
+   }
+
+   @Override
+   public void endPath()
+   {
+      addCommand(END_PATH);
+   }
+
+   /**
+    * Replay recorded commands onto given target. Path geometry is skipped for paths the target reports as already
+    * available.
+    *
+    * @param target render target
+    */
+   public void replay(RenderTarget target)
+   {
+      int a = 0;
+      int o = 0;
+      boolean sendGeometry = true;
+      for (int i = 0; i < commandCount; i++)
+      {
+         switch(commands[i])
+         {
+            case SET_TRANSFORM:
+               target.setTransform((float[])objects[o++]);
+               break;
+            case BEGIN_PATH:
+               sendGeometry = target.beginPath((SVGNode)objects[o++]);
+               break;
+            case MOVE_TO:
+               if (sendGeometry)
+                  target.moveTo(args[a], args[a + 1]);
+               a += 2;
+               break;
+            case LINE_TO:
+               if (sendGeometry)
+                  target.lineTo(args[a], args[a + 1]);
+               a += 2;
+               break;
+            case CUBIC_TO:
+               if (sendGeometry)
+                  target.cubicTo(args[a], args[a + 1], args[a + 2], args[a + 3], args[a + 4], args[a + 5]);
+               a += 6;
+               break;
+            case QUAD_TO:
+               if (sendGeometry)
+                  target.quadTo(args[a], args[a + 1], args[a + 2], args[a + 3]);
+               a += 4;
+               break;
+            case CLOSE:
+               if (sendGeometry)
+                  target.close();
+               break;
+            case RECTANGLE:
+               if (sendGeometry)
+                  target.addRectangle(args[a], args[a + 1], args[a + 2], args[a + 3]);
+               a += 4;
+               break;
+            case FILL:
+               target.fill((ResolvedStyle)objects[o++]);
+               break;
+            case STROKE:
+               target.stroke((ResolvedStyle)objects[o++]);
+               break;
+            case END_PATH:
+               target.endPath();
+               sendGeometry = true;
+               break;
+         }
+      }
+   }
+
+   /**
+    * Remove all recorded commands.
+    */
+   public void clear()
+   {
+      commandCount = 0;
+      argCount = 0;
+      Arrays.fill(objects, 0, objectCount, null);
+      objectCount = 0;
+   }
+
+   /**
+    * @return number of recorded commands
+    */
+   public int getCommandCount()
+   {
+      return commandCount;
+   }
+
+   /**
+    * Get recorded commands as text, one command per line.
+    *
+    * @see java.lang.Object#toString()
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+      int a = 0;
+      int o = 0;
+      for (int i = 0; i < commandCount; i++)
+      {
+         switch(commands[i])
+         {
+            case SET_TRANSFORM:
+               sb.append("setTransform");
+               for (float v : (float[])objects[o++])
+                  appendNumber(sb, v);
+               break;
+            case BEGIN_PATH:
+               sb.append("beginPath");
+               if (objects[o] != null)
+                  sb.append(' ').append(objects[o].getClass().getSimpleName());
+               o++;
+               break;
+            case MOVE_TO:
+               a = appendArgs(sb.append("moveTo"), a, 2);
+               break;
+            case LINE_TO:
+               a = appendArgs(sb.append("lineTo"), a, 2);
+               break;
+            case CUBIC_TO:
+               a = appendArgs(sb.append("cubicTo"), a, 6);
+               break;
+            case QUAD_TO:
+               a = appendArgs(sb.append("quadTo"), a, 4);
+               break;
+            case CLOSE:
+               sb.append("close");
+               break;
+            case RECTANGLE:
+               a = appendArgs(sb.append("rectangle"), a, 4);
+               break;
+            case FILL:
+            {
+               ResolvedStyle style = (ResolvedStyle)objects[o++];
+               sb.append("fill ").append(colorToString(style.getFillColor())).append(' ').append(style.getFillAlpha());
+               break;
+            }
+            case STROKE:
+            {
+               ResolvedStyle style = (ResolvedStyle)objects[o++];
+               sb.append("stroke ").append(colorToString(style.getStrokeColor())).append(' ').append(style.getStrokeAlpha());
+               appendNumber(sb, style.getLineWidth());
+               break;
+            }
+            case END_PATH:
+               sb.append("endPath");
+               break;
+         }
+         sb.append('\n');
+      }
+      return sb.toString();
+   }
+
+   private int appendArgs(StringBuilder sb, int a, int count)
+   {
+      for (int i = 0; i < count; i++)
+         appendNumber(sb, args[a++]);
+      return a;
+   }
+
+   private static void appendNumber(StringBuilder sb, float v)
+   {
+      sb.append(' ');
+      if (v == (int)v)
+         sb.append((int)v);
+      else
+         sb.append(String.format(Locale.ROOT, "%.3f", v));
+   }
+
+   private static String colorToString(int rgb)
+   {
+      if (rgb == ResolvedStyle.COLOR_CURRENT)
+         return "currentColor";
+      return String.format("#%06X", rgb);
+   }
+
+   private void addCommand(byte command)
+   {
+      if (commandCount == commands.length)
+         commands = Arrays.copyOf(commands, commandCount * 2);
+      commands[commandCount++] = command;
+   }
+
+   private void addArgs(float a1, float a2)
+   {
+      if (argCount + 2 > args.length)
+         args = Arrays.copyOf(args, args.length * 2);
+      args[argCount++] = a1;
+      args[argCount++] = a2;
+   }
+
+   private void addObject(Object object)
+   {
+      if (objectCount == objects.length)
+         objects = Arrays.copyOf(objects, objectCount * 2);
+      objects[objectCount++] = object;
+   }
+}
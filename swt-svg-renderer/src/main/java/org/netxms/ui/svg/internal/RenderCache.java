@@ -0,0 +1,322 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.LineAttributes;
+import org.eclipse.swt.graphics.Path;
+import org.eclipse.swt.graphics.Transform;
+
+/**
+ * SWT resources used by {@link SVGRenderer}. Persistent cache keeps compiled paths per document node
+ * and colors between render calls until disposed; transient cache keeps colors and scratch transforms
+ * for single render call only and does not retain paths. Not thread-safe, except that path and color
+ * counts can be read from any thread (for monitoring).
+ */
+public final class RenderCache
+{
+   private final Device device;
+   private final boolean persistent;
+   private final Map<SVGDocument, Map<SVGNode, Path>> documentPaths = new IdentityHashMap<>();
+   private int[] colorKeys = new int[16];
+   private Color[] colorValues = new Color[16];
+   private volatile int colorCount = 0; // written only by owning thread
+   private Map<SVGNode, Path> currentPaths = null;
+   private Transform savedTransform = null;
+   private Transform workTransform = null;
+   private float[] appliedMatrix = null;
+   private final LineAttributes lineAttributes = new LineAttributes(1);
+   private volatile int pathCount = 0; // written only by owning thread
+   private boolean disposed = false;
+   private RenderCounters counters = null;
+
+   /**
+    * Create new render cache.
+    *
+    * @param device device for resource creation
+    * @param persistent true to keep compiled paths between render calls
+    */
+   public RenderCache(Device device, boolean persistent)
+   {
+      this.device = device;
+      this.persistent = persistent;
+   }
+
+   /**
+    * @return device this cache is bound to
+    */
+   public Device getDevice()
+   {
+      return device;
+   }
+
+   /**
+    * @return true if cache is disposed
+    */
+   public boolean isDisposed()
+   {
+      return disposed;
+   }
+
+   /**
+    * @return number of paths currently held by this cache
+    */
+   public int getPathCount()
+   {
+      return pathCount;
+   }
+
+   /**
+    * @return number of colors currently held by this cache
+    */
+   public int getColorCount()
+   {
+      return colorCount;
+   }
+
+   /**
+    * Prepare cache for rendering given document.
+    *
+    * @param doc document to be rendered
+    */
+   void beginDocument(SVGDocument doc)
+   {
+      if (persistent)
+         currentPaths = documentPaths.computeIfAbsent(doc, d -> new IdentityHashMap<>());
+      appliedMatrix = null;
+   }
+
+   /**
+    * Set counters for resources created by current render call.
+    *
+    * @param counters per-call counters or null if statistics are not collected
+    */
+   void setCounters(RenderCounters counters)
+   {
+      this.counters = counters;
+   }
+
+   /**
+    * Register creation of native resource for current render call.
+    *
+    * @param type resource type (one of {@link NativeResourceCounter} constants)
+    */
+   void resourceCreated(int type)
+   {
+      NativeResourceCounter.created(type, counters);
+   }
+
+   /**
+    * Get compiled path for given node of current document.
+    *
+    * @param node document node
+    * @return cached path or null
+    */
+   Path getPath(SVGNode node)
+   {
+      return (currentPaths != null) ? currentPaths.get(node) : null;
+   }
+
+   /**
+    * Store compiled path for given node of current document.
+    *
+    * @param node document node
+    * @param path compiled path
+    * @return true if path is now owned by cache, false if caller should dispose it after use
+    */
+   boolean putPath(SVGNode node, Path path)
+   {
+      if (currentPaths == null)
+         return false;
+      currentPaths.put(node, path);
+      pathCount++;
+      return true;
+   }
+
+   /**
+    * Get color with given RGB value. Colors are kept in open addressing hash table keyed by RGB value,
+    * so lookup does not allocate.
+    *
+    * @param rgb color as 0xRRGGBB
+    * @return color owned by cache
+    */
+   Color getColor(int rgb)
+   {
+      int mask = colorValues.length - 1;
+      int index = hash(rgb) & mask;
+      while (colorValues[index] != null)
+      {
+         if (colorKeys[index] == rgb)
+            return colorValues[index];
+         index = (index + 1) & mask;
+      }
+
+      Color color = new Color(device, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+      resourceCreated(NativeResourceCounter.COLOR);
+      colorKeys[index] = rgb;
+      colorValues[index] = color;
+      colorCount++;
+      if (colorCount * 2 > colorValues.length)
+         growColorTable();
+      return color;
+   }
+
+   private static int hash(int rgb)
+   {
+      int h = rgb * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   private void growColorTable()
+   {
+      int[] oldKeys = colorKeys;
+      Color[] oldValues = colorValues;
+      colorKeys = new int[oldKeys.length * 2];
+      colorValues = new Color[oldValues.length * 2];
+      int mask = colorValues.length - 1;
+      for (int i = 0; i < oldValues.length; i++)
+      {
+         if (oldValues[i] == null)
+            continue;
+         int index = hash(oldKeys[i]) & mask;
+         while (colorValues[index] != null)
+            index = (index + 1) & mask;
+         colorKeys[index] = oldKeys[i];
+         colorValues[index] = oldValues[i];
+      }
+   }
+
+   /**
+    * Get scratch line attributes object filled with given values. Other attributes are
+    * set to defaults (solid line, miter limit 10).
+    *
+    * @param width line width
+    * @param cap SWT line cap
+    * @param join SWT line join
+    * @return line attributes (owned by cache and reused by subsequent calls)
+    */
+   LineAttributes getLineAttributes(float width, int cap, int join)
+   {
+      lineAttributes.width = width;
+      lineAttributes.cap = cap;
+      lineAttributes.join = join;
+      return lineAttributes;
+   }
+
+   /**
+    * Save current GC transform. Saved transform is restored by {@link #restoreTransform(GC)}.
+    *
+    * @param gc graphics context
+    * @param matrix 6-element array to receive current GC transform elements
+    */
+   void saveTransform(GC gc, float[] matrix)
+   {
+      if (savedTransform == null)
+      {
+         savedTransform = new Transform(device);
+         resourceCreated(NativeResourceCounter.TRANSFORM);
+      }
+      gc.getTransform(savedTransform);
+      savedTransform.getElements(matrix);
+   }
+
+   /**
+    * Restore GC transform saved by {@link #saveTransform(GC, float[])}.
+    *
+    * @param gc graphics context
+    */
+   void restoreTransform(GC gc)
+   {
+      gc.setTransform(savedTransform);
+      appliedMatrix = null;
+   }
+
+   /**
+    * Set GC transform to given matrix. Does nothing if the same matrix instance is already applied.
+    *
+    * @param gc graphics context
+    * @param matrix 6-element affine matrix
+    */
+   void applyTransform(GC gc, float[] matrix)
+   {
+      if (matrix == appliedMatrix)
+         return;
+      if (workTransform == null)
+      {
+         workTransform = new Transform(device);
+         resourceCreated(NativeResourceCounter.TRANSFORM);
+      }
+      workTransform.setElements(matrix[0], matrix[1], matrix[2], matrix[3], matrix[4], matrix[5]);
+      gc.setTransform(workTransform);
+      appliedMatrix = matrix;
+   }
+
+   /**
+    * Dispose cached paths for given document.
+    *
+    * @param doc document
+    */
+   public void release(SVGDocument doc)
+   {
+      Map<SVGNode, Path> paths = documentPaths.remove(doc);
+      if (paths == null)
+         return;
+      if (paths == currentPaths)
+         currentPaths = null;
+      for (Path p : paths.values())
+         p.dispose();
+      pathCount -= paths.size();
+   }
+
+   /**
+    * Dispose all resources held by this cache. Cache can be used again after this call.
+    */
+   public void clear()
+   {
+      for (Map<SVGNode, Path> paths : documentPaths.values())
+      {
+         for (Path p : paths.values())
+            p.dispose();
+      }
+      documentPaths.clear();
+      currentPaths = null;
+      pathCount = 0;
+
+      for (int i = 0; i < colorValues.length; i++)
+      {
+         if (colorValues[i] != null)
+         {
+            colorValues[i].dispose();
+            colorValues[i] = null;
+         }
+      }
+      colorCount = 0;
+
+      if (savedTransform != null)
+      {
+         savedTransform.dispose();
+         savedTransform = null;
+      }
+      if (workTransform != null)
+      {
+         workTransform.dispose();
+         workTransform = null;
+      }
+      appliedMatrix = null;
+   }
+
+   /**
+    * Dispose all resources held by this cache and mark it as disposed.
+    */
+   public void dispose()
+   {
+      if (disposed)
+         return;
+      if (!device.isDisposed())
+         clear();
+      disposed = true;
+   }
+}
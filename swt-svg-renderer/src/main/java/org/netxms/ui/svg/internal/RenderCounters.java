@@ -0,0 +1,14 @@
+package org.netxms.ui.svg.internal;
+
+/**
+ * Mutable counters collected during single render or rasterize call when statistics collection is
+ * enabled. Renderer code receives null instead of counters object when collection is disabled.
+ */
+public final class RenderCounters
+{
+   public int nodesVisited;
+   public int nodesCulled;
+   public int fills;
+   public int strokes;
+   public final int[] resourcesCreated = new int[NativeResourceCounter.getTypeCount()];
+}
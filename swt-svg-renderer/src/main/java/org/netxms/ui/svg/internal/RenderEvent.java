@@ -0,0 +1,33 @@
+package org.netxms.ui.svg.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for rendering of document onto SWT GC.
+ */
+@Name("org.netxms.ui.svg.Render")
+@Label("SVG Render")
+@Description("Rendering of SVG document onto graphics context")
+@Category({ "NetXMS", "SVG Renderer" })
+@Threshold("1 ms")
+public final class RenderEvent extends jdk.jfr.Event
+{
+   @Label("Document Id")
+   public int documentId;
+
+   @Label("Width")
+   public int width;
+
+   @Label("Height")
+   public int height;
+
+   @Label("Node Count")
+   public int nodeCount;
+
+   @Label("Segment Count")
+   public int segmentCount;
+}
@@ -0,0 +1,104 @@
+package org.netxms.ui.svg.internal;
+
+/**
+ * Drawing backend for {@link SVGRenderer}. Document traversal calls, for each painted shape: {@link #setTransform},
+ * {@link #beginPath}, path construction methods (only if {@code beginPath} returned true), {@link #fill} and/or
+ * {@link #stroke}, and finally {@link #endPath}. Coordinates passed to path construction methods are in the shape's user
+ * space; transform maps them to device space.
+ */
+public interface RenderTarget
+{
+   /**
+    * Set current transformation matrix.
+    *
+    * @param matrix affine matrix [a, b, c, d, e, f]; must not be modified by the target
+    */
+   void setTransform(float[] matrix);
+
+   /**
+    * Start new path for given shape.
+    *
+    * @param node shape node the path is built for, or null if path is not built from document node (path is not cached then)
+    * @return true if path geometry should be sent, false if target already has it (e.g. cached from previous render)
+    */
+   boolean beginPath(SVGNode node);
+
+   /**
+    * Start new subpath.
+    *
+    * @param x x coordinate
+    * @param y y coordinate
+    */
+   void moveTo(float x, float y);
+
+   /**
+    * Add line segment.
+    *
+    * @param x x coordinate
+    * @param y y coordinate
+    */
+   void lineTo(float x, float y);
+
+   /**
+    * Add cubic Bezier segment.
+    *
+    * @param x1 first control point x
+    * @param y1 first control point y
+    * @param x2 second control point x
+    * @param y2 second control point y
+    * @param x end point x
+    * @param y end point y
+    */
+   void cubicTo(float x1, float y1, float x2, float y2, float x, float y);
+
+   /**
+    * Add quadratic Bezier segment.
+    *
+    * @param x1 control point x
+    * @param y1 control point y
+    * @param x end point x
+    * @param y end point y
+    */
+   void quadTo(float x1, float y1, float x, float y);
+
+   /**
+    * Close current subpath.
+    */
+   void close();
+
+   /**
+    * Add axis-aligned rectangle as closed subpath. Targets with native rectangle support may override this.
+    *
+    * @param x left edge
+    * @param y top edge
+    * @param width rectangle width
+    * @param height rectangle height
+    */
+   default void addRectangle(float x, float y, float width, float height)
+   {
+      moveTo(x, y);
+      lineTo(x + width, y);
+      lineTo(x + width, y + height);
+      lineTo(x, y + height);
+      close();
+   }
+
+   /**
+    * Fill current path using fill color, opacity, and fill rule from given style.
+    *
+    * @param style resolved style of the shape
+    */
+   void fill(ResolvedStyle style);
+
+   /**
+    * Stroke current path using stroke color, opacity, width, cap, and join from given style.
+    *
+    * @param style resolved style of the shape
+    */
+   void stroke(ResolvedStyle style);
+
+   /**
+    * Finish current path and release resources associated with it.
+    */
+   void endPath();
+}
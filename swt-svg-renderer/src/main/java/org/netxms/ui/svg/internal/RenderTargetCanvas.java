@@ -0,0 +1,119 @@
+package org.netxms.ui.svg.internal;
+
+import org.eclipse.swt.SWT;
+import org.netxms.ui.svg.SVGCanvas;
+
+/**
+ * Canvas passing drawing calls of generated code to render target. Transformations are combined with base matrix
+ * (mapping document's user space to device space). Last used fill and stroke styles are reused when drawing
+ * parameters do not change, so consecutive shapes with the same paint do not allocate.
+ */
+public final class RenderTargetCanvas implements SVGCanvas
+{
+   private final RenderTarget target;
+   private final float[] baseMatrix;
+   private final RenderCounters counters;
+   private float[] matrix;
+   private boolean matrixApplied = false;
+   private ResolvedStyle fillStyle = null;
+   private ResolvedStyle strokeStyle = null;
+
+   /**
+    * Create canvas for given render target.
+    *
+    * @param target render target
+    * @param baseMatrix transformation from document's user space to target's device space
+    * @param counters counters to update (null if statistics are not collected)
+    */
+   public RenderTargetCanvas(RenderTarget target, float[] baseMatrix, RenderCounters counters)
+   {
+      this.target = target;
+      this.baseMatrix = baseMatrix;
+      this.counters = counters;
+      matrix = baseMatrix;
+   }
+
+   @Override
+   public void setTransform(float a, float b, float c, float d, float e, float f)
+   {
+      matrix = SVGTransform.multiply(baseMatrix, new float[] { a, b, c, d, e, f });
+      matrixApplied = false;
+   }
+
+   @Override
+   public void beginPath()
+   {
+      if (!matrixApplied)
+      {
+         target.setTransform(matrix);
+         matrixApplied = true;
+      }
+      target.beginPath(null);
+      if (counters != null)
+         counters.nodesVisited++;
+   }
+
+   @Override
+   public void moveTo(float x, float y)
+   {
+      target.moveTo(x, y);
+   }
+
+   @Override
+   public void lineTo(float x, float y)
+   {
+      target.lineTo(x, y);
+   }
+
+   @Override
+   public void cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+   {
+      target.cubicTo(x1, y1, x2, y2, x, y);
+   }
+
+   @Override
+   public void quadTo(float x1, float y1, float x, float y)
+   {
+      target.quadTo(x1, y1, x, y);
+   }
+
+   @Override
+   public void close()
+   {
+      target.close();
+   }
+
+   @Override
+   public void addRectangle(float x, float y, float width, float height)
+   {
+      target.addRectangle(x, y, width, height);
+   }
+
+   @Override
+   public void fill(int rgb, int alpha, boolean evenOdd)
+   {
+      int fillRule = evenOdd ? SWT.FILL_EVEN_ODD : SWT.FILL_WINDING;
+      if (fillStyle == null || fillStyle.getFillColor() != rgb || fillStyle.getFillAlpha() != alpha || fillStyle.getFillRule() != fillRule)
+         fillStyle = ResolvedStyle.forFill(rgb, alpha, fillRule);
+      target.fill(fillStyle);
+      if (counters != null)
+         counters.fills++;
+   }
+
+   @Override
+   public void stroke(int rgb, int alpha, float width, int lineCap, int lineJoin)
+   {
+      if (strokeStyle == null || strokeStyle.getStrokeColor() != rgb || strokeStyle.getStrokeAlpha() != alpha || strokeStyle.getLineWidth() != width ||
+            strokeStyle.getLineCap() != lineCap || strokeStyle.getLineJoin() != lineJoin)
+         strokeStyle = ResolvedStyle.forStroke(rgb, alpha, width, lineCap, lineJoin);
+      target.stroke(strokeStyle);
+      if (counters != null)
+         counters.strokes++;
+   }
+
+   @Override
+   public void endPath()
+   {
+      target.endPath();
+   }
+}
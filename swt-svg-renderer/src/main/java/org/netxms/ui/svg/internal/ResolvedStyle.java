@@ -0,0 +1,315 @@
+package org.netxms.ui.svg.internal;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * Fully resolved style of a node, ready for rendering. Computed once at parse time from the
+ * node's own style and the resolved style of its parent. Colors are stored as 0xRRGGBB values
+ * or one of the special values {@link #COLOR_NONE} and {@link #COLOR_CURRENT}; alpha values are
+ * already combined with element opacity; fill rule, line cap and line join are SWT constants.
+ */
+public final class ResolvedStyle
+{
+   /** Paint is "none". */
+   public static final int COLOR_NONE = -1;
+   /** Paint is "currentColor" (supplied at render time). */
+   public static final int COLOR_CURRENT = -2;
+
+   /** Resolved root defaults. */
+   public static final ResolvedStyle ROOT_DEFAULTS = new ResolvedStyle(StyleProps.ROOT_DEFAULTS);
+
+   private final StyleProps props;
+   private final int fillColor;
+   private final int strokeColor;
+   private final int fillAlpha;
+   private final int strokeAlpha;
+   private final int fillRule;
+   private final float strokeWidth;
+   private final float lineWidth;
+   private final int lineCap;
+   private final int lineJoin;
+
+   /**
+    * Create resolved style from fully resolved style properties (no unset values).
+    *
+    * @param props resolved style properties
+    */
+   public ResolvedStyle(StyleProps props)
+   {
+      this.props = props;
+
+      // Element-level alpha (opacity is inherited, not multiplied)
+      float opacity = Float.isNaN(props.getOpacity()) ? 1.0f : props.getOpacity();
+      int elementAlpha = Math.round(opacity * 255);
+
+      fillColor = toRGB(props.getFill());
+      float fillOpacity = Float.isNaN(props.getFillOpacity()) ? 1.0f : props.getFillOpacity();
+      fillAlpha = Math.round(elementAlpha * fillOpacity);
+      fillRule = (props.getFillRule() == StyleProps.FILL_RULE_EVENODD) ? SWT.FILL_EVEN_ODD : SWT.FILL_WINDING;
+
+      strokeColor = toRGB(props.getStroke());
+      float strokeOpacity = Float.isNaN(props.getStrokeOpacity()) ? 1.0f : props.getStrokeOpacity();
+      strokeAlpha = Math.round(elementAlpha * strokeOpacity);
+      strokeWidth = Float.isNaN(props.getStrokeWidth()) ? 1.0f : props.getStrokeWidth();
+      lineWidth = Math.max(1, Math.round(strokeWidth));
+
+      switch(props.getLineCap())
+      {
+         case StyleProps.LINE_CAP_ROUND:
+            lineCap = SWT.CAP_ROUND;
+            break;
+         case StyleProps.LINE_CAP_SQUARE:
+            lineCap = SWT.CAP_SQUARE;
+            break;
+         default:
+            lineCap = SWT.CAP_FLAT;
+            break;
+      }
+
+      switch(props.getLineJoin())
+      {
+         case StyleProps.LINE_JOIN_ROUND:
+            lineJoin = SWT.JOIN_ROUND;
+            break;
+         case StyleProps.LINE_JOIN_BEVEL:
+            lineJoin = SWT.JOIN_BEVEL;
+            break;
+         default:
+            lineJoin = SWT.JOIN_MITER;
+            break;
+      }
+   }
+
+   /**
+    * Create style from drawing parameters.
+    */
+   private ResolvedStyle(int fillColor, int fillAlpha, int fillRule, int strokeColor, int strokeAlpha, float lineWidth, int lineCap, int lineJoin)
+   {
+      props = null;
+      this.fillColor = fillColor;
+      this.strokeColor = strokeColor;
+      this.fillAlpha = fillAlpha;
+      this.strokeAlpha = strokeAlpha;
+      this.fillRule = fillRule;
+      strokeWidth = lineWidth;
+      this.lineWidth = lineWidth;
+      this.lineCap = lineCap;
+      this.lineJoin = lineJoin;
+   }
+
+   /**
+    * Create fill style from drawing parameters (used when drawing from generated code, which has no style
+    * properties; {@link #getProperties()} returns null for such style).
+    *
+    * @param color fill color as 0xRRGGBB or {@link #COLOR_CURRENT}
+    * @param alpha fill alpha (0..255)
+    * @param fillRule SWT fill rule
+    * @return fill style
+    */
+   public static ResolvedStyle forFill(int color, int alpha, int fillRule)
+   {
+      return new ResolvedStyle(color, alpha, fillRule, COLOR_NONE, 0, 1, SWT.CAP_FLAT, SWT.JOIN_MITER);
+   }
+
+   /**
+    * Create stroke style from drawing parameters (used when drawing from generated code, which has no style
+    * properties; {@link #getProperties()} returns null for such style).
+    *
+    * @param color stroke color as 0xRRGGBB or {@link #COLOR_CURRENT}
+    * @param alpha stroke alpha (0..255)
+    * @param lineWidth line width
+    * @param lineCap SWT line cap
+    * @param lineJoin SWT line join
+    * @return stroke style
+    */
+   public static ResolvedStyle forStroke(int color, int alpha, float lineWidth, int lineCap, int lineJoin)
+   {
+      return new ResolvedStyle(COLOR_NONE, 0, SWT.FILL_WINDING, color, alpha, lineWidth, lineCap, lineJoin);
+   }
+
+   /**
+    * Create copy of given style with different stroke and line width.
+    */
+   private ResolvedStyle(ResolvedStyle src, float strokeWidth, float lineWidth)
+   {
+      props = src.props;
+      fillColor = src.fillColor;
+      strokeColor = src.strokeColor;
+      fillAlpha = src.fillAlpha;
+      strokeAlpha = src.strokeAlpha;
+      fillRule = src.fillRule;
+      this.strokeWidth = strokeWidth;
+      this.lineWidth = lineWidth;
+      lineCap = src.lineCap;
+      lineJoin = src.lineJoin;
+   }
+
+   /**
+    * Get style for geometry scaled uniformly by given factor (stroke width is scaled accordingly).
+    *
+    * @param scale scale factor
+    * @return scaled style (this instance if scale is 1)
+    */
+   public ResolvedStyle scale(float scale)
+   {
+      return (scale == 1) ? this : new ResolvedStyle(this, strokeWidth * scale, lineWidth * scale);
+   }
+
+   /**
+    * Get style with given stroke and line width (used to restore scaled styles from compiled documents).
+    *
+    * @param strokeWidth stroke width
+    * @param lineWidth line width
+    * @return style with given widths (this instance if widths are the same)
+    */
+   public ResolvedStyle withStrokeWidth(float strokeWidth, float lineWidth)
+   {
+      return (strokeWidth == this.strokeWidth && lineWidth == this.lineWidth) ? this : new ResolvedStyle(this, strokeWidth, lineWidth);
+   }
+
+   /**
+    * Resolve node style against resolved parent style. Returns parent instance if node style
+    * does not set any property.
+    *
+    * @param style node's own style properties
+    * @param parent resolved parent style
+    * @return resolved style
+    */
+   public static ResolvedStyle resolve(StyleProps style, ResolvedStyle parent)
+   {
+      if (style == StyleProps.EMPTY)
+         return parent;
+      return new ResolvedStyle(style.resolve(parent.props));
+   }
+
+   /**
+    * Check if shape is painted at all with this style (either fill or stroke is visible).
+    *
+    * @param fillable false if shape has no interior (line)
+    * @return true if shape is painted
+    */
+   public boolean isPainted(boolean fillable)
+   {
+      return (fillable && fillColor != COLOR_NONE && fillAlpha > 0) || (strokeColor != COLOR_NONE && strokeAlpha > 0 && lineWidth > 0);
+   }
+
+   /**
+    * Check if this style paints fill the same way as given style.
+    *
+    * @param other other style
+    * @return true if fill color, fill alpha, and fill rule are the same
+    */
+   public boolean isSameFill(ResolvedStyle other)
+   {
+      return (fillColor == other.fillColor) && (fillAlpha == other.fillAlpha) && (fillRule == other.fillRule);
+   }
+
+   private static int toRGB(SVGColor color)
+   {
+      if (color instanceof SVGColor.Absolute)
+      {
+         SVGColor.Absolute abs = (SVGColor.Absolute)color;
+         return (abs.getR() << 16) | (abs.getG() << 8) | abs.getB();
+      }
+      if (color instanceof SVGColor.CurrentColor)
+         return COLOR_CURRENT;
+      return COLOR_NONE;
+   }
+
+   /**
+    * @return resolved style properties this style was computed from
+    */
+   public StyleProps getProperties()
+   {
+      return props;
+   }
+
+   /**
+    * @return true if shape should be filled
+    */
+   public boolean hasFill()
+   {
+      return fillColor != COLOR_NONE;
+   }
+
+   /**
+    * @return true if shape should be stroked
+    */
+   public boolean hasStroke()
+   {
+      return strokeColor != COLOR_NONE;
+   }
+
+   /**
+    * @return fill color as 0xRRGGBB, {@link #COLOR_NONE}, or {@link #COLOR_CURRENT}
+    */
+   public int getFillColor()
+   {
+      return fillColor;
+   }
+
+   /**
+    * @return stroke color as 0xRRGGBB, {@link #COLOR_NONE}, or {@link #COLOR_CURRENT}
+    */
+   public int getStrokeColor()
+   {
+      return strokeColor;
+   }
+
+   /**
+    * @return fill alpha (0-255) including element opacity
+    */
+   public int getFillAlpha()
+   {
+      return fillAlpha;
+   }
+
+   /**
+    * @return stroke alpha (0-255) including element opacity
+    */
+   public int getStrokeAlpha()
+   {
+      return strokeAlpha;
+   }
+
+   /**
+    * @return SWT fill rule (SWT.FILL_WINDING or SWT.FILL_EVEN_ODD)
+    */
+   public int getFillRule()
+   {
+      return fillRule;
+   }
+
+   /**
+    * @return stroke width in user units
+    */
+   public float getStrokeWidth()
+   {
+      return strokeWidth;
+   }
+
+   /**
+    * @return line width for SWT GC in node's coordinate system. For unscaled styles this is stroke
+    *         width rounded to integer (at least 1), matching integer line width of SWT GC.
+    */
+   public float getLineWidth()
+   {
+      return lineWidth;
+   }
+
+   /**
+    * @return SWT line cap constant
+    */
+   public int getLineCap()
+   {
+      return lineCap;
+   }
+
+   /**
+    * @return SWT line join constant
+    */
+   public int getLineJoin()
+   {
+      return lineJoin;
+   }
+}
@@ -0,0 +1,358 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe cache of reference-counted disposable resources with LRU eviction. Cache is limited by
+ * total size of cached values and optionally by number of cached values. Values are handed out by
+ * {@link #acquire(Object, Function)} and must be returned by {@link #release(Object)}. Values evicted
+ * while still in use are removed from the cache immediately, but disposed only when last reference is
+ * released. Concurrent requests for the same missing key wait for single load instead of loading the
+ * value several times.
+ *
+ * @param <K> key type
+ * @param <V> value type (compared by identity)
+ */
+public final class ResourceCache<K, V>
+{
+   private final long maxSize;
+   private final int maxCount;
+   private final ToLongFunction<V> sizer;
+   private final Consumer<V> disposer;
+   private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+   private final Map<V, Entry<V>> entriesByValue = new IdentityHashMap<>();
+   private final Map<K, CompletableFuture<Entry<V>>> pending = new HashMap<>();
+   private long size = 0;
+   private long hits = 0;
+   private long misses = 0;
+   private long evictions = 0;
+   private boolean disposed = false;
+
+   /**
+    * Create new cache.
+    *
+    * @param maxSize maximum total size of cached values
+    * @param maxCount maximum number of cached values, or 0 for no limit
+    * @param sizer function for calculating value size
+    * @param disposer function for disposing values
+    */
+   public ResourceCache(long maxSize, int maxCount, ToLongFunction<V> sizer, Consumer<V> disposer)
+   {
+      this.maxSize = maxSize;
+      this.maxCount = maxCount;
+      this.sizer = sizer;
+      this.disposer = disposer;
+   }
+
+   /**
+    * Get value for given key, loading it if necessary. Returned value must be released with
+    * {@link #release(Object)} when no longer needed. Loader is called without holding cache lock.
+    *
+    * @param key cache key
+    * @param loader function for loading missing value
+    * @return value for given key
+    * @throws IllegalStateException if cache is disposed
+    * @throws RuntimeException if loader failed (exceptions thrown by loader are re-thrown as is to all waiting callers)
+    */
+   public V acquire(K key, Function<K, V> loader)
+   {
+      while (true)
+      {
+         CompletableFuture<Entry<V>> future;
+         boolean owner = false;
+         synchronized(this)
+         {
+            checkDisposed();
+            Entry<V> e = entries.get(key);
+            if (e != null)
+            {
+               e.refCount++;
+               hits++;
+               return e.value;
+            }
+
+            future = pending.get(key);
+            if (future == null)
+            {
+               future = new CompletableFuture<>();
+               pending.put(key, future);
+               misses++;
+               owner = true;
+            }
+            else
+            {
+               hits++;
+            }
+         }
+
+         if (owner)
+            return load(key, loader, future);
+
+         Entry<V> e;
+         try
+         {
+            e = future.join();
+         }
+         catch(RuntimeException ex)
+         {
+            throw (ex.getCause() instanceof RuntimeException) ? (RuntimeException)ex.getCause() : ex;
+         }
+
+         synchronized(this)
+         {
+            checkDisposed();
+            if (!e.disposed)
+            {
+               e.refCount++;
+               if (!e.evicted)
+                  entries.get(key); // Update access order
+               return e.value;
+            }
+         }
+         // Value was already evicted and disposed, try again
+      }
+   }
+
+   /**
+    * Load value and publish it to the cache and waiting callers.
+    */
+   private V load(K key, Function<K, V> loader, CompletableFuture<Entry<V>> future)
+   {
+      V value;
+      try
+      {
+         value = loader.apply(key);
+      }
+      catch(RuntimeException | Error ex)
+      {
+         synchronized(this)
+         {
+            pending.remove(key);
+         }
+         future.completeExceptionally(ex);
+         throw ex;
+      }
+
+      Entry<V> e = new Entry<>(value, sizer.applyAsLong(value));
+      List<V> evicted;
+      boolean cacheDisposed;
+      synchronized(this)
+      {
+         pending.remove(key);
+         cacheDisposed = disposed;
+         if (!cacheDisposed)
+         {
+            entries.put(key, e);
+            entriesByValue.put(value, e);
+            size += e.size;
+            evicted = evict();
+         }
+         else
+         {
+            e.disposed = true;
+            evicted = null;
+         }
+      }
+      future.complete(e);
+
+      if (cacheDisposed)
+      {
+         disposer.accept(value);
+         throw new IllegalStateException("Cache is disposed");
+      }
+      disposeAll(evicted);
+      return value;
+   }
+
+   /**
+    * Evict least recently used entries until cache is within limits. Most recently used entry is
+    * never evicted. Must be called with cache lock held.
+    *
+    * @return list of values to be disposed (after releasing the lock)
+    */
+   private List<V> evict()
+   {
+      List<V> toDispose = null;
+      Iterator<Entry<V>> it = entries.values().iterator();
+      while ((size > maxSize || (maxCount > 0 && entries.size() > maxCount)) && entries.size() > 1)
+      {
+         Entry<V> e = it.next();
+         it.remove();
+         evictions++;
+         if (toDispose == null)
+            toDispose = new ArrayList<>();
+         removeEntry(e, toDispose);
+      }
+      return toDispose;
+   }
+
+   /**
+    * Mark entry as removed from cache and add its value to disposal list if it is not referenced.
+    * Must be called with cache lock held.
+    */
+   private void removeEntry(Entry<V> e, List<V> toDispose)
+   {
+      e.evicted = true;
+      size -= e.size;
+      if (e.refCount == 0)
+      {
+         e.disposed = true;
+         entriesByValue.remove(e.value);
+         toDispose.add(e.value);
+      }
+   }
+
+   /**
+    * Release value obtained by {@link #acquire(Object, Function)}. Does nothing if cache is already
+    * disposed (all values are disposed together with the cache).
+    *
+    * @param value value to release
+    * @throws IllegalArgumentException if value was not obtained from this cache or is already fully released
+    */
+   public void release(V value)
+   {
+      synchronized(this)
+      {
+         if (disposed)
+            return;
+         Entry<V> e = entriesByValue.get(value);
+         if (e == null || e.refCount == 0)
+            throw new IllegalArgumentException("Value is not owned by this cache or is already released");
+         e.refCount--;
+         if (e.refCount > 0 || !e.evicted)
+            return;
+         e.disposed = true;
+         entriesByValue.remove(value);
+      }
+      disposer.accept(value);
+   }
+
+   /**
+    * Remove all entries from the cache. Values currently in use are disposed when released.
+    */
+   public void clear()
+   {
+      List<V> toDispose = new ArrayList<>();
+      synchronized(this)
+      {
+         for (Entry<V> e : entries.values())
+            removeEntry(e, toDispose);
+         entries.clear();
+      }
+      disposeAll(toDispose);
+   }
+
+   /**
+    * Dispose all values (including values currently in use) and mark cache as disposed.
+    */
+   public void dispose()
+   {
+      List<V> toDispose = new ArrayList<>();
+      synchronized(this)
+      {
+         if (disposed)
+            return;
+         disposed = true;
+         for (Entry<V> e : entriesByValue.values())
+         {
+            e.evicted = true;
+            e.disposed = true;
+            toDispose.add(e.value);
+         }
+         entries.clear();
+         entriesByValue.clear();
+         size = 0;
+      }
+      disposeAll(toDispose);
+   }
+
+   private void disposeAll(List<V> values)
+   {
+      if (values == null)
+         return;
+      for (V v : values)
+         disposer.accept(v);
+   }
+
+   private void checkDisposed()
+   {
+      if (disposed)
+         throw new IllegalStateException("Cache is disposed");
+   }
+
+   /**
+    * @return true if cache is disposed
+    */
+   public synchronized boolean isDisposed()
+   {
+      return disposed;
+   }
+
+   /**
+    * @return number of cached values
+    */
+   public synchronized int getCount()
+   {
+      return entries.size();
+   }
+
+   /**
+    * @return total size of cached values
+    */
+   public synchronized long getSize()
+   {
+      return size;
+   }
+
+   /**
+    * @return number of requests served from cache (including requests which waited for load started by another caller)
+    */
+   public synchronized long getHits()
+   {
+      return hits;
+   }
+
+   /**
+    * @return number of requests which caused value load
+    */
+   public synchronized long getMisses()
+   {
+      return misses;
+   }
+
+   /**
+    * @return number of values evicted from cache due to size or count limit
+    */
+   public synchronized long getEvictions()
+   {
+      return evictions;
+   }
+
+   /**
+    * Cache entry
+    */
+   private static final class Entry<V>
+   {
+      final V value;
+      final long size;
+      int refCount = 1;
+      boolean evicted = false;
+      boolean disposed = false;
+
+      Entry(V value, long size)
+      {
+         this.value = value;
+         this.size = size;
+      }
+   }
+}
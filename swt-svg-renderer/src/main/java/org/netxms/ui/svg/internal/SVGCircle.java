@@ -11,16 +11,17 @@ public final class SVGCircle extends SVGNode
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible
     * @param cx center x coordinate
     * @param cy center y coordinate
     * @param r radius
     */
-   public SVGCircle(StyleProps style, float[] transform, boolean display,
+   public SVGCircle(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display,
          float cx, float cy, float r)
    {
-      super(style, transform, display);
+      super(style, resolvedStyle, transform, display);
       this.cx = cx;
       this.cy = cy;
       this.r = r;
@@ -2,9 +2,11 @@ package org.netxms.ui.svg.internal;
 
 import java.util.Collections;
 import java.util.List;
+import org.netxms.ui.svg.SVGRenderable;
 
 /**
- * Represents a parsed SVG document with viewBox metadata and child elements.
+ * Represents a parsed SVG document with viewBox metadata and child elements. Document created from generated code
+ * has no child elements and is drawn by its {@link SVGRenderable} instead.
  */
 public final class SVGDocument
 {
@@ -15,6 +17,7 @@ public final class SVGDocument
    private final float width;
    private final float height;
    private final List<SVGNode> children;
+   private final SVGRenderable renderable;
 
    /**
     * @param viewBoxX viewBox origin x coordinate
@@ -35,6 +38,24 @@ public final class SVGDocument
       this.width = width;
       this.height = height;
       this.children = Collections.unmodifiableList(children);
+      this.renderable = null;
+   }
+
+   /**
+    * Create document drawn by generated code.
+    *
+    * @param renderable generated image
+    */
+   public SVGDocument(SVGRenderable renderable)
+   {
+      this.viewBoxX = renderable.getViewBoxX();
+      this.viewBoxY = renderable.getViewBoxY();
+      this.viewBoxWidth = renderable.getViewBoxWidth();
+      this.viewBoxHeight = renderable.getViewBoxHeight();
+      this.width = renderable.getWidth();
+      this.height = renderable.getHeight();
+      this.children = Collections.emptyList();
+      this.renderable = renderable;
    }
 
    /**
@@ -92,4 +113,12 @@ public final class SVGDocument
    {
       return children;
    }
+
+   /**
+    * @return generated image drawing this document, or null if document is drawn from its child nodes
+    */
+   public SVGRenderable getRenderable()
+   {
+      return renderable;
+   }
 }
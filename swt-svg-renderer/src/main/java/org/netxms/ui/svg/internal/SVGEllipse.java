@@ -12,17 +12,18 @@ public final class SVGEllipse extends SVGNode
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible
     * @param cx center x coordinate
     * @param cy center y coordinate
     * @param rx horizontal radius
     * @param ry vertical radius
     */
-   public SVGEllipse(StyleProps style, float[] transform, boolean display,
+   public SVGEllipse(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display,
          float cx, float cy, float rx, float ry)
    {
-      super(style, transform, display);
+      super(style, resolvedStyle, transform, display);
       this.cx = cx;
       this.cy = cy;
       this.rx = rx;
@@ -12,13 +12,14 @@ public final class SVGGroup extends SVGNode
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this group is visible
     * @param children child SVG nodes
     */
-   public SVGGroup(StyleProps style, float[] transform, boolean display, List<SVGNode> children)
+   public SVGGroup(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display, List<SVGNode> children)
    {
-      super(style, transform, display);
+      super(style, resolvedStyle, transform, display);
       this.children = Collections.unmodifiableList(children);
    }
 
@@ -12,17 +12,18 @@ public final class SVGLine extends SVGNode
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible
     * @param x1 start point x coordinate
     * @param y1 start point y coordinate
     * @param x2 end point x coordinate
     * @param y2 end point y coordinate
     */
-   public SVGLine(StyleProps style, float[] transform, boolean display,
+   public SVGLine(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display,
          float x1, float y1, float x2, float y2)
    {
-      super(style, transform, display);
+      super(style, resolvedStyle, transform, display);
       this.x1 = x1;
       this.y1 = y1;
       this.x2 = x2;
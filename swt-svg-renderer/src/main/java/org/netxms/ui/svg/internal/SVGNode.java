@@ -6,17 +6,20 @@ package org.netxms.ui.svg.internal;
 public abstract class SVGNode
 {
    private final StyleProps style;
+   private final ResolvedStyle resolvedStyle;
    private final float[] transform;
    private final boolean display;
 
    /**
     * @param style presentation style properties for this element
-    * @param transform 6-element affine transform matrix, or identity
+    * @param resolvedStyle style resolved against parent elements, used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible (false if display:none)
     */
-   protected SVGNode(StyleProps style, float[] transform, boolean display)
+   protected SVGNode(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display)
    {
       this.style = style;
+      this.resolvedStyle = resolvedStyle;
       this.transform = transform;
       this.display = display;
    }
@@ -30,13 +33,29 @@ public abstract class SVGNode
    }
 
    /**
-    * @return 6-element affine transform matrix [a, b, c, d, e, f]
+    * @return style resolved against parent elements
+    */
+   public ResolvedStyle getResolvedStyle()
+   {
+      return resolvedStyle;
+   }
+
+   /**
+    * @return 6-element affine transform matrix [a, b, c, d, e, f], or null for identity
     */
    public float[] getTransform()
    {
       return transform;
    }
 
+   /**
+    * @return true if this element has non-identity transform
+    */
+   public boolean hasTransform()
+   {
+      return transform != null;
+   }
+
    /**
     * @return true if this element should be rendered, false if display:none
     */
@@ -0,0 +1,239 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Optimization pass which reduces number of nodes the renderer has to visit and number of SWT paths
+ * it has to build. Performs three steps:
+ * <ul>
+ * <li>groups without transform are replaced by their children (styles are already resolved into
+ * leaves, so such groups do not affect rendering), hidden groups are removed;</li>
+ * <li>nodes which can never draw are removed (hidden, no visible fill or stroke, empty geometry);</li>
+ * <li>runs of consecutive fill-only shapes with the same fill and transform are merged into single
+ * path if their bounding boxes do not overlap. Disjoint subpaths are filled identically under both
+ * fill rules and with any alpha, so merging does not change rendering result.</li>
+ * </ul>
+ */
+public final class SVGOptimizer
+{
+   private static final Logger logger = Logger.getLogger(SVGOptimizer.class.getName());
+
+   /** Maximum number of shapes merged into single path (limits quadratic overlap check) */
+   private static final int MAX_MERGE_RUN = 64;
+
+   private int nodesBefore = 0;
+   private int nodesAfter = 0;
+   private int mergedShapes = 0;
+
+   /**
+    * Create new optimizer.
+    */
+   public SVGOptimizer()
+   {
+   }
+
+   /**
+    * Optimize given document.
+    *
+    * @param doc source document
+    * @return optimized document (source document is not modified)
+    */
+   public SVGDocument optimize(SVGDocument doc)
+   {
+      nodesBefore = countNodes(doc.getChildren());
+      mergedShapes = 0;
+
+      List<SVGNode> leaves = new ArrayList<>();
+      flatten(doc.getChildren(), leaves);
+      List<SVGNode> children = mergeShapes(leaves);
+
+      nodesAfter = countNodes(children);
+      if (logger.isLoggable(Level.FINE))
+         logger.fine("SVG optimizer: " + nodesBefore + " nodes before, " + nodesAfter + " nodes after (" + mergedShapes + " shapes merged)");
+      return new SVGDocument(doc.getViewBoxX(), doc.getViewBoxY(), doc.getViewBoxWidth(), doc.getViewBoxHeight(),
+            doc.getWidth(), doc.getHeight(), children);
+   }
+
+   /**
+    * @return number of nodes in the source document of last {@link #optimize(SVGDocument)} call
+    */
+   public int getNodesBefore()
+   {
+      return nodesBefore;
+   }
+
+   /**
+    * @return number of nodes in the result of last {@link #optimize(SVGDocument)} call
+    */
+   public int getNodesAfter()
+   {
+      return nodesAfter;
+   }
+
+   /**
+    * @return number of shapes merged into other shapes by last {@link #optimize(SVGDocument)} call
+    */
+   public int getMergedShapes()
+   {
+      return mergedShapes;
+   }
+
+   /**
+    * Count all nodes (groups and shapes) in given node list, recursively.
+    *
+    * @param nodes node list
+    * @return total number of nodes
+    */
+   public static int countNodes(List<SVGNode> nodes)
+   {
+      int count = nodes.size();
+      for (SVGNode n : nodes)
+      {
+         if (n instanceof SVGGroup)
+            count += countNodes(((SVGGroup)n).getChildren());
+      }
+      return count;
+   }
+
+   /**
+    * Copy drawable nodes to output list, replacing groups without transform by their children.
+    */
+   private static void flatten(List<SVGNode> nodes, List<SVGNode> output)
+   {
+      for (SVGNode n : nodes)
+      {
+         if (!n.isDisplay())
+            continue;
+
+         if (n instanceof SVGGroup)
+         {
+            SVGGroup group = (SVGGroup)n;
+            if (group.hasTransform())
+            {
+               List<SVGNode> children = new ArrayList<>();
+               flatten(group.getChildren(), children);
+               if (!children.isEmpty())
+                  output.add(new SVGGroup(group.getStyle(), group.getResolvedStyle(), group.getTransform(), true, children));
+            }
+            else
+            {
+               flatten(group.getChildren(), output);
+            }
+         }
+         else if (isDrawable(n))
+         {
+            output.add(n);
+         }
+      }
+   }
+
+   /**
+    * Check if shape can produce any output.
+    */
+   static boolean isDrawable(SVGNode n)
+   {
+      if (!n.getResolvedStyle().isPainted(!(n instanceof SVGLine)))
+         return false;
+      if (n instanceof SVGRect)
+         return ((SVGRect)n).getWidth() > 0 && ((SVGRect)n).getHeight() > 0;
+      if (n instanceof SVGCircle)
+         return ((SVGCircle)n).getR() > 0;
+      if (n instanceof SVGEllipse)
+         return ((SVGEllipse)n).getRx() > 0 && ((SVGEllipse)n).getRy() > 0;
+      if (n instanceof SVGPath)
+         return !((SVGPath)n).getPathData().isEmpty();
+      if (n instanceof SVGPolyline)
+         return ((SVGPolyline)n).getPoints().length >= 4;
+      if (n instanceof SVGPolygon)
+         return ((SVGPolygon)n).getPoints().length >= 4;
+      return true;
+   }
+
+   /**
+    * Merge runs of compatible fill-only shapes.
+    */
+   private List<SVGNode> mergeShapes(List<SVGNode> nodes)
+   {
+      List<SVGNode> result = new ArrayList<>(nodes.size());
+      List<SVGNode> run = new ArrayList<>();
+      List<float[]> runBounds = new ArrayList<>();
+      for (SVGNode n : nodes)
+      {
+         float[] bounds = isMergeable(n) ? ShapeGeometry.toPathData(n).getBounds() : null;
+         if (bounds != null && !run.isEmpty() && run.size() < MAX_MERGE_RUN && isCompatible(run.get(0), n) && !overlaps(runBounds, bounds))
+         {
+            run.add(n);
+            runBounds.add(bounds);
+            continue;
+         }
+
+         flushRun(run, result);
+         runBounds.clear();
+         if (bounds != null)
+         {
+            run.add(n);
+            runBounds.add(bounds);
+         }
+         else
+         {
+            result.add(n);
+         }
+      }
+      flushRun(run, result);
+      return result;
+   }
+
+   /**
+    * Add current run to result list as single node and clear it.
+    */
+   private void flushRun(List<SVGNode> run, List<SVGNode> result)
+   {
+      if (run.size() == 1)
+      {
+         result.add(run.get(0));
+      }
+      else if (run.size() > 1)
+      {
+         PathData.Builder builder = new PathData.Builder(run.size() * 8);
+         for (SVGNode n : run)
+            builder.append(ShapeGeometry.toPathData(n));
+         SVGNode first = run.get(0);
+         result.add(new SVGPath(first.getStyle(), first.getResolvedStyle(), first.getTransform(), true, builder.build()));
+         mergedShapes += run.size() - 1;
+      }
+      run.clear();
+   }
+
+   /**
+    * Check if node can be merged with other shapes (it is fill-only shape).
+    */
+   private static boolean isMergeable(SVGNode n)
+   {
+      return !(n instanceof SVGGroup) && !(n instanceof SVGLine) && !n.getResolvedStyle().hasStroke();
+   }
+
+   /**
+    * Check if two fill-only shapes are painted the same way.
+    */
+   private static boolean isCompatible(SVGNode n1, SVGNode n2)
+   {
+      return n1.getResolvedStyle().isSameFill(n2.getResolvedStyle()) && Arrays.equals(n1.getTransform(), n2.getTransform());
+   }
+
+   /**
+    * Check if given bounding box overlaps or touches any of the boxes in the list.
+    */
+   private static boolean overlaps(List<float[]> boxes, float[] b)
+   {
+      for (float[] a : boxes)
+      {
+         if (a[0] <= b[2] && b[0] <= a[2] && a[1] <= b[3] && b[1] <= a[3])
+            return true;
+      }
+      return false;
+   }
+}
@@ -1,28 +1,27 @@
 package org.netxms.ui.svg.internal;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.netxms.ui.svg.SVGParseException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import org.netxms.ui.svg.SVGParseOptions;
 
 /**
- * DOM-based SVG parser. Parses SVG XML into an immutable SVGDocument tree.
+ * Streaming SVG parser. Builds immutable SVGDocument tree directly from XML events,
+ * without intermediate DOM. Events are produced either by StAX parser (default) or by
+ * built-in fast tokenizer for UTF-8 input (selected by {@link SVGParseOptions#setFastParser(boolean)}).
  */
 public final class SVGParser
 {
-   private static final Logger logger = Logger.getLogger(SVGParser.class.getName());
+   private static final ThreadLocal<XMLInputFactory> inputFactory = ThreadLocal.withInitial(SVGParser::createInputFactory);
 
    private SVGParser()
    {
@@ -37,18 +36,19 @@ public final class SVGParser
     */
    public static SVGDocument parse(InputStream input) throws SVGParseException
    {
+      return parseStream(input, false);
+   }
+
+   /**
+    * Parse SVG from an input stream with StAX parser.
+    */
+   private static SVGDocument parseStream(InputStream input, boolean strict) throws SVGParseException
+   {
+      XMLStreamReader reader = null;
       try
       {
-         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-         factory.setNamespaceAware(false);
-         // Disable external entities for security
-         factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-         factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-         factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-
-         DocumentBuilder builder = factory.newDocumentBuilder();
-         Document doc = builder.parse(input);
-         return parseDocument(doc);
+         reader = inputFactory.get().createXMLStreamReader(input);
+         return parseDocument(reader, strict);
       }
       catch(SVGParseException e)
       {
@@ -58,368 +58,179 @@ public final class SVGParser
       {
          throw new SVGParseException("Failed to parse SVG: " + e.getMessage(), e);
       }
-   }
-
-   /**
-    * Parse SVG from a string.
-    *
-    * @param svgContent the SVG XML content string
-    * @return parsed SVG document tree
-    * @throws SVGParseException if the SVG is malformed or the root element is not &lt;svg&gt;
-    */
-   public static SVGDocument parse(String svgContent) throws SVGParseException
-   {
-      return parse(new ByteArrayInputStream(svgContent.getBytes(StandardCharsets.UTF_8)));
-   }
-
-   private static SVGDocument parseDocument(Document doc) throws SVGParseException
-   {
-      Element root = doc.getDocumentElement();
-      if (root == null || !root.getTagName().equalsIgnoreCase("svg"))
+      finally
       {
-         throw new SVGParseException("Root element must be <svg>");
-      }
-
-      // Parse viewBox
-      float vbX = 0, vbY = 0, vbW = -1, vbH = -1;
-      String viewBox = root.getAttribute("viewBox");
-      if (viewBox != null && !viewBox.isEmpty())
-      {
-         String[] parts = viewBox.trim().split("[\\s,]+");
-         if (parts.length == 4)
+         if (reader != null)
          {
             try
             {
-               vbX = Float.parseFloat(parts[0]);
-               vbY = Float.parseFloat(parts[1]);
-               vbW = Float.parseFloat(parts[2]);
-               vbH = Float.parseFloat(parts[3]);
+               reader.close();
             }
-            catch(NumberFormatException e)
+            catch(XMLStreamException e)
             {
-               logger.warning("Invalid viewBox: " + viewBox);
+               // ignore
             }
          }
       }
+   }
 
-      // Parse width/height
-      float width = parseDimension(root.getAttribute("width"));
-      float height = parseDimension(root.getAttribute("height"));
+   /**
+    * Parse SVG from an input stream using given parse options.
+    *
+    * @param input the input stream containing SVG XML data
+    * @param options parse options (null for defaults)
+    * @return parsed SVG document tree
+    * @throws SVGParseException if the SVG is malformed or the root element is not &lt;svg&gt;
+    */
+   public static SVGDocument parse(InputStream input, SVGParseOptions options) throws SVGParseException
+   {
+      if (options == null || !options.isFastParser())
+         return parseStream(input, (options != null) && options.isStrict());
 
-      // If no viewBox, use width/height as viewBox
-      if (vbW < 0 && width > 0)
+      byte[] data;
+      try
       {
-         vbX = 0;
-         vbY = 0;
-         vbW = width;
-         vbH = height;
+         data = input.readAllBytes();
       }
-
-      // If no viewBox and no width/height, default to 100x100
-      if (vbW < 0)
+      catch(IOException e)
       {
-         logger.warning("SVG has no viewBox or width/height, defaulting to 0 0 100 100");
-         vbX = 0;
-         vbY = 0;
-         vbW = 100;
-         vbH = 100;
+         throw new SVGParseException("Failed to read SVG: " + e.getMessage(), e);
       }
-
-      // If width/height not specified, use viewBox dimensions
-      if (width <= 0)
-         width = vbW;
-      if (height <= 0)
-         height = vbH;
-
-      List<SVGNode> children = parseChildren(root);
-
-      return new SVGDocument(vbX, vbY, vbW, vbH, width, height, children);
+      return parse(data, 0, data.length, options);
    }
 
-   private static List<SVGNode> parseChildren(Element parent)
+   /**
+    * Parse SVG from a string.
+    *
+    * @param svgContent the SVG XML content string
+    * @return parsed SVG document tree
+    * @throws SVGParseException if the SVG is malformed or the root element is not &lt;svg&gt;
+    */
+   public static SVGDocument parse(String svgContent) throws SVGParseException
    {
-      List<SVGNode> children = new ArrayList<>();
-      NodeList nodes = parent.getChildNodes();
-      for (int i = 0; i < nodes.getLength(); i++)
-      {
-         Node node = nodes.item(i);
-         if (node.getNodeType() != Node.ELEMENT_NODE)
-            continue;
-
-         Element element = (Element)node;
-         SVGNode svgNode = parseElement(element);
-         if (svgNode != null)
-            children.add(svgNode);
-      }
-      return children;
+      return parse(new ByteArrayInputStream(svgContent.getBytes(StandardCharsets.UTF_8)));
    }
 
-   private static SVGNode parseElement(Element element)
+   /**
+    * Parse SVG from a string using given parse options.
+    *
+    * @param svgContent the SVG XML content string
+    * @param options parse options (null for defaults)
+    * @return parsed SVG document tree
+    * @throws SVGParseException if the SVG is malformed or the root element is not &lt;svg&gt;
+    */
+   public static SVGDocument parse(String svgContent, SVGParseOptions options) throws SVGParseException
    {
-      String tag = element.getTagName().toLowerCase();
-
-      // Check display:none
-      boolean display = true;
-      String displayAttr = element.getAttribute("display");
-      if ("none".equalsIgnoreCase(displayAttr))
-         display = false;
-
-      // Also check inline style for display:none
-      String style = element.getAttribute("style");
-      if (style != null && style.toLowerCase().contains("display") && style.toLowerCase().contains("none"))
-      {
-         // More precise check
-         String[] decls = style.split(";");
-         for (String decl : decls)
-         {
-            int colon = decl.indexOf(':');
-            if (colon >= 0)
-            {
-               String prop = decl.substring(0, colon).trim().toLowerCase();
-               String val = decl.substring(colon + 1).trim().toLowerCase();
-               if ("display".equals(prop) && "none".equals(val))
-                  display = false;
-            }
-         }
-      }
-
-      StyleProps styleProps = StyleProps.parse(element);
-      float[] transform = SVGTransform.parse(element.getAttribute("transform"));
-
-      switch(tag)
-      {
-         case "g":
-         {
-            List<SVGNode> children = parseChildren(element);
-            return new SVGGroup(styleProps, transform, display, children);
-         }
-         case "path":
-         {
-            String d = element.getAttribute("d");
-            if (d == null || d.isEmpty())
-            {
-               logger.warning("Path element missing 'd' attribute, skipping");
-               return null;
-            }
-            List<PathSegment> segments = PathDataParser.parse(d);
-            if (segments.isEmpty())
-            {
-               logger.warning("Path element has malformed path data, skipping");
-               return null;
-            }
-            return new SVGPath(styleProps, transform, display, segments);
-         }
-         case "rect":
-         {
-            float x = parseFloatAttr(element, "x", 0);
-            float y = parseFloatAttr(element, "y", 0);
-            float w = parseFloatAttr(element, "width", 0);
-            float h = parseFloatAttr(element, "height", 0);
-            float rx = parseFloatAttr(element, "rx", 0);
-            float ry = parseFloatAttr(element, "ry", 0);
-            // SVG spec: if only one of rx/ry is specified, the other equals it
-            if (rx > 0 && ry == 0)
-               ry = rx;
-            else if (ry > 0 && rx == 0)
-               rx = ry;
-            if (w <= 0 || h <= 0)
-               return null;
-            return new SVGRect(styleProps, transform, display, x, y, w, h, rx, ry);
-         }
-         case "circle":
-         {
-            float cx = parseFloatAttr(element, "cx", 0);
-            float cy = parseFloatAttr(element, "cy", 0);
-            float r = parseFloatAttr(element, "r", 0);
-            if (r <= 0)
-               return null;
-            return new SVGCircle(styleProps, transform, display, cx, cy, r);
-         }
-         case "ellipse":
-         {
-            float cx = parseFloatAttr(element, "cx", 0);
-            float cy = parseFloatAttr(element, "cy", 0);
-            float rx = parseFloatAttr(element, "rx", 0);
-            float ry = parseFloatAttr(element, "ry", 0);
-            if (rx <= 0 || ry <= 0)
-               return null;
-            return new SVGEllipse(styleProps, transform, display, cx, cy, rx, ry);
-         }
-         case "line":
-         {
-            float x1 = parseFloatAttr(element, "x1", 0);
-            float y1 = parseFloatAttr(element, "y1", 0);
-            float x2 = parseFloatAttr(element, "x2", 0);
-            float y2 = parseFloatAttr(element, "y2", 0);
-            return new SVGLine(styleProps, transform, display, x1, y1, x2, y2);
-         }
-         case "polyline":
-         {
-            float[] points = parsePointsAttr(element.getAttribute("points"));
-            if (points == null || points.length < 4)
-               return null;
-            return new SVGPolyline(styleProps, transform, display, points);
-         }
-         case "polygon":
-         {
-            float[] points = parsePointsAttr(element.getAttribute("points"));
-            if (points == null || points.length < 4)
-               return null;
-            return new SVGPolygon(styleProps, transform, display, points);
-         }
-         case "svg":
-         {
-            // Nested SVG — treat as group
-            List<SVGNode> children = parseChildren(element);
-            return new SVGGroup(styleProps, transform, display, children);
-         }
-         default:
-         {
-            // Unknown element — log and skip
-            logger.fine("Unsupported SVG element: <" + tag + ">, skipping");
-            return null;
-         }
-      }
+      byte[] data = svgContent.getBytes(StandardCharsets.UTF_8);
+      return parse(data, 0, data.length, options);
    }
 
-   private static float parseFloatAttr(Element element, String name, float defaultValue)
+   /**
+    * Parse SVG from a byte buffer using given parse options. Buffer position is not changed.
+    *
+    * @param buffer buffer containing SVG XML data between its position and limit
+    * @param options parse options (null for defaults)
+    * @return parsed SVG document tree
+    * @throws SVGParseException if the SVG is malformed or the root element is not &lt;svg&gt;
+    */
+   public static SVGDocument parse(ByteBuffer buffer, SVGParseOptions options) throws SVGParseException
    {
-      String value = element.getAttribute(name);
-      if (value == null || value.isEmpty())
-         return defaultValue;
-      try
-      {
-         value = value.trim();
-         float unitFactor = 1.0f;
-         int stripLen = 0;
-         if (value.endsWith("px"))
-         {
-            stripLen = 2;
-         }
-         else if (value.endsWith("mm"))
-         {
-            unitFactor = 96.0f / 25.4f;
-            stripLen = 2;
-         }
-         else if (value.endsWith("cm"))
-         {
-            unitFactor = 96.0f / 2.54f;
-            stripLen = 2;
-         }
-         else if (value.endsWith("in"))
-         {
-            unitFactor = 96.0f;
-            stripLen = 2;
-         }
-         else if (value.endsWith("pt"))
-         {
-            unitFactor = 96.0f / 72.0f;
-            stripLen = 2;
-         }
-         else if (value.endsWith("pc"))
-         {
-            unitFactor = 96.0f / 6.0f;
-            stripLen = 2;
-         }
-         else if (value.endsWith("em") || value.endsWith("ex"))
-         {
-            stripLen = 2;
-         }
-         if (stripLen > 0)
-            value = value.substring(0, value.length() - stripLen).trim();
-         return Float.parseFloat(value) * unitFactor;
-      }
-      catch(NumberFormatException e)
-      {
-         return defaultValue;
-      }
+      if (buffer.hasArray())
+         return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), options);
+      byte[] data = new byte[buffer.remaining()];
+      buffer.duplicate().get(data);
+      return parse(data, 0, data.length, options);
    }
 
-   private static float parseDimension(String value)
+   /**
+    * Parse SVG from a byte array using given parse options.
+    *
+    * @param data array containing SVG XML data
+    * @param offset offset of first byte
+    * @param length number of bytes
+    * @param options parse options (null for defaults)
+    * @return parsed SVG document tree
+    * @throws SVGParseException if the SVG is malformed or the root element is not &lt;svg&gt;
+    */
+   public static SVGDocument parse(byte[] data, int offset, int length, SVGParseOptions options) throws SVGParseException
    {
-      if (value == null || value.isEmpty())
-         return -1;
-      value = value.trim();
+      boolean strict = (options != null) && options.isStrict();
+      if (options == null || !options.isFastParser() || !XMLTokenizer.isSupportedEncoding(data, offset, length))
+         return parseStream(new ByteArrayInputStream(data, offset, length), strict);
 
-      // Ignore percentage
-      if (value.endsWith("%"))
-         return -1;
-
-      // Determine unit conversion factor (CSS reference: 1in = 96px)
-      float unitFactor = 1.0f;
-      int stripLen = 0;
-      if (value.endsWith("px"))
-      {
-         stripLen = 2;
-      }
-      else if (value.endsWith("mm"))
-      {
-         unitFactor = 96.0f / 25.4f;
-         stripLen = 2;
-      }
-      else if (value.endsWith("cm"))
-      {
-         unitFactor = 96.0f / 2.54f;
-         stripLen = 2;
-      }
-      else if (value.endsWith("in"))
-      {
-         unitFactor = 96.0f;
-         stripLen = 2;
-      }
-      else if (value.endsWith("pt"))
-      {
-         unitFactor = 96.0f / 72.0f;
-         stripLen = 2;
-      }
-      else if (value.endsWith("pc"))
-      {
-         unitFactor = 96.0f / 6.0f;
-         stripLen = 2;
-      }
-      else if (value.endsWith("em") || value.endsWith("ex"))
-      {
-         stripLen = 2;
-      }
+      SVGTreeBuilder builder = new SVGTreeBuilder(strict);
+      new XMLTokenizer(data, offset, length, builder).run();
+      return builder.finish();
+   }
 
-      if (stripLen > 0)
-         value = value.substring(0, value.length() - stripLen).trim();
+   /**
+    * Create StAX input factory. DTD processing and external entities are disabled for security;
+    * namespace processing is not needed because SVG elements are matched by tag name. Factories
+    * are not guaranteed to be thread-safe, so each thread gets its own instance.
+    */
+   private static XMLInputFactory createInputFactory()
+   {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+      factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+      return factory;
+   }
 
-      try
-      {
-         return Float.parseFloat(value) * unitFactor;
-      }
-      catch(NumberFormatException e)
-      {
-         return -1;
-      }
+   private static SVGDocument parseDocument(XMLStreamReader reader, boolean strict) throws XMLStreamException, SVGParseException
+   {
+      SVGTreeBuilder builder = new SVGTreeBuilder(strict);
+      ElementAttributes attrs = new ElementAttributes();
+      while (reader.hasNext())
+      {
+         switch(reader.next())
+         {
+            case XMLStreamConstants.DTD:
+               throw new SVGParseException("DOCTYPE declaration is not allowed");
+            case XMLStreamConstants.START_ELEMENT:
+               attrs.clear();
+               for (int i = 0; i < reader.getAttributeCount(); i++)
+                  attrs.add(getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+               if (!builder.startElement(getQualifiedName(reader.getPrefix(), reader.getLocalName()), attrs))
+                  skipElement(reader);
+               break;
+            case XMLStreamConstants.END_ELEMENT:
+               builder.endElement();
+               break;
+            default:
+               break;
+         }
+      }
+      return builder.finish();
    }
 
-   private static float[] parsePointsAttr(String value)
+   /**
+    * Skip content of current element, including its end tag.
+    */
+   private static void skipElement(XMLStreamReader reader) throws XMLStreamException, SVGParseException
    {
-      if (value == null || value.isEmpty())
-         return null;
-      String[] tokens = value.trim().split("[\\s,]+");
-      List<Float> points = new ArrayList<>();
-      for (String token : tokens)
+      int depth = 1;
+      while (depth > 0)
       {
-         if (!token.isEmpty())
+         switch(reader.next())
          {
-            try
-            {
-               points.add(Float.parseFloat(token));
-            }
-            catch(NumberFormatException e)
-            {
-               // skip invalid
-            }
+            case XMLStreamConstants.START_ELEMENT:
+               depth++;
+               break;
+            case XMLStreamConstants.END_ELEMENT:
+               depth--;
+               break;
+            case XMLStreamConstants.DTD:
+               throw new SVGParseException("DOCTYPE declaration is not allowed");
+            default:
+               break;
          }
       }
-      // Must have even number of coordinates
-      int count = points.size() & ~1;
-      float[] result = new float[count];
-      for (int i = 0; i < count; i++)
-         result[i] = points.get(i);
-      return result;
+   }
+
+   private static String getQualifiedName(String prefix, String localName)
+   {
+      return (prefix == null || prefix.isEmpty()) ? localName : prefix + ":" + localName;
    }
 }
@@ -1,32 +1,30 @@
 package org.netxms.ui.svg.internal;
 
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Represents an SVG &lt;path&gt; element.
  */
 public final class SVGPath extends SVGNode
 {
-   private final List<PathSegment> segments;
+   private final PathData pathData;
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible
-    * @param segments path segments (all coordinates absolute)
+    * @param pathData packed path geometry (all coordinates absolute)
     */
-   public SVGPath(StyleProps style, float[] transform, boolean display, List<PathSegment> segments)
+   public SVGPath(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display, PathData pathData)
    {
-      super(style, transform, display);
-      this.segments = Collections.unmodifiableList(segments);
+      super(style, resolvedStyle, transform, display);
+      this.pathData = pathData;
    }
 
    /**
-    * @return unmodifiable list of path segments
+    * @return packed path geometry
     */
-   public List<PathSegment> getSegments()
+   public PathData getPathData()
    {
-      return segments;
+      return pathData;
    }
 }
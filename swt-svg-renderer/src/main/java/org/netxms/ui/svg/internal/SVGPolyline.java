@@ -9,13 +9,14 @@ public final class SVGPolyline extends SVGNode
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible
     * @param points alternating x,y coordinates
     */
-   public SVGPolyline(StyleProps style, float[] transform, boolean display, float[] points)
+   public SVGPolyline(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display, float[] points)
    {
-      super(style, transform, display);
+      super(style, resolvedStyle, transform, display);
       this.points = points.clone();
    }
 
@@ -14,7 +14,8 @@ public final class SVGRect extends SVGNode
 
    /**
     * @param style presentation style properties
-    * @param transform 6-element affine transform matrix
+    * @param resolvedStyle resolved style used for rendering
+    * @param transform 6-element affine transform matrix, or null for identity
     * @param display whether this element is visible
     * @param x rectangle x position
     * @param y rectangle y position
@@ -23,10 +24,10 @@ public final class SVGRect extends SVGNode
     * @param rx horizontal corner radius
     * @param ry vertical corner radius
     */
-   public SVGRect(StyleProps style, float[] transform, boolean display,
+   public SVGRect(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display,
          float x, float y, float width, float height, float rx, float ry)
    {
-      super(style, transform, display);
+      super(style, resolvedStyle, transform, display);
       this.x = x;
       this.y = y;
       this.width = width;
@@ -1,18 +1,15 @@
 package org.netxms.ui.svg.internal;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
-import org.eclipse.swt.graphics.Path;
-import org.eclipse.swt.graphics.Transform;
+import org.eclipse.swt.graphics.LineAttributes;
 import org.netxms.ui.svg.ScaleMode;
 
 /**
- * Renders an SVGDocument onto an SWT GC.
+ * Renders an SVGDocument onto an SWT GC or other {@link RenderTarget}.
  */
 public final class SVGRenderer
 {
@@ -21,7 +18,8 @@ public final class SVGRenderer
    }
 
    /**
-    * Render an SVG document onto a GC within the given bounds.
+    * Render an SVG document onto a GC within the given bounds. All SWT resources are
+    * created and disposed within this call.
     *
     * @param doc the parsed SVG document
     * @param gc the graphics context to render to
@@ -34,15 +32,89 @@ public final class SVGRenderer
     */
    public static void render(SVGDocument doc, GC gc, int x, int y, int w, int h,
          Color currentColor, ScaleMode scaleMode)
+   {
+      render(doc, gc, x, y, w, h, currentColor, scaleMode, (RenderCounters)null);
+   }
+
+   /**
+    * Render an SVG document onto a GC within the given bounds, collecting statistics. All SWT resources are
+    * created and disposed within this call.
+    *
+    * @param doc the parsed SVG document
+    * @param gc the graphics context to render to
+    * @param x target x position
+    * @param y target y position
+    * @param w target width
+    * @param h target height
+    * @param currentColor the color to use for "currentColor" values (null = black)
+    * @param scaleMode scaling mode
+    * @param counters counters to update (null if statistics are not collected)
+    */
+   public static void render(SVGDocument doc, GC gc, int x, int y, int w, int h,
+         Color currentColor, ScaleMode scaleMode, RenderCounters counters)
    {
       if (w <= 0 || h <= 0)
          return;
 
-      float vbW = doc.getViewBoxWidth();
-      float vbH = doc.getViewBoxHeight();
-      if (vbW <= 0 || vbH <= 0)
+      RenderCache cache = new RenderCache(gc.getDevice(), false);
+      try
+      {
+         render(doc, gc, x, y, w, h, currentColor, scaleMode, cache, counters);
+      }
+      finally
+      {
+         cache.dispose();
+      }
+   }
+
+   /**
+    * Render an SVG document onto a GC within the given bounds using given render cache.
+    *
+    * @param doc the parsed SVG document
+    * @param gc the graphics context to render to
+    * @param x target x position
+    * @param y target y position
+    * @param w target width
+    * @param h target height
+    * @param currentColor the color to use for "currentColor" values (null = black)
+    * @param scaleMode scaling mode
+    * @param cache render cache (must be bound to the same device as GC)
+    */
+   public static void render(SVGDocument doc, GC gc, int x, int y, int w, int h,
+         Color currentColor, ScaleMode scaleMode, RenderCache cache)
+   {
+      render(doc, gc, x, y, w, h, currentColor, scaleMode, cache, null);
+   }
+
+   /**
+    * Render an SVG document onto a GC within the given bounds using given render cache, collecting statistics.
+    *
+    * @param doc the parsed SVG document
+    * @param gc the graphics context to render to
+    * @param x target x position
+    * @param y target y position
+    * @param w target width
+    * @param h target height
+    * @param currentColor the color to use for "currentColor" values (null = black)
+    * @param scaleMode scaling mode
+    * @param cache render cache (must be bound to the same device as GC)
+    * @param counters counters to update (null if statistics are not collected)
+    */
+   public static void render(SVGDocument doc, GC gc, int x, int y, int w, int h,
+         Color currentColor, ScaleMode scaleMode, RenderCache cache, RenderCounters counters)
+   {
+      if (w <= 0 || h <= 0)
+         return;
+
+      float[] viewportMatrix = viewportMatrix(doc, x, y, w, h, scaleMode);
+      if (viewportMatrix == null)
          return;
 
+      RenderEvent event = new RenderEvent();
+      event.begin();
+
+      RenderTarget target = new GCRenderTarget(gc, currentColor, cache);
+
       // Save GC state
       boolean oldAdvanced = gc.getAdvanced();
       int oldAntialias = gc.getAntialias();
@@ -50,509 +122,222 @@ public final class SVGRenderer
       Color oldFg = gc.getForeground();
       Color oldBg = gc.getBackground();
       int oldAlpha = gc.getAlpha();
-      int oldLineWidth = gc.getLineWidth();
-      int oldLineCap = gc.getLineCap();
-      int oldLineJoin = gc.getLineJoin();
-      Transform oldTransform = new Transform(gc.getDevice());
-      gc.getTransform(oldTransform);
-
-      // Color cache for this render call
-      Map<Integer, Color> colorCache = new HashMap<>();
+      LineAttributes oldLineAttributes = gc.getLineAttributes();
+      cache.setCounters(counters);
+      float[] baseMatrix = new float[6];
+      cache.saveTransform(gc, baseMatrix);
 
       try
       {
          gc.setAdvanced(true);
          gc.setAntialias(SWT.ON);
 
-         // Compute viewport transform
-         Transform viewportTransform = new Transform(gc.getDevice());
-         gc.getTransform(viewportTransform);
-
-         float vbX = doc.getViewBoxX();
-         float vbY = doc.getViewBoxY();
-
-         if (scaleMode == ScaleMode.STRETCH)
-         {
-            float sx = w / vbW;
-            float sy = h / vbH;
-            Transform t = new Transform(gc.getDevice());
-            t.setElements(sx, 0, 0, sy, x - vbX * sx, y - vbY * sy);
-            viewportTransform.multiply(t);
-            t.dispose();
-         }
-         else
-         {
-            // UNIFORM (default)
-            float scale = Math.min(w / vbW, h / vbH);
-            float tx = x + (w - vbW * scale) / 2f;
-            float ty = y + (h - vbH * scale) / 2f;
-            Transform t = new Transform(gc.getDevice());
-            t.setElements(scale, 0, 0, scale, tx - vbX * scale, ty - vbY * scale);
-            viewportTransform.multiply(t);
-            t.dispose();
-         }
-
-         gc.setTransform(viewportTransform);
-         viewportTransform.dispose();
-
          // Render tree
-         renderNodes(doc.getChildren(), gc, StyleProps.ROOT_DEFAULTS, currentColor, colorCache);
+         cache.beginDocument(doc);
+         render(doc, target, SVGTransform.multiply(baseMatrix, viewportMatrix), counters);
       }
       finally
       {
-         // Dispose cached colors
-         for (Color c : colorCache.values())
-            c.dispose();
-
          // Restore GC state
-         gc.setTransform(oldTransform);
-         oldTransform.dispose();
+         cache.restoreTransform(gc);
          gc.setAdvanced(oldAdvanced);
          gc.setAntialias(oldAntialias);
          gc.setTextAntialias(oldTextAntialias);
          gc.setForeground(oldFg);
          gc.setBackground(oldBg);
          gc.setAlpha(oldAlpha);
-         gc.setLineWidth(oldLineWidth);
-         gc.setLineCap(oldLineCap);
-         gc.setLineJoin(oldLineJoin);
-      }
-   }
-
-   private static void renderNodes(List<SVGNode> nodes, GC gc, StyleProps parentStyle,
-         Color currentColor, Map<Integer, Color> colorCache)
-   {
-      for (SVGNode node : nodes)
-      {
-         if (!node.isDisplay())
-            continue;
-
-         // Save transform
-         Transform saved = new Transform(gc.getDevice());
-         gc.getTransform(saved);
-
-         try
-         {
-            // Apply node transform
-            float[] nodeTransform = node.getTransform();
-            if (nodeTransform != null && !isIdentity(nodeTransform))
-            {
-               Transform current = new Transform(gc.getDevice());
-               gc.getTransform(current);
-               Transform nodeT = new Transform(gc.getDevice(),
-                     nodeTransform[0], nodeTransform[1], nodeTransform[2],
-                     nodeTransform[3], nodeTransform[4], nodeTransform[5]);
-               current.multiply(nodeT);
-               gc.setTransform(current);
-               nodeT.dispose();
-               current.dispose();
-            }
-
-            // Resolve style
-            StyleProps resolved = node.getStyle().resolve(parentStyle);
-
-            // Compute element-level alpha
-            float opacity = Float.isNaN(resolved.getOpacity()) ? 1.0f : resolved.getOpacity();
-            int elementAlpha = Math.round(opacity * 255);
-
-            if (node instanceof SVGGroup)
-            {
-               renderNodes(((SVGGroup)node).getChildren(), gc, resolved, currentColor, colorCache);
-            }
-            else if (node instanceof SVGPath)
-            {
-               renderPath((SVGPath)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-            else if (node instanceof SVGRect)
-            {
-               renderRect((SVGRect)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-            else if (node instanceof SVGCircle)
-            {
-               renderCircle((SVGCircle)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-            else if (node instanceof SVGEllipse)
-            {
-               renderEllipse((SVGEllipse)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-            else if (node instanceof SVGLine)
-            {
-               renderLine((SVGLine)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-            else if (node instanceof SVGPolyline)
-            {
-               renderPolyline((SVGPolyline)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-            else if (node instanceof SVGPolygon)
-            {
-               renderPolygon((SVGPolygon)node, gc, resolved, currentColor, colorCache, elementAlpha);
-            }
-         }
-         finally
-         {
-            gc.setTransform(saved);
-            saved.dispose();
-         }
+         gc.setLineAttributes(oldLineAttributes);
+         cache.setCounters(null);
       }
-   }
 
-   private static void renderPath(SVGPath node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      Path path = new Path(gc.getDevice());
-      try
+      event.end();
+      if (event.shouldCommit())
       {
-         buildPath(path, node.getSegments());
-         drawShape(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
-      {
-         path.dispose();
-      }
-   }
-
-   private static void renderRect(SVGRect node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      Path path = new Path(gc.getDevice());
-      try
-      {
-         float x = node.getX();
-         float y = node.getY();
-         float w = node.getWidth();
-         float h = node.getHeight();
-         float rx = node.getRx();
-         float ry = node.getRy();
-
-         if (rx > 0 || ry > 0)
-         {
-            // Clamp radii
-            rx = Math.min(rx, w / 2);
-            ry = Math.min(ry, h / 2);
-            // Rounded rectangle as path
-            path.moveTo(x + rx, y);
-            path.lineTo(x + w - rx, y);
-            addArcToPath(path, x + w - rx, y, x + w, y + ry, rx, ry);
-            path.lineTo(x + w, y + h - ry);
-            addArcToPath(path, x + w, y + h - ry, x + w - rx, y + h, rx, ry);
-            path.lineTo(x + rx, y + h);
-            addArcToPath(path, x + rx, y + h, x, y + h - ry, rx, ry);
-            path.lineTo(x, y + ry);
-            addArcToPath(path, x, y + ry, x + rx, y, rx, ry);
-            path.close();
-         }
-         else
-         {
-            path.addRectangle(x, y, w, h);
-         }
-         drawShape(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
-      {
-         path.dispose();
+         event.documentId = System.identityHashCode(doc);
+         event.width = w;
+         event.height = h;
+         event.nodeCount = DocumentMetrics.countNodes(doc);
+         event.segmentCount = DocumentMetrics.countSegments(doc);
+         event.commit();
       }
    }
 
    /**
-    * Add a quarter-ellipse arc as a cubic Bezier. Goes from (startX, startY) to (endX, endY)
-    * as a 90-degree arc with the given radii.
+    * Compute transformation from document's view box to given target area.
+    *
+    * @param doc the parsed SVG document
+    * @param x target x position
+    * @param y target y position
+    * @param w target width
+    * @param h target height
+    * @param scaleMode scaling mode
+    * @return viewport matrix or null if view box is empty
     */
-   private static void addArcToPath(Path path, float startX, float startY,
-         float endX, float endY, float rx, float ry)
+   static float[] viewportMatrix(SVGDocument doc, float x, float y, float w, float h, ScaleMode scaleMode)
    {
-      // Kappa = 4*(sqrt(2)-1)/3 for 90-degree arc approximation
-      float kx = rx * 0.5522847498f;
-      float ky = ry * 0.5522847498f;
-
-      float dx = endX - startX;
-      float dy = endY - startY;
+      float vbW = doc.getViewBoxWidth();
+      float vbH = doc.getViewBoxHeight();
+      if (vbW <= 0 || vbH <= 0)
+         return null;
 
-      // Determine arc direction from the delta
-      float cx1, cy1, cx2, cy2;
-      if (dx > 0 && dy > 0)
-      {
-         // Top-right corner: going right then down
-         cx1 = startX + kx;
-         cy1 = startY;
-         cx2 = endX;
-         cy2 = endY - ky;
-      }
-      else if (dx < 0 && dy > 0)
+      float vbX = doc.getViewBoxX();
+      float vbY = doc.getViewBoxY();
+      if (scaleMode == ScaleMode.STRETCH)
       {
-         // Bottom-right corner: going down then left
-         cx1 = startX;
-         cy1 = startY + ky;
-         cx2 = endX + kx;
-         cy2 = endY;
+         float sx = w / vbW;
+         float sy = h / vbH;
+         return new float[] { sx, 0, 0, sy, x - vbX * sx, y - vbY * sy };
       }
-      else if (dx < 0 && dy < 0)
-      {
-         // Bottom-left corner: going left then up
-         cx1 = startX - kx;
-         cy1 = startY;
-         cx2 = endX;
-         cy2 = endY + ky;
-      }
-      else
-      {
-         // Top-left corner: going up then right
-         cx1 = startX;
-         cy1 = startY - ky;
-         cx2 = endX - kx;
-         cy2 = endY;
-      }
-
-      path.cubicTo(cx1, cy1, cx2, cy2, endX, endY);
-   }
 
-   private static void renderCircle(SVGCircle node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      Path path = new Path(gc.getDevice());
-      try
-      {
-         addEllipsePath(path, node.getCx(), node.getCy(), node.getR(), node.getR());
-         drawShape(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
-      {
-         path.dispose();
-      }
+      // UNIFORM (default)
+      float scale = Math.min(w / vbW, h / vbH);
+      float tx = x + (w - vbW * scale) / 2f;
+      float ty = y + (h - vbH * scale) / 2f;
+      return new float[] { scale, 0, 0, scale, tx - vbX * scale, ty - vbY * scale };
    }
 
-   private static void renderEllipse(SVGEllipse node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
+   /**
+    * Render an SVG document onto given render target.
+    *
+    * @param doc the parsed SVG document
+    * @param target render target
+    * @param matrix transformation from document's user space to target's device space
+    */
+   public static void render(SVGDocument doc, RenderTarget target, float[] matrix)
    {
-      Path path = new Path(gc.getDevice());
-      try
-      {
-         addEllipsePath(path, node.getCx(), node.getCy(), node.getRx(), node.getRy());
-         drawShape(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
-      {
-         path.dispose();
-      }
+      render(doc, target, matrix, null);
    }
 
    /**
-    * Build an ellipse path using four cubic Bezier arcs.
+    * Render an SVG document onto given render target, collecting statistics.
+    *
+    * @param doc the parsed SVG document
+    * @param target render target
+    * @param matrix transformation from document's user space to target's device space
+    * @param counters counters to update (null if statistics are not collected)
     */
-   private static void addEllipsePath(Path path, float cx, float cy, float rx, float ry)
+   public static void render(SVGDocument doc, RenderTarget target, float[] matrix, RenderCounters counters)
    {
-      float kx = rx * 0.5522847498f;
-      float ky = ry * 0.5522847498f;
-
-      path.moveTo(cx + rx, cy);
-      path.cubicTo(cx + rx, cy + ky, cx + kx, cy + ry, cx, cy + ry);
-      path.cubicTo(cx - kx, cy + ry, cx - rx, cy + ky, cx - rx, cy);
-      path.cubicTo(cx - rx, cy - ky, cx - kx, cy - ry, cx, cy - ry);
-      path.cubicTo(cx + kx, cy - ry, cx + rx, cy - ky, cx + rx, cy);
-      path.close();
+      if (doc.getRenderable() != null)
+         doc.getRenderable().draw(new RenderTargetCanvas(target, matrix, counters));
+      else
+         renderNodes(doc.getChildren(), target, matrix, counters);
    }
 
-   private static void renderLine(SVGLine node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
+   /**
+    * Render list of nodes. Transformation matrices are combined in Java and passed to the target with each shape.
+    */
+   private static void renderNodes(List<SVGNode> nodes, RenderTarget target, float[] parentMatrix, RenderCounters counters)
    {
-      Path path = new Path(gc.getDevice());
-      try
-      {
-         path.moveTo(node.getX1(), node.getY1());
-         path.lineTo(node.getX2(), node.getY2());
-         // Lines only have stroke, no fill
-         drawStroke(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
+      for (SVGNode node : nodes)
       {
-         path.dispose();
-      }
-   }
+         if (counters != null)
+            counters.nodesVisited++;
 
-   private static void renderPolyline(SVGPolyline node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      Path path = new Path(gc.getDevice());
-      try
-      {
-         float[] pts = node.getPoints();
-         if (pts.length >= 2)
+         if (!node.isDisplay())
          {
-            path.moveTo(pts[0], pts[1]);
-            for (int i = 2; i < pts.length - 1; i += 2)
-               path.lineTo(pts[i], pts[i + 1]);
+            if (counters != null)
+               counters.nodesCulled++;
+            continue;
          }
-         drawShape(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
-      {
-         path.dispose();
-      }
-   }
 
-   private static void renderPolygon(SVGPolygon node, GC gc, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      Path path = new Path(gc.getDevice());
-      try
-      {
-         float[] pts = node.getPoints();
-         if (pts.length >= 2)
+         // Apply node transform
+         float[] matrix = parentMatrix;
+         float[] nodeTransform = node.getTransform();
+         if (nodeTransform != null && !SVGTransform.isIdentity(nodeTransform))
+            matrix = SVGTransform.multiply(parentMatrix, nodeTransform);
+
+         if (node instanceof SVGGroup)
          {
-            path.moveTo(pts[0], pts[1]);
-            for (int i = 2; i < pts.length - 1; i += 2)
-               path.lineTo(pts[i], pts[i + 1]);
-            path.close();
+            renderNodes(((SVGGroup)node).getChildren(), target, matrix, counters);
+            continue;
          }
-         drawShape(gc, path, style, currentColor, colorCache, elementAlpha);
-      }
-      finally
-      {
-         path.dispose();
-      }
-   }
 
-   private static void drawShape(GC gc, Path path, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      // Fill
-      SVGColor fillColor = style.getFill();
-      if (fillColor != null && !(fillColor instanceof SVGColor.None))
-      {
-         Color swtColor = resolveColor(fillColor, currentColor, colorCache, gc);
-         if (swtColor != null)
+         // Lines only have stroke, no fill
+         ResolvedStyle style = node.getResolvedStyle();
+         boolean fill = style.hasFill() && !(node instanceof SVGLine);
+         if (!fill && !style.hasStroke())
          {
-            gc.setBackground(swtColor);
-            float fillOpacity = Float.isNaN(style.getFillOpacity()) ? 1.0f : style.getFillOpacity();
-            gc.setAlpha(Math.round(elementAlpha * fillOpacity));
-
-            // Fill rule
-            if (style.getFillRule() == StyleProps.FILL_RULE_EVENODD)
-               gc.setFillRule(SWT.FILL_EVEN_ODD);
-            else
-               gc.setFillRule(SWT.FILL_WINDING);
-
-            gc.fillPath(path);
+            if (counters != null)
+               counters.nodesCulled++;
+            continue;
          }
-      }
-
-      // Stroke
-      drawStroke(gc, path, style, currentColor, colorCache, elementAlpha);
-   }
 
-   private static void drawStroke(GC gc, Path path, StyleProps style,
-         Color currentColor, Map<Integer, Color> colorCache, int elementAlpha)
-   {
-      SVGColor strokeColor = style.getStroke();
-      if (strokeColor != null && !(strokeColor instanceof SVGColor.None))
-      {
-         Color swtColor = resolveColor(strokeColor, currentColor, colorCache, gc);
-         if (swtColor != null)
+         target.setTransform(matrix);
+         if (target.beginPath(node))
+            buildShapePath(node, target);
+         try
          {
-            gc.setForeground(swtColor);
-            float strokeOpacity = Float.isNaN(style.getStrokeOpacity()) ? 1.0f : style.getStrokeOpacity();
-            gc.setAlpha(Math.round(elementAlpha * strokeOpacity));
-
-            float strokeWidth = Float.isNaN(style.getStrokeWidth()) ? 1.0f : style.getStrokeWidth();
-            gc.setLineWidth(Math.max(1, Math.round(strokeWidth)));
-
-            // Line cap
-            switch(style.getLineCap())
-            {
-               case StyleProps.LINE_CAP_ROUND:
-                  gc.setLineCap(SWT.CAP_ROUND);
-                  break;
-               case StyleProps.LINE_CAP_SQUARE:
-                  gc.setLineCap(SWT.CAP_SQUARE);
-                  break;
-               default:
-                  gc.setLineCap(SWT.CAP_FLAT);
-                  break;
-            }
-
-            // Line join
-            switch(style.getLineJoin())
+            if (fill)
+               target.fill(style);
+            if (style.hasStroke())
+               target.stroke(style);
+            if (counters != null)
             {
-               case StyleProps.LINE_JOIN_ROUND:
-                  gc.setLineJoin(SWT.JOIN_ROUND);
-                  break;
-               case StyleProps.LINE_JOIN_BEVEL:
-                  gc.setLineJoin(SWT.JOIN_BEVEL);
-                  break;
-               default:
-                  gc.setLineJoin(SWT.JOIN_MITER);
-                  break;
+               if (fill)
+                  counters.fills++;
+               if (style.hasStroke())
+                  counters.strokes++;
             }
-
-            gc.drawPath(path);
+         }
+         finally
+         {
+            target.endPath();
          }
       }
    }
 
-   private static Color resolveColor(SVGColor svgColor, Color currentColor,
-         Map<Integer, Color> colorCache, GC gc)
+   /**
+    * Send geometry of given shape node to render target.
+    */
+   private static void buildShapePath(SVGNode node, RenderTarget target)
    {
-      if (svgColor instanceof SVGColor.Absolute)
+      if (node instanceof SVGRect && ((SVGRect)node).getRx() <= 0 && ((SVGRect)node).getRy() <= 0)
       {
-         SVGColor.Absolute abs = (SVGColor.Absolute)svgColor;
-         int key = (abs.getR() << 16) | (abs.getG() << 8) | abs.getB();
-         Color cached = colorCache.get(key);
-         if (cached == null)
-         {
-            cached = new Color(gc.getDevice(), abs.getR(), abs.getG(), abs.getB());
-            colorCache.put(key, cached);
-         }
-         return cached;
+         SVGRect r = (SVGRect)node;
+         target.addRectangle(r.getX(), r.getY(), r.getWidth(), r.getHeight());
       }
-      else if (svgColor instanceof SVGColor.CurrentColor)
+      else
       {
-         if (currentColor != null)
-            return currentColor;
-         // Default to black
-         int key = 0;
-         Color cached = colorCache.get(key);
-         if (cached == null)
-         {
-            cached = new Color(gc.getDevice(), 0, 0, 0);
-            colorCache.put(key, cached);
-         }
-         return cached;
+         buildPath(target, ShapeGeometry.toPathData(node));
       }
-      return null;
    }
 
-   private static void buildPath(Path path, List<PathSegment> segments)
+   /**
+    * Send path geometry to render target.
+    *
+    * @param target render target
+    * @param data path geometry
+    */
+   static void buildPath(RenderTarget target, PathData data)
    {
-      for (PathSegment seg : segments)
+      int count = data.getVerbCount();
+      int c = 0;
+      for (int i = 0; i < count; i++)
       {
-         if (seg instanceof PathSegment.MoveTo)
-         {
-            PathSegment.MoveTo m = (PathSegment.MoveTo)seg;
-            path.moveTo(m.x, m.y);
-         }
-         else if (seg instanceof PathSegment.LineTo)
-         {
-            PathSegment.LineTo l = (PathSegment.LineTo)seg;
-            path.lineTo(l.x, l.y);
-         }
-         else if (seg instanceof PathSegment.CubicTo)
+         switch(data.getVerb(i))
          {
-            PathSegment.CubicTo c = (PathSegment.CubicTo)seg;
-            path.cubicTo(c.x1, c.y1, c.x2, c.y2, c.x, c.y);
-         }
-         else if (seg instanceof PathSegment.QuadTo)
-         {
-            PathSegment.QuadTo q = (PathSegment.QuadTo)seg;
-            path.quadTo(q.x1, q.y1, q.x, q.y);
-         }
-         else if (seg instanceof PathSegment.Close)
-         {
-            path.close();
+            case PathData.MOVE_TO:
+               target.moveTo(data.getCoordinate(c), data.getCoordinate(c + 1));
+               c += 2;
+               break;
+            case PathData.LINE_TO:
+               target.lineTo(data.getCoordinate(c), data.getCoordinate(c + 1));
+               c += 2;
+               break;
+            case PathData.CUBIC_TO:
+               target.cubicTo(data.getCoordinate(c), data.getCoordinate(c + 1), data.getCoordinate(c + 2), data.getCoordinate(c + 3),
+                     data.getCoordinate(c + 4), data.getCoordinate(c + 5));
+               c += 6;
+               break;
+            case PathData.QUAD_TO:
+               target.quadTo(data.getCoordinate(c), data.getCoordinate(c + 1), data.getCoordinate(c + 2), data.getCoordinate(c + 3));
+               c += 4;
+               break;
+            case PathData.CLOSE:
+               target.close();
+               break;
          }
       }
    }
-
-   private static boolean isIdentity(float[] m)
-   {
-      return m[0] == 1 && m[1] == 0 && m[2] == 0 && m[3] == 1 && m[4] == 0 && m[5] == 0;
-   }
 }
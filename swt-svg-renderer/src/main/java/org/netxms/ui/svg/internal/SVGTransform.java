@@ -33,6 +33,17 @@ public final class SVGTransform
       return new float[] { 1, 0, 0, 1, 0, 0 };
    }
 
+   /**
+    * Check if given matrix is identity.
+    *
+    * @param m 6-element affine matrix
+    * @return true if matrix is identity
+    */
+   public static boolean isIdentity(float[] m)
+   {
+      return m[0] == 1 && m[1] == 0 && m[2] == 0 && m[3] == 1 && m[4] == 0 && m[5] == 0;
+   }
+
    /**
     * Parse a transform attribute string into a combined affine matrix.
     * Multiple transforms are applied right-to-left per SVG spec.
@@ -0,0 +1,479 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
+
+/**
+ * Builds SVGDocument tree directly from a stream of element events. The XML front end
+ * reports start and end of every element; for elements which cannot contain renderable
+ * content (shapes, unsupported elements, hidden groups) builder asks front end to skip
+ * the whole subtree, so those descendants are never materialized.
+ */
+final class SVGTreeBuilder
+{
+   private static final Logger logger = Logger.getLogger(SVGParser.class.getName());
+
+   private final boolean strict;
+   private final Deque<Frame> stack = new ArrayDeque<>();
+   private boolean rootSeen = false;
+   private float vbX, vbY, vbW, vbH;
+   private float width, height;
+   private List<SVGNode> rootChildren;
+
+   /**
+    * Create tree builder.
+    *
+    * @param strict true to fail on problems which are otherwise logged and skipped (see {@link SVGParseOptions#setStrict(boolean)})
+    */
+   SVGTreeBuilder(boolean strict)
+   {
+      this.strict = strict;
+   }
+
+   /**
+    * Handle start of element.
+    *
+    * @param tag element tag name as written in the document
+    * @param attrs element attributes
+    * @return true if builder wants to receive events for element content (matching
+    *         {@link #endElement()} call is expected), false if front end should skip
+    *         element content and its end tag
+    * @throws SVGParseException if root element is not &lt;svg&gt; or if element is invalid or unsupported in strict mode
+    */
+   boolean startElement(String tag, ElementAttributes attrs) throws SVGParseException
+   {
+      if (!rootSeen)
+      {
+         if (!tag.equalsIgnoreCase("svg"))
+            throw new SVGParseException("Root element must be <svg>");
+         rootSeen = true;
+         parseRoot(attrs);
+         rootChildren = new ArrayList<>();
+         stack.push(new Frame(null, ResolvedStyle.ROOT_DEFAULTS, null, true, rootChildren));
+         return true;
+      }
+
+      if (stack.isEmpty())
+         return false; // Content after root element, cannot happen in well-formed XML
+
+      tag = tag.toLowerCase();
+      boolean display = isDisplayed(attrs);
+      StyleProps styleProps = StyleProps.parse(attrs);
+      float[] transform = parseTransformAttr(attrs.get("transform"));
+      ResolvedStyle resolvedStyle = ResolvedStyle.resolve(styleProps, stack.peek().resolvedStyle);
+
+      if (tag.equals("g") || tag.equals("svg"))
+      {
+         // Nested SVG is treated as group. Content of hidden group can never be rendered.
+         if (!display)
+         {
+            addNode(new SVGGroup(styleProps, resolvedStyle, transform, false, new ArrayList<>()));
+            return false;
+         }
+         stack.push(new Frame(styleProps, resolvedStyle, transform, true, new ArrayList<>()));
+         return true;
+      }
+
+      SVGNode node = createShape(tag, attrs, styleProps, resolvedStyle, transform, display);
+      if (node != null)
+         addNode(node);
+      return false;
+   }
+
+   /**
+    * Handle end of element for which {@link #startElement(String, ElementAttributes)} returned true.
+    */
+   void endElement()
+   {
+      Frame frame = stack.pop();
+      if (frame.style != null)
+         addNode(new SVGGroup(frame.style, frame.resolvedStyle, frame.transform, frame.display, frame.children));
+   }
+
+   /**
+    * Finish document building.
+    *
+    * @return parsed document
+    * @throws SVGParseException if no root element was seen
+    */
+   SVGDocument finish() throws SVGParseException
+   {
+      if (!rootSeen)
+         throw new SVGParseException("Root element must be <svg>");
+      return new SVGDocument(vbX, vbY, vbW, vbH, width, height, rootChildren);
+   }
+
+   private void addNode(SVGNode node)
+   {
+      stack.peek().children.add(node);
+   }
+
+   private void parseRoot(ElementAttributes attrs) throws SVGParseException
+   {
+      // Parse viewBox
+      vbX = 0;
+      vbY = 0;
+      vbW = -1;
+      vbH = -1;
+      String viewBox = attrs.get("viewBox");
+      if (viewBox != null && !viewBox.isEmpty())
+      {
+         String[] parts = viewBox.trim().split("[\\s,]+");
+         if (parts.length == 4)
+         {
+            try
+            {
+               vbX = Float.parseFloat(parts[0]);
+               vbY = Float.parseFloat(parts[1]);
+               vbW = Float.parseFloat(parts[2]);
+               vbH = Float.parseFloat(parts[3]);
+            }
+            catch(NumberFormatException e)
+            {
+               warning("Invalid viewBox: " + viewBox);
+            }
+         }
+      }
+
+      // Parse width/height
+      width = parseDimension(attrs.get("width"));
+      height = parseDimension(attrs.get("height"));
+
+      // If no viewBox, use width/height as viewBox
+      if (vbW < 0 && width > 0)
+      {
+         vbX = 0;
+         vbY = 0;
+         vbW = width;
+         vbH = height;
+      }
+
+      // If no viewBox and no width/height, default to 100x100
+      if (vbW < 0)
+      {
+         warning("SVG has no viewBox or width/height, defaulting to 0 0 100 100");
+         vbX = 0;
+         vbY = 0;
+         vbW = 100;
+         vbH = 100;
+      }
+
+      // If width/height not specified, use viewBox dimensions
+      if (width <= 0)
+         width = vbW;
+      if (height <= 0)
+         height = vbH;
+   }
+
+   private static boolean isDisplayed(ElementAttributes attrs)
+   {
+      // Check display:none
+      boolean display = true;
+      String displayAttr = attrs.get("display");
+      if ("none".equalsIgnoreCase(displayAttr))
+         display = false;
+
+      // Also check inline style for display:none
+      String style = attrs.get("style");
+      if (style != null && style.toLowerCase().contains("display") && style.toLowerCase().contains("none"))
+      {
+         // More precise check
+         String[] decls = style.split(";");
+         for (String decl : decls)
+         {
+            int colon = decl.indexOf(':');
+            if (colon >= 0)
+            {
+               String prop = decl.substring(0, colon).trim().toLowerCase();
+               String val = decl.substring(colon + 1).trim().toLowerCase();
+               if ("display".equals(prop) && "none".equals(val))
+                  display = false;
+            }
+         }
+      }
+      return display;
+   }
+
+   private SVGNode createShape(String tag, ElementAttributes attrs, StyleProps styleProps, ResolvedStyle resolvedStyle, float[] transform,
+         boolean display) throws SVGParseException
+   {
+      switch(tag)
+      {
+         case "path":
+         {
+            String d = attrs.get("d");
+            if (d == null || d.isEmpty())
+            {
+               warning("Path element missing 'd' attribute, skipping");
+               return null;
+            }
+            PathData pathData = PathDataParser.parse(d);
+            if (pathData.isEmpty())
+            {
+               warning("Path element has malformed path data, skipping");
+               return null;
+            }
+            return new SVGPath(styleProps, resolvedStyle, transform, display, pathData);
+         }
+         case "rect":
+         {
+            float x = parseFloatAttr(attrs, "x", 0);
+            float y = parseFloatAttr(attrs, "y", 0);
+            float w = parseFloatAttr(attrs, "width", 0);
+            float h = parseFloatAttr(attrs, "height", 0);
+            float rx = parseFloatAttr(attrs, "rx", 0);
+            float ry = parseFloatAttr(attrs, "ry", 0);
+            // SVG spec: if only one of rx/ry is specified, the other equals it
+            if (rx > 0 && ry == 0)
+               ry = rx;
+            else if (ry > 0 && rx == 0)
+               rx = ry;
+            if (w <= 0 || h <= 0)
+               return null;
+            return new SVGRect(styleProps, resolvedStyle, transform, display, x, y, w, h, rx, ry);
+         }
+         case "circle":
+         {
+            float cx = parseFloatAttr(attrs, "cx", 0);
+            float cy = parseFloatAttr(attrs, "cy", 0);
+            float r = parseFloatAttr(attrs, "r", 0);
+            if (r <= 0)
+               return null;
+            return new SVGCircle(styleProps, resolvedStyle, transform, display, cx, cy, r);
+         }
+         case "ellipse":
+         {
+            float cx = parseFloatAttr(attrs, "cx", 0);
+            float cy = parseFloatAttr(attrs, "cy", 0);
+            float rx = parseFloatAttr(attrs, "rx", 0);
+            float ry = parseFloatAttr(attrs, "ry", 0);
+            if (rx <= 0 || ry <= 0)
+               return null;
+            return new SVGEllipse(styleProps, resolvedStyle, transform, display, cx, cy, rx, ry);
+         }
+         case "line":
+         {
+            float x1 = parseFloatAttr(attrs, "x1", 0);
+            float y1 = parseFloatAttr(attrs, "y1", 0);
+            float x2 = parseFloatAttr(attrs, "x2", 0);
+            float y2 = parseFloatAttr(attrs, "y2", 0);
+            return new SVGLine(styleProps, resolvedStyle, transform, display, x1, y1, x2, y2);
+         }
+         case "polyline":
+         {
+            float[] points = parsePointsAttr(attrs.get("points"));
+            if (points == null || points.length < 4)
+               return null;
+            return new SVGPolyline(styleProps, resolvedStyle, transform, display, points);
+         }
+         case "polygon":
+         {
+            float[] points = parsePointsAttr(attrs.get("points"));
+            if (points == null || points.length < 4)
+               return null;
+            return new SVGPolygon(styleProps, resolvedStyle, transform, display, points);
+         }
+         default:
+         {
+            // Unknown element — log and skip. Descriptive elements and editor metadata
+            // (namespaced elements) do not affect rendering and are accepted in strict mode.
+            if (strict && !tag.equals("title") && !tag.equals("desc") && !tag.equals("metadata") && tag.indexOf(':') < 0)
+               throw new SVGParseException("Unsupported SVG element: <" + tag + ">");
+            logger.fine("Unsupported SVG element: <" + tag + ">, skipping");
+            return null;
+         }
+      }
+   }
+
+   /**
+    * Report problem in document which can be recovered from.
+    *
+    * @param message problem description
+    * @throws SVGParseException in strict mode
+    */
+   private void warning(String message) throws SVGParseException
+   {
+      if (strict)
+         throw new SVGParseException(message);
+      logger.warning(message);
+   }
+
+   /**
+    * Parse transform attribute. Identity transform is represented as null.
+    */
+   private static float[] parseTransformAttr(String value)
+   {
+      if (value == null)
+         return null;
+      float[] transform = SVGTransform.parse(value);
+      return SVGTransform.isIdentity(transform) ? null : transform;
+   }
+
+   private static float parseFloatAttr(ElementAttributes attrs, String name, float defaultValue)
+   {
+      String value = attrs.get(name);
+      if (value == null || value.isEmpty())
+         return defaultValue;
+      try
+      {
+         value = value.trim();
+         float unitFactor = 1.0f;
+         int stripLen = 0;
+         if (value.endsWith("px"))
+         {
+            stripLen = 2;
+         }
+         else if (value.endsWith("mm"))
+         {
+            unitFactor = 96.0f / 25.4f;
+            stripLen = 2;
+         }
+         else if (value.endsWith("cm"))
+         {
+            unitFactor = 96.0f / 2.54f;
+            stripLen = 2;
+         }
+         else if (value.endsWith("in"))
+         {
+            unitFactor = 96.0f;
+            stripLen = 2;
+         }
+         else if (value.endsWith("pt"))
+         {
+            unitFactor = 96.0f / 72.0f;
+            stripLen = 2;
+         }
+         else if (value.endsWith("pc"))
+         {
+            unitFactor = 96.0f / 6.0f;
+            stripLen = 2;
+         }
+         else if (value.endsWith("em") || value.endsWith("ex"))
+         {
+            stripLen = 2;
+         }
+         if (stripLen > 0)
+            value = value.substring(0, value.length() - stripLen).trim();
+         return Float.parseFloat(value) * unitFactor;
+      }
+      catch(NumberFormatException e)
+      {
+         return defaultValue;
+      }
+   }
+
+   private static float parseDimension(String value)
+   {
+      if (value == null || value.isEmpty())
+         return -1;
+      value = value.trim();
+
+      // Ignore percentage
+      if (value.endsWith("%"))
+         return -1;
+
+      // Determine unit conversion factor (CSS reference: 1in = 96px)
+      float unitFactor = 1.0f;
+      int stripLen = 0;
+      if (value.endsWith("px"))
+      {
+         stripLen = 2;
+      }
+      else if (value.endsWith("mm"))
+      {
+         unitFactor = 96.0f / 25.4f;
+         stripLen = 2;
+      }
+      else if (value.endsWith("cm"))
+      {
+         unitFactor = 96.0f / 2.54f;
+         stripLen = 2;
+      }
+      else if (value.endsWith("in"))
+      {
+         unitFactor = 96.0f;
+         stripLen = 2;
+      }
+      else if (value.endsWith("pt"))
+      {
+         unitFactor = 96.0f / 72.0f;
+         stripLen = 2;
+      }
+      else if (value.endsWith("pc"))
+      {
+         unitFactor = 96.0f / 6.0f;
+         stripLen = 2;
+      }
+      else if (value.endsWith("em") || value.endsWith("ex"))
+      {
+         stripLen = 2;
+      }
+
+      if (stripLen > 0)
+         value = value.substring(0, value.length() - stripLen).trim();
+
+      try
+      {
+         return Float.parseFloat(value) * unitFactor;
+      }
+      catch(NumberFormatException e)
+      {
+         return -1;
+      }
+   }
+
+   private static float[] parsePointsAttr(String value)
+   {
+      if (value == null || value.isEmpty())
+         return null;
+      String[] tokens = value.trim().split("[\\s,]+");
+      List<Float> points = new ArrayList<>();
+      for (String token : tokens)
+      {
+         if (!token.isEmpty())
+         {
+            try
+            {
+               points.add(Float.parseFloat(token));
+            }
+            catch(NumberFormatException e)
+            {
+               // skip invalid
+            }
+         }
+      }
+      // Must have even number of coordinates
+      int count = points.size() & ~1;
+      float[] result = new float[count];
+      for (int i = 0; i < count; i++)
+         result[i] = points.get(i);
+      return result;
+   }
+
+   /**
+    * Open group-like element.
+    */
+   private static final class Frame
+   {
+      final StyleProps style;
+      final ResolvedStyle resolvedStyle;
+      final float[] transform;
+      final boolean display;
+      final List<SVGNode> children;
+
+      Frame(StyleProps style, ResolvedStyle resolvedStyle, float[] transform, boolean display, List<SVGNode> children)
+      {
+         this.style = style;
+         this.resolvedStyle = resolvedStyle;
+         this.transform = transform;
+         this.display = display;
+         this.children = children;
+      }
+   }
+}
@@ -0,0 +1,341 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.Arrays;
+
+/**
+ * Anti-aliased polygon scan converter. Polygons are accumulated as edge list in device coordinates
+ * and filled into premultiplied ARGB pixel buffer using non-zero or even-odd rule. Each pixel row is
+ * sampled at {@link #SUBSAMPLES} sub-scanlines; horizontal coverage within each sub-scanline is
+ * computed exactly. Not thread-safe, but independent instances can be used concurrently.
+ */
+public final class ScanlineRasterizer
+{
+   /** Number of sub-scanlines per pixel row */
+   public static final int SUBSAMPLES = 16;
+
+   private final int width;
+   private final int height;
+
+   // Edges: top y, bottom y, x at top, dx/dy; direction stored separately
+   private float[] edges = new float[64 * 4];
+   private int[] directions = new int[64];
+   private int edgeCount = 0;
+   private float minX, maxX, minY, maxY;
+
+   private float startX, startY, currentX, currentY;
+   private boolean open = false;
+
+   // Scan conversion buffers
+   private final float[] cover;
+   private final float[] run;
+   private long[] sortKeys = new long[64];
+   private int[] active = new int[64];
+   private float[] crossingX = new float[64];
+   private int[] crossingDir = new int[64];
+
+   /**
+    * Create rasterizer for given target size.
+    *
+    * @param width target width in pixels
+    * @param height target height in pixels
+    */
+   public ScanlineRasterizer(int width, int height)
+   {
+      this.width = width;
+      this.height = height;
+      cover = new float[width + 2];
+      run = new float[width + 2];
+      reset();
+   }
+
+   /**
+    * Remove all accumulated edges.
+    */
+   public void reset()
+   {
+      edgeCount = 0;
+      open = false;
+      minX = Float.MAX_VALUE;
+      minY = Float.MAX_VALUE;
+      maxX = -Float.MAX_VALUE;
+      maxY = -Float.MAX_VALUE;
+   }
+
+   /**
+    * Start new polygon. Previous polygon is closed implicitly.
+    *
+    * @param x x coordinate in pixels
+    * @param y y coordinate in pixels
+    */
+   public void moveTo(float x, float y)
+   {
+      close();
+      startX = currentX = x;
+      startY = currentY = y;
+      open = true;
+   }
+
+   /**
+    * Add polygon vertex.
+    *
+    * @param x x coordinate in pixels
+    * @param y y coordinate in pixels
+    */
+   public void lineTo(float x, float y)
+   {
+      if (!open)
+      {
+         moveTo(x, y);
+         return;
+      }
+      addEdge(currentX, currentY, x, y);
+      currentX = x;
+      currentY = y;
+   }
+
+   /**
+    * Close current polygon.
+    */
+   public void close()
+   {
+      if (open)
+      {
+         addEdge(currentX, currentY, startX, startY);
+         currentX = startX;
+         currentY = startY;
+         open = false;
+      }
+   }
+
+   /**
+    * @return true if no edges were added since last reset
+    */
+   public boolean isEmpty()
+   {
+      return edgeCount == 0 && !open;
+   }
+
+   private void addEdge(float x0, float y0, float x1, float y1)
+   {
+      if (y0 == y1 || Float.isNaN(x0) || Float.isNaN(x1) || Float.isNaN(y0) || Float.isNaN(y1))
+         return;
+
+      int dir = 1;
+      if (y0 > y1)
+      {
+         float t = x0;
+         x0 = x1;
+         x1 = t;
+         t = y0;
+         y0 = y1;
+         y1 = t;
+         dir = -1;
+      }
+
+      if (edgeCount == directions.length)
+      {
+         edges = Arrays.copyOf(edges, edges.length * 2);
+         directions = Arrays.copyOf(directions, directions.length * 2);
+      }
+      int i = edgeCount * 4;
+      edges[i] = y0;
+      edges[i + 1] = y1;
+      edges[i + 2] = x0;
+      edges[i + 3] = (x1 - x0) / (y1 - y0);
+      directions[edgeCount++] = dir;
+
+      minX = Math.min(minX, Math.min(x0, x1));
+      maxX = Math.max(maxX, Math.max(x0, x1));
+      minY = Math.min(minY, y0);
+      maxY = Math.max(maxY, y1);
+   }
+
+   /**
+    * Fill accumulated polygons and composite result over given pixels (source-over). Edge list is
+    * reset after fill.
+    *
+    * @param pixels premultiplied ARGB pixels (width * height elements)
+    * @param rgb fill color as 0xRRGGBB
+    * @param alpha fill alpha (0-255)
+    * @param evenOdd true to use even-odd fill rule, false for non-zero
+    */
+   public void fill(int[] pixels, int rgb, int alpha, boolean evenOdd)
+   {
+      close();
+      if (edgeCount == 0 || alpha <= 0)
+      {
+         reset();
+         return;
+      }
+
+      int rowStart = Math.max(0, (int)Math.floor(minY));
+      int rowEnd = Math.min(height, (int)Math.ceil(maxY));
+      int colStart = Math.max(0, (int)Math.floor(minX));
+      int colEnd = Math.min(width, (int)Math.ceil(maxX) + 1);
+      if (rowStart >= rowEnd || colStart >= colEnd)
+      {
+         reset();
+         return;
+      }
+
+      sortEdges();
+      if (active.length < edgeCount)
+      {
+         active = new int[edgeCount];
+         crossingX = new float[edgeCount];
+         crossingDir = new int[edgeCount];
+      }
+
+      int activeCount = 0;
+      int nextEdge = 0;
+      float weight = 1.0f / SUBSAMPLES;
+      for (int py = rowStart; py < rowEnd; py++)
+      {
+         Arrays.fill(cover, colStart, colEnd + 2, 0);
+         Arrays.fill(run, colStart, colEnd + 2, 0);
+         boolean covered = false;
+         for (int s = 0; s < SUBSAMPLES; s++)
+         {
+            float sy = py + (s + 0.5f) * weight;
+
+            // Update active edge list
+            while (nextEdge < edgeCount && edges[(int)sortKeys[nextEdge] * 4] <= sy)
+               active[activeCount++] = (int)sortKeys[nextEdge++];
+            int crossings = 0;
+            for (int k = 0; k < activeCount; k++)
+            {
+               int e = active[k];
+               int i = e * 4;
+               if (edges[i + 1] <= sy)
+               {
+                  active[k--] = active[--activeCount];
+                  continue;
+               }
+               if (edges[i] > sy)
+                  continue;
+
+               // Insertion sort by x
+               float x = edges[i + 2] + (sy - edges[i]) * edges[i + 3];
+               int j = crossings++;
+               while (j > 0 && crossingX[j - 1] > x)
+               {
+                  crossingX[j] = crossingX[j - 1];
+                  crossingDir[j] = crossingDir[j - 1];
+                  j--;
+               }
+               crossingX[j] = x;
+               crossingDir[j] = directions[e];
+            }
+
+            // Walk crossings and accumulate spans
+            int winding = 0;
+            float spanStart = 0;
+            for (int k = 0; k < crossings; k++)
+            {
+               boolean wasInside = evenOdd ? ((winding & 1) != 0) : (winding != 0);
+               winding += crossingDir[k];
+               boolean inside = evenOdd ? ((winding & 1) != 0) : (winding != 0);
+               if (inside && !wasInside)
+               {
+                  spanStart = crossingX[k];
+               }
+               else if (!inside && wasInside)
+               {
+                  addSpan(spanStart, crossingX[k], weight);
+                  covered = true;
+               }
+            }
+         }
+
+         if (covered)
+            compositeRow(pixels, py * width, colStart, colEnd, rgb, alpha);
+      }
+      reset();
+   }
+
+   /**
+    * Sort edges by top y coordinate. Sort keys combine sortable representation of top y and edge index.
+    */
+   private void sortEdges()
+   {
+      if (sortKeys.length < edgeCount)
+         sortKeys = new long[edgeCount];
+      for (int e = 0; e < edgeCount; e++)
+      {
+         int bits = Float.floatToIntBits(edges[e * 4]);
+         bits ^= (bits >> 31) & 0x7FFFFFFF; // Make negative values sort correctly
+         sortKeys[e] = ((long)bits << 32) | e;
+      }
+      Arrays.sort(sortKeys, 0, edgeCount);
+   }
+
+   /**
+    * Add coverage of horizontal span [x0, x1) within current sub-scanline.
+    */
+   private void addSpan(float x0, float x1, float weight)
+   {
+      if (x0 < 0)
+         x0 = 0;
+      if (x1 > width)
+         x1 = width;
+      if (x1 <= x0)
+         return;
+
+      int i0 = (int)x0;
+      int i1 = (int)x1;
+      if (i0 == i1)
+      {
+         cover[i0] += (x1 - x0) * weight;
+         return;
+      }
+      cover[i0] += (i0 + 1 - x0) * weight;
+      run[i0 + 1] += weight;
+      run[i1] -= weight;
+      cover[i1] += (x1 - i1) * weight;
+   }
+
+   /**
+    * Composite color with accumulated coverage over pixel row.
+    */
+   private void compositeRow(int[] pixels, int rowOffset, int colStart, int colEnd, int rgb, int alpha)
+   {
+      int r = (rgb >> 16) & 0xFF;
+      int g = (rgb >> 8) & 0xFF;
+      int b = rgb & 0xFF;
+      float accumulated = 0;
+      for (int x = colStart; x < colEnd; x++)
+      {
+         accumulated += run[x];
+         float c = cover[x] + accumulated;
+         if (c <= 0.001f)
+            continue;
+         int a = (c >= 0.999f) ? alpha : Math.round(c * alpha);
+         if (a == 0)
+            continue;
+
+         int index = rowOffset + x;
+         if (a == 255)
+         {
+            pixels[index] = 0xFF000000 | rgb;
+            continue;
+         }
+
+         int dst = pixels[index];
+         int inv = 255 - a;
+         int da = dst >>> 24;
+         int dr = (dst >> 16) & 0xFF;
+         int dg = (dst >> 8) & 0xFF;
+         int db = dst & 0xFF;
+         pixels[index] = (div255(a * 255 + da * inv) << 24) | (div255(r * a + dr * inv) << 16) | (div255(g * a + dg * inv) << 8) | div255(b * a + db * inv);
+      }
+   }
+
+   /**
+    * Divide by 255 with rounding (valid for 0..65025).
+    */
+   private static int div255(int v)
+   {
+      v += 128;
+      return (v + (v >> 8)) >> 8;
+   }
+}
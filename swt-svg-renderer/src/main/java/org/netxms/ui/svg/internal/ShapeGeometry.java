@@ -0,0 +1,194 @@
+package org.netxms.ui.svg.internal;
+
+/**
+ * Conversion of basic shapes to path geometry.
+ */
+public final class ShapeGeometry
+{
+   /** Kappa = 4*(sqrt(2)-1)/3 for 90-degree arc approximation */
+   private static final float KAPPA = 0.5522847498f;
+
+   private ShapeGeometry()
+   {
+   }
+
+   /**
+    * Convert shape node to path geometry.
+    *
+    * @param node shape node (groups are not accepted)
+    * @return path geometry in node's coordinate system
+    */
+   public static PathData toPathData(SVGNode node)
+   {
+      if (node instanceof SVGPath)
+         return ((SVGPath)node).getPathData();
+
+      PathData.Builder builder = new PathData.Builder();
+      if (node instanceof SVGRect)
+      {
+         SVGRect r = (SVGRect)node;
+         addRect(builder, r.getX(), r.getY(), r.getWidth(), r.getHeight(), r.getRx(), r.getRy());
+      }
+      else if (node instanceof SVGCircle)
+      {
+         SVGCircle c = (SVGCircle)node;
+         addEllipse(builder, c.getCx(), c.getCy(), c.getR(), c.getR());
+      }
+      else if (node instanceof SVGEllipse)
+      {
+         SVGEllipse e = (SVGEllipse)node;
+         addEllipse(builder, e.getCx(), e.getCy(), e.getRx(), e.getRy());
+      }
+      else if (node instanceof SVGLine)
+      {
+         SVGLine l = (SVGLine)node;
+         builder.moveTo(l.getX1(), l.getY1());
+         builder.lineTo(l.getX2(), l.getY2());
+      }
+      else if (node instanceof SVGPolyline)
+      {
+         addPolyline(builder, ((SVGPolyline)node).getPoints(), false);
+      }
+      else if (node instanceof SVGPolygon)
+      {
+         addPolyline(builder, ((SVGPolygon)node).getPoints(), true);
+      }
+      else
+      {
+         throw new IllegalArgumentException("Not a shape node: " + node.getClass().getSimpleName());
+      }
+      return builder.build();
+   }
+
+   /**
+    * Add rectangle, optionally with rounded corners.
+    *
+    * @param builder path builder
+    * @param x rectangle x position
+    * @param y rectangle y position
+    * @param w rectangle width
+    * @param h rectangle height
+    * @param rx horizontal corner radius
+    * @param ry vertical corner radius
+    */
+   public static void addRect(PathData.Builder builder, float x, float y, float w, float h, float rx, float ry)
+   {
+      if (rx > 0 || ry > 0)
+      {
+         // Clamp radii
+         rx = Math.min(rx, w / 2);
+         ry = Math.min(ry, h / 2);
+         // Rounded rectangle as path
+         builder.moveTo(x + rx, y);
+         builder.lineTo(x + w - rx, y);
+         addCornerArc(builder, x + w - rx, y, x + w, y + ry, rx, ry);
+         builder.lineTo(x + w, y + h - ry);
+         addCornerArc(builder, x + w, y + h - ry, x + w - rx, y + h, rx, ry);
+         builder.lineTo(x + rx, y + h);
+         addCornerArc(builder, x + rx, y + h, x, y + h - ry, rx, ry);
+         builder.lineTo(x, y + ry);
+         addCornerArc(builder, x, y + ry, x + rx, y, rx, ry);
+         builder.close();
+      }
+      else
+      {
+         builder.moveTo(x, y);
+         builder.lineTo(x + w, y);
+         builder.lineTo(x + w, y + h);
+         builder.lineTo(x, y + h);
+         builder.close();
+      }
+   }
+
+   /**
+    * Add a quarter-ellipse arc as a cubic Bezier. Goes from (startX, startY) to (endX, endY)
+    * as a 90-degree arc with the given radii.
+    */
+   private static void addCornerArc(PathData.Builder builder, float startX, float startY,
+         float endX, float endY, float rx, float ry)
+   {
+      float kx = rx * KAPPA;
+      float ky = ry * KAPPA;
+
+      float dx = endX - startX;
+      float dy = endY - startY;
+
+      // Determine arc direction from the delta
+      float cx1, cy1, cx2, cy2;
+      if (dx > 0 && dy > 0)
+      {
+         // Top-right corner: going right then down
+         cx1 = startX + kx;
+         cy1 = startY;
+         cx2 = endX;
+         cy2 = endY - ky;
+      }
+      else if (dx < 0 && dy > 0)
+      {
+         // Bottom-right corner: going down then left
+         cx1 = startX;
+         cy1 = startY + ky;
+         cx2 = endX + kx;
+         cy2 = endY;
+      }
+      else if (dx < 0 && dy < 0)
+      {
+         // Bottom-left corner: going left then up
+         cx1 = startX - kx;
+         cy1 = startY;
+         cx2 = endX;
+         cy2 = endY + ky;
+      }
+      else
+      {
+         // Top-left corner: going up then right
+         cx1 = startX;
+         cy1 = startY - ky;
+         cx2 = endX - kx;
+         cy2 = endY;
+      }
+
+      builder.cubicTo(cx1, cy1, cx2, cy2, endX, endY);
+   }
+
+   /**
+    * Add ellipse using four cubic Bezier arcs.
+    *
+    * @param builder path builder
+    * @param cx center x
+    * @param cy center y
+    * @param rx horizontal radius
+    * @param ry vertical radius
+    */
+   public static void addEllipse(PathData.Builder builder, float cx, float cy, float rx, float ry)
+   {
+      float kx = rx * KAPPA;
+      float ky = ry * KAPPA;
+
+      builder.moveTo(cx + rx, cy);
+      builder.cubicTo(cx + rx, cy + ky, cx + kx, cy + ry, cx, cy + ry);
+      builder.cubicTo(cx - kx, cy + ry, cx - rx, cy + ky, cx - rx, cy);
+      builder.cubicTo(cx - rx, cy - ky, cx - kx, cy - ry, cx, cy - ry);
+      builder.cubicTo(cx + kx, cy - ry, cx + rx, cy - ky, cx + rx, cy);
+      builder.close();
+   }
+
+   /**
+    * Add polyline or polygon.
+    *
+    * @param builder path builder
+    * @param pts point coordinates (x0, y0, x1, y1, ...)
+    * @param close true to close the path (polygon)
+    */
+   public static void addPolyline(PathData.Builder builder, float[] pts, boolean close)
+   {
+      if (pts.length >= 2)
+      {
+         builder.moveTo(pts[0], pts[1]);
+         for (int i = 2; i < pts.length - 1; i += 2)
+            builder.lineTo(pts[i], pts[i + 1]);
+         if (close)
+            builder.close();
+      }
+   }
+}
@@ -0,0 +1,475 @@
+package org.netxms.ui.svg.internal;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.netxms.ui.svg.ScaleMode;
+
+/**
+ * Render target which rasterizes into ARGB pixel array without SWT graphics context. Does not need a
+ * display and can be used from any thread. Strokes are converted to outline polygons (segment
+ * quads, joins, and caps) which are filled as single union, so overlapping parts of the same
+ * stroke are not blended twice.
+ */
+public final class SoftwareRenderer implements RenderTarget
+{
+   /** Maximum distance between curve and its approximation, in pixels */
+   private static final float FLATTEN_TOLERANCE = 0.1f;
+
+   /** Miter limit (same as SWT default) */
+   private static final float MITER_LIMIT = 10;
+
+   private final int[] pixels;
+   private final int currentColor;
+   private final ScanlineRasterizer rasterizer;
+   private final FlattenedPath path = new FlattenedPath();
+   private float[] matrix = SVGTransform.identity();
+   private float scale = 1;
+   private float[] strokePoints = new float[16];
+
+   /**
+    * Create renderer with fully transparent pixel buffer of given size.
+    *
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor color to use for "currentColor" values as 0xRRGGBB
+    */
+   public SoftwareRenderer(int width, int height, int currentColor)
+   {
+      if (width <= 0 || height <= 0)
+         throw new IllegalArgumentException("Invalid image size " + width + "x" + height);
+      this.pixels = new int[width * height];
+      this.currentColor = currentColor;
+      this.rasterizer = new ScanlineRasterizer(width, height);
+   }
+
+   /**
+    * Get pixel buffer.
+    *
+    * @return premultiplied ARGB pixels, row by row
+    */
+   public int[] getPixels()
+   {
+      return pixels;
+   }
+
+   /**
+    * Render SVG document into premultiplied ARGB pixel array.
+    *
+    * @param doc the parsed SVG document
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor color to use for "currentColor" values as 0xRRGGBB
+    * @param scaleMode scaling mode
+    * @return premultiplied ARGB pixels, row by row (width * height elements)
+    */
+   public static int[] renderPremultiplied(SVGDocument doc, int width, int height, int currentColor, ScaleMode scaleMode)
+   {
+      return renderPremultiplied(doc, width, height, currentColor, scaleMode, null);
+   }
+
+   /**
+    * Render SVG document into premultiplied ARGB pixel array, collecting statistics.
+    *
+    * @param doc the parsed SVG document
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor color to use for "currentColor" values as 0xRRGGBB
+    * @param scaleMode scaling mode
+    * @param counters counters to update (null if statistics are not collected)
+    * @return premultiplied ARGB pixels, row by row (width * height elements)
+    */
+   public static int[] renderPremultiplied(SVGDocument doc, int width, int height, int currentColor, ScaleMode scaleMode, RenderCounters counters)
+   {
+      SoftwareRenderer renderer = new SoftwareRenderer(width, height, currentColor);
+      float[] viewport = SVGRenderer.viewportMatrix(doc, 0, 0, width, height, scaleMode);
+      if (viewport != null)
+         SVGRenderer.render(doc, renderer, viewport, counters);
+      return renderer.pixels;
+   }
+
+   /**
+    * Render SVG document into non-premultiplied ARGB pixel array.
+    *
+    * @param doc the parsed SVG document
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor color to use for "currentColor" values as 0xRRGGBB
+    * @param scaleMode scaling mode
+    * @return ARGB pixels, row by row (width * height elements)
+    */
+   public static int[] render(SVGDocument doc, int width, int height, int currentColor, ScaleMode scaleMode)
+   {
+      return render(doc, width, height, currentColor, scaleMode, null);
+   }
+
+   /**
+    * Render SVG document into non-premultiplied ARGB pixel array, collecting statistics.
+    *
+    * @param doc the parsed SVG document
+    * @param width target width in pixels
+    * @param height target height in pixels
+    * @param currentColor color to use for "currentColor" values as 0xRRGGBB
+    * @param scaleMode scaling mode
+    * @param counters counters to update (null if statistics are not collected)
+    * @return ARGB pixels, row by row (width * height elements)
+    */
+   public static int[] render(SVGDocument doc, int width, int height, int currentColor, ScaleMode scaleMode, RenderCounters counters)
+   {
+      int[] pixels = renderPremultiplied(doc, width, height, currentColor, scaleMode, counters);
+      for (int i = 0; i < pixels.length; i++)
+      {
+         int p = pixels[i];
+         int a = p >>> 24;
+         if (a == 0)
+         {
+            pixels[i] = 0;
+         }
+         else if (a < 255)
+         {
+            int r = Math.min(255, (((p >> 16) & 0xFF) * 255 + a / 2) / a);
+            int g = Math.min(255, (((p >> 8) & 0xFF) * 255 + a / 2) / a);
+            int b = Math.min(255, ((p & 0xFF) * 255 + a / 2) / a);
+            pixels[i] = (a << 24) | (r << 16) | (g << 8) | b;
+         }
+      }
+      return pixels;
+   }
+
+   /**
+    * Convert non-premultiplied ARGB pixels to 32 bit image data with alpha.
+    *
+    * @param argb ARGB pixels
+    * @param width image width
+    * @param height image height
+    * @return image data with 0xRRGGBB pixels and alpha data
+    */
+   public static ImageData toImageData(int[] argb, int width, int height)
+   {
+      ImageData data = new ImageData(width, height, 32, new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF));
+      byte[] alpha = new byte[width * height];
+      byte[] out = data.data;
+      for (int y = 0; y < height; y++)
+      {
+         int index = y * data.bytesPerLine;
+         int p = y * width;
+         for (int x = 0; x < width; x++, index += 4, p++)
+         {
+            int c = argb[p];
+            alpha[p] = (byte)(c >>> 24);
+            out[index + 1] = (byte)(c >> 16);
+            out[index + 2] = (byte)(c >> 8);
+            out[index + 3] = (byte)c;
+         }
+      }
+      data.alphaData = alpha;
+      return data;
+   }
+
+   @Override
+   public void setTransform(float[] matrix)
+   {
+      this.matrix = matrix;
+      scale = maxScale(matrix);
+   }
+
+   @Override
+   public boolean beginPath(SVGNode node)
+   {
+      path.reset(FLATTEN_TOLERANCE / Math.max(scale, 1e-6f));
+      return true;
+   }
+
+   @Override
+   public void moveTo(float x, float y)
+   {
+      path.moveTo(x, y);
+   }
+
+   @Override
+   public void lineTo(float x, float y)
+   {
+      path.lineTo(x, y);
+   }
+
+   @Override
+   public void cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+   {
+      path.cubicTo(x1, y1, x2, y2, x, y);
+   }
+
+   @Override
+   public void quadTo(float x1, float y1, float x, float y)
+   {
+      path.quadTo(x1, y1, x, y);
+   }
+
+   @Override
+   public void close()
+   {
+      path.close();
+   }
+
+   @Override
+   public void fill(ResolvedStyle style)
+   {
+      if (style.getFillAlpha() <= 0 || scale <= 0)
+         return;
+      path.finish();
+      addFillPolygons();
+      rasterizer.fill(pixels, resolveColor(style.getFillColor()), style.getFillAlpha(), style.getFillRule() == SWT.FILL_EVEN_ODD);
+   }
+
+   @Override
+   public void stroke(ResolvedStyle style)
+   {
+      if (style.getStrokeAlpha() <= 0 || scale <= 0)
+         return;
+      path.finish();
+      addStrokePolygons(style);
+      rasterizer.fill(pixels, resolveColor(style.getStrokeColor()), style.getStrokeAlpha(), false);
+   }
+
+   @Override
+   public void endPath()
+   {
+   }
+
+   private int resolveColor(int rgb)
+   {
+      return (rgb == ResolvedStyle.COLOR_CURRENT) ? currentColor : rgb;
+   }
+
+   /**
+    * Get maximum scale factor of affine matrix (length of longest transformed unit axis).
+    */
+   private static float maxScale(float[] m)
+   {
+      return (float)Math.sqrt(Math.max(m[0] * m[0] + m[1] * m[1], m[2] * m[2] + m[3] * m[3]));
+   }
+
+   private void polygonMoveTo(float x, float y)
+   {
+      float[] m = matrix;
+      rasterizer.moveTo(m[0] * x + m[2] * y + m[4], m[1] * x + m[3] * y + m[5]);
+   }
+
+   private void polygonLineTo(float x, float y)
+   {
+      float[] m = matrix;
+      rasterizer.lineTo(m[0] * x + m[2] * y + m[4], m[1] * x + m[3] * y + m[5]);
+   }
+
+   /**
+    * Add all subpaths as polygons (open subpaths are closed implicitly).
+    */
+   private void addFillPolygons()
+   {
+      for (int s = 0; s < path.getSubpathCount(); s++)
+      {
+         int start = path.getSubpathStart(s);
+         int end = path.getSubpathEnd(s);
+         if (end - start < 3)
+            continue;
+         polygonMoveTo(path.getX(start), path.getY(start));
+         for (int i = start + 1; i < end; i++)
+            polygonLineTo(path.getX(i), path.getY(i));
+         rasterizer.close();
+      }
+   }
+
+   /**
+    * Add stroke outline polygons. All polygons are added with the same orientation, so their
+    * union is filled with non-zero rule.
+    */
+   private void addStrokePolygons(ResolvedStyle style)
+   {
+      float hw = style.getLineWidth() / 2;
+      if (hw <= 0)
+         return;
+      float tolerance = FLATTEN_TOLERANCE / scale;
+      int cap = style.getLineCap();
+      int join = style.getLineJoin();
+
+      float[] pts = strokePoints;
+      for (int s = 0; s < path.getSubpathCount(); s++)
+      {
+         // Copy points skipping consecutive duplicates
+         int start = path.getSubpathStart(s);
+         int end = path.getSubpathEnd(s);
+         if (pts.length < (end - start) * 2)
+            strokePoints = pts = new float[(end - start) * 2];
+         int n = 0;
+         for (int i = start; i < end; i++)
+         {
+            float x = path.getX(i), y = path.getY(i);
+            if (n > 0 && x == pts[n * 2 - 2] && y == pts[n * 2 - 1])
+               continue;
+            pts[n * 2] = x;
+            pts[n * 2 + 1] = y;
+            n++;
+         }
+         boolean closed = path.isClosed(s);
+         if (closed && n > 1 && pts[0] == pts[n * 2 - 2] && pts[1] == pts[n * 2 - 1])
+            n--;
+
+         if (n == 1)
+         {
+            // Zero length subpath - only caps are drawn
+            if (cap == SWT.CAP_ROUND)
+               addCircle(pts[0], pts[1], hw, tolerance);
+            else if (cap == SWT.CAP_SQUARE)
+               addQuad(pts[0] - hw, pts[1] - hw, pts[0] + hw, pts[1] - hw, pts[0] + hw, pts[1] + hw, pts[0] - hw, pts[1] + hw);
+            continue;
+         }
+
+         int segments = closed ? n : n - 1;
+         for (int i = 0; i < segments; i++)
+         {
+            int j = (i + 1) % n;
+            float x0 = pts[i * 2], y0 = pts[i * 2 + 1];
+            float x1 = pts[j * 2], y1 = pts[j * 2 + 1];
+            float dx = x1 - x0, dy = y1 - y0;
+            float len = (float)Math.sqrt(dx * dx + dy * dy);
+            dx /= len;
+            dy /= len;
+            if (!closed && cap == SWT.CAP_SQUARE)
+            {
+               if (i == 0)
+               {
+                  x0 -= dx * hw;
+                  y0 -= dy * hw;
+               }
+               if (i == segments - 1)
+               {
+                  x1 += dx * hw;
+                  y1 += dy * hw;
+               }
+            }
+            float nx = -dy * hw, ny = dx * hw;
+            addQuad(x0 + nx, y0 + ny, x1 + nx, y1 + ny, x1 - nx, y1 - ny, x0 - nx, y0 - ny);
+         }
+
+         // Joins
+         int firstJoin = closed ? 0 : 1;
+         int lastJoin = closed ? n - 1 : n - 2;
+         for (int i = firstJoin; i <= lastJoin; i++)
+         {
+            int prev = (i + n - 1) % n;
+            int next = (i + 1) % n;
+            addJoin(pts[prev * 2], pts[prev * 2 + 1], pts[i * 2], pts[i * 2 + 1], pts[next * 2], pts[next * 2 + 1], hw, join, tolerance);
+         }
+
+         // Round caps
+         if (!closed && cap == SWT.CAP_ROUND)
+         {
+            addCircle(pts[0], pts[1], hw, tolerance);
+            addCircle(pts[(n - 1) * 2], pts[(n - 1) * 2 + 1], hw, tolerance);
+         }
+      }
+   }
+
+   /**
+    * Add join between segments (x0,y0)-(x1,y1) and (x1,y1)-(x2,y2).
+    */
+   private void addJoin(float x0, float y0, float x1, float y1, float x2, float y2, float hw, int join, float tolerance)
+   {
+      float d0x = x1 - x0, d0y = y1 - y0;
+      float d1x = x2 - x1, d1y = y2 - y1;
+      float l0 = (float)Math.sqrt(d0x * d0x + d0y * d0y);
+      float l1 = (float)Math.sqrt(d1x * d1x + d1y * d1y);
+      d0x /= l0;
+      d0y /= l0;
+      d1x /= l1;
+      d1y /= l1;
+      float cross = d0x * d1y - d0y * d1x;
+      float dot = d0x * d1x + d0y * d1y;
+      if (Math.abs(cross) < 1e-6f && dot > 0)
+         return; // Collinear segments, no gap to fill
+
+      if (join == SWT.JOIN_ROUND)
+      {
+         addCircle(x1, y1, hw, tolerance);
+         return;
+      }
+
+      // Offsets on the outer side of the turn
+      float sign = (cross > 0) ? -1 : 1;
+      float o0x = -d0y * hw * sign, o0y = d0x * hw * sign;
+      float o1x = -d1y * hw * sign, o1y = d1x * hw * sign;
+      if (join == SWT.JOIN_MITER)
+      {
+         float mx = o0x + o1x, my = o0y + o1y;
+         float ml = (float)Math.sqrt(mx * mx + my * my);
+         if (ml > 1e-6f)
+         {
+            // cos(theta/2) = |o0 + o1| / (2 * hw); miter length = hw / cos(theta/2)
+            float cosHalf = ml / (2 * hw);
+            if (1 / cosHalf <= MITER_LIMIT)
+            {
+               float len = hw / cosHalf;
+               addQuad(x1, y1, x1 + o0x, y1 + o0y, x1 + mx / ml * len, y1 + my / ml * len, x1 + o1x, y1 + o1y);
+               return;
+            }
+         }
+      }
+      addTriangle(x1, y1, x1 + o0x, y1 + o0y, x1 + o1x, y1 + o1y);
+   }
+
+   private void addTriangle(float x0, float y0, float x1, float y1, float x2, float y2)
+   {
+      float area = (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0);
+      if (area == 0)
+         return;
+      polygonMoveTo(x0, y0);
+      if (area > 0)
+      {
+         polygonLineTo(x1, y1);
+         polygonLineTo(x2, y2);
+      }
+      else
+      {
+         polygonLineTo(x2, y2);
+         polygonLineTo(x1, y1);
+      }
+      rasterizer.close();
+   }
+
+   private void addQuad(float x0, float y0, float x1, float y1, float x2, float y2, float x3, float y3)
+   {
+      float area = (x0 * y1 - x1 * y0) + (x1 * y2 - x2 * y1) + (x2 * y3 - x3 * y2) + (x3 * y0 - x0 * y3);
+      if (area == 0)
+         return;
+      polygonMoveTo(x0, y0);
+      if (area > 0)
+      {
+         polygonLineTo(x1, y1);
+         polygonLineTo(x2, y2);
+         polygonLineTo(x3, y3);
+      }
+      else
+      {
+         polygonLineTo(x3, y3);
+         polygonLineTo(x2, y2);
+         polygonLineTo(x1, y1);
+      }
+      rasterizer.close();
+   }
+
+   /**
+    * Add circle polygon (positive orientation).
+    */
+   private void addCircle(float cx, float cy, float r, float tolerance)
+   {
+      int n = 8;
+      if (r > tolerance)
+         n = Math.max(8, Math.min(256, (int)Math.ceil(Math.PI / Math.acos(1 - tolerance / r))));
+      polygonMoveTo(cx + r, cy);
+      for (int i = 1; i < n; i++)
+      {
+         double a = 2 * Math.PI * i / n;
+         polygonLineTo(cx + r * (float)Math.cos(a), cy + r * (float)Math.sin(a));
+      }
+      rasterizer.close();
+   }
+}
@@ -1,7 +1,5 @@
 package org.netxms.ui.svg.internal;
 
-import org.w3c.dom.Element;
-
 /**
  * Immutable style properties for an SVG element.
  * Null fields mean "inherit from parent". Float.NaN means "unset".
@@ -170,13 +168,13 @@ public final class StyleProps
    }
 
    /**
-    * Parse style properties from a DOM element. Reads both XML attributes
+    * Parse style properties from element attributes. Reads both XML attributes
     * and inline style attribute (style takes precedence).
     *
-    * @param element the DOM element to parse
+    * @param attrs attributes of the element to parse
     * @return parsed style properties, or {@link #EMPTY} if no style attributes are present
     */
-   public static StyleProps parse(Element element)
+   public static StyleProps parse(ElementAttributes attrs)
    {
       SVGColor fill = null;
       SVGColor stroke = null;
@@ -189,18 +187,18 @@ public final class StyleProps
       int lineJoin = LINE_JOIN_UNSET;
 
       // Read from attributes first
-      fill = parseColorAttr(element, "fill");
-      stroke = parseColorAttr(element, "stroke");
-      fillOpacity = parseFloatAttr(element, "fill-opacity");
-      strokeOpacity = parseFloatAttr(element, "stroke-opacity");
-      strokeWidth = parseFloatAttr(element, "stroke-width");
-      opacity = parseFloatAttr(element, "opacity");
-      fillRule = parseFillRule(element.getAttribute("fill-rule"));
-      lineCap = parseLineCap(element.getAttribute("stroke-linecap"));
-      lineJoin = parseLineJoin(element.getAttribute("stroke-linejoin"));
+      fill = parseColorAttr(attrs, "fill");
+      stroke = parseColorAttr(attrs, "stroke");
+      fillOpacity = parseFloatAttr(attrs, "fill-opacity");
+      strokeOpacity = parseFloatAttr(attrs, "stroke-opacity");
+      strokeWidth = parseFloatAttr(attrs, "stroke-width");
+      opacity = parseFloatAttr(attrs, "opacity");
+      fillRule = parseFillRule(attrs.get("fill-rule"));
+      lineCap = parseLineCap(attrs.get("stroke-linecap"));
+      lineJoin = parseLineJoin(attrs.get("stroke-linejoin"));
 
       // Override with inline style (higher precedence)
-      String style = element.getAttribute("style");
+      String style = attrs.get("style");
       if (style != null && !style.isEmpty())
       {
          String[] declarations = style.split(";");
@@ -257,17 +255,17 @@ public final class StyleProps
             fillRule, lineCap, lineJoin);
    }
 
-   private static SVGColor parseColorAttr(Element element, String name)
+   private static SVGColor parseColorAttr(ElementAttributes attrs, String name)
    {
-      String value = element.getAttribute(name);
+      String value = attrs.get(name);
       if (value == null || value.isEmpty())
          return null;
       return SVGColor.parse(value);
    }
 
-   private static float parseFloatAttr(Element element, String name)
+   private static float parseFloatAttr(ElementAttributes attrs, String name)
    {
-      String value = element.getAttribute(name);
+      String value = attrs.get(name);
       if (value == null || value.isEmpty())
          return Float.NaN;
       return parseFloat(value);
@@ -0,0 +1,221 @@
+package org.netxms.ui.svg.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optimization pass which pushes group transforms down to the leaves and folds them into leaf
+ * geometry where rendering result does not change. Transform is folded when the shape has no
+ * stroke (filled geometry maps exactly under any affine transform), or when the transform is a
+ * similarity (rotation, reflection, uniform scale and translation), in which case stroke width is
+ * scaled by the same factor. Remaining leaves (stroked shapes under non-uniform scale or skew)
+ * keep single combined matrix. In resulting document groups never have transforms.
+ */
+public final class TransformBaker
+{
+   /** Relative tolerance for similarity check */
+   private static final float EPSILON = 1e-5f;
+
+   private ResolvedStyle lastStyle = null;
+   private float lastScale = 1;
+   private ResolvedStyle lastScaledStyle = null;
+
+   private TransformBaker()
+   {
+   }
+
+   /**
+    * Bake transforms in given document.
+    *
+    * @param doc source document
+    * @return document with baked transforms (source document is not modified)
+    */
+   public static SVGDocument bake(SVGDocument doc)
+   {
+      TransformBaker baker = new TransformBaker();
+      return new SVGDocument(doc.getViewBoxX(), doc.getViewBoxY(), doc.getViewBoxWidth(), doc.getViewBoxHeight(),
+            doc.getWidth(), doc.getHeight(), baker.bakeNodes(doc.getChildren(), null));
+   }
+
+   private List<SVGNode> bakeNodes(List<SVGNode> nodes, float[] parentMatrix)
+   {
+      List<SVGNode> result = new ArrayList<>(nodes.size());
+      for (SVGNode node : nodes)
+      {
+         float[] matrix = concat(parentMatrix, node.getTransform());
+         if (node instanceof SVGGroup)
+         {
+            SVGGroup group = (SVGGroup)node;
+            List<SVGNode> children = group.isDisplay() ? bakeNodes(group.getChildren(), matrix) : group.getChildren();
+            result.add(new SVGGroup(group.getStyle(), group.getResolvedStyle(), null, group.isDisplay(), children));
+         }
+         else if (matrix == null)
+         {
+            result.add(node);
+         }
+         else
+         {
+            result.add(bakeLeaf(node, matrix));
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Apply combined matrix to leaf node.
+    */
+   private SVGNode bakeLeaf(SVGNode node, float[] m)
+   {
+      ResolvedStyle style = node.getResolvedStyle();
+      float scale = similarityScale(m);
+      if (style.hasStroke() && Float.isNaN(scale))
+         return withTransform(node, m); // Stroke would be distorted, keep matrix
+
+      if (style.hasStroke())
+         style = scaleStyle(style, scale);
+
+      // Keep shape type for axis-aligned transforms (shapes are symmetric, so reflection is allowed)
+      boolean axisAligned = (m[1] == 0) && (m[2] == 0);
+      if (node instanceof SVGRect && axisAligned)
+      {
+         SVGRect r = (SVGRect)node;
+         float x1 = m[0] * r.getX() + m[4];
+         float x2 = m[0] * (r.getX() + r.getWidth()) + m[4];
+         float y1 = m[3] * r.getY() + m[5];
+         float y2 = m[3] * (r.getY() + r.getHeight()) + m[5];
+         return new SVGRect(node.getStyle(), style, null, node.isDisplay(), Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1),
+               Math.abs(y2 - y1), r.getRx() * Math.abs(m[0]), r.getRy() * Math.abs(m[3]));
+      }
+      else if (node instanceof SVGCircle && axisAligned)
+      {
+         SVGCircle c = (SVGCircle)node;
+         float cx = m[0] * c.getCx() + m[4];
+         float cy = m[3] * c.getCy() + m[5];
+         float sx = Math.abs(m[0]);
+         float sy = Math.abs(m[3]);
+         if (sx == sy)
+            return new SVGCircle(node.getStyle(), style, null, node.isDisplay(), cx, cy, c.getR() * sx);
+         return new SVGEllipse(node.getStyle(), style, null, node.isDisplay(), cx, cy, c.getR() * sx, c.getR() * sy);
+      }
+      else if (node instanceof SVGEllipse && axisAligned)
+      {
+         SVGEllipse e = (SVGEllipse)node;
+         return new SVGEllipse(node.getStyle(), style, null, node.isDisplay(), m[0] * e.getCx() + m[4], m[3] * e.getCy() + m[5],
+               e.getRx() * Math.abs(m[0]), e.getRy() * Math.abs(m[3]));
+      }
+      else if (node instanceof SVGLine)
+      {
+         SVGLine l = (SVGLine)node;
+         return new SVGLine(node.getStyle(), style, null, node.isDisplay(), m[0] * l.getX1() + m[2] * l.getY1() + m[4],
+               m[1] * l.getX1() + m[3] * l.getY1() + m[5], m[0] * l.getX2() + m[2] * l.getY2() + m[4], m[1] * l.getX2() + m[3] * l.getY2() + m[5]);
+      }
+      else if (node instanceof SVGPolyline)
+      {
+         return new SVGPolyline(node.getStyle(), style, null, node.isDisplay(), transformPoints(((SVGPolyline)node).getPoints(), m));
+      }
+      else if (node instanceof SVGPolygon)
+      {
+         return new SVGPolygon(node.getStyle(), style, null, node.isDisplay(), transformPoints(((SVGPolygon)node).getPoints(), m));
+      }
+
+      // Generic case - convert to path
+      return new SVGPath(node.getStyle(), style, null, node.isDisplay(), ShapeGeometry.toPathData(node).transform(m));
+   }
+
+   /**
+    * Get scaled style, reusing result for consecutive nodes with same style and scale.
+    */
+   private ResolvedStyle scaleStyle(ResolvedStyle style, float scale)
+   {
+      if (style != lastStyle || scale != lastScale)
+      {
+         lastStyle = style;
+         lastScale = scale;
+         lastScaledStyle = style.scale(scale);
+      }
+      return lastScaledStyle;
+   }
+
+   /**
+    * Create copy of leaf node with given transform.
+    */
+   private static SVGNode withTransform(SVGNode node, float[] m)
+   {
+      if (node instanceof SVGPath)
+         return new SVGPath(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), ((SVGPath)node).getPathData());
+      if (node instanceof SVGRect)
+      {
+         SVGRect r = (SVGRect)node;
+         return new SVGRect(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), r.getX(), r.getY(), r.getWidth(), r.getHeight(), r.getRx(),
+               r.getRy());
+      }
+      if (node instanceof SVGCircle)
+      {
+         SVGCircle c = (SVGCircle)node;
+         return new SVGCircle(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), c.getCx(), c.getCy(), c.getR());
+      }
+      if (node instanceof SVGEllipse)
+      {
+         SVGEllipse e = (SVGEllipse)node;
+         return new SVGEllipse(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), e.getCx(), e.getCy(), e.getRx(), e.getRy());
+      }
+      if (node instanceof SVGLine)
+      {
+         SVGLine l = (SVGLine)node;
+         return new SVGLine(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), l.getX1(), l.getY1(), l.getX2(), l.getY2());
+      }
+      if (node instanceof SVGPolyline)
+         return new SVGPolyline(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), ((SVGPolyline)node).getPoints());
+      if (node instanceof SVGPolygon)
+         return new SVGPolygon(node.getStyle(), node.getResolvedStyle(), m, node.isDisplay(), ((SVGPolygon)node).getPoints());
+      throw new IllegalArgumentException("Not a shape node: " + node.getClass().getSimpleName());
+   }
+
+   /**
+    * Concatenate parent and node matrices (null means identity).
+    */
+   private static float[] concat(float[] parent, float[] m)
+   {
+      if (m == null || SVGTransform.isIdentity(m))
+         return parent;
+      if (parent == null)
+         return m;
+      return SVGTransform.multiply(parent, m);
+   }
+
+   /**
+    * Get scale factor of similarity transform (rotation, reflection, uniform scale, translation).
+    *
+    * @param m affine matrix
+    * @return scale factor or NaN if matrix is not a similarity transform
+    */
+   static float similarityScale(float[] m)
+   {
+      float a = m[0], b = m[1], c = m[2], d = m[3];
+      float scale = (float)Math.sqrt(Math.abs(a * d - b * c));
+      if (scale == 0)
+         return Float.NaN;
+      float tolerance = EPSILON * scale;
+      boolean rotation = Math.abs(a - d) <= tolerance && Math.abs(b + c) <= tolerance;
+      boolean reflection = Math.abs(a + d) <= tolerance && Math.abs(b - c) <= tolerance;
+      if (!rotation && !reflection)
+         return Float.NaN;
+      // Exact values for common cases to keep integer line widths exact
+      if (b == 0 && c == 0 && Math.abs(a) == Math.abs(d))
+         return Math.abs(a);
+      return scale;
+   }
+
+   private static float[] transformPoints(float[] points, float[] m)
+   {
+      float[] result = new float[points.length];
+      for (int i = 0; i < points.length - 1; i += 2)
+      {
+         float x = points[i];
+         float y = points[i + 1];
+         result[i] = m[0] * x + m[2] * y + m[4];
+         result[i + 1] = m[1] * x + m[3] * y + m[5];
+      }
+      return result;
+   }
+}
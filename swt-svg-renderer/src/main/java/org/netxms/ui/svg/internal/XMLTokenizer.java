@@ -0,0 +1,611 @@
+package org.netxms.ui.svg.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.netxms.ui.svg.SVGParseException;
+
+/**
+ * Minimal XML tokenizer for the subset of XML used by SVG icons. Works directly on UTF-8 encoded
+ * bytes and feeds element events into {@link SVGTreeBuilder}. Supported constructs are elements,
+ * attributes, comments, CDATA sections, processing instructions (ignored), predefined entities and
+ * numeric character references. DOCTYPE declarations are rejected. Character data is not reported
+ * because SVG icon renderer does not use it.
+ */
+final class XMLTokenizer
+{
+   private static final String[] KNOWN_NAMES = {
+         "svg", "g", "path", "rect", "circle", "ellipse", "line", "polyline", "polygon",
+         "defs", "title", "desc", "metadata", "text", "use", "style",
+         "d", "x", "y", "width", "height", "rx", "ry", "cx", "cy", "r", "x1", "y1", "x2", "y2", "points",
+         "fill", "fill-opacity", "fill-rule", "stroke", "stroke-width", "stroke-opacity", "stroke-linecap",
+         "stroke-linejoin", "stroke-miterlimit", "opacity", "transform", "display", "viewBox",
+         "id", "class", "version", "xmlns", "xmlns:xlink", "xml:space", "clip-rule"
+   };
+   private static final String[] NAME_TABLE = new String[256];
+
+   static
+   {
+      for (String name : KNOWN_NAMES)
+      {
+         byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+         int index = hash(bytes, 0, bytes.length) & (NAME_TABLE.length - 1);
+         while (NAME_TABLE[index] != null && !NAME_TABLE[index].equals(name))
+            index = (index + 1) & (NAME_TABLE.length - 1);
+         NAME_TABLE[index] = name;
+      }
+   }
+
+   private final byte[] data;
+   private final int end;
+   private int pos;
+   private final SVGTreeBuilder builder;
+   private final ElementAttributes attrs = new ElementAttributes();
+   private int[] nameStack = new int[32]; // (offset, length) pairs of open element names
+   private int[] attrNames = new int[32]; // (offset, length) pairs of attribute names in current start tag
+   private int attrCount = 0;
+   private int depth = 0;
+   private int skipDepth = -1; // depth of element whose content is being skipped, or -1
+   private boolean rootClosed = false;
+
+   /**
+    * @param data input data
+    * @param offset offset of first byte
+    * @param length number of bytes
+    * @param builder tree builder to feed with element events
+    */
+   XMLTokenizer(byte[] data, int offset, int length, SVGTreeBuilder builder)
+   {
+      this.data = data;
+      this.pos = offset;
+      this.end = offset + length;
+      this.builder = builder;
+   }
+
+   /**
+    * Check if given input can be processed by this tokenizer. Input is supported if it is UTF-8
+    * (optionally with byte order mark) or ASCII encoded. Encoding is determined from byte order mark
+    * and XML declaration.
+    *
+    * @param data input data
+    * @param offset offset of first byte
+    * @param length number of bytes
+    * @return true if input encoding is supported
+    */
+   static boolean isSupportedEncoding(byte[] data, int offset, int length)
+   {
+      int p = offset, e = offset + length;
+      if (length >= 2 && (((data[p] & 0xFF) == 0xFE && (data[p + 1] & 0xFF) == 0xFF) || ((data[p] & 0xFF) == 0xFF && (data[p + 1] & 0xFF) == 0xFE)))
+         return false; // UTF-16 byte order mark
+      if (length >= 3 && (data[p] & 0xFF) == 0xEF && (data[p + 1] & 0xFF) == 0xBB && (data[p + 2] & 0xFF) == 0xBF)
+         return true; // UTF-8 byte order mark; encoding declaration, if any, must match
+      if (length >= 2 && (data[p] == 0 || data[p + 1] == 0))
+         return false; // UTF-16 or UTF-32 without byte order mark
+      if (!startsWith(data, p, e, "<?xml"))
+         return true;
+
+      // Find encoding pseudo-attribute in XML declaration
+      int declEnd = p;
+      while (declEnd < e - 1 && !(data[declEnd] == '?' && data[declEnd + 1] == '>'))
+         declEnd++;
+      for (int i = p + 5; i < declEnd - 8; i++)
+      {
+         if (startsWith(data, i, declEnd, "encoding"))
+         {
+            i += 8;
+            while (i < declEnd && (data[i] == ' ' || data[i] == '=' || data[i] == '\t' || data[i] == '\r' || data[i] == '\n'))
+               i++;
+            if (i >= declEnd || (data[i] != '"' && data[i] != '\''))
+               return false;
+            byte quote = data[i++];
+            int start = i;
+            while (i < declEnd && data[i] != quote)
+               i++;
+            String encoding = new String(data, start, i - start, StandardCharsets.ISO_8859_1);
+            return encoding.equalsIgnoreCase("UTF-8") || encoding.equalsIgnoreCase("UTF8") ||
+                  encoding.equalsIgnoreCase("US-ASCII") || encoding.equalsIgnoreCase("ASCII");
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Tokenize whole input.
+    *
+    * @throws SVGParseException if input is not well-formed or contains DOCTYPE declaration
+    */
+   void run() throws SVGParseException
+   {
+      if (end - pos >= 3 && (data[pos] & 0xFF) == 0xEF && (data[pos + 1] & 0xFF) == 0xBB && (data[pos + 2] & 0xFF) == 0xBF)
+         pos += 3;
+
+      while (pos < end)
+      {
+         byte b = data[pos];
+         if (b != '<')
+         {
+            skipText();
+            continue;
+         }
+
+         if (pos + 1 >= end)
+            throw error("Unexpected end of document");
+         byte next = data[pos + 1];
+         if (next == '/')
+         {
+            parseEndTag();
+         }
+         else if (next == '?')
+         {
+            skipPast("?>", pos + 2);
+         }
+         else if (next == '!')
+         {
+            if (startsWith(data, pos, end, "<!--"))
+            {
+               skipPast("-->", pos + 4);
+            }
+            else if (startsWith(data, pos, end, "<![CDATA["))
+            {
+               if (depth == 0)
+                  throw error("CDATA section outside of root element");
+               skipPast("]]>", pos + 9);
+            }
+            else if (startsWith(data, pos, end, "<!DOCTYPE"))
+            {
+               throw new SVGParseException("DOCTYPE declaration is not allowed");
+            }
+            else
+            {
+               throw error("Unsupported markup declaration");
+            }
+         }
+         else
+         {
+            parseStartTag();
+         }
+      }
+
+      if (depth > 0)
+         throw error("Unexpected end of document, element is not closed");
+   }
+
+   /**
+    * Skip character data up to next markup.
+    */
+   private void skipText() throws SVGParseException
+   {
+      int p = pos;
+      if (depth == 0)
+      {
+         // Only whitespace is allowed outside root element
+         while (p < end && data[p] != '<')
+         {
+            byte b = data[p];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r')
+            {
+               pos = p;
+               throw error("Content is not allowed outside of root element");
+            }
+            p++;
+         }
+      }
+      else
+      {
+         while (p < end && data[p] != '<')
+         {
+            if (data[p] == '&')
+               p = skipReference(p);
+            else
+               p++;
+         }
+      }
+      pos = p;
+   }
+
+   /**
+    * Check entity or character reference in character data.
+    *
+    * @param start offset of '&amp;'
+    * @return offset after terminating ';'
+    */
+   private int skipReference(int start) throws SVGParseException
+   {
+      int p = start + 1;
+      while (p < end && data[p] != ';' && data[p] != '<')
+         p++;
+      pos = start;
+      if (p >= end || data[p] != ';')
+         throw error("Unterminated entity reference");
+      String entity = new String(data, start + 1, p - start - 1, StandardCharsets.UTF_8);
+      if (!isPredefinedEntity(entity))
+         parseCharacterReference(entity);
+      return p + 1;
+   }
+
+   private void parseStartTag() throws SVGParseException
+   {
+      if (rootClosed && depth == 0)
+         throw error("Only one root element is allowed");
+
+      pos++; // skip '<'
+      int nameStart = pos;
+      int nameLength = scanName();
+      boolean skipping = skipDepth >= 0;
+
+      attrCount = 0;
+      if (!skipping)
+         attrs.clear();
+
+      boolean emptyElement;
+      while (true)
+      {
+         boolean hadSpace = skipWhitespace();
+         if (pos >= end)
+            throw error("Unexpected end of document in start tag");
+         byte b = data[pos];
+         if (b == '>')
+         {
+            pos++;
+            emptyElement = false;
+            break;
+         }
+         if (b == '/')
+         {
+            if (pos + 1 >= end || data[pos + 1] != '>')
+               throw error("Expected '>' after '/'");
+            pos += 2;
+            emptyElement = true;
+            break;
+         }
+         if (!hadSpace)
+            throw error("Whitespace required before attribute");
+         parseAttribute(skipping);
+      }
+
+      boolean wantContent = false;
+      if (!skipping)
+      {
+         wantContent = builder.startElement(getName(nameStart, nameLength), attrs);
+      }
+
+      if (emptyElement)
+      {
+         if (wantContent)
+            builder.endElement();
+         if (depth == 0)
+            rootClosed = true;
+         return;
+      }
+
+      pushName(nameStart, nameLength);
+      if (!skipping && !wantContent)
+         skipDepth = depth;
+   }
+
+   private void parseEndTag() throws SVGParseException
+   {
+      pos += 2; // skip "</"
+      int nameStart = pos;
+      int nameLength = scanName();
+      skipWhitespace();
+      if (pos >= end || data[pos] != '>')
+         throw error("Expected '>' in end tag");
+      pos++;
+
+      if (depth == 0)
+         throw error("Unexpected end tag");
+      int openStart = nameStack[(depth - 1) * 2];
+      int openLength = nameStack[(depth - 1) * 2 + 1];
+      if (!regionEquals(nameStart, nameLength, openStart, openLength))
+         throw error("End tag does not match start tag");
+
+      if (skipDepth >= 0)
+      {
+         if (depth == skipDepth)
+            skipDepth = -1;
+      }
+      else
+      {
+         builder.endElement();
+      }
+      depth--;
+      if (depth == 0)
+         rootClosed = true;
+   }
+
+   private void parseAttribute(boolean skipping) throws SVGParseException
+   {
+      int nameStart = pos;
+      int nameLength = scanName();
+      checkUniqueAttribute(nameStart, nameLength);
+      skipWhitespace();
+      if (pos >= end || data[pos] != '=')
+         throw error("Expected '=' after attribute name");
+      pos++;
+      skipWhitespace();
+      if (pos >= end || (data[pos] != '"' && data[pos] != '\''))
+         throw error("Attribute value must be quoted");
+      byte quote = data[pos++];
+      int valueStart = pos;
+
+      // Scan value and detect if it needs any decoding
+      boolean plain = true;
+      int p = pos;
+      while (p < end)
+      {
+         byte b = data[p];
+         if (b == quote)
+            break;
+         if (b == '<')
+         {
+            pos = p;
+            throw error("Character '<' is not allowed in attribute value");
+         }
+         if (b < 0x20) // covers non-ASCII bytes as well
+            plain = false;
+         else if (b == '&')
+            plain = false;
+         p++;
+      }
+      if (p >= end)
+         throw error("Unexpected end of document in attribute value");
+      pos = p + 1;
+
+      if (skipping)
+         return;
+
+      String value = plain ? new String(data, valueStart, p - valueStart, StandardCharsets.ISO_8859_1) : decodeValue(valueStart, p);
+      attrs.add(getName(nameStart, nameLength), value);
+   }
+
+   /**
+    * Check that attribute name is not repeated within current start tag (also for skipped elements, so document
+    * is rejected exactly as by StAX front end) and remember it.
+    */
+   private void checkUniqueAttribute(int start, int length) throws SVGParseException
+   {
+      for (int i = 0; i < attrCount; i++)
+      {
+         if (regionEquals(start, length, attrNames[i * 2], attrNames[i * 2 + 1]))
+         {
+            pos = start;
+            throw error("Duplicate attribute \"" + getName(start, length) + "\"");
+         }
+      }
+      if (attrCount * 2 + 2 > attrNames.length)
+         attrNames = Arrays.copyOf(attrNames, attrNames.length * 2);
+      attrNames[attrCount * 2] = start;
+      attrNames[attrCount * 2 + 1] = length;
+      attrCount++;
+   }
+
+   /**
+    * Decode attribute value: UTF-8 decoding, entity and character reference expansion, and whitespace
+    * normalization as required by XML specification.
+    */
+   private String decodeValue(int start, int valueEnd) throws SVGParseException
+   {
+      String raw = new String(data, start, valueEnd - start, StandardCharsets.UTF_8);
+      StringBuilder sb = new StringBuilder(raw.length());
+      int length = raw.length();
+      for (int i = 0; i < length; i++)
+      {
+         char c = raw.charAt(i);
+         if (c == '&')
+         {
+            int semicolon = raw.indexOf(';', i + 1);
+            if (semicolon < 0)
+               throw error("Unterminated entity reference in attribute value");
+            String entity = raw.substring(i + 1, semicolon);
+            switch(entity)
+            {
+               case "lt":
+                  sb.append('<');
+                  break;
+               case "gt":
+                  sb.append('>');
+                  break;
+               case "amp":
+                  sb.append('&');
+                  break;
+               case "quot":
+                  sb.append('"');
+                  break;
+               case "apos":
+                  sb.append('\'');
+                  break;
+               default:
+                  sb.appendCodePoint(parseCharacterReference(entity));
+                  break;
+            }
+            i = semicolon;
+         }
+         else if (c == '\r')
+         {
+            // Line end normalization (CR LF and CR become LF), then LF becomes space
+            sb.append(' ');
+            if (i + 1 < length && raw.charAt(i + 1) == '\n')
+               i++;
+         }
+         else if (c == '\n' || c == '\t')
+         {
+            sb.append(' ');
+         }
+         else
+         {
+            sb.append(c);
+         }
+      }
+      return sb.toString();
+   }
+
+   private static boolean isPredefinedEntity(String entity)
+   {
+      switch(entity)
+      {
+         case "lt":
+         case "gt":
+         case "amp":
+         case "quot":
+         case "apos":
+            return true;
+         default:
+            return false;
+      }
+   }
+
+   private int parseCharacterReference(String entity) throws SVGParseException
+   {
+      if (entity.length() < 2 || entity.charAt(0) != '#')
+         throw error("Undefined entity \"" + entity + "\"");
+      try
+      {
+         int codePoint = (entity.charAt(1) == 'x') ? Integer.parseInt(entity.substring(2), 16) : Integer.parseInt(entity.substring(1), 10);
+         if (codePoint <= 0 || codePoint > Character.MAX_CODE_POINT)
+            throw error("Invalid character reference \"" + entity + "\"");
+         return codePoint;
+      }
+      catch(NumberFormatException e)
+      {
+         throw error("Invalid character reference \"" + entity + "\"");
+      }
+   }
+
+   /**
+    * Scan XML name at current position.
+    *
+    * @return name length in bytes
+    */
+   private int scanName() throws SVGParseException
+   {
+      int start = pos;
+      if (pos >= end || !isNameStartChar(data[pos]))
+         throw error("Invalid name");
+      pos++;
+      while (pos < end && isNameChar(data[pos]))
+         pos++;
+      return pos - start;
+   }
+
+   /**
+    * Get name as string. Names used by SVG are taken from pre-built table to avoid allocation.
+    */
+   private String getName(int start, int length)
+   {
+      int index = hash(data, start, length) & (NAME_TABLE.length - 1);
+      String name;
+      while ((name = NAME_TABLE[index]) != null)
+      {
+         if (name.length() == length && matches(name, start))
+            return name;
+         index = (index + 1) & (NAME_TABLE.length - 1);
+      }
+      return new String(data, start, length, StandardCharsets.UTF_8);
+   }
+
+   private boolean matches(String name, int start)
+   {
+      for (int i = 0; i < name.length(); i++)
+      {
+         if (data[start + i] != name.charAt(i))
+            return false;
+      }
+      return true;
+   }
+
+   private void pushName(int start, int length)
+   {
+      if (depth * 2 + 2 > nameStack.length)
+      {
+         int[] newStack = new int[nameStack.length * 2];
+         System.arraycopy(nameStack, 0, newStack, 0, nameStack.length);
+         nameStack = newStack;
+      }
+      nameStack[depth * 2] = start;
+      nameStack[depth * 2 + 1] = length;
+      depth++;
+   }
+
+   private boolean regionEquals(int start1, int length1, int start2, int length2)
+   {
+      if (length1 != length2)
+         return false;
+      for (int i = 0; i < length1; i++)
+      {
+         if (data[start1 + i] != data[start2 + i])
+            return false;
+      }
+      return true;
+   }
+
+   /**
+    * Skip whitespace.
+    *
+    * @return true if at least one whitespace character was skipped
+    */
+   private boolean skipWhitespace()
+   {
+      int start = pos;
+      while (pos < end)
+      {
+         byte b = data[pos];
+         if (b != ' ' && b != '\t' && b != '\n' && b != '\r')
+            break;
+         pos++;
+      }
+      return pos > start;
+   }
+
+   /**
+    * Advance position past given terminator, starting search from given offset.
+    */
+   private void skipPast(String terminator, int from) throws SVGParseException
+   {
+      byte first = (byte)terminator.charAt(0);
+      for (int p = from; p <= end - terminator.length(); p++)
+      {
+         if (data[p] == first && startsWith(data, p, end, terminator))
+         {
+            pos = p + terminator.length();
+            return;
+         }
+      }
+      throw error("Unexpected end of document, missing \"" + terminator + "\"");
+   }
+
+   private SVGParseException error(String message)
+   {
+      return new SVGParseException("Failed to parse SVG: " + message + " at offset " + pos);
+   }
+
+   private static boolean startsWith(byte[] data, int offset, int end, String prefix)
+   {
+      if (end - offset < prefix.length())
+         return false;
+      for (int i = 0; i < prefix.length(); i++)
+      {
+         if (data[offset + i] != prefix.charAt(i))
+            return false;
+      }
+      return true;
+   }
+
+   private static boolean isNameStartChar(byte b)
+   {
+      return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '_' || b == ':' || b < 0;
+   }
+
+   private static boolean isNameChar(byte b)
+   {
+      return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == ':' || b == '-' || b == '.' || b < 0;
+   }
+
+   private static int hash(byte[] data, int start, int length)
+   {
+      int h = length;
+      for (int i = start; i < start + length; i++)
+         h = h * 31 + data[i];
+      return h ^ (h >>> 7);
+   }
+}
@@ -0,0 +1,108 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.jupiter.api.Test;
+
+class CompiledImageTest
+{
+   private static final String[] RESOURCES = { "all_shapes.svg", "circle.svg", "display_none.svg", "group.svg", "path.svg", "rect.svg",
+         "styled.svg", "transform.svg", "units_mm.svg", "viewbox.svg" };
+
+   private static final String SVG = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+         "<g transform=\"rotate(30 50 50)\" stroke=\"#0000ff\" stroke-width=\"2.5\" stroke-linecap=\"round\">" +
+         "<path d=\"M10 10 C20 0 40 0 50 10 Q60 20 70 10 L90 90 Z\" fill=\"#ff0000\" fill-opacity=\"0.5\" fill-rule=\"evenodd\"/>" +
+         "<rect x=\"20\" y=\"20\" width=\"30\" height=\"20\" rx=\"3\" fill=\"currentColor\"/>" +
+         "</g>" +
+         "<polyline points=\"0,100 50,60 100,100\" fill=\"none\" stroke=\"#00a000\" opacity=\"0.7\"/>" +
+         "<ellipse cx=\"70\" cy=\"30\" rx=\"20\" ry=\"10\" fill=\"none\" stroke=\"black\" stroke-linejoin=\"bevel\"/>" +
+         "</svg>";
+
+   private static byte[] compile(SVGImage image) throws IOException
+   {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      image.writeCompiled(out);
+      return out.toByteArray();
+   }
+
+   private static void assertSameRendering(SVGImage expected, SVGImage actual)
+   {
+      RGB currentColor = new RGB(0, 128, 255);
+      assertEquals(expected.getWidth(), actual.getWidth());
+      assertEquals(expected.getHeight(), actual.getHeight());
+      assertArrayEquals(expected.rasterizeToARGB(64, 48, currentColor, ScaleMode.UNIFORM), actual.rasterizeToARGB(64, 48, currentColor, ScaleMode.UNIFORM));
+      assertArrayEquals(expected.rasterizeToARGB(37, 37, currentColor, ScaleMode.STRETCH), actual.rasterizeToARGB(37, 37, currentColor, ScaleMode.STRETCH));
+   }
+
+   @Test
+   void testRoundTripResources() throws Exception
+   {
+      for (String name : RESOURCES)
+      {
+         SVGImage image;
+         try (InputStream is = getClass().getClassLoader().getResourceAsStream(name))
+         {
+            image = SVGImage.createFromStream(is);
+         }
+         SVGImage loaded = SVGImage.readCompiled(new ByteArrayInputStream(compile(image)));
+         assertSameRendering(image, loaded);
+         assertEquals(image.estimateMemoryUsage().getNodeCount(), loaded.estimateMemoryUsage().getNodeCount(), name);
+      }
+   }
+
+   @Test
+   void testRoundTripBuffer() throws Exception
+   {
+      SVGImage image = SVGImage.createFromString(SVG);
+      byte[] data = compile(image);
+      ByteBuffer buffer = ByteBuffer.allocate(data.length + 8);
+      buffer.position(8);
+      buffer.put(data);
+      buffer.position(8);
+      SVGImage loaded = SVGImage.readCompiled(buffer);
+      assertEquals(8, buffer.position());
+      assertSameRendering(image, loaded);
+      assertArrayEquals(data, compile(loaded));
+   }
+
+   @Test
+   void testStreamPositioning() throws Exception
+   {
+      SVGImage a = SVGImage.createFromString(SVG);
+      SVGImage b = SVGImage.createFromString("<svg viewBox=\"0 0 10 10\" xmlns=\"http://www.w3.org/2000/svg\"><circle cx=\"5\" cy=\"5\" r=\"4\"/></svg>");
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      a.writeCompiled(out);
+      b.writeCompiled(out);
+      InputStream in = new ByteArrayInputStream(out.toByteArray());
+      assertSameRendering(a, SVGImage.readCompiled(in));
+      assertSameRendering(b, SVGImage.readCompiled(in));
+      assertEquals(-1, in.read());
+   }
+
+   @Test
+   void testInvalidData() throws Exception
+   {
+      byte[] data = compile(SVGImage.createFromString(SVG));
+
+      byte[] corrupted = data.clone();
+      corrupted[data.length / 2] ^= 0x55;
+      assertThrows(SVGParseException.class, () -> SVGImage.readCompiled(ByteBuffer.wrap(corrupted)));
+
+      byte[] version = data.clone();
+      version[5] = 99;
+      assertThrows(SVGParseException.class, () -> SVGImage.readCompiled(ByteBuffer.wrap(version)));
+
+      byte[] magic = data.clone();
+      magic[0] = 0;
+      assertThrows(SVGParseException.class, () -> SVGImage.readCompiled(ByteBuffer.wrap(magic)));
+
+      assertThrows(SVGParseException.class, () -> SVGImage.readCompiled(new ByteArrayInputStream(data, 0, data.length - 1)));
+      assertThrows(SVGParseException.class, () -> SVGImage.readCompiled(ByteBuffer.wrap(data, 0, 10)));
+   }
+}
@@ -0,0 +1,72 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class FlightRecorderEventsTest
+{
+   @Test
+   void testEvents() throws Exception
+   {
+      StringBuilder path = new StringBuilder("M0 0");
+      for (int i = 0; i < 500; i++)
+         path.append(" L").append(i % 100).append(' ').append(i / 5);
+      String svg = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+            "<g><rect x=\"10\" y=\"10\" width=\"50\" height=\"50\" fill=\"#ff0000\"/></g>" +
+            "<path d=\"" + path + "\" fill=\"none\" stroke=\"#0000ff\"/>" +
+            "</svg>";
+
+      List<RecordedEvent> events;
+      Path file = Files.createTempFile("svg-events", ".jfr");
+      try (Recording recording = new Recording())
+      {
+         for (String name : new String[] { "Parse", "Optimize", "PathDataParse", "Rasterize" })
+            recording.enable("org.netxms.ui.svg." + name).withThreshold(Duration.ZERO);
+         recording.start();
+         SVGImage image = SVGImage.createFromString(svg);
+         image.rasterizeToARGB(24, 16, null, ScaleMode.UNIFORM);
+         recording.stop();
+         recording.dump(file);
+         events = RecordingFile.readAllEvents(file);
+      }
+      finally
+      {
+         Files.deleteIfExists(file);
+      }
+
+      RecordedEvent parse = single(events, "org.netxms.ui.svg.Parse");
+      assertEquals(3, parse.getInt("nodeCount"));
+      assertEquals(501, parse.getInt("segmentCount"));
+      assertNull(parse.getString("source"));
+
+      RecordedEvent pathData = single(events, "org.netxms.ui.svg.PathDataParse");
+      assertEquals(path.length(), pathData.getInt("length"));
+      assertEquals(501, pathData.getInt("segmentCount"));
+
+      RecordedEvent optimize = single(events, "org.netxms.ui.svg.Optimize");
+      assertEquals(3, optimize.getInt("nodesBefore"));
+      assertEquals(parse.getInt("documentId"), optimize.getInt("documentId"));
+
+      RecordedEvent rasterize = single(events, "org.netxms.ui.svg.Rasterize");
+      assertEquals("software", rasterize.getString("method"));
+      assertEquals(24, rasterize.getInt("width"));
+      assertEquals(16, rasterize.getInt("height"));
+      assertEquals(parse.getInt("documentId"), rasterize.getInt("documentId"));
+   }
+
+   private static RecordedEvent single(List<RecordedEvent> events, String name)
+   {
+      List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+      assertEquals(1, matching.size(), "Number of " + name + " events");
+      return matching.get(0);
+   }
+}
@@ -0,0 +1,86 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RenderStatisticsTest
+{
+   private static final String SVG = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+         "<g fill=\"#ff0000\">" +
+         "<rect x=\"10\" y=\"10\" width=\"50\" height=\"50\"/>" +
+         "<circle cx=\"60\" cy=\"60\" r=\"30\" display=\"none\"/>" +
+         "</g>" +
+         "<path d=\"M 10 90 L 90 90\" fill=\"none\"/>" +
+         "<path d=\"M 10 90 L 90 90 L 50 70 Z\" fill=\"#0000ff\" stroke=\"#00a000\" stroke-width=\"3\"/>" +
+         "</svg>";
+
+   @AfterEach
+   void disableStatistics()
+   {
+      SVGImage.setStatisticsEnabled(false);
+      SVGImage.setStatisticsListener(null);
+   }
+
+   private static SVGImage createImage() throws SVGParseException
+   {
+      SVGParseOptions options = new SVGParseOptions();
+      options.setOptimize(false);
+      return SVGImage.createFromString(SVG, options);
+   }
+
+   @Test
+   void testDisabledByDefault() throws SVGParseException
+   {
+      assertFalse(SVGImage.isStatisticsEnabled());
+      SVGImage image = createImage();
+      image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      RenderStatistics stats = image.getRenderStatistics();
+      assertEquals(0, stats.getRasterizeCount());
+      assertEquals(0, stats.getNodesVisited());
+   }
+
+   @Test
+   void testSoftwareRasterizeCounters() throws SVGParseException
+   {
+      SVGImage.setStatisticsEnabled(true);
+      SVGImage image = createImage();
+      image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      image.rasterizeToImageData(32, 32);
+
+      RenderStatistics stats = image.getRenderStatistics();
+      assertEquals(0, stats.getRenderCount());
+      assertEquals(2, stats.getRasterizeCount());
+      assertTrue(stats.getRasterizeTime() > 0);
+      assertEquals(10, stats.getNodesVisited());
+      assertEquals(4, stats.getNodesCulled());
+      assertEquals(4, stats.getFillCount());
+      assertEquals(2, stats.getStrokeCount());
+      assertEquals(0, stats.getPathsCreated());
+      assertEquals(0, stats.getGCsCreated());
+
+      image.resetRenderStatistics();
+      assertEquals(0, image.getRenderStatistics().getRasterizeCount());
+   }
+
+   @Test
+   void testListener() throws SVGParseException
+   {
+      List<RenderStatistics> calls = new ArrayList<>();
+      SVGImage.setStatisticsListener((image, statistics) -> calls.add(statistics));
+      SVGImage image = createImage();
+      image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      assertTrue(calls.isEmpty());
+
+      SVGImage.setStatisticsEnabled(true);
+      image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      assertEquals(2, calls.size());
+      assertEquals(1, calls.get(0).getRasterizeCount());
+      assertEquals(5, calls.get(0).getNodesVisited());
+      assertEquals(10, image.getRenderStatistics().getNodesVisited());
+   }
+}
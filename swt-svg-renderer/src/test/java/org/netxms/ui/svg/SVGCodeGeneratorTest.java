@@ -0,0 +1,171 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SVGCodeGeneratorTest
+{
+   private static final String[] RESOURCES = { "all_shapes.svg", "circle.svg", "display_none.svg", "group.svg", "path.svg", "rect.svg",
+         "styled.svg", "transform.svg", "units_mm.svg", "viewbox.svg" };
+
+   private static final String SVG = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+         "<g transform=\"rotate(30 50 50)\" stroke=\"#0000ff\" stroke-width=\"2.5\" stroke-linecap=\"round\">" +
+         "<path d=\"M10 10 C20 0 40 0 50 10 Q60 20 70 10 L90 90 Z\" fill=\"#ff0000\" fill-opacity=\"0.5\" fill-rule=\"evenodd\"/>" +
+         "<rect x=\"20\" y=\"20\" width=\"30\" height=\"20\" rx=\"3\" fill=\"currentColor\"/>" +
+         "</g>" +
+         "<polyline points=\"0,100 50,60 100,100\" fill=\"none\" stroke=\"#00a000\" opacity=\"0.7\"/>" +
+         "<ellipse cx=\"70\" cy=\"30\" rx=\"20\" ry=\"10\" fill=\"none\" stroke=\"black\" stroke-linejoin=\"bevel\"/>" +
+         "</svg>";
+
+   /**
+    * Compile generated source and create image from it.
+    */
+   private static SVGImage compile(File dir, String className, String code) throws Exception
+   {
+      File source = new File(dir, "icons/" + className + ".java");
+      source.getParentFile().mkdirs();
+      Files.write(source.toPath(), code.getBytes(StandardCharsets.UTF_8));
+
+      String classPath = new File(SVGRenderable.class.getProtectionDomain().getCodeSource().getLocation().toURI()) + File.pathSeparator +
+            new File(SWT.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      assertEquals(0, compiler.run(null, null, null, "-classpath", classPath, "-d", dir.getPath(), source.getPath()), "Generated code does not compile");
+
+      try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, SVGCodeGeneratorTest.class.getClassLoader()))
+      {
+         Class<?> c = loader.loadClass("icons." + className);
+         return SVGImage.createFromRenderable((SVGRenderable)c.getDeclaredConstructor().newInstance());
+      }
+   }
+
+   private static void assertSameRendering(SVGImage expected, SVGImage actual, String name)
+   {
+      RGB currentColor = new RGB(0, 128, 255);
+      assertEquals(expected.getWidth(), actual.getWidth(), name);
+      assertEquals(expected.getHeight(), actual.getHeight(), name);
+      assertArrayEquals(expected.rasterizeToARGB(64, 48, currentColor, ScaleMode.UNIFORM), actual.rasterizeToARGB(64, 48, currentColor, ScaleMode.UNIFORM), name);
+      assertArrayEquals(expected.rasterizeToARGB(37, 37, currentColor, ScaleMode.STRETCH), actual.rasterizeToARGB(37, 37, currentColor, ScaleMode.STRETCH), name);
+   }
+
+   @Test
+   void testGeneratedRendering(@TempDir File dir) throws Exception
+   {
+      SVGImage image = SVGImage.createFromString(SVG);
+      String code = SVGCodeGenerator.generate(image, "icons", "Sample");
+      assertTrue(code.contains("canvas.fill(SVGCanvas.CURRENT_COLOR, 255, false);"));
+      assertTrue(code.contains("SWT.CAP_ROUND"));
+      assertSameRendering(image, compile(dir, "Sample", code), "Sample");
+
+      for (String name : RESOURCES)
+      {
+         try (InputStream is = getClass().getClassLoader().getResourceAsStream(name))
+         {
+            image = SVGImage.createFromStream(is);
+         }
+         String className = SVGCodeGenerator.toClassName(name);
+         assertSameRendering(image, compile(dir, className, SVGCodeGenerator.generate(image, "icons", className)), name);
+      }
+   }
+
+   @Test
+   void testLargePath(@TempDir File dir) throws Exception
+   {
+      StringBuilder sb = new StringBuilder("<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\"><path fill=\"#336699\" d=\"M0 0");
+      for (int i = 0; i < 5000; i++)
+         sb.append(" L").append(i % 100).append(' ').append((i * 7) % 100);
+      sb.append(" Z\"/></svg>");
+      SVGImage image = SVGImage.createFromString(sb.toString());
+      String code = SVGCodeGenerator.generate(image, "icons", "LargePath");
+      assertTrue(code.contains("private static void draw2(SVGCanvas canvas)"));
+      assertSameRendering(image, compile(dir, "LargePath", code), "LargePath");
+   }
+
+   @Test
+   void testNonFiniteCoordinates(@TempDir File dir) throws Exception
+   {
+      SVGImage image = SVGImage.createFromString("<svg viewBox=\"0 0 10 10\" xmlns=\"http://www.w3.org/2000/svg\">" +
+            "<path d=\"M0 0 L1e39 5 L-1e39 5 L5 5 z\"/><rect x=\"1\" y=\"1\" width=\"4\" height=\"4\" fill=\"red\"/></svg>");
+      String code = SVGCodeGenerator.generate(image, "icons", "NonFinite");
+      assertTrue(code.contains("canvas.lineTo(Float.POSITIVE_INFINITY, 5f);"));
+      assertTrue(code.contains("canvas.lineTo(Float.NEGATIVE_INFINITY, 5f);"));
+      assertSameRendering(image, compile(dir, "NonFinite", code), "NonFinite");
+   }
+
+   @Test
+   void testNamesAndErrors() throws Exception
+   {
+      assertEquals("AlarmCritical", SVGCodeGenerator.toClassName("icons/alarm-critical.svg"));
+      assertEquals("NodeUnknownState", SVGCodeGenerator.toClassName("node_unknown state.svg"));
+      assertEquals("Icon3d", SVGCodeGenerator.toClassName("3d.svg"));
+
+      SVGImage image = SVGImage.createFromString(SVG);
+      assertThrows(IllegalArgumentException.class, () -> SVGCodeGenerator.generate(image, "icons", "class"));
+      assertThrows(IllegalArgumentException.class, () -> SVGCodeGenerator.generate(image, "icons..x", "Sample"));
+      assertThrows(IllegalArgumentException.class, () -> SVGCodeGenerator.generate(image, "icons", "a.Sample"));
+
+      SVGImage generated = SVGImage.createFromRenderable(new SVGRenderable() {
+         @Override
+         public float getViewBoxX()
+         {
+            return 0;
+         }
+
+         @Override
+         public float getViewBoxY()
+         {
+            return 0;
+         }
+
+         @Override
+         public float getViewBoxWidth()
+         {
+            return 16;
+         }
+
+         @Override
+         public float getViewBoxHeight()
+         {
+            return 16;
+         }
+
+         @Override
+         public float getWidth()
+         {
+            return 16;
+         }
+
+         @Override
+         public float getHeight()
+         {
+            return 16;
+         }
+
+         @Override
+         public void draw(SVGCanvas canvas)
+         {
+            canvas.beginPath();
+            canvas.addRectangle(0, 0, 8, 8);
+            canvas.fill(0xFF0000, 255, false);
+            canvas.endPath();
+         }
+      });
+      int[] pixels = generated.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      assertEquals(0xFFFF0000, pixels[3 * 16 + 3]);
+      assertEquals(0, pixels[12 * 16 + 12]);
+      assertThrows(IllegalArgumentException.class, () -> SVGCodeGenerator.generate(generated, "icons", "Sample"));
+      assertThrows(IllegalStateException.class, () -> generated.writeCompiled(new ByteArrayOutputStream()));
+   }
+}
@@ -0,0 +1,114 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SVGIconArchiveTest
+{
+   private static SVGImage icon(int index) throws SVGParseException
+   {
+      return SVGImage.createFromString("<svg viewBox=\"0 0 16 16\" xmlns=\"http://www.w3.org/2000/svg\"><rect x=\"" + (index % 8) + "\" y=\"1\" width=\"" +
+            (index % 7 + 1) + "\" height=\"4\" fill=\"#" + String.format("%06x", index * 7919) + "\"/></svg>");
+   }
+
+   private static Map<String, SVGImage> icons(int count) throws SVGParseException
+   {
+      Map<String, SVGImage> icons = new HashMap<>();
+      for (int i = 0; i < count; i++)
+         icons.put("icons/object_" + i + ".svg", icon(i));
+      return icons;
+   }
+
+   private static byte[] archive(Map<String, SVGImage> icons) throws IOException
+   {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      SVGIconArchive.write(icons, out);
+      return out.toByteArray();
+   }
+
+   @Test
+   void testLookup(@TempDir File dir) throws Exception
+   {
+      Map<String, SVGImage> icons = icons(500);
+      icons.put("ümläut.svg", icon(1000));
+      File file = new File(dir, "icons.svga");
+      try (OutputStream out = new FileOutputStream(file))
+      {
+         SVGIconArchive.write(icons, out);
+      }
+
+      SVGIconArchive archive = SVGIconArchive.open(file);
+      assertEquals(icons.size(), archive.size());
+      for (Map.Entry<String, SVGImage> e : icons.entrySet())
+      {
+         assertTrue(archive.contains(e.getKey()));
+         SVGImage image = archive.getImage(e.getKey());
+         assertArrayEquals(e.getValue().rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM), image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM), e.getKey());
+         assertSame(image, archive.getImage(e.getKey()));
+      }
+      assertFalse(archive.contains("icons/object_500.svg"));
+      assertNull(archive.getImage("icons/object_500.svg"));
+      assertNull(archive.getImage(""));
+
+      String[] names = archive.getNames().toArray(new String[0]);
+      String[] expected = icons.keySet().toArray(new String[0]);
+      Arrays.sort(expected);
+      assertArrayEquals(expected, names);
+   }
+
+   @Test
+   void testBufferAndStream() throws Exception
+   {
+      byte[] data = archive(icons(3));
+      ByteBuffer buffer = ByteBuffer.allocate(data.length + 4);
+      buffer.position(4);
+      buffer.put(data);
+      buffer.position(4);
+      SVGIconArchive archive = SVGIconArchive.open(buffer);
+      assertEquals(4, buffer.position());
+      assertNotNull(archive.getImage("icons/object_2.svg"));
+
+      archive = SVGIconArchive.load(new ByteArrayInputStream(data));
+      assertEquals(3, archive.size());
+      assertNotNull(archive.getImage("icons/object_0.svg"));
+
+      SVGIconArchive empty = SVGIconArchive.open(ByteBuffer.wrap(archive(new HashMap<>())));
+      assertEquals(0, empty.size());
+      assertNull(empty.getImage("icons/object_0.svg"));
+   }
+
+   @Test
+   void testInvalidArchive() throws Exception
+   {
+      byte[] data = archive(icons(10));
+
+      byte[] index = data.clone();
+      index[40] ^= 0x01;
+      assertThrows(SVGParseException.class, () -> SVGIconArchive.open(ByteBuffer.wrap(index)));
+
+      byte[] version = data.clone();
+      version[5] = 2;
+      assertThrows(SVGParseException.class, () -> SVGIconArchive.open(ByteBuffer.wrap(version)));
+
+      assertThrows(SVGParseException.class, () -> SVGIconArchive.open(ByteBuffer.wrap(data, 0, 100)));
+
+      // Corrupted image is detected on access
+      byte[] image = data.clone();
+      image[data.length - 3] ^= 0x01;
+      SVGIconArchive archive = SVGIconArchive.open(ByteBuffer.wrap(image));
+      assertNotNull(archive.getImage("icons/object_0.svg"));
+      assertThrows(SVGParseException.class, () -> archive.getImage("icons/object_9.svg"));
+   }
+}
@@ -0,0 +1,94 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SVGIconLibraryTest
+{
+   private static void writeIcon(File file, String content) throws IOException
+   {
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), ("<svg viewBox=\"0 0 16 16\" xmlns=\"http://www.w3.org/2000/svg\">" + content + "</svg>").getBytes(StandardCharsets.UTF_8));
+   }
+
+   private static byte[] compiled(SVGImage image) throws IOException
+   {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      image.writeCompiled(out);
+      return out.toByteArray();
+   }
+
+   @Test
+   void testLoadDirectory(@TempDir File dir) throws Exception
+   {
+      List<File> files = new ArrayList<>();
+      for (int i = 0; i < 200; i++)
+      {
+         File f = new File(dir, (i % 3 == 0) ? "objects/icon" + i + ".svg" : "icon" + i + ".svg");
+         writeIcon(f, "<circle cx=\"8\" cy=\"8\" r=\"" + (i % 8 + 1) + "\"/><path d=\"M0 0 L" + i + " 16\" stroke=\"red\"/>");
+         files.add(f);
+      }
+      Files.write(new File(dir, "broken.svg").toPath(), "<svg><rect".getBytes(StandardCharsets.UTF_8));
+      Files.write(new File(dir, "readme.txt").toPath(), new byte[] { 'x' });
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         SVGIconLibrary library = SVGIconLibrary.load(dir, null, executor);
+         assertEquals(200, library.getImages().size());
+         assertTrue(library.hasErrors());
+         assertEquals(1, library.getErrors().size());
+         assertNotNull(library.getErrors().get("broken.svg"));
+         assertNotNull(library.getImage("objects/icon3.svg"));
+         assertNull(library.getImage("objects/icon4.svg"));
+
+         // Parallel loading gives the same images as sequential parsing
+         for (File f : files)
+         {
+            String name = dir.toPath().relativize(f.toPath()).toString().replace(File.separatorChar, '/');
+            assertArrayEquals(compiled(SVGImage.createFromFile(f)), compiled(library.getImage(name)), name);
+         }
+
+         // Explicit file list keeps given order
+         library = SVGIconLibrary.load(files, null, executor);
+         assertFalse(library.hasErrors());
+         assertEquals(files.get(0).getPath(), library.getImages().keySet().iterator().next());
+      }
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   void testLoadResources() throws Exception
+   {
+      SVGIconLibrary library = SVGIconLibrary.loadResources(getClass().getClassLoader(), Arrays.asList("circle.svg", "missing.svg", "path.svg"), null, null);
+      Map<String, SVGImage> images = library.getImages();
+      assertEquals(Arrays.asList("circle.svg", "path.svg"), new ArrayList<>(images.keySet()));
+      assertEquals(1, library.getErrors().size());
+      assertTrue(library.getErrors().get("missing.svg").getMessage().contains("not found"));
+      assertThrows(UnsupportedOperationException.class, () -> images.remove("circle.svg"));
+      assertNotNull(SVGIconLibrary.getDefaultExecutor());
+   }
+
+   @Test
+   void testInvalidDirectory(@TempDir File dir)
+   {
+      assertThrows(IllegalArgumentException.class, () -> SVGIconLibrary.load(new File(dir, "missing")));
+      assertTrue(SVGIconLibrary.load(dir).getImages().isEmpty());
+   }
+}
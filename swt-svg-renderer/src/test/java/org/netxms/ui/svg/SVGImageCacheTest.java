@@ -0,0 +1,86 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.internal.DisplayDisposeRegistry;
+
+class SVGImageCacheTest
+{
+   private static final String SVG = "<svg viewBox=\"0 0 16 16\"><rect x=\"2\" y=\"2\" width=\"12\" height=\"12\" fill=\"currentColor\"/></svg>";
+
+   @Test
+   void testSharedImages() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      SVGImage svg = SVGImage.createFromString(SVG);
+      SVGImageCache cache = new SVGImageCache(display, 1024 * 1024);
+      Color red = new Color(display, 255, 0, 0);
+      Color red2 = new Color(display, 255, 0, 0);
+      try
+      {
+         Image i1 = cache.acquire(svg, 16, 16);
+         Image i2 = cache.acquire(svg, 16, 16, null, ScaleMode.UNIFORM);
+         assertSame(i1, i2);
+         Image i3 = cache.acquire(svg, 16, 16, red, ScaleMode.UNIFORM);
+         Image i4 = cache.acquire(svg, 16, 16, red2, ScaleMode.UNIFORM);
+         assertNotSame(i1, i3);
+         assertSame(i3, i4);
+         Image i5 = cache.acquire(svg, 24, 24);
+         assertEquals(24, i5.getBounds().width);
+
+         assertEquals(3, cache.getImageCount());
+         assertEquals(3, cache.getMissCount());
+         assertEquals(2, cache.getHitCount());
+         assertEquals(SVGImageCache.estimateImageSize(16, 16) * 2 + SVGImageCache.estimateImageSize(24, 24), cache.getByteCount());
+
+         for (Image i : new Image[] { i1, i2, i3, i4, i5 })
+            cache.release(i);
+         assertFalse(i1.isDisposed());
+         cache.clear();
+         assertTrue(i1.isDisposed());
+      }
+      finally
+      {
+         cache.dispose();
+         red.dispose();
+         red2.dispose();
+      }
+   }
+
+   @Test
+   void testRegisteredForDisplayDisposeUntilDisposed()
+   {
+      Display display = TestDisplay.get();
+      SVGImageCache cache = new SVGImageCache(display, 1024 * 1024);
+      assertTrue(DisplayDisposeRegistry.isRegistered(display, cache));
+      cache.dispose();
+      assertFalse(DisplayDisposeRegistry.isRegistered(display, cache));
+   }
+
+   @Test
+   void testByteBudget() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      SVGImage svg = SVGImage.createFromString(SVG);
+      SVGImageCache cache = new SVGImageCache(display, SVGImageCache.estimateImageSize(16, 16) * 2);
+      try
+      {
+         Image i1 = cache.acquire(svg, 16, 16);
+         cache.release(i1);
+         cache.release(cache.acquire(svg, 16, 15));
+         cache.release(cache.acquire(svg, 16, 14));
+         assertEquals(1, cache.getEvictionCount());
+         assertTrue(i1.isDisposed());
+         assertTrue(cache.getByteCount() <= SVGImageCache.estimateImageSize(16, 16) * 2);
+      }
+      finally
+      {
+         cache.dispose();
+      }
+      assertTrue(cache.isDisposed());
+   }
+}
@@ -0,0 +1,93 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.internal.AlphaSurfaceProbe;
+import org.netxms.ui.svg.internal.NativeResourceCounter;
+
+class SVGImageRasterizeTest
+{
+   private static final String SVG = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+         "<rect x=\"10\" y=\"10\" width=\"50\" height=\"50\" fill=\"#ff0000\"/>" +
+         "<circle cx=\"60\" cy=\"60\" r=\"30\" fill=\"#0000ff\" fill-opacity=\"0.5\"/>" +
+         "<path d=\"M 10 90 L 90 90 L 50 70 Z\" fill=\"none\" stroke=\"#00a000\" stroke-width=\"3\" stroke-opacity=\"0.8\"/>" +
+         "</svg>";
+
+   @Test
+   void testDualPassTransparency() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      SVGImage svg = SVGImage.createFromString(SVG);
+      Image image = svg.rasterizeDualPass(display, 50, 50, null, ScaleMode.UNIFORM);
+      try
+      {
+         ImageData data = image.getImageData();
+         assertEquals(0, data.getAlpha(1, 1));
+         assertEquals(255, data.getAlpha(10, 10));
+         RGB c = data.palette.getRGB(data.getPixel(10, 10));
+         assertEquals(new RGB(255, 0, 0), c);
+      }
+      finally
+      {
+         image.dispose();
+      }
+   }
+
+   @Test
+   void testSinglePassMatchesDualPass() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      assumeTrue(AlphaSurfaceProbe.isSupported(display), "Single pass rasterization is not supported on this platform");
+
+      SVGImage svg = SVGImage.createFromString(SVG);
+      Image single = svg.rasterizeSinglePass(display, 64, 64, null, ScaleMode.UNIFORM);
+      Image dual = svg.rasterizeDualPass(display, 64, 64, null, ScaleMode.UNIFORM);
+      try
+      {
+         ImageData s = single.getImageData();
+         ImageData d = dual.getImageData();
+         for (int y = 0; y < 64; y++)
+         {
+            for (int x = 0; x < 64; x++)
+            {
+               int as = s.getAlpha(x, y);
+               int ad = d.getAlpha(x, y);
+               assertTrue(Math.abs(as - ad) <= 3, "Alpha mismatch at " + x + "," + y + ": " + as + " vs " + ad);
+               if (ad < 64)
+                  continue; // color of almost transparent pixels is not precise in dual pass mode
+               RGB cs = s.palette.getRGB(s.getPixel(x, y));
+               RGB cd = d.palette.getRGB(d.getPixel(x, y));
+               int tolerance = 2 + 1020 / ad;
+               assertTrue(Math.abs(cs.red - cd.red) <= tolerance && Math.abs(cs.green - cd.green) <= tolerance && Math.abs(cs.blue - cd.blue) <= tolerance,
+                     "Color mismatch at " + x + "," + y + ": " + cs + " vs " + cd);
+            }
+         }
+      }
+      finally
+      {
+         single.dispose();
+         dual.dispose();
+      }
+   }
+
+   @Test
+   void testNativeResourceCounts() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      SVGImage svg = SVGImage.createFromString(SVG);
+
+      long images = NativeResourceCounter.get(NativeResourceCounter.IMAGE);
+      long gcs = NativeResourceCounter.get(NativeResourceCounter.GC);
+      long paths = NativeResourceCounter.get(NativeResourceCounter.PATH);
+      svg.rasterizeDualPass(display, 32, 32, null, ScaleMode.UNIFORM).dispose();
+      assertEquals(3, NativeResourceCounter.get(NativeResourceCounter.IMAGE) - images);
+      assertEquals(2, NativeResourceCounter.get(NativeResourceCounter.GC) - gcs);
+      assertEquals(6, NativeResourceCounter.get(NativeResourceCounter.PATH) - paths);
+   }
+}
@@ -0,0 +1,60 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class SVGMemoryUsageTest
+{
+   private static SVGImage parse(String content) throws SVGParseException
+   {
+      SVGParseOptions options = new SVGParseOptions();
+      options.setOptimize(false);
+      return SVGImage.createFromString("<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" + content + "</svg>", options);
+   }
+
+   @Test
+   void testBreakdown() throws SVGParseException
+   {
+      SVGImage image = parse("<g transform=\"rotate(45)\"><path d=\"M0 0 L10 10 L20 0 Z\" fill=\"#ff0000\"/></g>" +
+            "<polygon points=\"0,0 10,0 10,10\"/><circle cx=\"5\" cy=\"5\" r=\"5\"/>");
+      SVGMemoryUsage usage = image.estimateMemoryUsage();
+      assertEquals(1, usage.getImageCount());
+      assertEquals(4, usage.getNodeCount());
+      assertEquals(7, usage.getSegmentCount());
+      assertTrue(usage.getNodeBytes() > 0);
+      assertTrue(usage.getStyleBytes() > 0);
+      assertTrue(usage.getPathDataBytes() > 0);
+      assertTrue(usage.getPointBytes() > 0);
+      assertTrue(usage.getStructureBytes() > 0);
+      assertEquals(usage.getStructureBytes() + usage.getNodeBytes() + usage.getStyleBytes() + usage.getTransformBytes() +
+            usage.getPathDataBytes() + usage.getPointBytes(), usage.getTotalBytes());
+   }
+
+   @Test
+   void testGrowsWithPathLength() throws SVGParseException
+   {
+      SVGMemoryUsage small = parse("<path d=\"M0 0 L10 10\"/>").estimateMemoryUsage();
+      StringBuilder d = new StringBuilder("M0 0");
+      for (int i = 0; i < 100; i++)
+         d.append(" L").append(i).append(' ').append(i);
+      SVGMemoryUsage large = parse("<path d=\"" + d + "\"/>").estimateMemoryUsage();
+      assertEquals(small.getNodeBytes(), large.getNodeBytes());
+      assertEquals(99, large.getSegmentCount() - small.getSegmentCount());
+      // 99 more verbs (1 byte each) and 198 more coordinates (4 bytes each), less alignment
+      assertTrue(large.getPathDataBytes() - small.getPathDataBytes() >= 880);
+   }
+
+   @Test
+   void testAggregate() throws SVGParseException
+   {
+      SVGImage a = parse("<rect x=\"0\" y=\"0\" width=\"10\" height=\"10\"/>");
+      SVGImage b = parse("<circle cx=\"5\" cy=\"5\" r=\"5\"/>");
+      SVGMemoryUsage total = SVGImage.estimateMemoryUsage(Arrays.asList(a, b, a));
+      assertEquals(2, total.getImageCount());
+      assertEquals(2, total.getNodeCount());
+      assertTrue(total.getTotalBytes() <= a.estimateMemoryUsage().getTotalBytes() + b.estimateMemoryUsage().getTotalBytes());
+      assertTrue(total.getTotalBytes() > a.estimateMemoryUsage().getTotalBytes());
+   }
+}
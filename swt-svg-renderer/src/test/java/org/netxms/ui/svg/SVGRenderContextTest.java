@@ -0,0 +1,99 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.internal.DisplayDisposeRegistry;
+
+class SVGRenderContextTest
+{
+   private static final String SVG = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+         "<g transform=\"translate(5,5)\"><rect x=\"10\" y=\"10\" width=\"40\" height=\"40\" fill=\"#ff0000\"/>" +
+         "<circle cx=\"60\" cy=\"60\" r=\"20\" fill=\"none\" stroke=\"#0000ff\" stroke-width=\"3\"/></g>" +
+         "<path d=\"M 10 90 L 90 90 L 50 60 Z\" fill=\"#00ff00\" opacity=\"0.5\"/>" +
+         "</svg>";
+
+   @Test
+   void testPathsCachedBetweenCalls() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      SVGImage image = SVGImage.createFromString(SVG);
+      SVGRenderContext context = new SVGRenderContext(display);
+      try
+      {
+         renderWithContext(display, image, context);
+         assertEquals(3, context.getCachedPathCount());
+         assertEquals(3, context.getCachedColorCount());
+         renderWithContext(display, image, context);
+         assertEquals(3, context.getCachedPathCount());
+         assertEquals(3, context.getCachedColorCount());
+
+         context.release(image);
+         assertEquals(0, context.getCachedPathCount());
+         context.clear();
+         assertEquals(0, context.getCachedColorCount());
+      }
+      finally
+      {
+         context.dispose();
+      }
+      assertTrue(context.isDisposed());
+      assertThrows(IllegalStateException.class, () -> renderWithContext(display, image, context));
+   }
+
+   @Test
+   void testRegisteredForDisplayDisposeUntilDisposed()
+   {
+      Display display = TestDisplay.get();
+      SVGRenderContext context = new SVGRenderContext(display);
+      assertTrue(DisplayDisposeRegistry.isRegistered(display, context));
+      context.dispose();
+      assertFalse(DisplayDisposeRegistry.isRegistered(display, context));
+   }
+
+   @Test
+   void testSameOutputAsStatelessRendering() throws SVGParseException
+   {
+      Display display = TestDisplay.get();
+      SVGImage image = SVGImage.createFromString(SVG);
+      SVGRenderContext context = new SVGRenderContext(display);
+      try
+      {
+         ImageData expected = renderWithContext(display, image, null);
+         renderWithContext(display, image, context);
+         ImageData actual = renderWithContext(display, image, context);
+         assertArrayEquals(expected.data, actual.data);
+      }
+      finally
+      {
+         context.dispose();
+      }
+   }
+
+   private static ImageData renderWithContext(Display display, SVGImage image, SVGRenderContext context)
+   {
+      Image target = new Image(display, 64, 64);
+      GC gc = new GC(target);
+      try
+      {
+         gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+         gc.fillRectangle(0, 0, 64, 64);
+         if (context != null)
+            image.render(context, gc, 0, 0, 64, 64);
+         else
+            image.render(gc, 0, 0, 64, 64);
+      }
+      finally
+      {
+         gc.dispose();
+      }
+      ImageData data = target.getImageData();
+      target.dispose();
+      return data;
+   }
+}
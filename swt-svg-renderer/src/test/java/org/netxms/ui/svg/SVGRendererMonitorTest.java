@@ -0,0 +1,69 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SVGRendererMonitorTest
+{
+   private static final String SVG = "<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+         "<rect x=\"10\" y=\"10\" width=\"50\" height=\"50\" fill=\"#ff0000\"/>" +
+         "<path d=\"M 10 90 L 90 90 L 50 70 Z\" fill=\"none\" stroke=\"#00a000\" stroke-width=\"3\"/>" +
+         "</svg>";
+
+   @AfterEach
+   void unregister()
+   {
+      SVGRendererMonitor.unregister();
+   }
+
+   @Test
+   void testRegistration() throws Exception
+   {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(SVGRendererMonitor.OBJECT_NAME);
+      assertFalse(SVGRendererMonitor.isEnabled());
+      SVGRendererMonitor.register();
+      SVGRendererMonitor.register();
+      assertTrue(SVGRendererMonitor.isEnabled());
+      assertTrue(server.isRegistered(name));
+      assertNotNull(server.getAttribute(name, "NativeResourcesCreated"));
+      SVGRendererMonitor.unregister();
+      assertFalse(server.isRegistered(name));
+      assertFalse(SVGRendererMonitor.isEnabled());
+   }
+
+   @Test
+   void testParseAndRasterizeStatistics() throws Exception
+   {
+      SVGRendererMonitor.register();
+      SVGRendererMonitor monitor = SVGRendererMonitor.getInstance();
+      monitor.resetStatistics();
+      long liveDocuments = monitor.getLiveDocumentCount();
+      long liveBytes = monitor.getLiveDocumentBytes();
+
+      SVGImage image = SVGImage.createFromString(SVG);
+      image.rasterizeToARGB(16, 16, null, ScaleMode.UNIFORM);
+      image.rasterizeToARGB(32, 32, null, ScaleMode.UNIFORM);
+
+      assertEquals(1, monitor.getParsedDocumentCount());
+      assertEquals(liveDocuments + 1, monitor.getLiveDocumentCount());
+      assertTrue(monitor.getLiveDocumentBytes() > liveBytes);
+      assertEquals(2, monitor.getRasterizeCount());
+      assertEquals(2, Arrays.stream(monitor.getRasterizeLatencyHistogram()).sum());
+      assertEquals(monitor.getLatencyHistogramBounds().length + 1, monitor.getParseLatencyHistogram().length);
+      assertTrue(monitor.getRasterizeTimeAverage() > 0);
+
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      assertEquals(1L, server.getAttribute(new ObjectName(SVGRendererMonitor.OBJECT_NAME), "ParsedDocumentCount"));
+
+      monitor.resetStatistics();
+      assertEquals(0, monitor.getParsedDocumentCount());
+      assertEquals(0, monitor.getRasterizeCount());
+   }
+}
@@ -0,0 +1,41 @@
+package org.netxms.ui.svg;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Access to SWT display for tests which need it. Tests are skipped when display is not available
+ * (headless environment or missing native libraries).
+ */
+final class TestDisplay
+{
+   private static Display display;
+   private static boolean failed = false;
+
+   private TestDisplay()
+   {
+   }
+
+   /**
+    * Get display or abort calling test.
+    *
+    * @return display
+    */
+   static synchronized Display get()
+   {
+      if (display == null && !failed)
+      {
+         try
+         {
+            display = Display.getDefault();
+         }
+         catch(Throwable t)
+         {
+            failed = true;
+         }
+      }
+      assumeTrue(display != null, "SWT display is not available");
+      return display;
+   }
+}
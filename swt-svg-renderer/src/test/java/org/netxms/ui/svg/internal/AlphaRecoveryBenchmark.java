@@ -0,0 +1,119 @@
+package org.netxms.ui.svg.internal;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+
+/**
+ * Compares per-pixel alpha recovery with bulk implementation in {@link AlphaRecovery}. Not executed
+ * as part of the test suite; run manually:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.netxms.ui.svg.internal.AlphaRecoveryBenchmark
+ * </pre>
+ */
+public final class AlphaRecoveryBenchmark
+{
+   private static final int[] SIZES = { 16, 32, 64, 128, 256, 512 };
+
+   private static volatile Object sink;
+
+   /**
+    * Original implementation from SVGImage.rasterize (assumes 0xRRGGBB source pixels).
+    */
+   private static ImageData perPixelRecover(ImageData onBlack, ImageData onWhite)
+   {
+      int width = onBlack.width;
+      int height = onBlack.height;
+      PaletteData palette = new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF);
+      ImageData result = new ImageData(width, height, 32, palette);
+      result.alphaData = new byte[width * height];
+
+      for (int y = 0; y < height; y++)
+      {
+         for (int x = 0; x < width; x++)
+         {
+            int pb = onBlack.getPixel(x, y);
+            int pw = onWhite.getPixel(x, y);
+
+            int rb = (pb >> 16) & 0xFF, gb = (pb >> 8) & 0xFF, bb = pb & 0xFF;
+            int rw = (pw >> 16) & 0xFF, gw = (pw >> 8) & 0xFF, bw = pw & 0xFF;
+
+            int alpha = 255 - Math.max(Math.max(rw - rb, gw - gb), bw - bb);
+            result.alphaData[y * width + x] = (byte)alpha;
+
+            if (alpha > 0)
+            {
+               int r = Math.min(255, rb * 255 / alpha);
+               int g = Math.min(255, gb * 255 / alpha);
+               int b = Math.min(255, bb * 255 / alpha);
+               result.setPixel(x, y, (r << 16) | (g << 8) | b);
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Create pair of images resembling rendered icon: opaque disc with anti-aliased edge on transparent
+    * background and semi-transparent band across it.
+    */
+   private static ImageData[] createIconPair(int size, PaletteData palette)
+   {
+      ImageData onBlack = new ImageData(size, size, 32, palette);
+      ImageData onWhite = new ImageData(size, size, 32, palette);
+      float c = size / 2.0f;
+      float r = size * 0.4f;
+      for (int y = 0; y < size; y++)
+      {
+         for (int x = 0; x < size; x++)
+         {
+            float d = (float)Math.hypot(x + 0.5f - c, y + 0.5f - c);
+            int alpha = Math.round(Math.max(0, Math.min(1, r - d + 0.5f)) * 255);
+            int red = 40, green = 120, blue = 200;
+            if (Math.abs(y - c) < size / 8)
+            {
+               // Semi-transparent white band blended over disc
+               alpha = alpha + (255 - alpha) / 2;
+               red = (red + 255) / 2;
+               green = (green + 255) / 2;
+               blue = (blue + 255) / 2;
+            }
+            int rb = red * alpha / 255, gb = green * alpha / 255, bb = blue * alpha / 255;
+            onBlack.setPixel(x, y, (rb << 16) | (gb << 8) | bb);
+            onWhite.setPixel(x, y, ((rb + 255 - alpha) << 16) | ((gb + 255 - alpha) << 8) | (bb + 255 - alpha));
+         }
+      }
+      return new ImageData[] { onBlack, onWhite };
+   }
+
+   public static void main(String[] args)
+   {
+      PaletteData palette = new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF);
+      System.out.printf("%-7s %6s %14s %14s %8s%n", "data", "size", "per-pixel, us", "bulk, us", "speedup");
+      for (int size : SIZES)
+         run("icon", size, createIconPair(size, palette));
+      for (int size : SIZES)
+         run("random", size, AlphaRecoveryTest.createSourcePair(size, size, 32, palette, size));
+   }
+
+   private static void run(String name, int size, ImageData[] source)
+   {
+      double reference = measure(() -> sink = perPixelRecover(source[0], source[1]), size);
+      double bulk = measure(() -> sink = AlphaRecovery.recover(source[0], source[1]), size);
+      System.out.printf("%-7s %6d %14.1f %14.1f %7.1fx%n", name, size, reference, bulk, reference / bulk);
+   }
+
+   /**
+    * Measure average execution time in microseconds, after warm-up.
+    */
+   private static double measure(Runnable task, int size)
+   {
+      int iterations = Math.max(200, (1 << 25) / (size * size));
+      for (int i = 0; i < iterations; i++)
+         task.run();
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++)
+         task.run();
+      return (System.nanoTime() - start) / 1000.0 / iterations;
+   }
+}
@@ -0,0 +1,159 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.jupiter.api.Test;
+
+class AlphaRecoveryTest
+{
+   /**
+    * Reference implementation using per-pixel ImageData access.
+    */
+   static ImageData referenceRecover(ImageData onBlack, ImageData onWhite)
+   {
+      int width = onBlack.width;
+      int height = onBlack.height;
+      PaletteData palette = new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF);
+      ImageData result = new ImageData(width, height, 32, palette);
+      result.alphaData = new byte[width * height];
+
+      for (int y = 0; y < height; y++)
+      {
+         for (int x = 0; x < width; x++)
+         {
+            RGB cb = onBlack.palette.getRGB(onBlack.getPixel(x, y));
+            RGB cw = onWhite.palette.getRGB(onWhite.getPixel(x, y));
+            int alpha = Math.min(255, 255 - Math.max(Math.max(cw.red - cb.red, cw.green - cb.green), cw.blue - cb.blue));
+            result.alphaData[y * width + x] = (byte)alpha;
+            if (alpha > 0)
+            {
+               int r = Math.min(255, cb.red * 255 / alpha);
+               int g = Math.min(255, cb.green * 255 / alpha);
+               int b = Math.min(255, cb.blue * 255 / alpha);
+               result.setPixel(x, y, (r << 16) | (g << 8) | b);
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Create pair of images simulating rendering of random semi-transparent content on black and white background.
+    */
+   static ImageData[] createSourcePair(int width, int height, int depth, PaletteData palette, long seed)
+   {
+      Random random = new Random(seed);
+      ImageData onBlack = new ImageData(width, height, depth, palette);
+      ImageData onWhite = new ImageData(width, height, depth, palette);
+      for (int y = 0; y < height; y++)
+      {
+         for (int x = 0; x < width; x++)
+         {
+            int alpha = (random.nextInt(4) == 0) ? 0 : random.nextInt(256);
+            RGB c = new RGB(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+            RGB b = new RGB(c.red * alpha / 255, c.green * alpha / 255, c.blue * alpha / 255);
+            RGB w = new RGB(b.red + 255 - alpha, b.green + 255 - alpha, b.blue + 255 - alpha);
+            onBlack.setPixel(x, y, palette.getPixel(b));
+            onWhite.setPixel(x, y, palette.getPixel(w));
+         }
+      }
+      return new ImageData[] { onBlack, onWhite };
+   }
+
+   private static void assertSameResult(int depth, PaletteData palette)
+   {
+      // Odd width to get row padding
+      ImageData[] source = createSourcePair(37, 23, depth, palette, depth * 31 + palette.redMask);
+      ImageData expected = referenceRecover(source[0], source[1]);
+      ImageData actual = AlphaRecovery.recover(source[0], source[1]);
+      assertEquals(expected.bytesPerLine, actual.bytesPerLine);
+      assertArrayEquals(expected.data, actual.data, "depth " + depth);
+      assertArrayEquals(expected.alphaData, actual.alphaData, "depth " + depth);
+   }
+
+   @Test
+   void test32BitRGB()
+   {
+      assertSameResult(32, new PaletteData(0x00FF0000, 0x0000FF00, 0x000000FF));
+   }
+
+   @Test
+   void test32BitBGRA()
+   {
+      assertSameResult(32, new PaletteData(0x0000FF00, 0x00FF0000, 0xFF000000));
+   }
+
+   @Test
+   void test24Bit()
+   {
+      assertSameResult(24, new PaletteData(0xFF0000, 0x00FF00, 0x0000FF));
+      assertSameResult(24, new PaletteData(0x0000FF, 0x00FF00, 0xFF0000));
+   }
+
+   @Test
+   void test16Bit()
+   {
+      assertSameResult(16, new PaletteData(0xF800, 0x07E0, 0x001F));
+      assertSameResult(16, new PaletteData(0x7C00, 0x03E0, 0x001F));
+   }
+
+   @Test
+   void testIndexed()
+   {
+      RGB[] colors = new RGB[256];
+      for (int i = 0; i < 256; i++)
+         colors[i] = new RGB(i, (i * 7) & 0xFF, 255 - i);
+      PaletteData palette = new PaletteData(colors);
+      Random random = new Random(1);
+      ImageData onBlack = new ImageData(37, 23, 8, palette);
+      ImageData onWhite = new ImageData(37, 23, 8, palette);
+      for (int y = 0; y < 23; y++)
+      {
+         for (int x = 0; x < 37; x++)
+         {
+            int index = random.nextInt(256);
+            onBlack.setPixel(x, y, index);
+            onWhite.setPixel(x, y, Math.min(255, index + random.nextInt(32)));
+         }
+      }
+      ImageData expected = referenceRecover(onBlack, onWhite);
+      ImageData actual = AlphaRecovery.recover(onBlack, onWhite);
+      assertArrayEquals(expected.data, actual.data);
+      assertArrayEquals(expected.alphaData, actual.alphaData);
+   }
+
+   @Test
+   void testBrighterOnBlack()
+   {
+      // Pixels brighter on black background than on white are treated as opaque
+      PaletteData[] palettes = { new PaletteData(0xFF0000, 0xFF00, 0xFF), new PaletteData(0xF800, 0x07E0, 0x001F) };
+      int[] depths = { 32, 16 };
+      for (int i = 0; i < palettes.length; i++)
+      {
+         PaletteData palette = palettes[i];
+         ImageData onBlack = new ImageData(2, 1, depths[i], palette);
+         ImageData onWhite = new ImageData(2, 1, depths[i], palette);
+         onBlack.setPixel(0, 0, palette.getPixel(new RGB(255, 255, 255)));
+         onWhite.setPixel(0, 0, palette.getPixel(new RGB(0, 0, 0)));
+         onBlack.setPixel(1, 0, palette.getPixel(new RGB(200, 100, 0)));
+         onWhite.setPixel(1, 0, palette.getPixel(new RGB(100, 50, 0)));
+         ImageData result = AlphaRecovery.recover(onBlack, onWhite);
+         assertArrayEquals(new byte[] { (byte)255, (byte)255 }, result.alphaData, "depth " + depths[i]);
+         assertArrayEquals(referenceRecover(onBlack, onWhite).data, result.data, "depth " + depths[i]);
+         assertEquals(onBlack.palette.getRGB(onBlack.getPixel(1, 0)), result.palette.getRGB(result.getPixel(1, 0)));
+      }
+   }
+
+   @Test
+   void testSizeMismatch()
+   {
+      PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+      assertThrows(IllegalArgumentException.class,
+            () -> AlphaRecovery.recover(new ImageData(4, 4, 32, palette), new ImageData(4, 5, 32, palette)));
+   }
+}
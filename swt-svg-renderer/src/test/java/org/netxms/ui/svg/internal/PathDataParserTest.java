@@ -2,7 +2,9 @@ package org.netxms.ui.svg.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -11,184 +13,142 @@ class PathDataParserTest
    @Test
    void testMoveTo()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 10 20");
-      assertEquals(1, segs.size());
-      assertTrue(segs.get(0) instanceof PathSegment.MoveTo);
-      PathSegment.MoveTo m = (PathSegment.MoveTo)segs.get(0);
-      assertEquals(10f, m.x);
-      assertEquals(20f, m.y);
+      PathData path = PathDataParser.parse("M 10 20");
+      assertEquals(1, path.getVerbCount());
+      assertEquals(PathData.MOVE_TO, path.getVerb(0));
+      assertArrayEquals(new float[] { 10, 20 }, path.getCoordinates());
    }
 
    @Test
    void testLineTo()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 L 10 20");
-      assertEquals(2, segs.size());
-      assertTrue(segs.get(1) instanceof PathSegment.LineTo);
-      PathSegment.LineTo l = (PathSegment.LineTo)segs.get(1);
-      assertEquals(10f, l.x);
-      assertEquals(20f, l.y);
+      PathData path = PathDataParser.parse("M 0 0 L 10 20");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.LINE_TO }, path.getVerbs());
+      assertArrayEquals(new float[] { 0, 0, 10, 20 }, path.getCoordinates());
    }
 
    @Test
    void testRelativeLineTo()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 10 10 l 5 5");
-      assertEquals(2, segs.size());
-      PathSegment.LineTo l = (PathSegment.LineTo)segs.get(1);
-      assertEquals(15f, l.x);
-      assertEquals(15f, l.y);
+      PathData path = PathDataParser.parse("M 10 10 l 5 5");
+      assertEquals(2, path.getVerbCount());
+      assertArrayEquals(new float[] { 15, 15 }, segment(path, 1));
    }
 
    @Test
    void testHorizontalLine()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 5 H 10");
-      assertEquals(2, segs.size());
-      PathSegment.LineTo l = (PathSegment.LineTo)segs.get(1);
-      assertEquals(10f, l.x);
-      assertEquals(5f, l.y);
+      PathData path = PathDataParser.parse("M 0 5 H 10");
+      assertEquals(2, path.getVerbCount());
+      assertEquals(PathData.LINE_TO, path.getVerb(1));
+      assertArrayEquals(new float[] { 10, 5 }, segment(path, 1));
    }
 
    @Test
    void testVerticalLine()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 5 0 V 10");
-      assertEquals(2, segs.size());
-      PathSegment.LineTo l = (PathSegment.LineTo)segs.get(1);
-      assertEquals(5f, l.x);
-      assertEquals(10f, l.y);
+      PathData path = PathDataParser.parse("M 5 0 V 10");
+      assertEquals(2, path.getVerbCount());
+      assertEquals(PathData.LINE_TO, path.getVerb(1));
+      assertArrayEquals(new float[] { 5, 10 }, segment(path, 1));
    }
 
    @Test
    void testClose()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 L 10 0 L 10 10 Z");
-      assertEquals(4, segs.size());
-      assertTrue(segs.get(3) instanceof PathSegment.Close);
+      PathData path = PathDataParser.parse("M 0 0 L 10 0 L 10 10 Z");
+      assertEquals(4, path.getVerbCount());
+      assertEquals(PathData.CLOSE, path.getVerb(3));
+      assertEquals(6, path.getCoordinateCount());
    }
 
    @Test
    void testCubicBezier()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 C 10 20 30 40 50 60");
-      assertEquals(2, segs.size());
-      assertTrue(segs.get(1) instanceof PathSegment.CubicTo);
-      PathSegment.CubicTo c = (PathSegment.CubicTo)segs.get(1);
-      assertEquals(10f, c.x1);
-      assertEquals(20f, c.y1);
-      assertEquals(30f, c.x2);
-      assertEquals(40f, c.y2);
-      assertEquals(50f, c.x);
-      assertEquals(60f, c.y);
+      PathData path = PathDataParser.parse("M 0 0 C 10 20 30 40 50 60");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.CUBIC_TO }, path.getVerbs());
+      assertArrayEquals(new float[] { 10, 20, 30, 40, 50, 60 }, segment(path, 1));
    }
 
    @Test
    void testSmoothCubic()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 C 10 20 30 40 50 60 S 70 80 90 100");
-      assertEquals(3, segs.size());
-      assertTrue(segs.get(2) instanceof PathSegment.CubicTo);
-      PathSegment.CubicTo s = (PathSegment.CubicTo)segs.get(2);
+      PathData path = PathDataParser.parse("M 0 0 C 10 20 30 40 50 60 S 70 80 90 100");
+      assertEquals(3, path.getVerbCount());
+      assertEquals(PathData.CUBIC_TO, path.getVerb(2));
       // Reflected control point: 2*50-30=70, 2*60-40=80
-      assertEquals(70f, s.x1);
-      assertEquals(80f, s.y1);
-      assertEquals(70f, s.x2);
-      assertEquals(80f, s.y2);
-      assertEquals(90f, s.x);
-      assertEquals(100f, s.y);
+      assertArrayEquals(new float[] { 70, 80, 70, 80, 90, 100 }, segment(path, 2));
    }
 
    @Test
    void testQuadBezier()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 Q 10 20 30 40");
-      assertEquals(2, segs.size());
-      assertTrue(segs.get(1) instanceof PathSegment.QuadTo);
-      PathSegment.QuadTo q = (PathSegment.QuadTo)segs.get(1);
-      assertEquals(10f, q.x1);
-      assertEquals(20f, q.y1);
-      assertEquals(30f, q.x);
-      assertEquals(40f, q.y);
+      PathData path = PathDataParser.parse("M 0 0 Q 10 20 30 40");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.QUAD_TO }, path.getVerbs());
+      assertArrayEquals(new float[] { 10, 20, 30, 40 }, segment(path, 1));
    }
 
    @Test
    void testSmoothQuad()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 Q 10 20 30 40 T 50 60");
-      assertEquals(3, segs.size());
-      assertTrue(segs.get(2) instanceof PathSegment.QuadTo);
-      PathSegment.QuadTo t = (PathSegment.QuadTo)segs.get(2);
+      PathData path = PathDataParser.parse("M 0 0 Q 10 20 30 40 T 50 60");
+      assertEquals(3, path.getVerbCount());
+      assertEquals(PathData.QUAD_TO, path.getVerb(2));
       // Reflected: 2*30-10=50, 2*40-20=60
-      assertEquals(50f, t.x1);
-      assertEquals(60f, t.y1);
-      assertEquals(50f, t.x);
-      assertEquals(60f, t.y);
+      assertArrayEquals(new float[] { 50, 60, 50, 60 }, segment(path, 2));
    }
 
    @Test
    void testArcToCubics()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 A 25 25 0 0 1 50 0");
-      assertTrue(segs.size() >= 2);
+      PathData path = PathDataParser.parse("M 0 0 A 25 25 0 0 1 50 0");
+      assertTrue(path.getVerbCount() >= 2);
       // First is MoveTo, rest should be CubicTo segments (arc converted)
-      assertTrue(segs.get(0) instanceof PathSegment.MoveTo);
-      for (int i = 1; i < segs.size(); i++)
-      {
-         assertTrue(segs.get(i) instanceof PathSegment.CubicTo,
-               "Segment " + i + " should be CubicTo");
-      }
+      assertEquals(PathData.MOVE_TO, path.getVerb(0));
+      for (int i = 1; i < path.getVerbCount(); i++)
+         assertEquals(PathData.CUBIC_TO, path.getVerb(i), "Segment " + i + " should be CubicTo");
       // Last cubic should end at (50, 0)
-      PathSegment.CubicTo last = (PathSegment.CubicTo)segs.get(segs.size() - 1);
-      assertEquals(50f, last.x, 0.1f);
-      assertEquals(0f, last.y, 0.1f);
+      float[] last = segment(path, path.getVerbCount() - 1);
+      assertEquals(50f, last[4], 0.1f);
+      assertEquals(0f, last[5], 0.1f);
    }
 
    @Test
    void testArcCompactFlags()
    {
       // "A3.6 3.6 0 1112 8.4" = rx=3.6, ry=3.6, rotation=0, largeArc=1, sweep=1, x=12, y=8.4
-      List<PathSegment> segs = PathDataParser.parse("M12 15.6A3.6 3.6 0 1112 8.4a3.6 3.6 0 010 7.2z");
-      assertTrue(segs.size() >= 3); // MoveTo + cubics from two arcs + Close
-      assertTrue(segs.get(0) instanceof PathSegment.MoveTo);
-      PathSegment.MoveTo m = (PathSegment.MoveTo)segs.get(0);
-      assertEquals(12f, m.x);
-      assertEquals(15.6f, m.y, 0.01f);
+      PathData path = PathDataParser.parse("M12 15.6A3.6 3.6 0 1112 8.4a3.6 3.6 0 010 7.2z");
+      assertTrue(path.getVerbCount() >= 3); // MoveTo + cubics from two arcs + Close
+      assertEquals(PathData.MOVE_TO, path.getVerb(0));
+      assertEquals(12f, path.getCoordinate(0));
+      assertEquals(15.6f, path.getCoordinate(1), 0.01f);
       // Verify it doesn't degenerate — should have multiple cubic segments
       int cubicCount = 0;
-      for (PathSegment seg : segs)
+      for (byte verb : path.getVerbs())
       {
-         if (seg instanceof PathSegment.CubicTo)
+         if (verb == PathData.CUBIC_TO)
             cubicCount++;
       }
       assertTrue(cubicCount >= 4, "Expected at least 4 cubic segments for two arcs, got " + cubicCount);
       // Last segment should be Close
-      assertTrue(segs.get(segs.size() - 1) instanceof PathSegment.Close);
+      assertEquals(PathData.CLOSE, path.getVerb(path.getVerbCount() - 1));
    }
 
    @Test
    void testImplicitLineToAfterMove()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 10 20 30 40");
-      assertEquals(3, segs.size());
-      assertTrue(segs.get(0) instanceof PathSegment.MoveTo);
-      assertTrue(segs.get(1) instanceof PathSegment.LineTo);
-      assertTrue(segs.get(2) instanceof PathSegment.LineTo);
-      PathSegment.LineTo l = (PathSegment.LineTo)segs.get(2);
-      assertEquals(30f, l.x);
-      assertEquals(40f, l.y);
+      PathData path = PathDataParser.parse("M 0 0 10 20 30 40");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.LINE_TO, PathData.LINE_TO }, path.getVerbs());
+      assertArrayEquals(new float[] { 30, 40 }, segment(path, 2));
    }
 
    @Test
    void testCompactNotation()
    {
       // No spaces, negative signs as separators
-      List<PathSegment> segs = PathDataParser.parse("M0,0L10-20");
-      assertEquals(2, segs.size());
-      assertTrue(segs.get(0) instanceof PathSegment.MoveTo);
-      PathSegment.LineTo l = (PathSegment.LineTo)segs.get(1);
-      assertEquals(10f, l.x);
-      assertEquals(-20f, l.y);
+      PathData path = PathDataParser.parse("M0,0L10-20");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.LINE_TO }, path.getVerbs());
+      assertArrayEquals(new float[] { 10, -20 }, segment(path, 1));
    }
 
    @Test
@@ -206,23 +166,132 @@ class PathDataParserTest
    @Test
    void testMultipleSubpaths()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 0 0 L 10 10 Z M 20 20 L 30 30 Z");
-      assertEquals(6, segs.size());
-      assertTrue(segs.get(0) instanceof PathSegment.MoveTo);
-      assertTrue(segs.get(1) instanceof PathSegment.LineTo);
-      assertTrue(segs.get(2) instanceof PathSegment.Close);
-      assertTrue(segs.get(3) instanceof PathSegment.MoveTo);
-      assertTrue(segs.get(4) instanceof PathSegment.LineTo);
-      assertTrue(segs.get(5) instanceof PathSegment.Close);
+      PathData path = PathDataParser.parse("M 0 0 L 10 10 Z M 20 20 L 30 30 Z");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.LINE_TO, PathData.CLOSE, PathData.MOVE_TO, PathData.LINE_TO, PathData.CLOSE },
+            path.getVerbs());
+      assertArrayEquals(new float[] { 0, 0, 10, 10, 20, 20, 30, 30 }, path.getCoordinates());
    }
 
    @Test
    void testRelativeMoveTo()
    {
-      List<PathSegment> segs = PathDataParser.parse("M 10 10 m 5 5 l 10 10");
-      assertEquals(3, segs.size());
-      PathSegment.MoveTo m = (PathSegment.MoveTo)segs.get(1);
-      assertEquals(15f, m.x);
-      assertEquals(15f, m.y);
+      PathData path = PathDataParser.parse("M 10 10 m 5 5 l 10 10");
+      assertEquals(3, path.getVerbCount());
+      assertEquals(PathData.MOVE_TO, path.getVerb(1));
+      assertArrayEquals(new float[] { 15, 15 }, segment(path, 1));
+   }
+
+   @Test
+   void testMalformedKeepsParsedPrefix()
+   {
+      PathData path = PathDataParser.parse("M 0 0 L 10 10 L 5 x");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.LINE_TO }, path.getVerbs());
+      assertEquals(4, path.getCoordinateCount());
+   }
+
+   @Test
+   void testLargePathSizedExactly()
+   {
+      StringBuilder sb = new StringBuilder("M0 0");
+      for (int i = 1; i <= 1000; i++)
+         sb.append(" C").append(i).append(' ').append(i).append(' ').append(i).append(' ').append(i).append(' ').append(i).append(' ').append(i);
+      sb.append('Z');
+      PathData path = PathDataParser.parse(sb.toString());
+      assertEquals(1002, path.getVerbCount());
+      assertEquals(2 + 6000, path.getCoordinateCount());
+      assertEquals(1000f, path.getCoordinate(path.getCoordinateCount() - 1));
+   }
+
+   @Test
+   void testNumberFormats()
+   {
+      String[] inputs = { "0", "-0", "+0", "0.0", ".5", "-.5", "5.", "1e3", "1E3", "1e+3", "1e-3", "-1.25e-2", "007", "0.000001",
+            "3.4028235e38", "3.4028236e38", "1e39", "1.4e-45", "1e-46", "123456789012345678901234567890", "0.1", "0.3",
+            "16777217", "33554435", "9007199254740993", "1.00000017881393432617187499", "1.000000178813934326171875",
+            "69.36008834838867", "1.586796224117279", "0.05146705545485020", "0.0002966657484648749", "3602880775638221e1" };
+      for (String s : inputs)
+         assertEquals(Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(PathDataParser.parseNumber(s)), s);
+   }
+
+   @Test
+   void testNumberScanningMatchesFloatParseFloat()
+   {
+      Random random = new Random(20240521);
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 200000; i++)
+      {
+         sb.setLength(0);
+         if (random.nextInt(4) == 0)
+            sb.append(random.nextBoolean() ? '-' : '+');
+         int intDigits = random.nextInt(12);
+         int fracDigits = random.nextInt(12);
+         if (intDigits == 0 && fracDigits == 0)
+            intDigits = 1;
+         if (random.nextInt(8) == 0)
+            intDigits += random.nextInt(20); // long mantissa
+         for (int d = 0; d < intDigits; d++)
+            sb.append((char)('0' + random.nextInt(10)));
+         if (fracDigits > 0 || random.nextInt(8) == 0)
+         {
+            sb.append('.');
+            for (int d = 0; d < fracDigits; d++)
+               sb.append((char)('0' + random.nextInt(10)));
+         }
+         if (random.nextInt(4) == 0)
+         {
+            sb.append(random.nextBoolean() ? 'e' : 'E');
+            int r = random.nextInt(3);
+            if (r == 1)
+               sb.append('-');
+            else if (r == 2)
+               sb.append('+');
+            sb.append(random.nextInt(50));
+         }
+         String s = sb.toString();
+         assertEquals(Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(PathDataParser.parseNumber(s)), s);
+      }
+   }
+
+   @Test
+   void testNumbersNearFloatRoundingTies()
+   {
+      // Long mantissas close to midpoints between adjacent floats, where rounding through double differs
+      Random random = new Random(20241017);
+      for (int i = 0; i < 100000; i++)
+      {
+         float f = (float)Math.scalb(1 + random.nextDouble(), random.nextInt(60) - 30);
+         BigDecimal midpoint = new BigDecimal((double)f + Math.ulp(f) / 2);
+         String s = midpoint.round(new MathContext(12 + random.nextInt(7))).toString();
+         assertEquals(Float.floatToRawIntBits(Float.parseFloat(s)), Float.floatToRawIntBits(PathDataParser.parseNumber(s)), s);
+      }
+   }
+
+   @Test
+   void testInvalidNumbers()
+   {
+      for (String s : new String[] { "", "-", ".", "-.", "e5", "1e", "1e+", "1.5x" })
+         assertThrows(NumberFormatException.class, () -> PathDataParser.parseNumber(s), s);
+   }
+
+   @Test
+   void testAdjacentNumbers()
+   {
+      PathData path = PathDataParser.parse("M.5.5L-1e1-2E-1l1.5e+1.5");
+      assertArrayEquals(new byte[] { PathData.MOVE_TO, PathData.LINE_TO, PathData.LINE_TO }, path.getVerbs());
+      assertArrayEquals(new float[] { 0.5f, 0.5f, -10f, -0.2f, 5f, -0.2f + 0.5f }, path.getCoordinates());
+   }
+
+   /**
+    * Get coordinates of segment with given index.
+    */
+   private static float[] segment(PathData path, int index)
+   {
+      int offset = 0;
+      for (int i = 0; i < index; i++)
+         offset += PathData.coordinateCount(path.getVerb(i));
+      float[] coords = new float[PathData.coordinateCount(path.getVerb(index))];
+      for (int i = 0; i < coords.length; i++)
+         coords[i] = path.getCoordinate(offset + i);
+      return coords;
    }
 }
@@ -0,0 +1,159 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.SVGParseException;
+
+class RenderTargetTest
+{
+   private static final String DOCUMENT = "<svg viewBox=\"0 0 20 20\">" +
+         "<rect x=\"1\" y=\"2\" width=\"3\" height=\"4\" fill=\"red\"/>" +
+         "<g transform=\"translate(5,5)\" display=\"none\"><rect width=\"1\" height=\"1\"/></g>" +
+         "<path d=\"M 0 0 Q 5 5 10 0 C 10 5 5 10 0 10 Z\" fill=\"none\" stroke=\"currentColor\" stroke-width=\"2\"/>" +
+         "<line x1=\"0\" y1=\"0\" x2=\"5\" y2=\"5\" fill=\"blue\" stroke=\"black\"/>" +
+         "<g transform=\"scale(2)\"><circle cx=\"5\" cy=\"5\" r=\"1\" fill=\"#00FF00\" stroke=\"black\" stroke-opacity=\"0.5\"/></g>" +
+         "</svg>";
+
+   @Test
+   void testRecording() throws SVGParseException
+   {
+      RecordingRenderTarget recorder = new RecordingRenderTarget();
+      SVGRenderer.render(SVGParser.parse(DOCUMENT), recorder, SVGTransform.identity());
+      String[] lines = recorder.toString().split("\n");
+      assertEquals("setTransform 1 0 0 1 0 0", lines[0]);
+      assertEquals("beginPath SVGRect", lines[1]);
+      assertEquals("rectangle 1 2 3 4", lines[2]);
+      assertEquals("fill #FF0000 255", lines[3]);
+      assertEquals("endPath", lines[4]);
+      assertEquals("beginPath SVGPath", lines[6]);
+      assertEquals("moveTo 0 0", lines[7]);
+      assertEquals("quadTo 5 5 10 0", lines[8]);
+      assertEquals("cubicTo 10 5 5 10 0 10", lines[9]);
+      assertEquals("close", lines[10]);
+      assertEquals("stroke currentColor 255 2", lines[11]);
+      assertEquals(recorder.getCommandCount(), lines.length);
+
+      // Line is never filled
+      String text = recorder.toString();
+      assertFalse(text.contains("#0000FF"));
+      assertTrue(text.contains("setTransform 2 0 0 2 0 0"));
+      assertTrue(text.contains("fill #00FF00 255\nstroke #000000 128 1\nendPath"));
+
+      recorder.clear();
+      assertEquals(0, recorder.getCommandCount());
+      assertEquals("", recorder.toString());
+   }
+
+   @Test
+   void testCounting() throws SVGParseException
+   {
+      CountingRenderTarget counter = new CountingRenderTarget();
+      SVGRenderer.render(SVGParser.parse(DOCUMENT), counter, SVGTransform.identity());
+      assertEquals(4, counter.getPathCount());
+      assertEquals(4, counter.getTransformCount());
+      assertEquals(2, counter.getFillCount());
+      assertEquals(3, counter.getStrokeCount());
+      assertTrue(counter.getSegmentCount() > 7);
+
+      counter.reset();
+      assertEquals(0, counter.getPathCount());
+      assertEquals(0, counter.getSegmentCount());
+   }
+
+   @Test
+   void testReplayMatchesDirectRendering() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse(DOCUMENT);
+      float[] matrix = new float[] { 2, 0, 0, 2, 0, 0 };
+
+      SoftwareRenderer direct = new SoftwareRenderer(40, 40, 0x123456);
+      SVGRenderer.render(doc, direct, matrix);
+
+      RecordingRenderTarget recorder = new RecordingRenderTarget();
+      SVGRenderer.render(doc, recorder, matrix);
+      SoftwareRenderer replayed = new SoftwareRenderer(40, 40, 0x123456);
+      recorder.replay(replayed);
+
+      assertArrayEquals(direct.getPixels(), replayed.getPixels());
+   }
+
+   @Test
+   void testReplaySkipsAvailableGeometry() throws SVGParseException
+   {
+      RecordingRenderTarget recorder = new RecordingRenderTarget();
+      SVGRenderer.render(SVGParser.parse(DOCUMENT), recorder, SVGTransform.identity());
+
+      CountingRenderTarget counter = new CountingRenderTarget();
+      RecordingRenderTarget copy = new RecordingRenderTarget();
+      recorder.replay(copy);
+      assertEquals(recorder.toString(), copy.toString());
+
+      RenderTarget cached = new RenderTarget()
+      {
+         @Override
+         public void setTransform(float[] matrix)
+         {
+            counter.setTransform(matrix);
+         }
+
+         @Override
+         public boolean beginPath(SVGNode node)
+         {
+            counter.beginPath(node);
+            return false;
+         }
+
+         @Override
+         public void moveTo(float x, float y)
+         {
+            counter.moveTo(x, y);
+         }
+
+         @Override
+         public void lineTo(float x, float y)
+         {
+            counter.lineTo(x, y);
+         }
+
+         @Override
+         public void cubicTo(float x1, float y1, float x2, float y2, float x, float y)
+         {
+            counter.cubicTo(x1, y1, x2, y2, x, y);
+         }
+
+         @Override
+         public void quadTo(float x1, float y1, float x, float y)
+         {
+            counter.quadTo(x1, y1, x, y);
+         }
+
+         @Override
+         public void close()
+         {
+            counter.close();
+         }
+
+         @Override
+         public void fill(ResolvedStyle style)
+         {
+            counter.fill(style);
+         }
+
+         @Override
+         public void stroke(ResolvedStyle style)
+         {
+            counter.stroke(style);
+         }
+
+         @Override
+         public void endPath()
+         {
+         }
+      };
+      recorder.replay(cached);
+      assertEquals(4, counter.getPathCount());
+      assertEquals(0, counter.getSegmentCount());
+      assertEquals(2, counter.getFillCount());
+   }
+}
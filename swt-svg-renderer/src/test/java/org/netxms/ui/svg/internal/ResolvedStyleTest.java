@@ -0,0 +1,75 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.swt.SWT;
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.SVGParseException;
+
+class ResolvedStyleTest
+{
+   @Test
+   void testRootDefaults()
+   {
+      ResolvedStyle style = ResolvedStyle.ROOT_DEFAULTS;
+      assertTrue(style.hasFill());
+      assertFalse(style.hasStroke());
+      assertEquals(ResolvedStyle.COLOR_CURRENT, style.getFillColor());
+      assertEquals(ResolvedStyle.COLOR_NONE, style.getStrokeColor());
+      assertEquals(255, style.getFillAlpha());
+      assertEquals(SWT.FILL_WINDING, style.getFillRule());
+      assertEquals(1f, style.getLineWidth());
+      assertEquals(SWT.CAP_FLAT, style.getLineCap());
+      assertEquals(SWT.JOIN_MITER, style.getLineJoin());
+   }
+
+   @Test
+   void testResolvedAtParseTime() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 10 10\">" +
+            "<g fill=\"#102030\" stroke=\"blue\" stroke-width=\"2.6\" opacity=\"0.5\" fill-rule=\"evenodd\">" +
+            "<rect width=\"1\" height=\"1\" fill-opacity=\"0.5\" stroke-linecap=\"round\" stroke-linejoin=\"bevel\"/>" +
+            "<rect width=\"1\" height=\"1\"/>" +
+            "</g></svg>");
+      SVGGroup group = (SVGGroup)doc.getChildren().get(0);
+
+      ResolvedStyle style = group.getChildren().get(0).getResolvedStyle();
+      assertEquals(0x102030, style.getFillColor());
+      assertEquals(0x0000FF, style.getStrokeColor());
+      assertEquals(64, style.getFillAlpha()); // round(round(0.5 * 255) * 0.5)
+      assertEquals(128, style.getStrokeAlpha());
+      assertEquals(SWT.FILL_EVEN_ODD, style.getFillRule());
+      assertEquals(2.6f, style.getStrokeWidth());
+      assertEquals(3f, style.getLineWidth());
+      assertEquals(SWT.CAP_ROUND, style.getLineCap());
+      assertEquals(SWT.JOIN_BEVEL, style.getLineJoin());
+
+      // Element without own style shares resolved style of its parent
+      assertSame(group.getResolvedStyle(), group.getChildren().get(1).getResolvedStyle());
+   }
+
+   @Test
+   void testOpacityInheritedNotMultiplied() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 10 10\">" +
+            "<g opacity=\"0.5\"><rect width=\"1\" height=\"1\" opacity=\"0.8\"/><circle r=\"1\" fill=\"none\"/></g></svg>");
+      SVGGroup group = (SVGGroup)doc.getChildren().get(0);
+      assertEquals(204, group.getChildren().get(0).getResolvedStyle().getFillAlpha());
+      ResolvedStyle circleStyle = group.getChildren().get(1).getResolvedStyle();
+      assertFalse(circleStyle.hasFill());
+      assertEquals(128, circleStyle.getStrokeAlpha());
+   }
+
+   @Test
+   void testThinStrokeUsesMinimumLineWidth()
+   {
+      StyleProps props = new StyleProps(null, SVGColor.parse("red"), Float.NaN, Float.NaN, 0.2f, Float.NaN,
+            StyleProps.FILL_RULE_UNSET, StyleProps.LINE_CAP_SQUARE, StyleProps.LINE_JOIN_UNSET);
+      ResolvedStyle style = ResolvedStyle.resolve(props, ResolvedStyle.ROOT_DEFAULTS);
+      assertEquals(1f, style.getLineWidth());
+      assertEquals(0.2f, style.getStrokeWidth());
+      assertEquals(SWT.CAP_SQUARE, style.getLineCap());
+      assertEquals(ResolvedStyle.COLOR_CURRENT, style.getFillColor());
+      assertSame(ResolvedStyle.ROOT_DEFAULTS, ResolvedStyle.resolve(StyleProps.EMPTY, ResolvedStyle.ROOT_DEFAULTS));
+   }
+}
@@ -0,0 +1,198 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ResourceCacheTest
+{
+   /**
+    * Test value with disposal tracking
+    */
+   private static final class Value
+   {
+      final String key;
+      final long size;
+      boolean disposed = false;
+
+      Value(String key, long size)
+      {
+         this.key = key;
+         this.size = size;
+      }
+   }
+
+   private final List<Value> disposed = new ArrayList<>();
+
+   private ResourceCache<String, Value> createCache(long maxSize, int maxCount)
+   {
+      return new ResourceCache<>(maxSize, maxCount, (v) -> v.size, (v) -> {
+         assertFalse(v.disposed, "Value disposed twice");
+         v.disposed = true;
+         synchronized(disposed)
+         {
+            disposed.add(v);
+         }
+      });
+   }
+
+   @Test
+   void testHitAndMiss()
+   {
+      ResourceCache<String, Value> cache = createCache(100, 0);
+      Value v1 = cache.acquire("a", (k) -> new Value(k, 10));
+      Value v2 = cache.acquire("a", (k) -> fail("Value should be cached"));
+      assertSame(v1, v2);
+      assertEquals(1, cache.getMisses());
+      assertEquals(1, cache.getHits());
+      assertEquals(1, cache.getCount());
+      assertEquals(10, cache.getSize());
+      cache.release(v1);
+      cache.release(v2);
+      assertThrows(IllegalArgumentException.class, () -> cache.release(v1));
+      assertTrue(disposed.isEmpty());
+   }
+
+   @Test
+   void testLRUEviction()
+   {
+      ResourceCache<String, Value> cache = createCache(30, 0);
+      for (String k : new String[] { "a", "b", "c" })
+         cache.release(cache.acquire(k, (key) -> new Value(key, 10)));
+      cache.release(cache.acquire("a", (key) -> fail("Value should be cached"))); // "b" becomes least recently used
+      cache.release(cache.acquire("d", (key) -> new Value(key, 10)));
+      assertEquals(1, cache.getEvictions());
+      assertEquals(1, disposed.size());
+      assertEquals("b", disposed.get(0).key);
+      assertEquals(3, cache.getCount());
+      assertEquals(30, cache.getSize());
+   }
+
+   @Test
+   void testCountLimit()
+   {
+      ResourceCache<String, Value> cache = createCache(1000, 2);
+      for (String k : new String[] { "a", "b", "c", "d" })
+         cache.release(cache.acquire(k, (key) -> new Value(key, 1)));
+      assertEquals(2, cache.getCount());
+      assertEquals(2, cache.getEvictions());
+      assertEquals("a", disposed.get(0).key);
+      assertEquals("b", disposed.get(1).key);
+   }
+
+   @Test
+   void testValueInUseDisposedOnRelease()
+   {
+      ResourceCache<String, Value> cache = createCache(10, 0);
+      Value a = cache.acquire("a", (key) -> new Value(key, 10));
+      Value b = cache.acquire("b", (key) -> new Value(key, 10));
+      assertEquals(1, cache.getEvictions());
+      assertFalse(a.disposed);
+      assertEquals(10, cache.getSize());
+
+      // Evicted value is not returned again
+      Value a2 = cache.acquire("a", (key) -> new Value(key, 10));
+      assertNotSame(a, a2);
+
+      cache.release(a);
+      assertTrue(a.disposed);
+      assertFalse(b.disposed);
+      cache.release(b);
+      assertTrue(b.disposed);
+      cache.release(a2);
+      assertFalse(a2.disposed);
+      assertEquals(1, cache.getCount());
+   }
+
+   @Test
+   void testClearAndDispose()
+   {
+      ResourceCache<String, Value> cache = createCache(100, 0);
+      Value a = cache.acquire("a", (key) -> new Value(key, 10));
+      cache.release(cache.acquire("b", (key) -> new Value(key, 10)));
+      cache.clear();
+      assertEquals(0, cache.getCount());
+      assertEquals(0, cache.getSize());
+      assertEquals(1, disposed.size());
+      assertFalse(a.disposed);
+      cache.release(a);
+      assertTrue(a.disposed);
+
+      Value c = cache.acquire("c", (key) -> new Value(key, 10));
+      cache.dispose();
+      assertTrue(c.disposed);
+      assertTrue(cache.isDisposed());
+      cache.release(c);
+      assertThrows(IllegalStateException.class, () -> cache.acquire("c", (key) -> new Value(key, 10)));
+   }
+
+   @Test
+   void testLoaderFailure()
+   {
+      ResourceCache<String, Value> cache = createCache(100, 0);
+      assertThrows(IllegalArgumentException.class, () -> cache.acquire("a", (key) -> {
+         throw new IllegalArgumentException("test");
+      }));
+      Value a = cache.acquire("a", (key) -> new Value(key, 10));
+      assertNotNull(a);
+      assertEquals(2, cache.getMisses());
+   }
+
+   @Test
+   void testConcurrentRequestsShareLoad() throws Exception
+   {
+      ResourceCache<String, Value> cache = createCache(100, 0);
+      int threads = 8;
+      AtomicInteger loads = new AtomicInteger();
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try
+      {
+         List<Future<Value>> results = new ArrayList<>();
+         for (int i = 0; i < threads; i++)
+         {
+            results.add(executor.submit(() -> cache.acquire("a", (key) -> {
+               loads.incrementAndGet();
+               started.countDown();
+               try
+               {
+                  release.await();
+               }
+               catch(InterruptedException e)
+               {
+                  Thread.currentThread().interrupt();
+               }
+               return new Value(key, 10);
+            })));
+         }
+         assertTrue(started.await(10, TimeUnit.SECONDS));
+         Thread.sleep(50);
+         release.countDown();
+
+         Value first = results.get(0).get(10, TimeUnit.SECONDS);
+         for (Future<Value> f : results)
+            assertSame(first, f.get(10, TimeUnit.SECONDS));
+         assertEquals(1, loads.get());
+         assertEquals(1, cache.getMisses());
+         assertEquals(threads - 1, cache.getHits());
+
+         for (int i = 0; i < threads; i++)
+            cache.release(first);
+         assertThrows(IllegalArgumentException.class, () -> cache.release(first));
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+}
@@ -0,0 +1,124 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.SVGParseException;
+
+class SVGOptimizerTest
+{
+   private static SVGDocument optimize(SVGOptimizer optimizer, String svg) throws SVGParseException
+   {
+      return optimizer.optimize(TransformBaker.bake(SVGParser.parse(svg)));
+   }
+
+   @Test
+   void testFlattenGroups() throws SVGParseException
+   {
+      SVGOptimizer optimizer = new SVGOptimizer();
+      SVGDocument doc = optimize(optimizer, "<svg viewBox=\"0 0 100 100\">" +
+            "<g><g><g fill=\"red\"><path d=\"M 0 0 L 10 0 L 10 10 Z\"/></g></g></g>" +
+            "<g transform=\"translate(5,5)\"><rect width=\"10\" height=\"10\" stroke=\"blue\"/></g>" +
+            "</svg>");
+      List<SVGNode> children = doc.getChildren();
+      assertEquals(2, children.size());
+      assertTrue(children.get(0) instanceof SVGPath);
+      assertEquals(0xFF0000, children.get(0).getResolvedStyle().getFillColor());
+      assertTrue(children.get(1) instanceof SVGRect);
+      assertEquals(6, optimizer.getNodesBefore());
+      assertEquals(2, optimizer.getNodesAfter());
+   }
+
+   @Test
+   void testKeepGroupWithTransform()
+   {
+      SVGGroup group = new SVGGroup(StyleProps.EMPTY, ResolvedStyle.ROOT_DEFAULTS, new float[] { 2, 0, 0, 1, 0, 0 }, true,
+            List.of(new SVGCircle(StyleProps.EMPTY, ResolvedStyle.ROOT_DEFAULTS, null, true, 5, 5, 1),
+                  new SVGCircle(StyleProps.EMPTY, ResolvedStyle.ROOT_DEFAULTS, null, true, 5, 5, 0)));
+      SVGDocument doc = new SVGOptimizer().optimize(new SVGDocument(0, 0, 10, 10, 10, 10, List.of(group)));
+      assertEquals(1, doc.getChildren().size());
+      SVGGroup result = (SVGGroup)doc.getChildren().get(0);
+      assertArrayEquals(new float[] { 2, 0, 0, 1, 0, 0 }, result.getTransform());
+      assertEquals(1, result.getChildren().size());
+   }
+
+   @Test
+   void testRemoveInvisibleNodes() throws SVGParseException
+   {
+      SVGOptimizer optimizer = new SVGOptimizer();
+      SVGDocument doc = optimize(optimizer, "<svg viewBox=\"0 0 100 100\">" +
+            "<rect width=\"10\" height=\"10\" fill=\"none\" stroke=\"none\"/>" +
+            "<rect width=\"10\" height=\"10\" opacity=\"0\"/>" +
+            "<rect width=\"10\" height=\"10\" fill-opacity=\"0\"/>" +
+            "<rect width=\"0\" height=\"10\"/>" +
+            "<circle r=\"0\"/>" +
+            "<ellipse rx=\"5\" ry=\"0\"/>" +
+            "<line x2=\"10\" y2=\"10\"/>" +
+            "<polyline points=\"5,5\"/>" +
+            "<g display=\"none\"><rect width=\"10\" height=\"10\"/></g>" +
+            "<g><g/></g>" +
+            "<line x2=\"10\" y2=\"10\" stroke=\"black\"/>" +
+            "<rect width=\"10\" height=\"10\" fill-opacity=\"0\" stroke=\"black\"/>" +
+            "</svg>");
+      List<SVGNode> children = doc.getChildren();
+      assertEquals(2, children.size());
+      assertTrue(children.get(0) instanceof SVGLine);
+      assertTrue(children.get(1) instanceof SVGRect);
+      assertEquals(2, optimizer.getNodesAfter());
+      assertTrue(optimizer.getNodesBefore() > optimizer.getNodesAfter());
+   }
+
+   @Test
+   void testMergeDisjointShapes() throws SVGParseException
+   {
+      SVGOptimizer optimizer = new SVGOptimizer();
+      SVGDocument doc = optimize(optimizer, "<svg viewBox=\"0 0 100 100\">" +
+            "<rect x=\"0\" y=\"0\" width=\"10\" height=\"10\" style=\"fill:#336699\"/>" +
+            "<circle cx=\"30\" cy=\"5\" r=\"5\" style=\"fill:#336699\"/>" +
+            "<path d=\"M 50 0 L 60 0 L 60 10 Z\" fill=\"#336699\"/>" +
+            "<rect x=\"70\" y=\"0\" width=\"10\" height=\"10\" fill=\"red\"/>" +
+            "<rect x=\"0\" y=\"50\" width=\"10\" height=\"10\" fill=\"red\"/>" +
+            "</svg>");
+      List<SVGNode> children = doc.getChildren();
+      assertEquals(2, children.size());
+
+      SVGPath merged = (SVGPath)children.get(0);
+      assertEquals(0x336699, merged.getResolvedStyle().getFillColor());
+      PathData data = merged.getPathData();
+      int moves = 0;
+      for (int i = 0; i < data.getVerbCount(); i++)
+      {
+         if (data.getVerb(i) == PathData.MOVE_TO)
+            moves++;
+      }
+      assertEquals(3, moves);
+
+      SVGPath red = (SVGPath)children.get(1);
+      assertEquals(0xFF0000, red.getResolvedStyle().getFillColor());
+      assertEquals(3, optimizer.getMergedShapes());
+   }
+
+   @Test
+   void testNoMergeForOverlappingOrStrokedShapes() throws SVGParseException
+   {
+      SVGDocument doc = optimize(new SVGOptimizer(), "<svg viewBox=\"0 0 100 100\">" +
+            "<rect x=\"0\" y=\"0\" width=\"10\" height=\"10\" fill=\"red\"/>" +
+            "<rect x=\"5\" y=\"5\" width=\"10\" height=\"10\" fill=\"red\"/>" +
+            "<rect x=\"20\" y=\"0\" width=\"10\" height=\"10\" fill=\"red\" stroke=\"black\"/>" +
+            "<rect x=\"40\" y=\"0\" width=\"10\" height=\"10\" fill=\"red\" fill-rule=\"evenodd\"/>" +
+            "<rect x=\"60\" y=\"0\" width=\"10\" height=\"10\" fill=\"red\" fill-opacity=\"0.5\"/>" +
+            "</svg>");
+      assertEquals(5, doc.getChildren().size());
+      for (SVGNode n : doc.getChildren())
+         assertTrue(n instanceof SVGRect);
+   }
+
+   @Test
+   void testCountNodes() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 100 100\"><g><rect width=\"1\" height=\"1\"/><g><circle r=\"1\"/></g></g><line/></svg>");
+      assertEquals(5, SVGOptimizer.countNodes(doc.getChildren()));
+   }
+}
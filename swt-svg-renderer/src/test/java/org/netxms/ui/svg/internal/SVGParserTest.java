@@ -6,6 +6,7 @@ import java.io.InputStream;
 
 import org.junit.jupiter.api.Test;
 import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
 
 class SVGParserTest
 {
@@ -43,7 +44,7 @@ class SVGParserTest
       assertEquals(1, doc.getChildren().size());
       assertTrue(doc.getChildren().get(0) instanceof SVGPath);
       SVGPath path = (SVGPath)doc.getChildren().get(0);
-      assertFalse(path.getSegments().isEmpty());
+      assertFalse(path.getPathData().isEmpty());
    }
 
    @Test
@@ -101,6 +102,29 @@ class SVGParserTest
       assertTrue(doc.getChildren().get(1).isDisplay());
    }
 
+   @Test
+   void testHiddenGroupContentDiscarded() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 100 100\" xmlns=\"http://www.w3.org/2000/svg\">" +
+            "<g display=\"none\"><rect width=\"10\" height=\"10\"/><circle r=\"5\"/></g>" +
+            "<g style=\"display: none\"><rect width=\"10\" height=\"10\"/></g>" +
+            "</svg>");
+      assertEquals(2, doc.getChildren().size());
+      for (SVGNode node : doc.getChildren())
+      {
+         assertFalse(node.isDisplay());
+         assertTrue(((SVGGroup)node).getChildren().isEmpty());
+      }
+   }
+
+   @Test
+   void testDoctypeRejected()
+   {
+      assertThrows(SVGParseException.class, () -> SVGParser.parse(
+            "<?xml version=\"1.0\"?><!DOCTYPE svg [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+            "<svg viewBox=\"0 0 10 10\"><rect width=\"&xxe;\" height=\"1\"/></svg>"));
+   }
+
    @Test
    void testMalformedXml()
    {
@@ -175,6 +199,24 @@ class SVGParserTest
       assertEquals(200, doc.getHeight(), 0.01f);
    }
 
+   @Test
+   void testStrictMode() throws SVGParseException
+   {
+      SVGParseOptions options = new SVGParseOptions();
+      options.setStrict(true);
+      for (boolean fast : new boolean[] { false, true })
+      {
+         options.setFastParser(fast);
+         assertThrows(SVGParseException.class, () -> SVGParser.parse(loadResource("unsupported.svg"), options));
+         assertThrows(SVGParseException.class, () -> SVGParser.parse("<svg viewBox=\"0 0 10 10\"><path d=\"\"/></svg>", options));
+         assertThrows(SVGParseException.class, () -> SVGParser.parse("<svg><rect width=\"5\" height=\"5\"/></svg>", options));
+         SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 10 10\" xmlns:sodipodi=\"http://sodipodi.sourceforge.net/DTD/sodipodi-0.dtd\">" +
+               "<title>Icon</title><sodipodi:namedview/><rect width=\"5\" height=\"5\"/></svg>", options);
+         assertEquals(1, doc.getChildren().size());
+      }
+      assertEquals(1, SVGParser.parse(loadResource("unsupported.svg"), null).getChildren().size());
+   }
+
    private InputStream loadResource(String name)
    {
       InputStream is = getClass().getClassLoader().getResourceAsStream(name);
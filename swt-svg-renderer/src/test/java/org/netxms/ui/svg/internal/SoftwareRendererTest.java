@@ -0,0 +1,144 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.ScaleMode;
+
+class SoftwareRendererTest
+{
+   private static int[] render(String svg, int width, int height) throws SVGParseException
+   {
+      return SoftwareRenderer.render(SVGParser.parse(svg), width, height, 0x000000, ScaleMode.STRETCH);
+   }
+
+   private static int alpha(int[] pixels, int width, int x, int y)
+   {
+      return pixels[y * width + x] >>> 24;
+   }
+
+   private static int coveredPixels(int[] pixels)
+   {
+      int total = 0;
+      for (int p : pixels)
+         total += p >>> 24;
+      return Math.round(total / 255f);
+   }
+
+   @Test
+   void testAlignedRectangle() throws SVGParseException
+   {
+      int[] pixels = render("<svg viewBox=\"0 0 10 10\"><rect x=\"2\" y=\"3\" width=\"4\" height=\"5\" fill=\"#FF8000\"/></svg>", 10, 10);
+      for (int y = 0; y < 10; y++)
+      {
+         for (int x = 0; x < 10; x++)
+         {
+            boolean inside = x >= 2 && x < 6 && y >= 3 && y < 8;
+            assertEquals(inside ? 0xFFFF8000 : 0, pixels[y * 10 + x], "pixel " + x + "," + y);
+         }
+      }
+   }
+
+   @Test
+   void testPartialCoverage() throws SVGParseException
+   {
+      int[] pixels = render("<svg viewBox=\"0 0 10 10\"><rect x=\"2.5\" y=\"2\" width=\"5\" height=\"4\"/></svg>", 10, 10);
+      assertEquals(128, alpha(pixels, 10, 2, 3), 2);
+      assertEquals(255, alpha(pixels, 10, 3, 3));
+      assertEquals(128, alpha(pixels, 10, 7, 3), 2);
+      assertEquals(0, alpha(pixels, 10, 8, 3));
+   }
+
+   @Test
+   void testFillRules() throws SVGParseException
+   {
+      String outer = "M 0 0 L 10 0 L 10 10 L 0 10 Z ";
+      String inner = "M 3 3 L 7 3 L 7 7 L 3 7 Z";
+      int[] nonZero = render("<svg viewBox=\"0 0 10 10\"><path d=\"" + outer + inner + "\"/></svg>", 10, 10);
+      int[] evenOdd = render("<svg viewBox=\"0 0 10 10\"><path fill-rule=\"evenodd\" d=\"" + outer + inner + "\"/></svg>", 10, 10);
+      assertEquals(255, alpha(nonZero, 10, 5, 5));
+      assertEquals(0, alpha(evenOdd, 10, 5, 5));
+      assertEquals(255, alpha(evenOdd, 10, 1, 1));
+   }
+
+   @Test
+   void testOpacityAndCurrentColor() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 4 4\"><rect width=\"4\" height=\"4\" fill=\"currentColor\" fill-opacity=\"0.5\"/></svg>");
+      int[] pixels = SoftwareRenderer.render(doc, 4, 4, 0x00FF00, ScaleMode.STRETCH);
+      assertEquals(128, pixels[5] >>> 24, 1);
+      assertEquals(0x00FF00, pixels[5] & 0xFFFFFF);
+   }
+
+   @Test
+   void testCircleArea() throws SVGParseException
+   {
+      int[] pixels = render("<svg viewBox=\"0 0 100 100\"><circle cx=\"50\" cy=\"50\" r=\"40\"/></svg>", 100, 100);
+      assertEquals(Math.PI * 1600, coveredPixels(pixels), 10);
+      assertEquals(255, alpha(pixels, 100, 50, 50));
+      assertEquals(0, alpha(pixels, 100, 5, 5));
+   }
+
+   @Test
+   void testLineCaps() throws SVGParseException
+   {
+      String line = "<line x1=\"10\" y1=\"10\" x2=\"30\" y2=\"10\" stroke=\"black\" stroke-width=\"4\" stroke-linecap=\"%s\"/>";
+      int butt = coveredPixels(render("<svg viewBox=\"0 0 40 20\">" + String.format(line, "butt") + "</svg>", 40, 20));
+      int square = coveredPixels(render("<svg viewBox=\"0 0 40 20\">" + String.format(line, "square") + "</svg>", 40, 20));
+      int round = coveredPixels(render("<svg viewBox=\"0 0 40 20\">" + String.format(line, "round") + "</svg>", 40, 20));
+      assertEquals(80, butt, 1);
+      assertEquals(96, square, 1);
+      assertEquals(80 + Math.PI * 4, round, 1);
+   }
+
+   @Test
+   void testLineJoins() throws SVGParseException
+   {
+      String path = "<path d=\"M 10 30 L 20 10 L 30 30\" fill=\"none\" stroke=\"black\" stroke-width=\"4\" stroke-linejoin=\"%s\"/>";
+      int[] miter = render("<svg viewBox=\"0 0 40 40\">" + String.format(path, "miter") + "</svg>", 40, 40);
+      int[] bevel = render("<svg viewBox=\"0 0 40 40\">" + String.format(path, "bevel") + "</svg>", 40, 40);
+      int[] round = render("<svg viewBox=\"0 0 40 40\">" + String.format(path, "round") + "</svg>", 40, 40);
+      // Miter tip extends above the apex by about 4.5 pixels
+      assertTrue(alpha(miter, 40, 19, 7) + alpha(miter, 40, 20, 7) > 200);
+      assertEquals(0, alpha(bevel, 40, 19, 7) + alpha(bevel, 40, 20, 7));
+      assertEquals(0, alpha(round, 40, 19, 7) + alpha(round, 40, 20, 7));
+      assertTrue(coveredPixels(miter) > coveredPixels(round));
+      assertTrue(coveredPixels(round) > coveredPixels(bevel));
+   }
+
+   @Test
+   void testStrokeOverlapNotBlendedTwice() throws SVGParseException
+   {
+      int[] pixels = render("<svg viewBox=\"0 0 20 20\"><path d=\"M 2 10 L 18 10 M 10 2 L 10 18\" fill=\"none\" stroke=\"black\" stroke-width=\"4\" stroke-opacity=\"0.5\"/></svg>", 20, 20);
+      assertEquals(128, alpha(pixels, 20, 10, 10), 1);
+      assertEquals(128, alpha(pixels, 20, 4, 10), 1);
+   }
+
+   @Test
+   void testUniformScaling() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0 0 10 10\"><rect width=\"10\" height=\"10\"/></svg>");
+      int[] pixels = SoftwareRenderer.render(doc, 20, 10, 0, ScaleMode.UNIFORM);
+      assertEquals(255, pixels[20 * 5 + 10] >>> 24);
+      assertEquals(0, pixels[20 * 5 + 17] >>> 24);
+      assertEquals(255, pixels[20 * 5 + 5] >>> 24);
+      assertEquals(255, pixels[20 * 5 + 14] >>> 24);
+      assertEquals(0, pixels[20 * 5 + 4] >>> 24);
+      assertEquals(0, pixels[20 * 5 + 15] >>> 24);
+   }
+
+   @Test
+   void testToImageData()
+   {
+      ImageData data = SoftwareRenderer.toImageData(new int[] { 0x80FF0000, 0xFF00FF00, 0, 0x400000FF }, 2, 2);
+      assertEquals(0x80, data.getAlpha(0, 0));
+      assertEquals(0xFF0000, data.getPixel(0, 0));
+      assertEquals(0xFF, data.getAlpha(1, 0));
+      assertEquals(0x00FF00, data.getPixel(1, 0));
+      assertEquals(0, data.getAlpha(0, 1));
+      assertEquals(0x40, data.getAlpha(1, 1));
+      assertEquals(0x0000FF, data.getPixel(1, 1));
+   }
+}
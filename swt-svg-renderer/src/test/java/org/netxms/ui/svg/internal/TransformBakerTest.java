@@ -0,0 +1,146 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.SVGParseException;
+
+class TransformBakerTest
+{
+   @Test
+   void testGroupTransformsPushedToLeaves() throws SVGParseException
+   {
+      SVGDocument doc = TransformBaker.bake(SVGParser.parse("<svg viewBox=\"0 0 100 100\">" +
+            "<g transform=\"translate(10,20)\"><g transform=\"scale(2)\">" +
+            "<rect x=\"1\" y=\"2\" width=\"3\" height=\"4\" rx=\"1\"/>" +
+            "<circle cx=\"5\" cy=\"5\" r=\"2\"/>" +
+            "<path d=\"M 0 0 L 10 0 L 10 10 Z\"/>" +
+            "</g></g></svg>"));
+      SVGGroup outer = (SVGGroup)doc.getChildren().get(0);
+      SVGGroup inner = (SVGGroup)outer.getChildren().get(0);
+      assertNull(outer.getTransform());
+      assertNull(inner.getTransform());
+
+      SVGRect rect = (SVGRect)inner.getChildren().get(0);
+      assertNull(rect.getTransform());
+      assertEquals(12, rect.getX());
+      assertEquals(24, rect.getY());
+      assertEquals(6, rect.getWidth());
+      assertEquals(8, rect.getHeight());
+      assertEquals(2, rect.getRx());
+
+      SVGCircle circle = (SVGCircle)inner.getChildren().get(1);
+      assertNull(circle.getTransform());
+      assertEquals(20, circle.getCx());
+      assertEquals(30, circle.getCy());
+      assertEquals(4, circle.getR());
+
+      SVGPath path = (SVGPath)inner.getChildren().get(2);
+      assertNull(path.getTransform());
+      assertArrayEquals(new float[] { 10, 20, 30, 20, 30, 40 }, path.getPathData().getCoordinates());
+   }
+
+   @Test
+   void testStrokeScaledWithUniformTransform() throws SVGParseException
+   {
+      SVGDocument doc = TransformBaker.bake(SVGParser.parse("<svg viewBox=\"0 0 100 100\">" +
+            "<g transform=\"rotate(30) scale(3)\" stroke=\"red\" stroke-width=\"2\">" +
+            "<line x1=\"0\" y1=\"0\" x2=\"10\" y2=\"0\"/>" +
+            "<rect width=\"5\" height=\"5\"/>" +
+            "</g></svg>"));
+      SVGGroup group = (SVGGroup)doc.getChildren().get(0);
+      SVGLine line = (SVGLine)group.getChildren().get(0);
+      assertNull(line.getTransform());
+      assertEquals(6f, line.getResolvedStyle().getLineWidth(), 1e-4f);
+      assertEquals(30 * (float)Math.cos(Math.toRadians(30)), line.getX2(), 1e-3f);
+      assertEquals(15, line.getY2(), 1e-3f);
+
+      // Rotated rectangle becomes path
+      SVGNode rect = group.getChildren().get(1);
+      assertTrue(rect instanceof SVGPath);
+      assertNull(rect.getTransform());
+      assertEquals(6f, rect.getResolvedStyle().getLineWidth(), 1e-4f);
+   }
+
+   @Test
+   void testStrokeKeepsNonUniformTransform() throws SVGParseException
+   {
+      SVGDocument doc = TransformBaker.bake(SVGParser.parse("<svg viewBox=\"0 0 100 100\">" +
+            "<g transform=\"translate(5,5)\"><g transform=\"scale(2,1)\">" +
+            "<circle r=\"3\" stroke=\"black\"/>" +
+            "<circle r=\"3\"/>" +
+            "</g></g></svg>"));
+      SVGGroup group = (SVGGroup)((SVGGroup)doc.getChildren().get(0)).getChildren().get(0);
+      SVGCircle stroked = (SVGCircle)group.getChildren().get(0);
+      assertArrayEquals(new float[] { 2, 0, 0, 1, 5, 5 }, stroked.getTransform());
+      assertEquals(3, stroked.getR());
+      assertEquals(1f, stroked.getResolvedStyle().getLineWidth());
+
+      SVGEllipse filled = (SVGEllipse)group.getChildren().get(1);
+      assertNull(filled.getTransform());
+      assertEquals(6, filled.getRx());
+      assertEquals(3, filled.getRy());
+   }
+
+   @Test
+   void testSimilarityScale()
+   {
+      assertEquals(1f, TransformBaker.similarityScale(new float[] { 1, 0, 0, 1, 5, 7 }));
+      assertEquals(2f, TransformBaker.similarityScale(new float[] { -2, 0, 0, 2, 0, 0 }));
+      assertEquals(2f, TransformBaker.similarityScale(SVGTransform.parse("rotate(45) scale(2)")), 1e-5f);
+      assertTrue(Float.isNaN(TransformBaker.similarityScale(new float[] { 2, 0, 0, 1, 0, 0 })));
+      assertTrue(Float.isNaN(TransformBaker.similarityScale(SVGTransform.parse("skewX(20)"))));
+      assertTrue(Float.isNaN(TransformBaker.similarityScale(new float[] { 0, 0, 0, 0, 0, 0 })));
+   }
+
+   @Test
+   void testGeometryPreserved() throws Exception
+   {
+      String[] resources = { "all_shapes.svg", "group.svg", "transform.svg", "styled.svg", "path.svg" };
+      for (String name : resources)
+      {
+         SVGDocument source = SVGParser.parse(loadResource(name));
+         SVGDocument baked = TransformBaker.bake(source);
+         List<float[]> expected = new ArrayList<>();
+         List<float[]> actual = new ArrayList<>();
+         collectGeometry(source.getChildren(), null, expected);
+         collectGeometry(baked.getChildren(), null, actual);
+         assertEquals(expected.size(), actual.size(), name);
+         for (int i = 0; i < expected.size(); i++)
+            assertArrayEquals(expected.get(i), actual.get(i), 1e-3f, name + " shape " + i);
+      }
+   }
+
+   /**
+    * Collect device space geometry of all leaves.
+    */
+   private static void collectGeometry(List<SVGNode> nodes, float[] parent, List<float[]> result)
+   {
+      for (SVGNode node : nodes)
+      {
+         float[] m = parent;
+         if (node.getTransform() != null)
+            m = (m != null) ? SVGTransform.multiply(m, node.getTransform()) : node.getTransform();
+         if (node instanceof SVGGroup)
+         {
+            collectGeometry(((SVGGroup)node).getChildren(), m, result);
+         }
+         else
+         {
+            PathData path = ShapeGeometry.toPathData(node);
+            result.add((m != null) ? path.transform(m).getCoordinates() : path.getCoordinates());
+         }
+      }
+   }
+
+   private InputStream loadResource(String name)
+   {
+      InputStream is = getClass().getClassLoader().getResourceAsStream(name);
+      assertNotNull(is, "Test resource not found: " + name);
+      return is;
+   }
+}
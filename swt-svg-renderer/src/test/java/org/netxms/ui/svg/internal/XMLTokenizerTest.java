@@ -0,0 +1,233 @@
+package org.netxms.ui.svg.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.netxms.ui.svg.SVGParseException;
+import org.netxms.ui.svg.SVGParseOptions;
+
+class XMLTokenizerTest
+{
+   private static final String[] RESOURCES = { "all_shapes.svg", "circle.svg", "display_none.svg", "group.svg", "path.svg",
+         "rect.svg", "styled.svg", "transform.svg", "units_mm.svg", "unsupported.svg", "viewbox.svg" };
+
+   @Test
+   void testSameDocumentAsStax() throws Exception
+   {
+      for (String name : RESOURCES)
+      {
+         byte[] data = loadResource(name);
+         SVGDocument expected = SVGParser.parse(data, 0, data.length, null);
+         SVGDocument actual = SVGParser.parse(data, 0, data.length, fastOptions());
+         assertEquals(dump(expected), dump(actual), "Document mismatch for " + name);
+      }
+   }
+
+   @Test
+   void testComplexMarkup() throws SVGParseException
+   {
+      String svg = "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<!-- Generator: test -->\n" +
+            "<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:inkscape=\"http://www.inkscape.org/namespaces/inkscape\" viewBox='0 0 24 24'>\n" +
+            "  <metadata><rdf:RDF><cc:Work/></rdf:RDF></metadata>\n" +
+            "  <g inkscape:label=\"Layer &amp; &#x31; &#50;\" transform=\"translate(1,\n 2)\">\n" +
+            "    <title>Café &lt;icon&gt;</title>\n" +
+            "    <path d=\"M 0 0\n\tL 10 10\r\nZ\" style=\"fill:&quot;red&quot;\" />\n" +
+            "    <![CDATA[ <rect width=\"1\" height=\"1\"/> ]]>\n" +
+            "    <?pi ignored?>\n" +
+            "    <rect width=\"5\" height=\"5\" fill=\"&#x23;00ff00\"></rect>\n" +
+            "  </g>\n" +
+            "</svg>\n";
+      byte[] data = svg.getBytes(StandardCharsets.UTF_8);
+      SVGDocument expected = SVGParser.parse(data, 0, data.length, null);
+      SVGDocument actual = SVGParser.parse(data, 0, data.length, fastOptions());
+      assertEquals(dump(expected), dump(actual));
+
+      SVGGroup group = (SVGGroup)actual.getChildren().get(0);
+      assertEquals(2, group.getChildren().size());
+      SVGRect rect = (SVGRect)group.getChildren().get(1);
+      assertEquals(new SVGColor.Absolute(0, 255, 0), rect.getStyle().getFill());
+   }
+
+   @Test
+   void testAttributeValueDecoding() throws SVGParseException
+   {
+      SVGDocument doc = SVGParser.parse("<svg viewBox=\"0&#32;0 10&#x20;20\">" +
+            "<rect width=\"&#53;\" height=\"5\" fill=\"&#x23;f00\" stroke=\"rgb(0,&#32;0,&#x20;255)\"/>" +
+            "<polygon points=\"1,1&#10;2,2\r\n3,3\t4,4\"/>" +
+            "</svg>", fastOptions());
+      assertEquals(10, doc.getViewBoxWidth());
+      assertEquals(20, doc.getViewBoxHeight());
+      SVGRect rect = (SVGRect)doc.getChildren().get(0);
+      assertEquals(5, rect.getWidth());
+      assertEquals(new SVGColor.Absolute(255, 0, 0), rect.getStyle().getFill());
+      assertEquals(new SVGColor.Absolute(0, 0, 255), rect.getStyle().getStroke());
+      assertArrayEquals(new float[] { 1, 1, 2, 2, 3, 3, 4, 4 }, ((SVGPolygon)doc.getChildren().get(1)).getPoints());
+   }
+
+   @Test
+   void testDoctypeRejected()
+   {
+      SVGParseException e = assertThrows(SVGParseException.class, () -> SVGParser.parse(
+            "<?xml version=\"1.0\"?><!DOCTYPE svg [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+            "<svg viewBox=\"0 0 10 10\"><rect width=\"&xxe;\" height=\"1\"/></svg>", fastOptions()));
+      assertTrue(e.getMessage().contains("DOCTYPE"));
+   }
+
+   @Test
+   void testMalformedInput()
+   {
+      String[] inputs = {
+            "",
+            "<not valid xml",
+            "<not-svg>",
+            "<svg><g></svg>",
+            "<svg></svg><svg></svg>",
+            "text<svg></svg>",
+            "<svg width=100></svg>",
+            "<svg a=\"1\"b=\"2\"></svg>",
+            "<svg a=\"&unknown;\"></svg>",
+            "<svg viewBox=\"0 0 1 1\" viewBox=\"0 0 2 2\"></svg>",
+            "<svg><defs><a b=\"1\" b=\"2\"/></defs></svg>",
+            "<svg><title>&unknown;</title></svg>",
+            "<svg><desc>a & b</desc></svg>",
+            "<svg><desc>&#0;</desc></svg>",
+            "<svg a=\"<\"></svg>",
+            "<svg><!-- unterminated </svg>",
+            "<svg></g>"
+      };
+      for (String input : inputs)
+      {
+         assertThrows(SVGParseException.class, () -> SVGParser.parse(input, fastOptions()), "Input should be rejected: " + input);
+         assertThrows(SVGParseException.class, () -> SVGParser.parse(input), "Input should be rejected by StAX: " + input);
+      }
+   }
+
+   @Test
+   void testReferencesInText() throws SVGParseException
+   {
+      SVGParser.parse("<svg><title>a &amp; b &lt;&gt;&quot;&apos; &#65;&#x42;</title></svg>", fastOptions());
+   }
+
+   @Test
+   void testNotSvgRoot()
+   {
+      assertThrows(SVGParseException.class, () -> SVGParser.parse("<html></html>", fastOptions()));
+   }
+
+   @Test
+   void testSkippedContentStillChecked()
+   {
+      assertThrows(SVGParseException.class, () -> SVGParser.parse("<svg><defs><a></b></defs></svg>", fastOptions()));
+   }
+
+   @Test
+   void testOtherEncodingFallsBackToStax() throws SVGParseException
+   {
+      byte[] data = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><svg viewBox=\"0 0 10 10\"><rect width=\"1\" height=\"1\" id=\"é\"/></svg>"
+            .getBytes(StandardCharsets.ISO_8859_1);
+      assertFalse(XMLTokenizer.isSupportedEncoding(data, 0, data.length));
+      SVGDocument doc = SVGParser.parse(data, 0, data.length, fastOptions());
+      assertEquals(1, doc.getChildren().size());
+   }
+
+   @Test
+   void testDirectByteBuffer() throws Exception
+   {
+      byte[] data = loadResource("group.svg");
+      ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 4);
+      buffer.position(4);
+      buffer.put(data);
+      buffer.position(4);
+      SVGDocument doc = SVGParser.parse(buffer, fastOptions());
+      assertEquals(4, buffer.position());
+      assertEquals(dump(SVGParser.parse(data, 0, data.length, null)), dump(doc));
+   }
+
+   private static SVGParseOptions fastOptions()
+   {
+      SVGParseOptions options = new SVGParseOptions();
+      options.setFastParser(true);
+      return options;
+   }
+
+   private byte[] loadResource(String name) throws IOException
+   {
+      try (InputStream is = getClass().getClassLoader().getResourceAsStream(name))
+      {
+         assertNotNull(is, "Test resource not found: " + name);
+         return is.readAllBytes();
+      }
+   }
+
+   /**
+    * Create text representation of document tree for comparison.
+    */
+   static String dump(SVGDocument doc)
+   {
+      StringBuilder sb = new StringBuilder();
+      sb.append(doc.getViewBoxX()).append(' ').append(doc.getViewBoxY()).append(' ').append(doc.getViewBoxWidth()).append(' ')
+            .append(doc.getViewBoxHeight()).append(' ').append(doc.getWidth()).append(' ').append(doc.getHeight()).append('\n');
+      dump(sb, doc.getChildren(), 1);
+      return sb.toString();
+   }
+
+   private static void dump(StringBuilder sb, List<SVGNode> nodes, int depth)
+   {
+      for (SVGNode n : nodes)
+      {
+         for (int i = 0; i < depth; i++)
+            sb.append("  ");
+         StyleProps s = n.getStyle();
+         sb.append(n.getClass().getSimpleName()).append(" display=").append(n.isDisplay()).append(" transform=").append(Arrays.toString(n.getTransform()))
+               .append(" fill=").append(s.getFill()).append(" stroke=").append(s.getStroke()).append(" fillOpacity=").append(s.getFillOpacity())
+               .append(" strokeOpacity=").append(s.getStrokeOpacity()).append(" strokeWidth=").append(s.getStrokeWidth())
+               .append(" opacity=").append(s.getOpacity()).append(" fillRule=").append(s.getFillRule())
+               .append(" lineCap=").append(s.getLineCap()).append(" lineJoin=").append(s.getLineJoin());
+         if (n instanceof SVGRect)
+         {
+            SVGRect r = (SVGRect)n;
+            sb.append(' ').append(r.getX()).append(',').append(r.getY()).append(',').append(r.getWidth()).append(',').append(r.getHeight())
+                  .append(',').append(r.getRx()).append(',').append(r.getRy());
+         }
+         else if (n instanceof SVGCircle)
+         {
+            SVGCircle c = (SVGCircle)n;
+            sb.append(' ').append(c.getCx()).append(',').append(c.getCy()).append(',').append(c.getR());
+         }
+         else if (n instanceof SVGEllipse)
+         {
+            SVGEllipse e = (SVGEllipse)n;
+            sb.append(' ').append(e.getCx()).append(',').append(e.getCy()).append(',').append(e.getRx()).append(',').append(e.getRy());
+         }
+         else if (n instanceof SVGLine)
+         {
+            SVGLine l = (SVGLine)n;
+            sb.append(' ').append(l.getX1()).append(',').append(l.getY1()).append(',').append(l.getX2()).append(',').append(l.getY2());
+         }
+         else if (n instanceof SVGPolyline)
+         {
+            sb.append(' ').append(Arrays.toString(((SVGPolyline)n).getPoints()));
+         }
+         else if (n instanceof SVGPolygon)
+         {
+            sb.append(' ').append(Arrays.toString(((SVGPolygon)n).getPoints()));
+         }
+         else if (n instanceof SVGPath)
+         {
+            sb.append(" verbs=").append(Arrays.toString(((SVGPath)n).getPathData().getVerbs())).append(" coords=")
+                  .append(Arrays.toString(((SVGPath)n).getPathData().getCoordinates()));
+         }
+         sb.append('\n');
+         if (n instanceof SVGGroup)
+            dump(sb, ((SVGGroup)n).getChildren(), depth + 1);
+      }
+   }
+}